@@ -0,0 +1,182 @@
+package teammates.client.scripts;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.FeedbackSessionSummaryAttributes;
+import teammates.common.datatransfer.FeedbackSessionType;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.util.Const;
+import teammates.common.util.TimeHelper;
+import teammates.logic.api.Logic;
+import teammates.logic.backdoor.BackDoorLogic;
+import teammates.test.driver.GaeSimulation;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Compares the time taken to gather the data of the admin sessions page for a generated dataset
+ * by reading the sessions and then the instructors and an account per session (the previous approach)
+ * and by reading the session summaries with a single range query, followed by one batched read of
+ * the instructors of their courses and one of the accounts of those instructors.
+ *
+ * Usage: AdminSessionsBenchmark [courses] [sessions per course] [institutes]
+ * - courses: how many courses to generate, each with one registered instructor (default 200)
+ * - sessions per course: how many sessions each course has within the default range of the page (default 5)
+ * - institutes: how many institutes the instructors are spread over (default 20)
+ *
+ * Runs on the local service stubs, so the numbers show the relative number of datastore calls
+ * rather than production latencies.
+ */
+public final class AdminSessionsBenchmark {
+
+    private AdminSessionsBenchmark() {
+        // script, not meant to be instantiated
+    }
+
+    public static void main(String[] args) throws Exception {
+        int courses = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int sessionsPerCourse = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int institutes = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        GaeSimulation.inst().setup();
+        try {
+            long startTime = System.nanoTime();
+            new BackDoorLogic().persistDataBundle(generateDataBundle(courses, sessionsPerCourse, institutes));
+            print("persist " + courses * sessionsPerCourse + " sessions with their summaries", startTime);
+
+            // the default range of the admin sessions page
+            Calendar rangeStart = TimeHelper.now(0);
+            rangeStart.add(Calendar.DAY_OF_YEAR, -3);
+            Calendar rangeEnd = TimeHelper.now(0);
+            rangeEnd.add(Calendar.DAY_OF_YEAR, 4);
+
+            Logic logic = new Logic();
+
+            startTime = System.nanoTime();
+            Map<String, Integer> institutesOfSessions =
+                    groupByInstitutePerSession(logic, rangeStart.getTime(), rangeEnd.getTime());
+            print("sessions, then instructors and account per session (previous approach)", startTime);
+            System.out.println("  " + count(institutesOfSessions) + " sessions in "
+                               + institutesOfSessions.size() + " institutes");
+
+            startTime = System.nanoTime();
+            Map<String, Integer> institutesOfSummaries =
+                    groupByInstituteFromSummaries(logic, rangeStart.getTime(), rangeEnd.getTime());
+            print("session summaries", startTime);
+            System.out.println("  " + count(institutesOfSummaries) + " sessions in "
+                               + institutesOfSummaries.size() + " institutes");
+
+            System.out.println("Same grouping: " + institutesOfSessions.equals(institutesOfSummaries));
+        } finally {
+            GaeSimulation.inst().tearDown();
+        }
+    }
+
+    private static DataBundle generateDataBundle(int courses, int sessionsPerCourse, int institutes) {
+        DataBundle dataBundle = new DataBundle();
+        Date now = TimeHelper.now(0).getTime();
+        for (int i = 0; i < courses; i++) {
+            String courseId = "AdminSessionsBenchmark.course" + i;
+            String googleId = "AdminSessionsBenchmark.instr" + i;
+            String email = "instr" + i + "@benchmark.tmt";
+
+            dataBundle.accounts.put(googleId, new AccountAttributes(googleId, "Instructor " + i, true, email,
+                                                                    "Institute " + i % institutes));
+            dataBundle.courses.put(courseId, new CourseAttributes(courseId, "Course " + i, "UTC"));
+            dataBundle.instructors.put(googleId, new InstructorAttributes(googleId, courseId, "Instructor " + i,
+                                                                          email));
+
+            for (int j = 0; j < sessionsPerCourse; j++) {
+                // spread over the week around now, so that all sessions fall within the default range
+                Date startTime = TimeHelper.getHoursOffsetToCurrentTime(-48 + j * 12);
+                Date endTime = TimeHelper.getHoursOffsetToCurrentTime(j * 12);
+                FeedbackSessionAttributes session = new FeedbackSessionAttributes(
+                        "Session " + j, courseId, email, new Text("Instructions"), now, startTime, endTime,
+                        startTime, Const.TIME_REPRESENTS_LATER, 0, 15, FeedbackSessionType.STANDARD,
+                        false, false, false, false, true, true, true);
+                dataBundle.feedbackSessions.put(courseId + "/" + j, session);
+            }
+        }
+        return dataBundle;
+    }
+
+    private static Map<String, Integer> groupByInstitutePerSession(Logic logic, Date start, Date end) {
+        Map<String, Integer> sessionsPerInstitute = new HashMap<String, Integer>();
+        for (FeedbackSessionAttributes session : logic.getAllOpenFeedbackSessions(start, end, 0)) {
+            String institute = "Unknown";
+            for (InstructorAttributes instructor : logic.getInstructorsForCourse(session.getCourseId())) {
+                if (instructor.googleId != null) {
+                    AccountAttributes account = logic.getAccount(instructor.googleId);
+                    if (account != null) {
+                        institute = account.institute;
+                    }
+                    break;
+                }
+            }
+            // the previous approach also looked up the instructors once more for the instructor links
+            logic.getInstructorsForCourse(session.getCourseId());
+            increment(sessionsPerInstitute, institute);
+        }
+        return sessionsPerInstitute;
+    }
+
+    private static Map<String, Integer> groupByInstituteFromSummaries(Logic logic, Date start, Date end) {
+        Map<String, Integer> sessionsPerInstitute = new HashMap<String, Integer>();
+        List<FeedbackSessionSummaryAttributes> summaries =
+                new ArrayList<FeedbackSessionSummaryAttributes>(
+                        logic.getFeedbackSessionSummariesWithinTimeRange(start, end, 0));
+        Set<String> courseIds = new LinkedHashSet<String>();
+        for (FeedbackSessionSummaryAttributes summary : summaries) {
+            courseIds.add(summary.courseId);
+        }
+
+        Map<String, String> courseIdToInstructorGoogleIdMap = new HashMap<String, String>();
+        for (InstructorAttributes instructor : logic.getInstructorsForCourses(new ArrayList<String>(courseIds))) {
+            if (instructor.googleId != null && !courseIdToInstructorGoogleIdMap.containsKey(instructor.courseId)) {
+                courseIdToInstructorGoogleIdMap.put(instructor.courseId, instructor.googleId);
+            }
+        }
+        Map<String, String> googleIdToInstituteMap = new HashMap<String, String>();
+        List<String> googleIds = new ArrayList<String>(new LinkedHashSet<String>(courseIdToInstructorGoogleIdMap.values()));
+        for (AccountAttributes account : logic.getAccounts(googleIds)) {
+            googleIdToInstituteMap.put(account.googleId, account.institute);
+        }
+
+        for (FeedbackSessionSummaryAttributes summary : summaries) {
+            String googleId = courseIdToInstructorGoogleIdMap.get(summary.courseId);
+            String institute = googleId == null ? null : googleIdToInstituteMap.get(googleId);
+            increment(sessionsPerInstitute, institute == null ? "Unknown" : institute);
+        }
+        return sessionsPerInstitute;
+    }
+
+    private static void increment(Map<String, Integer> counts, String key) {
+        Integer count = counts.get(key);
+        counts.put(key, count == null ? 1 : count + 1);
+    }
+
+    private static int count(Map<String, Integer> counts) {
+        int total = 0;
+        for (int count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static void print(String operation, long startTime) {
+        double elapsedMillis = (System.nanoTime() - startTime) / 1e6;
+        System.out.println(String.format("%-75s %10.1f ms", operation, elapsedMillis));
+    }
+
+}
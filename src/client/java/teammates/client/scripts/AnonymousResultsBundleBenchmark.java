@@ -0,0 +1,145 @@
+package teammates.client.scripts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.FeedbackSessionResponseStatus;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Config;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Compares the time taken to anonymise the givers and recipients of a results bundle in which
+ * no participant is visible, by encrypting with a new cipher for every name (the previous approach)
+ * and by building the bundle, which reuses its thread's cipher and encrypts each name once.
+ *
+ * Usage: AnonymousResultsBundleBenchmark [responses] [students]
+ * - responses: how many anonymous responses the bundle has (default 10000)
+ * - students: how many students give and receive those responses (default 200)
+ *
+ * Needs the build properties of the application (for its encryption key) on the classpath.
+ */
+public final class AnonymousResultsBundleBenchmark {
+
+    private static final String QUESTION_ID = "questionId";
+
+    private AnonymousResultsBundleBenchmark() {
+        // script, not meant to be instantiated
+    }
+
+    public static void main(String[] args) throws Exception {
+        int numberOfResponses = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int numberOfStudents = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        Map<String, String> emailNameTable = new HashMap<String, String>();
+        for (int i = 0; i < numberOfStudents; i++) {
+            StudentAttributes student = new StudentAttributes("Section " + i % 5, "Team " + i % 40, "Student " + i,
+                                                              "student" + i + "@benchmark.tmt", "", "benchmark.course");
+            students.add(student);
+            emailNameTable.put(student.email, student.name);
+        }
+
+        Random random = new Random(0);
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        for (int i = 0; i < numberOfResponses; i++) {
+            StudentAttributes giver = students.get(random.nextInt(numberOfStudents));
+            StudentAttributes recipient = students.get(random.nextInt(numberOfStudents));
+            FeedbackResponseAttributes response = new FeedbackResponseAttributes(
+                    "Session", "benchmark.course", QUESTION_ID, FeedbackQuestionType.TEXT,
+                    giver.email, giver.section, recipient.email, recipient.section, new Text("Response " + i));
+            response.setId("response" + i);
+            responses.add(response);
+        }
+
+        long startTime = System.nanoTime();
+        Set<String> namesWithNewCiphers = anonymiseWithNewCiphers(responses, emailNameTable);
+        print("new cipher per encryption, twice per hidden participant (previous)", startTime);
+
+        startTime = System.nanoTime();
+        FeedbackSessionResultsBundle bundle = buildAnonymousBundle(students, responses, emailNameTable);
+        print("results bundle with reused cipher and anonymised name table", startTime);
+
+        System.out.println("Same anonymous names: " + namesWithNewCiphers.equals(bundle.emailNameTable.keySet()));
+    }
+
+    /**
+     * Does what building the bundle did before: for each hidden giver and recipient,
+     * encrypts the name once for the anonymous email and once more for the anonymous name.
+     * @return the anonymous emails together with the real emails, like the bundle's name table
+     */
+    private static Set<String> anonymiseWithNewCiphers(List<FeedbackResponseAttributes> responses,
+                                                       Map<String, String> emailNameTable) throws Exception {
+        Map<String, String> table = new HashMap<String, String>(emailNameTable);
+        for (FeedbackResponseAttributes response : responses) {
+            for (String email : new String[] {response.recipient, response.giver}) {
+                String name = emailNameTable.get(email);
+                String anonName = getAnonNameWithNewCipher(name);
+                getAnonNameWithNewCipher(name);
+                table.put(anonName + "@@" + anonName + ".com", anonName);
+            }
+        }
+        return table.keySet();
+    }
+
+    private static String getAnonNameWithNewCipher(String name) throws Exception {
+        byte[] key = new byte[Config.ENCRYPTION_KEY.length() / 2];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) Integer.parseInt(Config.ENCRYPTION_KEY.substring(i * 2, i * 2 + 2), 16);
+        }
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), cipher.getParameters());
+        StringBuilder encrypted = new StringBuilder();
+        for (byte b : cipher.doFinal(name.getBytes())) {
+            encrypted.append(String.format("%02X", b & 0xff));
+        }
+        return String.format("Anonymous %s %s", FeedbackParticipantType.STUDENTS.toSingularFormString(),
+                             Long.toString(Math.abs((long) encrypted.toString().hashCode())));
+    }
+
+    private static FeedbackSessionResultsBundle buildAnonymousBundle(List<StudentAttributes> students,
+                                                                     List<FeedbackResponseAttributes> responses,
+                                                                     Map<String, String> emailNameTable) {
+        FeedbackQuestionAttributes question = new FeedbackQuestionAttributes();
+        question.giverType = FeedbackParticipantType.STUDENTS;
+        question.recipientType = FeedbackParticipantType.STUDENTS;
+        Map<String, FeedbackQuestionAttributes> questions = new HashMap<String, FeedbackQuestionAttributes>();
+        questions.put(QUESTION_ID, question);
+
+        // neither givers nor recipients are visible
+        Map<String, boolean[]> visibilityTable = new HashMap<String, boolean[]>();
+        for (FeedbackResponseAttributes response : responses) {
+            visibilityTable.put(response.getId(), new boolean[2]);
+        }
+
+        return new FeedbackSessionResultsBundle(
+                new FeedbackSessionAttributes(), responses, questions, new HashMap<String, String>(emailNameTable),
+                new HashMap<String, String>(), new HashMap<String, String>(), new HashMap<String, Set<String>>(),
+                visibilityTable, new FeedbackSessionResponseStatus(),
+                new CourseRoster(students, new ArrayList<InstructorAttributes>()),
+                new HashMap<String, List<FeedbackResponseCommentAttributes>>());
+    }
+
+    private static void print(String operation, long startTime) {
+        double elapsedMillis = (System.nanoTime() - startTime) / 1e6;
+        System.out.println(String.format("%-75s %10.1f ms", operation, elapsedMillis));
+    }
+
+}
@@ -0,0 +1,94 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.logic.core.StudentsLogic;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.Course;
+import teammates.storage.entity.CourseStructure;
+
+import com.google.appengine.api.datastore.Cursor;
+
+/**
+ * Creates a {@link CourseStructure} from the roster for every existing {@link Course} that has none,
+ * i.e. courses created before structures were introduced and courses whose structure was dropped
+ * because it no longer matched the roster. Until then, their structure is rebuilt on every read.<br>
+ * The roster is read with an eventually consistent query, so run this when students are not being
+ * enrolled or edited. Courses are processed in batches; the cursor of the last batch is printed so that
+ * the migration can be resumed by setting {@link #startCursor} if it is interrupted.
+ */
+public class DataMigrationForCourseStructures extends RemoteApiClient {
+
+    private static final int BATCH_SIZE = 200;
+
+    // modify for preview
+    private boolean isPreview = true;
+
+    // set to a web-safe cursor printed by a previous run to resume from there
+    private String startCursor;
+
+    private int numberOfCourses;
+    private int numberOfStructuresCreated;
+
+    public static void main(String[] args) throws IOException {
+        final long startTime = System.currentTimeMillis();
+
+        DataMigrationForCourseStructures migrator = new DataMigrationForCourseStructures();
+        migrator.doOperationRemotely();
+
+        final long endTime = System.currentTimeMillis();
+        System.out.println("Total execution time: " + (endTime - startTime) + "ms");
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        Cursor cursor = startCursor == null ? null : Cursor.fromWebSafeString(startCursor);
+        boolean hasMoreCourses = true;
+        while (hasMoreCourses) {
+            PersistenceManager pm = Datastore.getPersistenceManager();
+            List<Course> courses = getCourseEntities(pm, cursor);
+            numberOfCourses += courses.size();
+
+            hasMoreCourses = courses.size() == BATCH_SIZE;
+            cursor = JDOCursorHelper.getCursor(courses);
+
+            for (Course course : courses) {
+                if (!isPreview && StudentsLogic.inst().createCourseStructureFromRoster(course.getUniqueId())) {
+                    numberOfStructuresCreated++;
+                }
+            }
+
+            if (cursor != null) {
+                System.out.println("Processed up to cursor: " + cursor.toWebSafeString());
+            }
+        }
+
+        System.out.println("Number of courses: " + numberOfCourses);
+        System.out.println("Number of structures created: " + numberOfStructuresCreated);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Course> getCourseEntities(PersistenceManager pm, Cursor cursor) {
+        Query q = pm.newQuery(Course.class);
+        if (cursor != null) {
+            Map<String, Object> extensionMap = new HashMap<String, Object>();
+            extensionMap.put(JDOCursorHelper.CURSOR_EXTENSION, cursor);
+            q.setExtensions(extensionMap);
+        }
+        q.setRange(0, BATCH_SIZE);
+
+        return (List<Course>) q.execute();
+    }
+
+}
@@ -0,0 +1,111 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.logic.core.FeedbackSessionsLogic;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.FeedbackSession;
+import teammates.storage.entity.FeedbackSessionSummary;
+
+import com.google.appengine.api.datastore.Cursor;
+
+/**
+ * Creates (or refreshes) a {@link FeedbackSessionSummary} for every existing {@link FeedbackSession},
+ * so that the admin sessions page can list them. Running it again rewrites the summaries from the sessions.
+ * Sessions are processed in batches; the cursor of the last batch is printed so that
+ * the migration can be resumed by setting {@link #startCursor} if it is interrupted.
+ */
+public class DataMigrationForFeedbackSessionSummaries extends RemoteApiClient {
+
+    private static final int BATCH_SIZE = 200;
+
+    // modify for preview
+    private boolean isPreview = true;
+
+    // set to a web-safe cursor printed by a previous run to resume from there
+    private String startCursor;
+
+    private int numberOfSessions;
+    private int numberOfSummariesWritten;
+
+    public static void main(String[] args) throws IOException {
+        final long startTime = System.currentTimeMillis();
+
+        DataMigrationForFeedbackSessionSummaries migrator = new DataMigrationForFeedbackSessionSummaries();
+        migrator.doOperationRemotely();
+
+        final long endTime = System.currentTimeMillis();
+        System.out.println("Total execution time: " + (endTime - startTime) + "ms");
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        Cursor cursor = startCursor == null ? null : Cursor.fromWebSafeString(startCursor);
+        boolean hasMoreSessions = true;
+        while (hasMoreSessions) {
+            PersistenceManager pm = Datastore.getPersistenceManager();
+            List<FeedbackSession> sessionEntities = getFeedbackSessionEntities(pm, cursor);
+
+            List<FeedbackSessionAttributes> sessions = new ArrayList<FeedbackSessionAttributes>();
+            for (FeedbackSession session : sessionEntities) {
+                sessions.add(new FeedbackSessionAttributes(session));
+            }
+            numberOfSessions += sessions.size();
+
+            hasMoreSessions = sessionEntities.size() == BATCH_SIZE;
+            cursor = JDOCursorHelper.getCursor(sessionEntities);
+
+            writeSummaries(sessions);
+
+            if (cursor != null) {
+                System.out.println("Processed up to cursor: " + cursor.toWebSafeString());
+            }
+        }
+
+        System.out.println("Number of sessions: " + numberOfSessions);
+        System.out.println("Number of summaries written: " + numberOfSummariesWritten);
+    }
+
+    private void writeSummaries(List<FeedbackSessionAttributes> sessions) {
+        if (isPreview || sessions.isEmpty()) {
+            return;
+        }
+
+        try {
+            FeedbackSessionsLogic.inst().putFeedbackSessionSummaries(sessions);
+            numberOfSummariesWritten += sessions.size();
+        } catch (InvalidParametersException e) {
+            // sessions with invalid data are left for the admin to repair; report the batch and go on
+            System.out.println("Error writing summaries of " + sessions.get(0).getIdentificationString()
+                               + " and " + (sessions.size() - 1) + " other sessions: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSession> getFeedbackSessionEntities(PersistenceManager pm, Cursor cursor) {
+        Query q = pm.newQuery(FeedbackSession.class);
+        if (cursor != null) {
+            Map<String, Object> extensionMap = new HashMap<String, Object>();
+            extensionMap.put(JDOCursorHelper.CURSOR_EXTENSION, cursor);
+            q.setExtensions(extensionMap);
+        }
+        q.setRange(0, BATCH_SIZE);
+
+        return (List<FeedbackSession>) q.execute();
+    }
+
+}
@@ -0,0 +1,120 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.FeedbackResponse;
+
+import com.google.appengine.api.datastore.Cursor;
+
+/**
+ * Populates the {@code participantSections} field of existing {@link FeedbackResponse} entities
+ * so that they can be found by the single-query section lookups in {@code FeedbackResponsesDb}.
+ * Responses are processed in batches; the cursor of the last batch is printed so that
+ * the migration can be resumed by setting {@link #startCursor} if it is interrupted.
+ */
+public class DataMigrationForParticipantSectionsInResponses extends RemoteApiClient {
+
+    private static final int BATCH_SIZE = 500;
+
+    // modify for preview
+    private boolean isPreview = true;
+
+    // set to a web-safe cursor printed by a previous run to resume from there
+    private String startCursor;
+
+    private int numberOfAffectedResponses;
+    private int numberOfUpdatedResponses;
+
+    public static void main(String[] args) throws IOException {
+        final long startTime = System.currentTimeMillis();
+
+        DataMigrationForParticipantSectionsInResponses migrator =
+                new DataMigrationForParticipantSectionsInResponses();
+        migrator.doOperationRemotely();
+
+        final long endTime = System.currentTimeMillis();
+        System.out.println("Total execution time: " + (endTime - startTime) + "ms");
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        Cursor cursor = startCursor == null ? null : Cursor.fromWebSafeString(startCursor);
+        boolean hasMoreResponses = true;
+        while (hasMoreResponses) {
+            PersistenceManager pm = getPm();
+            List<FeedbackResponse> responses = getFeedbackResponseEntities(pm, cursor);
+
+            for (FeedbackResponse response : responses) {
+                populateParticipantSections(response);
+            }
+
+            hasMoreResponses = responses.size() == BATCH_SIZE;
+            cursor = JDOCursorHelper.getCursor(responses);
+
+            // closing the persistence manager flushes the updated entities of this batch
+            pm.close();
+
+            if (cursor != null) {
+                System.out.println("Processed up to cursor: " + cursor.toWebSafeString());
+            }
+        }
+
+        System.out.println("Number of responses without up-to-date participant sections: "
+                           + numberOfAffectedResponses);
+        System.out.println("Number of responses updated: " + numberOfUpdatedResponses);
+    }
+
+    private void populateParticipantSections(FeedbackResponse response) {
+        List<String> expectedSections = new ArrayList<String>();
+        expectedSections.add(response.getGiverSection());
+        if (!response.getRecipientSection().equals(response.getGiverSection())) {
+            expectedSections.add(response.getRecipientSection());
+        }
+
+        if (expectedSections.equals(response.getParticipantSections())) {
+            return;
+        }
+
+        numberOfAffectedResponses++;
+        if (isPreview) {
+            System.out.println("participantSections of response " + response.getId() + " to be set to "
+                               + expectedSections);
+            return;
+        }
+
+        response.keepUpdateTimestamp = true;
+        response.updateParticipantSections();
+        numberOfUpdatedResponses++;
+    }
+
+    private PersistenceManager getPm() {
+        return Datastore.getPersistenceManager();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackResponse> getFeedbackResponseEntities(PersistenceManager pm, Cursor cursor) {
+        Query q = pm.newQuery(FeedbackResponse.class);
+        if (cursor != null) {
+            Map<String, Object> extensionMap = new HashMap<String, Object>();
+            extensionMap.put(JDOCursorHelper.CURSOR_EXTENSION, cursor);
+            q.setExtensions(extensionMap);
+        }
+        q.setRange(0, BATCH_SIZE);
+
+        return (List<FeedbackResponse>) q.execute();
+    }
+
+}
@@ -0,0 +1,89 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.PersistenceManager;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.logic.api.Logic;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.StudentProfile;
+
+import com.google.appengine.api.blobstore.BlobKey;
+
+/**
+ * Creates the thumbnails of the profile pictures uploaded before thumbnails were kept.
+ * Students without a thumbnail have their full picture served in its place until this is run.
+ */
+public class DataMigrationForProfilePictureThumbnails extends RemoteApiClient {
+
+    private static final Logic logic = new Logic();
+
+    private boolean isPreview = true;
+
+    public static void main(String[] args) throws IOException {
+        DataMigrationForProfilePictureThumbnails migrator = new DataMigrationForProfilePictureThumbnails();
+        migrator.doOperationRemotely();
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        List<StudentProfile> profiles = getProfilesWithoutThumbnail();
+        System.out.println(profiles.size() + " profile pictures without thumbnail.");
+
+        for (StudentProfile profile : profiles) {
+            createThumbnailForProfile(profile.getGoogleId(), profile.getPictureKey().getKeyString());
+        }
+    }
+
+    private void createThumbnailForProfile(String googleId, String pictureKey) {
+        if (isPreview) {
+            System.out.println("Thumbnail to be created for " + googleId + ".");
+            return;
+        }
+
+        try {
+            byte[] pictureData = GoogleCloudStorageHelper.readFileFromGcs(new BlobKey(pictureKey));
+            String thumbnailKey = logic.writeStudentProfilePictureThumbnail(googleId, pictureData);
+            if (thumbnailKey.isEmpty()) {
+                System.out.println("Picture of " + googleId + " could not be scaled down; left without thumbnail.");
+                return;
+            }
+            logic.updateStudentProfilePicture(googleId, pictureKey, thumbnailKey);
+            System.out.println("Thumbnail successfully created for " + googleId + ".");
+        } catch (IOException | IllegalArgumentException | EntityDoesNotExistException e) {
+            System.out.println("Failed to create thumbnail for " + googleId + ".");
+            e.printStackTrace();
+        }
+    }
+
+    private PersistenceManager getPm() {
+        return Datastore.getPersistenceManager();
+    }
+
+    private List<StudentProfile> getProfilesWithoutThumbnail() {
+        List<StudentProfile> profilesWithoutThumbnail = new ArrayList<StudentProfile>();
+        for (StudentProfile profile : getAllProfileEntities()) {
+            if (!JDOHelper.isDeleted(profile)
+                    && !profile.getPictureKey().getKeyString().isEmpty()
+                    && profile.getPictureThumbnailKey().getKeyString().isEmpty()) {
+                profilesWithoutThumbnail.add(profile);
+            }
+        }
+        return profilesWithoutThumbnail;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StudentProfile> getAllProfileEntities() {
+        String query = "select from " + StudentProfile.class.getName();
+        return (List<StudentProfile>) getPm().newQuery(query).execute();
+    }
+
+}
@@ -0,0 +1,108 @@
+package teammates.client.scripts;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.JsonUtils;
+import teammates.logic.backdoor.BackDoorLogic;
+import teammates.logic.core.FeedbackQuestionsLogic;
+import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.FeedbackResponsesDb;
+import teammates.test.driver.GaeSimulation;
+import teammates.test.driver.TestProperties;
+import teammates.test.util.FileHelper;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Compares the time taken to change the email of a student with many responses
+ * by updating the responses one by one (the previous approach) and by the batched rekeying
+ * of {@link StudentsLogic#updateEmailReferencesForStudent}.
+ *
+ * Usage: EmailChangeBenchmark [responses]
+ * - responses: how many responses the student gives, and how many the student receives (default 300)
+ *
+ * Runs on the local service stubs, so the numbers show the relative number of datastore calls
+ * rather than production latencies.
+ */
+public final class EmailChangeBenchmark {
+
+    private static final String ORIGINAL_EMAIL = "student1InCourse1@gmail.tmt";
+    private static final String CHANGED_EMAIL = "changed.student1InCourse1@gmail.tmt";
+
+    private EmailChangeBenchmark() {
+        // script, not meant to be instantiated
+    }
+
+    public static void main(String[] args) throws Exception {
+        int responses = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+
+        GaeSimulation.inst().setup();
+        try {
+            String jsonString = FileHelper.readFile(TestProperties.TEST_DATA_FOLDER + "/typicalDataBundle.json");
+            DataBundle dataBundle = JsonUtils.fromJson(jsonString, DataBundle.class);
+            new BackDoorLogic().persistDataBundle(dataBundle);
+            StudentAttributes student = dataBundle.students.get("student1InCourse1");
+            createResponses(student, responses);
+
+            long startTime = System.nanoTime();
+            updateResponsesOneByOne(student.course, ORIGINAL_EMAIL, CHANGED_EMAIL);
+            print("per-response updates (previous approach)", startTime);
+
+            startTime = System.nanoTime();
+            StudentsLogic.inst().updateEmailReferencesForStudent(student.course, CHANGED_EMAIL, ORIGINAL_EMAIL);
+            print("batched rekeying", startTime);
+
+            startTime = System.nanoTime();
+            StudentsLogic.inst().updateEmailReferencesForStudent(student.course, CHANGED_EMAIL, ORIGINAL_EMAIL);
+            print("batched rekeying, repeated (nothing left to change)", startTime);
+
+            int remaining = FeedbackResponsesLogic.inst()
+                                    .getFeedbackResponsesFromGiverForCourse(student.course, CHANGED_EMAIL).size();
+            System.out.println("Responses left under the changed email: " + remaining);
+        } finally {
+            GaeSimulation.inst().tearDown();
+        }
+    }
+
+    private static void createResponses(StudentAttributes student, int responses) throws Exception {
+        FeedbackQuestionAttributes question =
+                FeedbackQuestionsLogic.inst().getFeedbackQuestion("First feedback session", student.course, 1);
+        List<FeedbackResponseAttributes> responsesToAdd = new ArrayList<FeedbackResponseAttributes>();
+        for (int i = 0; i < responses; i++) {
+            responsesToAdd.add(new FeedbackResponseAttributes(
+                    question.feedbackSessionName, question.courseId, question.getId(), question.questionType,
+                    student.email, student.section, "recipient" + i + "@benchmark.tmt", student.section,
+                    new Text("Response " + i)));
+            responsesToAdd.add(new FeedbackResponseAttributes(
+                    question.feedbackSessionName, question.courseId, question.getId(), question.questionType,
+                    "giver" + i + "@benchmark.tmt", student.section, student.email, student.section,
+                    new Text("Response " + i)));
+        }
+        new FeedbackResponsesDb().createFeedbackResponses(responsesToAdd);
+        System.out.println("Prepared " + responsesToAdd.size() + " responses of " + student.email);
+    }
+
+    private static void updateResponsesOneByOne(String courseId, String oldEmail, String newEmail) throws Exception {
+        FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
+        for (FeedbackResponseAttributes response : frLogic.getFeedbackResponsesFromGiverForCourse(courseId, oldEmail)) {
+            response.giver = newEmail;
+            frLogic.updateFeedbackResponse(response);
+        }
+        for (FeedbackResponseAttributes response : frLogic.getFeedbackResponsesForReceiverForCourse(courseId, oldEmail)) {
+            response.recipient = newEmail;
+            frLogic.updateFeedbackResponse(response);
+        }
+    }
+
+    private static void print(String operation, long startTime) {
+        double elapsedMillis = (System.nanoTime() - startTime) / 1e6;
+        System.out.println(String.format("%-55s %10.1f ms", operation, elapsedMillis));
+    }
+
+}
@@ -0,0 +1,128 @@
+package teammates.client.scripts;
+
+import java.util.Random;
+
+import teammates.common.datatransfer.CompiledInstructorPrivileges;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.util.Const;
+
+/**
+ * Compares the privilege checks made while building and rendering a results bundle
+ * (view, submit and moderate privileges for the giver and recipient section of every response)
+ * using {@link InstructorPrivileges} and using {@link CompiledInstructorPrivileges}.
+ *
+ * Usage: InstructorPrivilegesBenchmark [responses] [sections] [sessions]
+ * - responses: how many responses are checked per round (default 100000)
+ * - sections: how many sections the course has; every other section has special privileges (default 20)
+ * - sessions: how many sessions have special privileges in those sections (default 10)
+ *
+ * Each approach is run for a few warm-up rounds before being timed, so that the numbers are not
+ * dominated by class loading and JIT compilation.
+ */
+public final class InstructorPrivilegesBenchmark {
+
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int TIMED_ROUNDS = 10;
+
+    // the privileges checked for each response by the results page
+    private static final String[] CHECKED_PRIVILEGES = {
+            Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS,
+            Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS,
+            Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION_COMMENT_IN_SECTIONS
+    };
+
+    private InstructorPrivilegesBenchmark() {
+        // script, not meant to be instantiated
+    }
+
+    public static void main(String[] args) {
+        int responses = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int sections = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        InstructorPrivileges privileges = generatePrivileges(sections, sessions);
+        String sessionName = "Session 0";
+
+        // the sections of the givers and recipients of the responses
+        Random random = new Random(0);
+        String[] giverSections = new String[responses];
+        String[] recipientSections = new String[responses];
+        for (int i = 0; i < responses; i++) {
+            giverSections[i] = "Section " + random.nextInt(sections);
+            recipientSections[i] = "Section " + random.nextInt(sections);
+        }
+
+        int allowed = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            allowed += checkWithMaps(privileges, sessionName, giverSections, recipientSections);
+            allowed += checkCompiled(privileges, sessionName, giverSections, recipientSections);
+        }
+
+        long startTime = System.nanoTime();
+        for (int round = 0; round < TIMED_ROUNDS; round++) {
+            allowed += checkWithMaps(privileges, sessionName, giverSections, recipientSections);
+        }
+        print("nested maps, " + TIMED_ROUNDS + " x " + responses + " responses", startTime);
+
+        startTime = System.nanoTime();
+        for (int round = 0; round < TIMED_ROUNDS; round++) {
+            allowed += checkCompiled(privileges, sessionName, giverSections, recipientSections);
+        }
+        print("compiled once per round, " + TIMED_ROUNDS + " x " + responses + " responses", startTime);
+
+        // printed so that the checks cannot be optimised away
+        System.out.println("Allowed checks: " + allowed);
+    }
+
+    private static InstructorPrivileges generatePrivileges(int sections, int sessions) {
+        InstructorPrivileges privileges =
+                new InstructorPrivileges(Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_TUTOR);
+        for (int i = 0; i < sections; i += 2) {
+            String sectionName = "Section " + i;
+            privileges.updatePrivilege(sectionName, Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS,
+                                       i % 4 == 0);
+            for (int j = 0; j < sessions; j++) {
+                privileges.updatePrivilege(sectionName, "Session " + j,
+                                           Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS,
+                                           j % 2 == 0);
+            }
+        }
+        return privileges;
+    }
+
+    private static int checkWithMaps(InstructorPrivileges privileges, String sessionName,
+                                     String[] giverSections, String[] recipientSections) {
+        int allowed = 0;
+        for (int i = 0; i < giverSections.length; i++) {
+            for (String privilegeName : CHECKED_PRIVILEGES) {
+                if (privileges.isAllowedForPrivilege(giverSections[i], sessionName, privilegeName)
+                        && privileges.isAllowedForPrivilege(recipientSections[i], sessionName, privilegeName)) {
+                    allowed++;
+                }
+            }
+        }
+        return allowed;
+    }
+
+    private static int checkCompiled(InstructorPrivileges privileges, String sessionName,
+                                     String[] giverSections, String[] recipientSections) {
+        // compiled once per bundle, as the results page does
+        CompiledInstructorPrivileges compiled = privileges.compile();
+        int allowed = 0;
+        for (int i = 0; i < giverSections.length; i++) {
+            for (String privilegeName : CHECKED_PRIVILEGES) {
+                if (compiled.isAllowedForPrivilege(giverSections[i], sessionName, privilegeName)
+                        && compiled.isAllowedForPrivilege(recipientSections[i], sessionName, privilegeName)) {
+                    allowed++;
+                }
+            }
+        }
+        return allowed;
+    }
+
+    private static void print(String operation, long startTime) {
+        double elapsedMillis = (System.nanoTime() - startTime) / 1e6;
+        System.out.println(String.format("%-75s %10.1f ms", operation, elapsedMillis));
+    }
+
+}
@@ -37,6 +37,11 @@ import teammates.storage.entity.FeedbackSession;
  * If isPreview is false, whenever an inconsistency is found, {@code logic.updateRespondents} will
  * be used to recompute the respondents' set.
  * 
+ * The numbers of students and instructors expected to respond are also counted again
+ * from the course roster and stored if isPreview is false, and printed if they were out of sync.
+ * Sessions without stored numbers count them every time their response rate is shown until then.
+ * As the roster is read with an eventually consistent query, run this when students are not being enrolled.
+ * 
  */
 public class RepairFeedbackSessionResponseRate extends RemoteApiClient {
 
@@ -86,6 +91,7 @@ public class RepairFeedbackSessionResponseRate extends RemoteApiClient {
                 
                 Set<String> nonRespondents = getNonRespondentsForFeedbackSession(feedbackSession);
                 findAndFixInconsistentNonRespondentList(feedbackSession, nonRespondents);
+                findAndFixOutdatedExpectedRespondentCounts(feedbackSession);
             }
         } catch (EntityDoesNotExistException | InvalidParametersException e) {
             e.printStackTrace();
@@ -114,6 +120,38 @@ public class RepairFeedbackSessionResponseRate extends RemoteApiClient {
         }
     }
 
+    private void findAndFixOutdatedExpectedRespondentCounts(FeedbackSessionAttributes feedbackSession)
+            throws EntityDoesNotExistException {
+        if (!feedbackSession.hasExpectedRespondentCounts()) {
+            // counted whenever the response rate is shown until stored here
+            if (!isPreview) {
+                FeedbackSessionAttributes countedSession = logic.updateExpectedRespondentCounts(
+                        feedbackSession.getFeedbackSessionName(), feedbackSession.getCourseId());
+                System.out.println("Stored expected respondents of " + feedbackSession.getIdentificationString()
+                                   + ": " + countedSession.getExpectedStudentRespondentCount() + " students, "
+                                   + countedSession.getExpectedInstructorRespondentCount() + " instructors");
+            }
+            return;
+        }
+        
+        String storedCounts = feedbackSession.getExpectedStudentRespondentCount() + " students, "
+                            + feedbackSession.getExpectedInstructorRespondentCount() + " instructors";
+        if (isPreview) {
+            System.out.println("Expected respondents of " + feedbackSession.getIdentificationString()
+                               + ": " + storedCounts);
+            return;
+        }
+        
+        FeedbackSessionAttributes updatedSession = logic.updateExpectedRespondentCounts(
+                feedbackSession.getFeedbackSessionName(), feedbackSession.getCourseId());
+        String actualCounts = updatedSession.getExpectedStudentRespondentCount() + " students, "
+                            + updatedSession.getExpectedInstructorRespondentCount() + " instructors";
+        if (!storedCounts.equals(actualCounts)) {
+            System.out.println("Fixed expected respondents of " + feedbackSession.getIdentificationString()
+                               + " from " + storedCounts + " to " + actualCounts);
+        }
+    }
+
     private Set<String> getNonRespondentsForFeedbackSession(FeedbackSessionAttributes feedbackSession) {
         
         // obtain the respondents first
@@ -0,0 +1,174 @@
+package teammates.client.scripts;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.common.util.JsonUtils;
+import teammates.logic.backdoor.BackDoorLogic;
+import teammates.storage.api.InstructorsDb;
+import teammates.storage.api.StudentsDb;
+import teammates.storage.search.AppEngineSearchBackend;
+import teammates.storage.search.EmbeddedSearchBackend;
+import teammates.storage.search.InstructorSearchDocument;
+import teammates.storage.search.InstructorSearchQuery;
+import teammates.storage.search.SearchBackend;
+import teammates.storage.search.StudentSearchDocument;
+import teammates.storage.search.StudentSearchQuery;
+import teammates.test.driver.GaeSimulation;
+import teammates.test.driver.TestProperties;
+import teammates.test.util.FileHelper;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.Query;
+
+/**
+ * Compares the indexing and query times of the search backends
+ * on the students and instructors of a data bundle.
+ *
+ * Usage: SearchBackendBenchmark [copies] [queries] [data bundle file]
+ * - copies: how many times the data bundle is copied into the indexes, as courses with different ids (default 20)
+ * - queries: how many times each query is run (default 50)
+ * - data bundle file: relative to the test data folder (default typicalDataBundle.json)
+ *
+ * Runs on the local service stubs, so the App Engine numbers show the relative
+ * cost of the search service calls rather than production latencies. Result counts may differ
+ * slightly: the local search service does not split words on all punctuation, e.g. in sanitized names.
+ */
+public final class SearchBackendBenchmark {
+
+    private static final String[] KEYWORDS = {"student1", "\"team 1.1\"", "alice", "instructor", "idOfTypicalCourse1"};
+
+    private final List<Document> studentDocuments = new ArrayList<Document>();
+    private final List<Document> instructorDocuments = new ArrayList<Document>();
+    private final List<InstructorAttributes> instructors = new ArrayList<InstructorAttributes>();
+
+    private SearchBackendBenchmark() {
+        // script, not meant to be instantiated
+    }
+
+    public static void main(String[] args) throws Exception {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        String dataBundleFile = args.length > 2 ? args[2] : "typicalDataBundle.json";
+
+        GaeSimulation.inst().setup();
+        try {
+            SearchBackendBenchmark benchmark = new SearchBackendBenchmark();
+            benchmark.prepareDocuments(dataBundleFile, copies);
+
+            File directory = File.createTempFile("searchBenchmark", "");
+            directory.delete();
+            benchmark.run("App Engine", new AppEngineSearchBackend(), queries);
+            benchmark.run("Embedded (memory)", new EmbeddedSearchBackend(null), queries);
+            benchmark.run("Embedded (segments)", new EmbeddedSearchBackend(directory), queries);
+
+            long startTime = System.nanoTime();
+            EmbeddedSearchBackend reloadedBackend = new EmbeddedSearchBackend(directory);
+            int reloadedDocuments = reloadedBackend.getDocumentCount(Const.SearchIndex.STUDENT)
+                                  + reloadedBackend.getDocumentCount(Const.SearchIndex.INSTRUCTOR);
+            print("Embedded (segments)", "reload " + reloadedDocuments + " documents", startTime, 1);
+        } finally {
+            GaeSimulation.inst().tearDown();
+        }
+    }
+
+    /**
+     * Persists the data bundle and builds the search documents of its students and instructors,
+     * copied into as many courses as given.
+     */
+    private void prepareDocuments(String dataBundleFile, int copies) throws Exception {
+        String jsonString = FileHelper.readFile(TestProperties.TEST_DATA_FOLDER + "/" + dataBundleFile);
+        DataBundle dataBundle = JsonUtils.fromJson(jsonString, DataBundle.class);
+        new BackDoorLogic().persistDataBundle(dataBundle);
+
+        StudentsDb studentsDb = new StudentsDb();
+        InstructorsDb instructorsDb = new InstructorsDb();
+        for (CourseAttributes course : dataBundle.courses.values()) {
+            List<Document> courseStudentDocuments = new ArrayList<Document>();
+            for (StudentAttributes student : studentsDb.getStudentsForCourse(course.getId())) {
+                courseStudentDocuments.add(new StudentSearchDocument(student).build());
+            }
+            List<Document> courseInstructorDocuments = new ArrayList<Document>();
+            for (InstructorAttributes instructor : instructorsDb.getInstructorsForCourse(course.getId())) {
+                courseInstructorDocuments.add(new InstructorSearchDocument(instructor).build());
+                instructors.add(instructor);
+            }
+            for (int copy = 0; copy < copies; copy++) {
+                for (Document document : courseStudentDocuments) {
+                    studentDocuments.add(copyToCourse(document, course.getId(), copy));
+                }
+                for (Document document : courseInstructorDocuments) {
+                    instructorDocuments.add(copyToCourse(document, course.getId(), copy));
+                }
+            }
+        }
+        System.out.println("Prepared " + studentDocuments.size() + " student and "
+                           + instructorDocuments.size() + " instructor documents");
+    }
+
+    private static Document copyToCourse(Document document, String courseId, int copy) {
+        if (copy == 0) {
+            return document;
+        }
+        String copiedCourseId = courseId + "copy" + copy;
+        Document.Builder builder = Document.newBuilder().setId(document.getId() + "copy" + copy);
+        for (Field field : document.getFields()) {
+            if (Const.SearchDocumentField.COURSE_ID.equals(field.getName())) {
+                builder.addField(Field.newBuilder().setName(field.getName()).setText(copiedCourseId));
+            } else if (Const.SearchDocumentField.SEARCHABLE_TEXT.equals(field.getName())) {
+                builder.addField(Field.newBuilder().setName(field.getName())
+                                                   .setText(field.getText().replace(courseId, copiedCourseId)));
+            } else {
+                builder.addField(field);
+            }
+        }
+        return builder.build();
+    }
+
+    private void run(String backendName, SearchBackend backend, int queries) {
+        long startTime = System.nanoTime();
+        for (Document document : studentDocuments) {
+            backend.putDocument(Const.SearchIndex.STUDENT, document);
+        }
+        for (Document document : instructorDocuments) {
+            backend.putDocument(Const.SearchIndex.INSTRUCTOR, document);
+        }
+        print(backendName, "index", startTime, studentDocuments.size() + instructorDocuments.size());
+
+        startTime = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < queries; i++) {
+            for (String keyword : KEYWORDS) {
+                Query query = new StudentSearchQuery(instructors, keyword, "").toQuery();
+                found += backend.searchDocuments(Const.SearchIndex.STUDENT, query).getNumberReturned();
+            }
+        }
+        print(backendName, "student search (" + found / queries + " results per round)",
+              startTime, queries * KEYWORDS.length);
+
+        startTime = System.nanoTime();
+        found = 0;
+        for (int i = 0; i < queries; i++) {
+            for (String keyword : KEYWORDS) {
+                Query query = new InstructorSearchQuery(keyword, "").toQuery();
+                found += backend.searchDocuments(Const.SearchIndex.INSTRUCTOR, query).getNumberReturned();
+            }
+        }
+        print(backendName, "admin instructor search (" + found / queries + " results per round)",
+              startTime, queries * KEYWORDS.length);
+    }
+
+    private static void print(String backendName, String operation, long startTime, int operations) {
+        double elapsedMillis = (System.nanoTime() - startTime) / 1e6;
+        System.out.println(String.format("%-20s %-55s %10.1f ms total %8.3f ms/op",
+                                         backendName, operation, elapsedMillis, elapsedMillis / operations));
+    }
+
+}
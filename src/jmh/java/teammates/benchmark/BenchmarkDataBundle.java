@@ -0,0 +1,195 @@
+package teammates.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackNumericalScaleQuestionDetails;
+import teammates.common.datatransfer.FeedbackNumericalScaleResponseDetails;
+import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackQuestionDetails;
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackResponseDetails;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.FeedbackSessionResponseStatus;
+import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.FeedbackSessionType;
+import teammates.common.datatransfer.FeedbackTextQuestionDetails;
+import teammates.common.datatransfer.FeedbackTextResponseDetails;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Generates a synthetic {@link DataBundle} of one course with one session, for benchmarks that need
+ * realistic data at a configurable scale without a datastore.<br>
+ * The course has the given number of students in teams of 5 and sections of 100. Every student gives
+ * feedback on 5 other students for a numerical scale question and to their own team members for
+ * a text question. The data depends only on the number of students, so results of different runs
+ * (and commits) are comparable.
+ */
+public final class BenchmarkDataBundle {
+
+    public static final String COURSE_ID = "benchmark.course";
+    public static final String SESSION_NAME = "Benchmark Session";
+    public static final String NUMSCALE_QUESTION_ID = "numscaleQuestion";
+    public static final String TEXT_QUESTION_ID = "textQuestion";
+
+    private static final int TEAM_SIZE = 5;
+    private static final int SECTION_SIZE = 100;
+    private static final int RESPONSES_PER_GIVER = 5;
+    private static final long SESSION_TIME_MILLIS = 1483228800000L;
+
+    private BenchmarkDataBundle() {
+        // utility class
+    }
+
+    public static DataBundle generate(int numberOfStudents) {
+        DataBundle dataBundle = new DataBundle();
+        // a fixed time, so that the data does not depend on when the benchmarks are run
+        Date time = new Date(SESSION_TIME_MILLIS);
+
+        dataBundle.courses.put(COURSE_ID, new CourseAttributes(COURSE_ID, "Benchmark Course", "UTC"));
+        dataBundle.instructors.put("instructor", new InstructorAttributes("benchmark.instr", COURSE_ID,
+                                                                          "Benchmark Instructor",
+                                                                          "instructor@benchmark.tmt"));
+
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        for (int i = 0; i < numberOfStudents; i++) {
+            StudentAttributes student = new StudentAttributes(
+                    "Section " + i / SECTION_SIZE, "Team " + i / TEAM_SIZE, "Student " + i + " Name",
+                    "student" + i + "@benchmark.tmt", "Comments of student " + i, COURSE_ID);
+            students.add(student);
+            dataBundle.students.put("student" + i, student);
+        }
+
+        dataBundle.feedbackSessions.put("session", new FeedbackSessionAttributes(
+                SESSION_NAME, COURSE_ID, "instructor@benchmark.tmt", new Text("Instructions"), time, time, time,
+                time, time, 0, 15, FeedbackSessionType.STANDARD, false, false, false, false, true, true, true));
+
+        FeedbackNumericalScaleQuestionDetails numscaleDetails = new FeedbackNumericalScaleQuestionDetails();
+        numscaleDetails.setQuestionText("Rate the contribution of your peers");
+        FeedbackQuestionAttributes numscaleQuestion =
+                createQuestion(NUMSCALE_QUESTION_ID, 1, FeedbackQuestionType.NUMSCALE, numscaleDetails,
+                               FeedbackParticipantType.STUDENTS, RESPONSES_PER_GIVER);
+        dataBundle.feedbackQuestions.put(NUMSCALE_QUESTION_ID, numscaleQuestion);
+
+        FeedbackQuestionAttributes textQuestion =
+                createQuestion(TEXT_QUESTION_ID, 2, FeedbackQuestionType.TEXT,
+                               new FeedbackTextQuestionDetails("Comment on your team members"),
+                               FeedbackParticipantType.OWN_TEAM_MEMBERS, Const.MAX_POSSIBLE_RECIPIENTS);
+        dataBundle.feedbackQuestions.put(TEXT_QUESTION_ID, textQuestion);
+
+        Random random = new Random(numberOfStudents);
+        for (int i = 0; i < numberOfStudents; i++) {
+            StudentAttributes giver = students.get(i);
+
+            for (int j = 0; j < RESPONSES_PER_GIVER; j++) {
+                StudentAttributes recipient = students.get(random.nextInt(numberOfStudents));
+                FeedbackNumericalScaleResponseDetails details = new FeedbackNumericalScaleResponseDetails();
+                details.extractResponseDetails(FeedbackQuestionType.NUMSCALE, numscaleDetails,
+                                               new String[] {Double.toString(1 + random.nextInt(9) * 0.5)});
+                addResponse(dataBundle, numscaleQuestion, giver, recipient, details);
+            }
+
+            int teamStart = i / TEAM_SIZE * TEAM_SIZE;
+            for (int j = teamStart; j < Math.min(teamStart + TEAM_SIZE, numberOfStudents); j++) {
+                if (j != i) {
+                    addResponse(dataBundle, textQuestion, giver, students.get(j), new FeedbackTextResponseDetails(
+                            "Student " + i + " worked well with student " + j + " on the project."));
+                }
+            }
+        }
+
+        return dataBundle;
+    }
+
+    /**
+     * Creates a results bundle of the session in {@code dataBundle} as seen by an instructor
+     * who can see all givers and recipients, from new copies of the tables that the bundle modifies.
+     */
+    public static FeedbackSessionResultsBundle createResultsBundle(DataBundle dataBundle) {
+        Map<String, String> emailNameTable = new HashMap<String, String>();
+        Map<String, String> emailLastNameTable = new HashMap<String, String>();
+        Map<String, String> emailTeamNameTable = new HashMap<String, String>();
+        Map<String, Set<String>> sectionTeamNameTable = new HashMap<String, Set<String>>();
+        for (StudentAttributes student : dataBundle.students.values()) {
+            emailNameTable.put(student.email, student.name);
+            emailLastNameTable.put(student.email, student.lastName);
+            emailTeamNameTable.put(student.email, student.team);
+            if (!sectionTeamNameTable.containsKey(student.section)) {
+                sectionTeamNameTable.put(student.section, new HashSet<String>());
+            }
+            sectionTeamNameTable.get(student.section).add(student.team);
+        }
+
+        List<FeedbackResponseAttributes> responses =
+                new ArrayList<FeedbackResponseAttributes>(dataBundle.feedbackResponses.values());
+        Map<String, boolean[]> visibilityTable = new HashMap<String, boolean[]>();
+        for (FeedbackResponseAttributes response : responses) {
+            visibilityTable.put(response.getId(), new boolean[] {true, true});
+        }
+
+        return new FeedbackSessionResultsBundle(
+                dataBundle.feedbackSessions.get("session"), responses,
+                new HashMap<String, FeedbackQuestionAttributes>(dataBundle.feedbackQuestions),
+                emailNameTable, emailLastNameTable, emailTeamNameTable, sectionTeamNameTable, visibilityTable,
+                new FeedbackSessionResponseStatus(),
+                new CourseRoster(new ArrayList<StudentAttributes>(dataBundle.students.values()),
+                                 new ArrayList<InstructorAttributes>(dataBundle.instructors.values())),
+                new HashMap<String, List<FeedbackResponseCommentAttributes>>());
+    }
+
+    private static FeedbackQuestionAttributes createQuestion(String questionId, int questionNumber,
+                                                             FeedbackQuestionType questionType,
+                                                             FeedbackQuestionDetails details,
+                                                             FeedbackParticipantType recipientType,
+                                                             int numberOfEntitiesToGiveFeedbackTo) {
+        List<FeedbackParticipantType> visibleTo = new ArrayList<FeedbackParticipantType>();
+        visibleTo.add(FeedbackParticipantType.INSTRUCTORS);
+        visibleTo.add(FeedbackParticipantType.RECEIVER);
+
+        FeedbackQuestionAttributes question = new FeedbackQuestionAttributes();
+        question.setId(questionId);
+        question.feedbackSessionName = SESSION_NAME;
+        question.courseId = COURSE_ID;
+        question.creatorEmail = "instructor@benchmark.tmt";
+        question.questionNumber = questionNumber;
+        question.questionType = questionType;
+        question.setQuestionDetails(details);
+        question.giverType = FeedbackParticipantType.STUDENTS;
+        question.recipientType = recipientType;
+        question.numberOfEntitiesToGiveFeedbackTo = numberOfEntitiesToGiveFeedbackTo;
+        question.showResponsesTo = visibleTo;
+        question.showGiverNameTo = new ArrayList<FeedbackParticipantType>(visibleTo);
+        question.showRecipientNameTo = new ArrayList<FeedbackParticipantType>(visibleTo);
+        return question;
+    }
+
+    private static void addResponse(DataBundle dataBundle, FeedbackQuestionAttributes question,
+                                    StudentAttributes giver, StudentAttributes recipient,
+                                    FeedbackResponseDetails details) {
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes(
+                SESSION_NAME, COURSE_ID, question.getId(), question.questionType,
+                giver.email, giver.section, recipient.email, recipient.section, new Text(""));
+        response.setResponseDetails(details);
+        String responseId = question.getId() + "%" + giver.email + "%" + recipient.email;
+        response.setId(responseId);
+        // a student may be picked more than once as a recipient; the last response is kept, as in the datastore
+        dataBundle.feedbackResponses.put(responseId, response);
+    }
+
+}
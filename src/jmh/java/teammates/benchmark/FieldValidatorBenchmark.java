@@ -0,0 +1,66 @@
+package teammates.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.FieldValidator;
+
+/**
+ * Benchmarks validating the students of a course with {@link FieldValidator},
+ * as done for every student when an instructor enrolls students.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FieldValidatorBenchmark {
+
+    /** The number of students in the course. */
+    @Param({"100", "1000"})
+    public int scale;
+
+    private List<StudentAttributes> students;
+
+    @Setup
+    public void setUp() {
+        students = new ArrayList<StudentAttributes>(BenchmarkDataBundle.generate(scale).students.values());
+    }
+
+    @Benchmark
+    public int validateStudents() {
+        int numberOfErrors = 0;
+        for (StudentAttributes student : students) {
+            numberOfErrors += student.getInvalidityInfo().size();
+        }
+        return numberOfErrors;
+    }
+
+    @Benchmark
+    public int validateEmails() {
+        FieldValidator validator = new FieldValidator();
+        int numberOfInvalidEmails = 0;
+        for (StudentAttributes student : students) {
+            if (!validator.getInvalidityInfoForEmail(student.email).isEmpty()) {
+                numberOfInvalidEmails++;
+            }
+        }
+        return numberOfInvalidEmails;
+    }
+
+}
@@ -0,0 +1,55 @@
+package teammates.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.util.JsonUtils;
+
+/**
+ * Benchmarks serialising a {@link DataBundle} to JSON and back with {@link JsonUtils},
+ * as done by the backdoor and when storing question and response details.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JsonUtilsBenchmark {
+
+    /** The number of students in the course. */
+    @Param({"100", "1000"})
+    public int scale;
+
+    private DataBundle dataBundle;
+    private String dataBundleJson;
+
+    @Setup
+    public void setUp() {
+        dataBundle = BenchmarkDataBundle.generate(scale);
+        dataBundleJson = JsonUtils.toJson(dataBundle);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return JsonUtils.toJson(dataBundle);
+    }
+
+    @Benchmark
+    public DataBundle fromJson() {
+        return JsonUtils.fromJson(dataBundleJson, DataBundle.class);
+    }
+
+}
@@ -0,0 +1,70 @@
+package teammates.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+
+/**
+ * Benchmarks building a {@link FeedbackSessionResultsBundle} and computing the statistics
+ * of a numerical scale question shown on the instructor results page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ResultsBundleBenchmark {
+
+    /** The number of students in the course. */
+    @Param({"100", "1000"})
+    public int scale;
+
+    private DataBundle dataBundle;
+    private FeedbackSessionResultsBundle bundle;
+    private FeedbackQuestionAttributes numscaleQuestion;
+    private List<FeedbackResponseAttributes> numscaleResponses;
+
+    @Setup
+    public void setUp() {
+        dataBundle = BenchmarkDataBundle.generate(scale);
+        bundle = BenchmarkDataBundle.createResultsBundle(dataBundle);
+        numscaleQuestion = dataBundle.feedbackQuestions.get(BenchmarkDataBundle.NUMSCALE_QUESTION_ID);
+        numscaleResponses = bundle.getQuestionResponseMap().get(numscaleQuestion);
+    }
+
+    @Benchmark
+    public FeedbackSessionResultsBundle buildResultsBundle() {
+        return BenchmarkDataBundle.createResultsBundle(dataBundle);
+    }
+
+    @Benchmark
+    public String numericalScaleStatisticsHtml() {
+        return numscaleQuestion.getQuestionDetails()
+                               .getQuestionResultStatisticsHtml(numscaleResponses, numscaleQuestion, "",
+                                                                bundle, "question");
+    }
+
+    @Benchmark
+    public String numericalScaleStatisticsCsv() {
+        return numscaleQuestion.getQuestionDetails()
+                               .getQuestionResultStatisticsCsv(numscaleResponses, numscaleQuestion, bundle);
+    }
+
+}
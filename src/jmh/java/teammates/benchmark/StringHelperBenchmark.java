@@ -0,0 +1,64 @@
+package teammates.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import teammates.common.util.StringHelper;
+
+/**
+ * Benchmarks encrypting and decrypting with {@link StringHelper}, as done for every registration key
+ * in emails and links, and for every anonymised name in results.<br>
+ * Needs the build properties of the application (for its encryption key) on the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StringHelperBenchmark {
+
+    /** The number of values encrypted and decrypted per invocation. */
+    @Param({"100"})
+    public int scale;
+
+    private String[] values;
+    private String[] encryptedValues;
+
+    @Setup
+    public void setUp() {
+        values = new String[scale];
+        encryptedValues = new String[scale];
+        for (int i = 0; i < scale; i++) {
+            values[i] = "ahNzfnRlYW1tYXRlc3Y0LWhyZHIbCxIHU3R1ZGVudCIOc3R1ZGVudDE" + i;
+            encryptedValues[i] = StringHelper.encrypt(values[i]);
+        }
+    }
+
+    @Benchmark
+    public void encrypt(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(StringHelper.encrypt(value));
+        }
+    }
+
+    @Benchmark
+    public void decrypt(Blackhole blackhole) {
+        for (String encryptedValue : encryptedValues) {
+            blackhole.consume(StringHelper.decrypt(encryptedValue));
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package teammates.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Templates;
+import teammates.common.util.Templates.EmailTemplates;
+
+/**
+ * Benchmarks populating the feedback session email template with {@link Templates#populateTemplate}
+ * for every student of a course, as done when sending session opening and reminder emails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TemplatesBenchmark {
+
+    /** The number of students in the course. */
+    @Param({"100", "1000"})
+    public int scale;
+
+    private List<StudentAttributes> students;
+
+    @Setup
+    public void setUp() {
+        students = new ArrayList<StudentAttributes>(BenchmarkDataBundle.generate(scale).students.values());
+    }
+
+    @Benchmark
+    public int populateFeedbackSessionEmails() {
+        int totalLength = 0;
+        for (StudentAttributes student : students) {
+            String emailBody = Templates.populateTemplate(EmailTemplates.USER_FEEDBACK_SESSION,
+                    "${userName}", student.name,
+                    "${courseName}", "Benchmark Course",
+                    "${courseId}", student.course,
+                    "${feedbackSessionName}", BenchmarkDataBundle.SESSION_NAME,
+                    "${deadline}", "Sun, 01 Jan 2017, 11:59 PM",
+                    "${instructorFragment}", "",
+                    "${submitUrl}", "http://localhost:8888/page/studentFeedbackSubmissionEditPage?user=" + student.email,
+                    "${reportUrl}", "http://localhost:8888/page/studentFeedbackResultsPage?user=" + student.email,
+                    "${supportEmail}", "support@benchmark.tmt");
+            totalLength += emailBody.length();
+        }
+        return totalLength;
+    }
+
+}
@@ -0,0 +1,142 @@
+package teammates.common.datatransfer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import teammates.common.util.Assumption;
+
+/**
+ * An immutable snapshot of {@link InstructorPrivileges}, for answering many privilege checks
+ * (e.g. one per response when building a results bundle) without walking the nested maps.<br>
+ * Each privilege is a bit in an {@code int}; section and session names are mapped to indices once,
+ * and the effective privileges of every section and every session in a section are resolved
+ * (falling back from session to section to course level) when the snapshot is built.<br>
+ * Changes made to the {@link InstructorPrivileges} afterwards are not reflected; build a new snapshot
+ * with {@link InstructorPrivileges#compile()} instead.
+ */
+public final class CompiledInstructorPrivileges {
+
+    private static final Map<String, Integer> PRIVILEGE_BITS = new HashMap<String, Integer>();
+
+    static {
+        int bit = 1;
+        for (String privilegeName : InstructorPrivileges.getPrivilegeNames()) {
+            PRIVILEGE_BITS.put(privilegeName, bit);
+            bit <<= 1;
+        }
+    }
+
+    private final int courseLevel;
+    private final Map<String, Integer> sectionIds;
+    private final Map<String, Integer> sessionIds;
+    // indexed by section id; the course level privileges if the section has no special settings
+    private final int[] sectionLevel;
+    // indexed by section id then session id; the section level privileges if the session has no special settings
+    private final int[][] sessionLevel;
+
+    CompiledInstructorPrivileges(Map<String, Boolean> courseLevelPrivileges,
+                                 Map<String, Map<String, Boolean>> sectionLevelPrivileges,
+                                 Map<String, Map<String, Map<String, Boolean>>> sessionLevelPrivileges) {
+        this.courseLevel = toBits(courseLevelPrivileges);
+
+        Set<String> sectionNames = new LinkedHashSet<String>(sessionLevelPrivileges.keySet());
+        sectionNames.addAll(sectionLevelPrivileges.keySet());
+        Set<String> sessionNames = new LinkedHashSet<String>();
+        for (Map<String, Map<String, Boolean>> sessionsInSection : sessionLevelPrivileges.values()) {
+            sessionNames.addAll(sessionsInSection.keySet());
+        }
+        this.sectionIds = toIds(sectionNames);
+        this.sessionIds = toIds(sessionNames);
+
+        this.sectionLevel = new int[sectionIds.size()];
+        this.sessionLevel = new int[sectionIds.size()][sessionIds.size()];
+        for (Map.Entry<String, Integer> section : sectionIds.entrySet()) {
+            int sectionId = section.getValue();
+            Map<String, Boolean> sectionPrivileges = sectionLevelPrivileges.get(section.getKey());
+            sectionLevel[sectionId] = sectionPrivileges == null ? courseLevel : toBits(sectionPrivileges);
+
+            Map<String, Map<String, Boolean>> sessionsInSection = sessionLevelPrivileges.get(section.getKey());
+            for (Map.Entry<String, Integer> session : sessionIds.entrySet()) {
+                Map<String, Boolean> sessionPrivileges =
+                        sessionsInSection == null ? null : sessionsInSection.get(session.getKey());
+                sessionLevel[sectionId][session.getValue()] =
+                        sessionPrivileges == null ? sectionLevel[sectionId] : toBits(sessionPrivileges);
+            }
+        }
+    }
+
+    /**
+     * @return whether the privilege specified by privilegeName is allowed at course level
+     */
+    public boolean isAllowedForPrivilege(String privilegeName) {
+        return (courseLevel & getBit(privilegeName)) != 0;
+    }
+
+    /**
+     * @return whether the privilege specified by privilegeName is allowed in sectionName
+     */
+    public boolean isAllowedForPrivilege(String sectionName, String privilegeName) {
+        int bit = getBit(privilegeName);
+        Integer sectionId = sectionIds.get(sectionName);
+        int privileges = sectionId == null ? courseLevel : sectionLevel[sectionId];
+        return (privileges & bit) != 0;
+    }
+
+    /**
+     * @return whether the privilege specified by privilegeName is allowed for sessionName in sectionName
+     */
+    public boolean isAllowedForPrivilege(String sectionName, String sessionName, String privilegeName) {
+        int bit = getBit(privilegeName);
+        Integer sectionId = sectionIds.get(sectionName);
+        if (sectionId == null) {
+            return (courseLevel & bit) != 0;
+        }
+        Integer sessionId = sessionIds.get(sessionName);
+        int privileges = sessionId == null ? sectionLevel[sectionId] : sessionLevel[sectionId][sessionId];
+        return (privileges & bit) != 0;
+    }
+
+    /**
+     * Returns true if privilege for session is present for any section with special settings.
+     */
+    public boolean isAllowedForPrivilegeAnySection(String sessionName, String privilegeName) {
+        int bit = getBit(privilegeName);
+        Integer sessionId = sessionIds.get(sessionName);
+        for (int sectionId = 0; sectionId < sectionLevel.length; sectionId++) {
+            int privileges = sessionId == null ? sectionLevel[sectionId] : sessionLevel[sectionId][sessionId];
+            if ((privileges & bit) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int getBit(String privilegeName) {
+        Integer bit = PRIVILEGE_BITS.get(privilegeName);
+        Assumption.assertNotNull(bit);
+        return bit;
+    }
+
+    private static int toBits(Map<String, Boolean> privileges) {
+        int bits = 0;
+        for (Map.Entry<String, Boolean> privilege : privileges.entrySet()) {
+            Integer bit = PRIVILEGE_BITS.get(privilege.getKey());
+            if (bit != null && privilege.getValue() != null && privilege.getValue()) {
+                bits |= bit;
+            }
+        }
+        return bits;
+    }
+
+    private static Map<String, Integer> toIds(Set<String> names) {
+        Map<String, Integer> ids = new HashMap<String, Integer>();
+        for (String name : names) {
+            ids.put(name, ids.size());
+        }
+        return Collections.unmodifiableMap(ids);
+    }
+
+}
@@ -0,0 +1,222 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import teammates.common.util.Const;
+import teammates.common.util.FieldValidator;
+import teammates.common.util.JsonUtils;
+import teammates.storage.entity.CourseStructure;
+
+import com.google.appengine.api.datastore.Text;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * The sections and teams of a course, with the number of students and unregistered students in each team.
+ * Sections and teams are kept in the same order as the section and team names derived from the roster,
+ * and teams without students are dropped.
+ */
+public class CourseStructureAttributes extends EntityAttributes {
+
+    /**
+     * The number of students in a team, and how many of them have not registered yet.
+     */
+    public static class TeamStructure {
+        public int studentsTotal;
+        public int unregisteredTotal;
+    }
+
+    public String courseId;
+
+    /** Section name to team name to the team's counts. */
+    private TreeMap<String, TreeMap<String, TeamStructure>> sections;
+
+    public CourseStructureAttributes(String courseId) {
+        this.courseId = courseId;
+        this.sections = new TreeMap<String, TreeMap<String, TeamStructure>>();
+    }
+
+    public CourseStructureAttributes(CourseStructure structure) {
+        this.courseId = structure.getCourseId();
+        this.sections = JsonUtils.fromJson(structure.getStructure().getValue(),
+                new TypeToken<TreeMap<String, TreeMap<String, TeamStructure>>>(){}.getType());
+    }
+
+    /**
+     * @return the structure of the course with the given students
+     */
+    public static CourseStructureAttributes fromStudents(String courseId, List<StudentAttributes> students) {
+        CourseStructureAttributes structure = new CourseStructureAttributes(courseId);
+        for (StudentAttributes student : students) {
+            structure.addStudent(student);
+        }
+        return structure;
+    }
+
+    public void addStudent(StudentAttributes student) {
+        TreeMap<String, TeamStructure> teams = sections.get(student.section);
+        if (teams == null) {
+            teams = new TreeMap<String, TeamStructure>();
+            sections.put(student.section, teams);
+        }
+
+        TeamStructure team = teams.get(student.team);
+        if (team == null) {
+            team = new TeamStructure();
+            teams.put(student.team, team);
+        }
+
+        team.studentsTotal++;
+        if (!student.isRegistered()) {
+            team.unregisteredTotal++;
+        }
+    }
+
+    /**
+     * Removes a student, as the student was before being edited or deleted.
+     * @return false if the structure has no such student, i.e. it does not match the roster any more
+     */
+    public boolean removeStudent(StudentAttributes student) {
+        TreeMap<String, TeamStructure> teams = sections.get(student.section);
+        TeamStructure team = teams == null ? null : teams.get(student.team);
+        boolean isRegistered = student.isRegistered();
+        if (team == null || team.studentsTotal == 0 || !isRegistered && team.unregisteredTotal == 0
+                || isRegistered && team.studentsTotal == team.unregisteredTotal) {
+            return false;
+        }
+
+        team.studentsTotal--;
+        if (!isRegistered) {
+            team.unregisteredTotal--;
+        }
+
+        if (team.studentsTotal == 0) {
+            teams.remove(student.team);
+            if (teams.isEmpty()) {
+                sections.remove(student.section);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the sorted names of the sections, without the default section
+     */
+    public List<String> getSectionNames() {
+        List<String> sectionNames = new ArrayList<String>();
+        for (String sectionName : sections.keySet()) {
+            if (!sectionName.equals(Const.DEFAULT_SECTION)) {
+                sectionNames.add(sectionName);
+            }
+        }
+        return sectionNames;
+    }
+
+    /**
+     * @return the sorted names of the sections, including the default section if it has students
+     */
+    public List<String> getAllSectionNames() {
+        return new ArrayList<String>(sections.keySet());
+    }
+
+    /**
+     * @return the sorted names of the teams in all sections
+     */
+    public List<String> getTeamNames() {
+        Set<String> teamNames = new TreeSet<String>();
+        for (TreeMap<String, TeamStructure> teams : sections.values()) {
+            teamNames.addAll(teams.keySet());
+        }
+        return new ArrayList<String>(teamNames);
+    }
+
+    /**
+     * @return the teams of the section with their counts; empty if the section has no students
+     */
+    public Map<String, TeamStructure> getTeamsForSection(String sectionName) {
+        TreeMap<String, TeamStructure> teams = sections.get(sectionName);
+        return teams == null ? new TreeMap<String, TeamStructure>() : teams;
+    }
+
+    /**
+     * @return true if any student is in a section other than the default section
+     */
+    public boolean hasIndicatedSections() {
+        return !getSectionNames().isEmpty();
+    }
+
+    public int getStudentsTotal() {
+        int studentsTotal = 0;
+        for (TreeMap<String, TeamStructure> teams : sections.values()) {
+            for (TeamStructure team : teams.values()) {
+                studentsTotal += team.studentsTotal;
+            }
+        }
+        return studentsTotal;
+    }
+
+    public int getUnregisteredTotal() {
+        int unregisteredTotal = 0;
+        for (TreeMap<String, TeamStructure> teams : sections.values()) {
+            for (TeamStructure team : teams.values()) {
+                unregisteredTotal += team.unregisteredTotal;
+            }
+        }
+        return unregisteredTotal;
+    }
+
+    /**
+     * @return the sections, teams and counts as JSON, the same for structures of the same roster
+     */
+    public String getStructureAsJson() {
+        return JsonUtils.toJson(sections);
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+        FieldValidator validator = new FieldValidator();
+        List<String> errors = new ArrayList<String>();
+
+        String error = validator.getValidityInfoForNonNullField("course ID", courseId);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        return errors;
+    }
+
+    @Override
+    public Object toEntity() {
+        return new CourseStructure(courseId, new Text(getStructureAsJson()));
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return this.courseId;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Course Structure";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId;
+    }
+
+    @Override
+    public String getJsonString() {
+        return JsonUtils.toJson(this, CourseStructureAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // nothing to sanitize; the names are copied from students that are already sanitized
+    }
+
+}
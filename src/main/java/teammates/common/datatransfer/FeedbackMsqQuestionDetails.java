@@ -262,12 +262,7 @@ public class FeedbackMsqQuestionDetails extends FeedbackQuestionDetails {
             break;
         case TEAMS:
             try {
-                List<TeamDetailsBundle> teamList =
-                        CoursesLogic.inst().getTeamsForCourse(courseId);
-                
-                for (TeamDetailsBundle team : teamList) {
-                    optionList.add(team.name);
-                }
+                optionList.addAll(CoursesLogic.inst().getTeamNamesForCourse(courseId));
                 
                 Collections.sort(optionList);
             } catch (EntityDoesNotExistException e) {
@@ -0,0 +1,28 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents one page of feedback responses retrieved from the datastore.
+ * <br> Contains:
+ * <br> * The responses in this page.
+ * <br> * An opaque token to retrieve the next page, or {@code null} if this is the last page.
+ * A full page always has a token, so the page after it may turn out to be empty.
+ */
+public class FeedbackResponsesPage {
+    public List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+    public String nextPageToken;
+
+    public List<FeedbackResponseAttributes> getResponses() {
+        return responses;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean isLastPage() {
+        return nextPageToken == null;
+    }
+}
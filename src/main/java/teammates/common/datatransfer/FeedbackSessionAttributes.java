@@ -41,6 +41,11 @@ public class FeedbackSessionAttributes extends EntityAttributes implements Sessi
     private boolean isPublishedEmailEnabled;
     private transient Set<String> respondingInstructorList;
     private transient Set<String> respondingStudentList;
+    // null if not counted yet; not part of the JSON as they are maintained by the logic, not given by the user
+    private transient Integer expectedStudentRespondentCount;
+    private transient Integer expectedInstructorRespondentCount;
+    // null if no results snapshot has ever been started; only stored when a snapshot is started, never by copies
+    private transient Long resultsSnapshotVersion;
 
     public FeedbackSessionAttributes() {
         this.isOpeningEmailEnabled = true;
@@ -74,6 +79,9 @@ public class FeedbackSessionAttributes extends EntityAttributes implements Sessi
                                                                                  : fs.getRespondingInstructorList();
         this.respondingStudentList = fs.getRespondingStudentList() == null ? new HashSet<String>()
                                                                            : fs.getRespondingStudentList();
+        this.expectedStudentRespondentCount = fs.getExpectedStudentRespondentCount();
+        this.expectedInstructorRespondentCount = fs.getExpectedInstructorRespondentCount();
+        this.resultsSnapshotVersion = fs.getResultsSnapshotVersion();
     }
 
     public FeedbackSessionAttributes(String feedbackSessionName, String courseId, String creatorId,
@@ -160,12 +168,15 @@ public class FeedbackSessionAttributes extends EntityAttributes implements Sessi
 
     @Override
     public FeedbackSession toEntity() {
-        return new FeedbackSession(feedbackSessionName, courseId, creatorEmail, instructions, createdTime,
-                                   startTime, endTime, sessionVisibleFromTime, resultsVisibleFromTime,
-                                   timeZone, gracePeriod, feedbackSessionType, sentOpenEmail,
-                                   sentClosingEmail, sentClosedEmail, sentPublishedEmail,
-                                   isOpeningEmailEnabled, isClosingEmailEnabled, isPublishedEmailEnabled,
-                                   respondingInstructorList, respondingStudentList);
+        FeedbackSession fs = new FeedbackSession(feedbackSessionName, courseId, creatorEmail, instructions,
+                                                 createdTime, startTime, endTime, sessionVisibleFromTime,
+                                                 resultsVisibleFromTime, timeZone, gracePeriod, feedbackSessionType,
+                                                 sentOpenEmail, sentClosingEmail, sentClosedEmail, sentPublishedEmail,
+                                                 isOpeningEmailEnabled, isClosingEmailEnabled, isPublishedEmailEnabled,
+                                                 respondingInstructorList, respondingStudentList);
+        fs.setExpectedStudentRespondentCount(expectedStudentRespondentCount);
+        fs.setExpectedInstructorRespondentCount(expectedInstructorRespondentCount);
+        return fs;
     }
 
     @Override
@@ -730,4 +741,39 @@ public class FeedbackSessionAttributes extends EntityAttributes implements Sessi
     public void setRespondingStudentList(Set<String> respondingStudentList) {
         this.respondingStudentList = respondingStudentList;
     }
+
+    /**
+     * @return true if the numbers of students and instructors expected to respond have been counted
+     */
+    public boolean hasExpectedRespondentCounts() {
+        return expectedStudentRespondentCount != null && expectedInstructorRespondentCount != null;
+    }
+
+    public Integer getExpectedStudentRespondentCount() {
+        return expectedStudentRespondentCount;
+    }
+
+    public void setExpectedStudentRespondentCount(Integer expectedStudentRespondentCount) {
+        this.expectedStudentRespondentCount = expectedStudentRespondentCount;
+    }
+
+    public Integer getExpectedInstructorRespondentCount() {
+        return expectedInstructorRespondentCount;
+    }
+
+    public void setExpectedInstructorRespondentCount(Integer expectedInstructorRespondentCount) {
+        this.expectedInstructorRespondentCount = expectedInstructorRespondentCount;
+    }
+
+    /**
+     * @return the version of the last results snapshot started for the session, or null if the session
+     *         has never had one, in which case it has no snapshot to delete when its results change
+     */
+    public Long getResultsSnapshotVersion() {
+        return resultsSnapshotVersion;
+    }
+
+    public void setResultsSnapshotVersion(Long resultsSnapshotVersion) {
+        this.resultsSnapshotVersion = resultsSnapshotVersion;
+    }
 }
@@ -41,6 +41,12 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     public Map<String, List<FeedbackResponseCommentAttributes>> responseComments;
     public boolean isComplete;
 
+    /**
+     * Token to retrieve the next page of responses if the responses were retrieved page by page,
+     * {@code null} if there are no more responses.
+     */
+    public String nextPageToken;
+
     /**
      * Responses with identities of giver/recipients NOT hidden.
      * To be used for anonymous result calculation only, and identities hidden before showing to users.
@@ -66,6 +72,10 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     */
     public Map<String, Set<String>> sectionTeamNameTable;
 
+    // Key is a participant name, value is the hash of its encrypted name used in its anonymous name.
+    // The same participant appears in many responses, so each name is encrypted only once per bundle.
+    private Map<String, String> nameToHashOfEncryptedNameTable = new HashMap<String, String>();
+
     // Sorts by giverName > recipientName > qnNumber
     // General questions and team questions at the bottom.
     public Comparator<FeedbackResponseAttributes> compareByGiverRecipientQuestion =
@@ -778,8 +788,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             FeedbackParticipantType participantType = question.recipientType;
 
             if (!isRecipientVisible(response)) {
-                String anonEmail = getAnonEmail(participantType, name);
-                name = getAnonName(participantType, name);
+                name = getAnonNameFromTable(participantType, name);
+                String anonEmail = getAnonEmailFromAnonName(name);
 
                 emailNameTable.put(anonEmail, name);
                 emailTeamNameTable.put(anonEmail, name + Const.TEAM_OF_EMAIL_OWNER);
@@ -792,8 +802,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
             participantType = question.giverType;
 
             if (!isGiverVisible(response)) {
-                String anonEmail = getAnonEmail(participantType, name);
-                name = getAnonName(participantType, name);
+                name = getAnonNameFromTable(participantType, name);
+                String anonEmail = getAnonEmailFromAnonName(name);
 
                 emailNameTable.put(anonEmail, name);
                 emailTeamNameTable.put(anonEmail, name + Const.TEAM_OF_EMAIL_OWNER);
@@ -844,13 +854,16 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     }
 
     public static String getAnonEmail(FeedbackParticipantType type, String name) {
-        String anonName = getAnonName(type, name);
+        return getAnonEmailFromAnonName(getAnonName(type, name));
+    }
+
+    private static String getAnonEmailFromAnonName(String anonName) {
         return anonName + "@@" + anonName + ".com";
     }
 
     public String getAnonEmailFromStudentEmail(String studentEmail) {
         String name = roster.getStudentForEmail(studentEmail).name;
-        return getAnonEmail(FeedbackParticipantType.STUDENTS, name);
+        return getAnonEmailFromAnonName(getAnonNameFromTable(FeedbackParticipantType.STUDENTS, name));
     }
     
     public String getAnonNameWithoutNumericalId(FeedbackParticipantType type) {
@@ -858,7 +871,22 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     }
 
     public static String getAnonName(FeedbackParticipantType type, String name) {
-        String hashedEncryptedName = getHashOfName(getEncryptedName(name));
+        return getAnonNameFromHash(type, getHashOfName(getEncryptedName(name)));
+    }
+
+    /**
+     * Same as {@link #getAnonName(FeedbackParticipantType, String)}, but encrypts each name only once per bundle.
+     */
+    private String getAnonNameFromTable(FeedbackParticipantType type, String name) {
+        String hashedEncryptedName = nameToHashOfEncryptedNameTable.get(name);
+        if (hashedEncryptedName == null) {
+            hashedEncryptedName = getHashOfName(getEncryptedName(name));
+            nameToHashOfEncryptedNameTable.put(name, hashedEncryptedName);
+        }
+        return getAnonNameFromHash(type, hashedEncryptedName);
+    }
+
+    private static String getAnonNameFromHash(FeedbackParticipantType type, String hashedEncryptedName) {
         String participantType = type.toSingularFormString();
         return String.format("Anonymous %s %s", participantType, hashedEncryptedName);
     }
@@ -2249,4 +2277,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return isComplete;
     }
 
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
 }
@@ -0,0 +1,194 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.common.util.Const;
+import teammates.common.util.FieldValidator;
+import teammates.common.util.JsonUtils;
+import teammates.storage.entity.FeedbackSessionResultsSnapshot;
+
+/**
+ * The questions, responses and response comments of a closed feedback session, as they were when
+ * the snapshot was built. The data does not depend on who views the results; what each user can see
+ * is worked out from it in the same way as from the responses and comments in the datastore.<br>
+ * A snapshot read from the datastore only has its version and state; the data is read from
+ * Google Cloud Storage together with it when the snapshot is ready.
+ */
+public class FeedbackSessionResultsSnapshotAttributes extends EntityAttributes {
+
+    public String feedbackSessionName;
+    public String courseId;
+    public long version;
+    public boolean isReady;
+
+    private List<FeedbackQuestionAttributes> questions = new ArrayList<FeedbackQuestionAttributes>();
+    /** Sorted by ID, the order in which the datastore returns responses page by page. */
+    private List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+    private List<FeedbackResponseCommentAttributes> responseComments =
+            new ArrayList<FeedbackResponseCommentAttributes>();
+
+    public FeedbackSessionResultsSnapshotAttributes(String feedbackSessionName, String courseId, long version,
+                                                    boolean isReady) {
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.version = version;
+        this.isReady = isReady;
+    }
+
+    public FeedbackSessionResultsSnapshotAttributes(FeedbackSessionResultsSnapshot snapshot) {
+        this(snapshot.getFeedbackSessionName(), snapshot.getCourseId(), snapshot.getVersion(), snapshot.isReady());
+    }
+
+    public List<FeedbackQuestionAttributes> getQuestions() {
+        return questions;
+    }
+
+    public List<FeedbackResponseAttributes> getResponses() {
+        return responses;
+    }
+
+    public List<FeedbackResponseCommentAttributes> getResponseComments() {
+        return responseComments;
+    }
+
+    public void setData(List<FeedbackQuestionAttributes> questions, List<FeedbackResponseAttributes> responses,
+                        List<FeedbackResponseCommentAttributes> responseComments) {
+        this.questions = questions;
+        this.responses = responses;
+        this.responseComments = responseComments;
+    }
+
+    /**
+     * @return null if the session has no such question
+     */
+    public FeedbackQuestionAttributes getQuestion(String feedbackQuestionId) {
+        for (FeedbackQuestionAttributes question : questions) {
+            if (question.getId().equals(feedbackQuestionId)) {
+                return question;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the responses given by or to the section, or all responses if {@code section} is null
+     */
+    public List<FeedbackResponseAttributes> getResponsesInSection(String section) {
+        List<FeedbackResponseAttributes> responsesInSection = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responses) {
+            if (section == null || section.equals(response.giverSection) || section.equals(response.recipientSection)) {
+                responsesInSection.add(response);
+            }
+        }
+        return responsesInSection;
+    }
+
+    /**
+     * @return the responses given by the section, or all responses if {@code section} is null
+     */
+    public List<FeedbackResponseAttributes> getResponsesFromSection(String section) {
+        List<FeedbackResponseAttributes> responsesFromSection = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responses) {
+            if (section == null || section.equals(response.giverSection)) {
+                responsesFromSection.add(response);
+            }
+        }
+        return responsesFromSection;
+    }
+
+    /**
+     * @return the responses given to the section, or all responses if {@code section} is null
+     */
+    public List<FeedbackResponseAttributes> getResponsesToSection(String section) {
+        List<FeedbackResponseAttributes> responsesToSection = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responses) {
+            if (section == null || section.equals(response.recipientSection)) {
+                responsesToSection.add(response);
+            }
+        }
+        return responsesToSection;
+    }
+
+    /**
+     * @return the responses to the question given by or to the section,
+     *         or all responses to the question if {@code section} is null
+     */
+    public List<FeedbackResponseAttributes> getResponsesForQuestionInSection(String feedbackQuestionId,
+                                                                             String section) {
+        List<FeedbackResponseAttributes> responsesForQuestion = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : getResponsesInSection(section)) {
+            if (response.feedbackQuestionId.equals(feedbackQuestionId)) {
+                responsesForQuestion.add(response);
+            }
+        }
+        return responsesForQuestion;
+    }
+
+    /**
+     * @return the comments given by or to the section, or all comments if {@code section} is null
+     */
+    public List<FeedbackResponseCommentAttributes> getResponseCommentsInSection(String section) {
+        List<FeedbackResponseCommentAttributes> commentsInSection =
+                new ArrayList<FeedbackResponseCommentAttributes>();
+        for (FeedbackResponseCommentAttributes comment : responseComments) {
+            if (section == null || section.equals(comment.giverSection) || section.equals(comment.receiverSection)) {
+                commentsInSection.add(comment);
+            }
+        }
+        return commentsInSection;
+    }
+
+    public String getSnapshotId() {
+        return feedbackSessionName + "%" + courseId;
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+        FieldValidator validator = new FieldValidator();
+        List<String> errors = new ArrayList<String>();
+
+        String error = validator.getValidityInfoForNonNullField("feedback session name", feedbackSessionName);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getValidityInfoForNonNullField("course ID", courseId);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        return errors;
+    }
+
+    @Override
+    public Object toEntity() {
+        return new FeedbackSessionResultsSnapshot(feedbackSessionName, courseId, version, isReady);
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return getSnapshotId() + "/" + version;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Feedback Session Results Snapshot";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId;
+    }
+
+    @Override
+    public String getJsonString() {
+        return JsonUtils.toJson(this, FeedbackSessionResultsSnapshotAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // nothing to sanitize; the data is copied from entities that are already sanitized
+    }
+
+}
@@ -0,0 +1,164 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import teammates.common.util.Const;
+import teammates.common.util.FieldValidator;
+import teammates.common.util.JsonUtils;
+import teammates.storage.entity.FeedbackSessionSummary;
+
+/**
+ * The admin-facing summary of a feedback session: its time window and its creator.
+ * The instructors of its course and their institutes are not kept here, as they change without
+ * any write to the session; they are looked up when the summaries are shown.
+ * The status of the session is not stored as it changes with time;
+ * it is derived from the times kept here, see {@link #toFeedbackSessionAttributes()}.
+ */
+public class FeedbackSessionSummaryAttributes extends EntityAttributes {
+
+    public String feedbackSessionName;
+    public String courseId;
+    public String creatorEmail;
+    public Date startTime;
+    public Date endTime;
+    public Date sessionVisibleFromTime;
+    public Date resultsVisibleFromTime;
+    public double timeZone;
+    public int gracePeriod;
+
+    public FeedbackSessionSummaryAttributes(FeedbackSessionSummary summary) {
+        this.feedbackSessionName = summary.getFeedbackSessionName();
+        this.courseId = summary.getCourseId();
+        this.creatorEmail = summary.getCreatorEmail();
+        this.startTime = summary.getStartTime();
+        this.endTime = summary.getEndTime();
+        this.sessionVisibleFromTime = summary.getSessionVisibleFromTime();
+        this.resultsVisibleFromTime = summary.getResultsVisibleFromTime();
+        this.timeZone = summary.getTimeZone();
+        this.gracePeriod = summary.getGracePeriod();
+    }
+
+    public FeedbackSessionSummaryAttributes(FeedbackSessionAttributes session) {
+        this.feedbackSessionName = session.getFeedbackSessionName();
+        this.courseId = session.getCourseId();
+        this.creatorEmail = session.getCreatorEmail();
+        this.startTime = session.getStartTime();
+        this.endTime = session.getEndTime();
+        this.sessionVisibleFromTime = session.getSessionVisibleFromTime();
+        this.resultsVisibleFromTime = session.getResultsVisibleFromTime();
+        this.timeZone = session.getTimeZone();
+        this.gracePeriod = session.getGracePeriod();
+    }
+
+    /**
+     * @return a session with only the fields kept in the summary set,
+     *         enough to show the session and its status in the admin sessions page
+     */
+    public FeedbackSessionAttributes toFeedbackSessionAttributes() {
+        FeedbackSessionAttributes session = new FeedbackSessionAttributes();
+        session.setFeedbackSessionName(feedbackSessionName);
+        session.setCourseId(courseId);
+        session.setCreatorEmail(creatorEmail);
+        session.setStartTime(startTime);
+        session.setEndTime(endTime);
+        session.setSessionVisibleFromTime(sessionVisibleFromTime);
+        session.setResultsVisibleFromTime(resultsVisibleFromTime);
+        session.setTimeZone(timeZone);
+        session.setGracePeriod(gracePeriod);
+        return session;
+    }
+
+    /**
+     * @return true if the session described by this summary would be summarised
+     *         differently from the given session, i.e. the summary has to be rewritten
+     */
+    public boolean isOutdatedFor(FeedbackSessionAttributes session) {
+        return !startTime.equals(session.getStartTime())
+               || !endTime.equals(session.getEndTime())
+               || !sessionVisibleFromTime.equals(session.getSessionVisibleFromTime())
+               || !resultsVisibleFromTime.equals(session.getResultsVisibleFromTime())
+               || timeZone != session.getTimeZone()
+               || gracePeriod != session.getGracePeriod()
+               || !creatorEmail.equals(session.getCreatorEmail());
+    }
+
+    @Override
+    public List<String> getInvalidityInfo() {
+        FieldValidator validator = new FieldValidator();
+        List<String> errors = new ArrayList<String>();
+        String error;
+
+        error = validator.getValidityInfoForNonNullField("feedback session name", feedbackSessionName);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getValidityInfoForNonNullField("course ID", courseId);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getValidityInfoForNonNullField("creator's email", creatorEmail);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getValidityInfoForNonNullField("session start time", startTime);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getValidityInfoForNonNullField("session end time", endTime);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getValidityInfoForNonNullField("time for the session to become visible",
+                                                         sessionVisibleFromTime);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        error = validator.getValidityInfoForNonNullField("time for the responses to become visible",
+                                                         resultsVisibleFromTime);
+        if (!error.isEmpty()) {
+            errors.add(error);
+        }
+
+        return errors;
+    }
+
+    @Override
+    public Object toEntity() {
+        return new FeedbackSessionSummary(feedbackSessionName, courseId, creatorEmail, startTime, endTime,
+                                          sessionVisibleFromTime, resultsVisibleFromTime, timeZone, gracePeriod);
+    }
+
+    @Override
+    public String getIdentificationString() {
+        return this.feedbackSessionName + "/" + this.courseId;
+    }
+
+    @Override
+    public String getEntityTypeAsString() {
+        return "Feedback Session Summary";
+    }
+
+    @Override
+    public String getBackupIdentifier() {
+        return Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId;
+    }
+
+    @Override
+    public String getJsonString() {
+        return JsonUtils.toJson(this, FeedbackSessionSummaryAttributes.class);
+    }
+
+    @Override
+    public void sanitizeForSaving() {
+        // nothing to sanitize; the fields are copied from a session that is already sanitized
+    }
+
+}
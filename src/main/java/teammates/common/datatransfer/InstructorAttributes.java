@@ -317,6 +317,17 @@ public class InstructorAttributes extends EntityAttributes {
         return privileges.isAllowedForPrivilegeAnySection(sessionName, privilegeName);
     }
 
+    /**
+     * @return a snapshot of the privileges for checking them many times, e.g. per response in a results page.
+     *         It is not updated by later changes to {@link #privileges}.
+     */
+    public CompiledInstructorPrivileges compilePrivileges() {
+        if (privileges == null) {
+            privileges = new InstructorPrivileges(Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER);
+        }
+        return privileges.compile();
+    }
+
     public boolean hasCoownerPrivileges() {
         return privileges.hasCoownerPrivileges();
     }
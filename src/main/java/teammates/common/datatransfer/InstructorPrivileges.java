@@ -1,6 +1,7 @@
 package teammates.common.datatransfer;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -143,6 +144,13 @@ public final class InstructorPrivileges {
         }
     }
     
+    /**
+     * @return the names of all privileges, in a fixed order
+     */
+    static Set<String> getPrivilegeNames() {
+        return Collections.unmodifiableSet(PRIVILEGES_COOWNER.keySet());
+    }
+    
     public static boolean isPrivilegeNameValid(String privilegeName) {
         return COURSE_LEVEL_ONLY_PRIVILEGES.contains(privilegeName)
                 || SECTION_LEVEL_ONLY_PRIVILEGES.contains(privilegeName)
@@ -520,6 +528,14 @@ public final class InstructorPrivileges {
         return false;
     }
     
+    /**
+     * @return an immutable snapshot of these privileges for fast repeated checks,
+     *         e.g. once per response when building a results bundle
+     */
+    public CompiledInstructorPrivileges compile() {
+        return new CompiledInstructorPrivileges(courseLevel, sectionLevel, sessionLevel);
+    }
+    
     /**
      * validate the privileges in course level, section level and session level
      * make sure there is nothing wrong with privileges hierarchy by adding the
@@ -0,0 +1,19 @@
+package teammates.common.datatransfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents what is shown to a student on the home page.
+ * <br> Contains:
+ * <br> * details of the courses the student is enrolled in, with the feedback sessions
+ *        viewable to the student (as {@link CourseDetailsBundle} objects)
+ * <br> * whether the student has completed each of those sessions
+ */
+public class StudentDashboardBundle {
+    public List<CourseDetailsBundle> courses = new ArrayList<CourseDetailsBundle>();
+    public Map<FeedbackSessionAttributes, Boolean> sessionSubmissionStatusMap =
+            new HashMap<FeedbackSessionAttributes, Boolean>();
+}
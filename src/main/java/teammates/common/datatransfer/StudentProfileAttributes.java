@@ -28,6 +28,8 @@ public class StudentProfileAttributes extends EntityAttributes {
     public String gender; // only accepts "male", "female" or "other"
     public String moreInfo;
     public String pictureKey;
+    /** The picture scaled down for pages listing many students; empty if there is none yet */
+    public String pictureThumbnailKey = "";
     public Date modifiedDate;
 
     public StudentProfileAttributes(String googleId, String shortName, String email, String institute,
@@ -51,6 +53,7 @@ public class StudentProfileAttributes extends EntityAttributes {
         this.gender = sp.getGender();
         this.moreInfo = sp.getMoreInfo().getValue();
         this.pictureKey = sp.getPictureKey().getKeyString();
+        this.pictureThumbnailKey = sp.getPictureThumbnailKey().getKeyString();
         this.modifiedDate = sp.getModifiedDate();
     }
 
@@ -151,8 +154,18 @@ public class StudentProfileAttributes extends EntityAttributes {
 
     @Override
     public Object toEntity() {
-        return new StudentProfile(googleId, shortName, email, institute, nationality, gender,
-                                  new Text(moreInfo), new BlobKey(this.pictureKey));
+        StudentProfile profile = new StudentProfile(googleId, shortName, email, institute, nationality, gender,
+                                                    new Text(moreInfo), new BlobKey(this.pictureKey));
+        profile.setPictureThumbnailKey(new BlobKey(this.pictureThumbnailKey));
+        return profile;
+    }
+
+    /**
+     * @return the key of the picture to show on pages listing many students:
+     *         the thumbnail if there is one, the picture otherwise
+     */
+    public String getPictureKeyForListing() {
+        return pictureThumbnailKey == null || pictureThumbnailKey.isEmpty() ? pictureKey : pictureThumbnailKey;
     }
 
     @Override
@@ -29,7 +29,8 @@ public class ActivityLogEntry {
     
     // The following constants describe the positions of the attributes
     // in the log message. i.e
-    // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||MESSAGE(IN HTML)|||URL|||TIME_TAKEN
+    // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||MESSAGE(IN HTML)|||URL|||ID
+    // |||TIME_TAKEN|||REQUEST_COSTS
     public static final int POSITION_OF_SERVLETNAME = 1;
     public static final int POSITION_OF_ACTION = 2;
     public static final int POSITION_OF_TOSHOW = 3;
@@ -41,6 +42,7 @@ public class ActivityLogEntry {
     public static final int POSITION_OF_URL = 9;
     public static final int POSITION_OF_ID = 10;
     public static final int POSITION_OF_TIMETAKEN = 11;
+    public static final int POSITION_OF_REQUESTCOSTS = 12;
     
     private static final int TIME_TAKEN_WARNING_LOWER_RANGE = 10000;
     private static final int TIME_TAKEN_WARNING_UPPER_RANGE = 20000;
@@ -59,6 +61,7 @@ public class ActivityLogEntry {
     private String message;
     private String url;
     private Long timeTaken;
+    private RequestCosts requestCosts;
     
     // id can be in the form of <googleId>%<time> e.g. bamboo3250%20151103170618465
     // or <studentemail>%<courseId>%<time> (for unregistered students)
@@ -217,7 +220,7 @@ public class ActivityLogEntry {
     
     private void initUsingAppLogMessage(String[] tokens) {
         // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||
-        // MESSAGE(IN HTML)|||URL|||ID|||TIME_TAKEN
+        // MESSAGE(IN HTML)|||URL|||ID|||TIME_TAKEN|||REQUEST_COSTS
         servletName = tokens[POSITION_OF_SERVLETNAME];
         action = tokens[POSITION_OF_ACTION];
         toShow = Boolean.parseBoolean(tokens[POSITION_OF_TOSHOW]);
@@ -232,10 +235,15 @@ public class ActivityLogEntry {
         if (isLogWithTimeTakenAndId) {
             id = tokens[POSITION_OF_ID];
             try {
-                timeTaken = tokens.length == 12 ? Long.parseLong(tokens[POSITION_OF_TIMETAKEN].trim())
-                                                : null;
+                timeTaken = tokens.length > POSITION_OF_TIMETAKEN ? Long.parseLong(tokens[POSITION_OF_TIMETAKEN].trim())
+                                                                  : null;
+                // logs written before the request costs were recorded do not have them
+                requestCosts = tokens.length > POSITION_OF_REQUESTCOSTS
+                             ? RequestCosts.fromLogToken(tokens[POSITION_OF_REQUESTCOSTS])
+                             : null;
             } catch (NumberFormatException e) {
                 timeTaken = null;
+                requestCosts = null;
                 log.severe("Log message format not as expected: " + Arrays.toString(tokens));
             }
         }
@@ -254,6 +262,7 @@ public class ActivityLogEntry {
         url = "Unknown";
         id = "Unknown" + "%" + formatTimeForId(new Date(time));
         timeTaken = null;
+        requestCosts = null;
     }
 
     private String changeRoleToAutoIfAutomatedActions(String servletName, String role) {
@@ -481,6 +490,36 @@ public class ActivityLogEntry {
         return timeTaken;
     }
     
+    /**
+     * @return the costs of serving the request, or null if they were not logged
+     */
+    public RequestCosts getRequestCosts() {
+        return requestCosts;
+    }
+    
+    /**
+     * @return the number of service calls of each category made by the request, and the entities it read
+     *         and wrote, as html; categories without calls are left out
+     */
+    public String getRequestCostsAsHtml() {
+        if (requestCosts == null) {
+            return "";
+        }
+        
+        StringBuilder costsHtml = new StringBuilder(200);
+        costsHtml.append("<p class=\"text-muted request-costs\"><small>");
+        for (String category : RequestCosts.getCategories()) {
+            int calls = requestCosts.getCalls(category);
+            if (calls > 0) {
+                costsHtml.append(category + ": " + calls + " (" + requestCosts.getMillis(category) + "ms)<br>");
+            }
+        }
+        costsHtml.append(RequestCosts.ENTITIES_READ + ": " + requestCosts.getEntitiesRead() + "<br>"
+                         + RequestCosts.ENTITIES_WRITTEN + ": " + requestCosts.getEntitiesWritten()
+                         + "</small></p>");
+        return costsHtml.toString();
+    }
+    
     /**
      * Generates the ID for the log. If the googleId is unknown or unregistered,
      * the email and course of the {@code student} will be used to construct the id.
@@ -585,6 +624,7 @@ public class ActivityLogEntry {
                      + "<p class=\"" + getColorCode(getTimeTaken()) + "\">"
                          + "<strong>" + TimeHelper.convertToStandardDuration(getTimeTaken()) + "</strong>"
                      + "</p>"
+                     + getRequestCostsAsHtml()
                  + "</td>"
                  + "<td class=\"" + getTableCellColorCode(timeTaken) + "\">"
                      + "<form method=\"get\" action=\"" + Const.ActionURIs.ADMIN_ACTIVITY_LOG_PAGE + "\">"
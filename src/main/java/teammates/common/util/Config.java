@@ -26,6 +26,12 @@ public final class Config {
     /** The value of the "app.persistence.checkduration" in build.properties file */
     public static final int PERSISTENCE_CHECK_DURATION;
     
+    /** The value of the "app.search.backend" in build.properties file */
+    public static final String SEARCH_BACKEND;
+    
+    /** The value of the "app.search.embedded.directory" in build.properties file */
+    public static final String SEARCH_EMBEDDED_DIRECTORY;
+    
     /** The value of the "app.crashreport.email" in build.properties file */
     public static final String SUPPORT_EMAIL;
     
@@ -71,6 +77,8 @@ public final class Config {
         GCS_BUCKETNAME = properties.getProperty("app.gcs.bucketname");
         ENCRYPTION_KEY = properties.getProperty("app.encryption.key");
         PERSISTENCE_CHECK_DURATION = Integer.valueOf(properties.getProperty("app.persistence.checkduration"));
+        SEARCH_BACKEND = properties.getProperty("app.search.backend", "appengine");
+        SEARCH_EMBEDDED_DIRECTORY = properties.getProperty("app.search.embedded.directory", "");
         SUPPORT_EMAIL = properties.getProperty("app.crashreport.email");
         STUDENT_MOTD_URL = properties.getProperty("app.student.motd.url");
         EMAIL_SENDEREMAIL = properties.getProperty("app.email.senderemail");
@@ -113,6 +121,14 @@ public final class Config {
         return SystemProperty.environment.value() == SystemProperty.Environment.Value.Development;
     }
 
+    /**
+     * @return true if the system is running at the production environment,
+     *         as opposed to the development server or tests
+     */
+    public static boolean isProductionServer() {
+        return SystemProperty.environment.value() == SystemProperty.Environment.Value.Production;
+    }
+
     /**
      * Creates an {@link AppUrl} for the supplied {@code relativeUrl} parameter.
      * The base URL will be the value of app.url in build.properties.
@@ -127,7 +127,10 @@ public final class Const {
         /** This is the limit after which TEAMMATES will send error message.
          * Must be within the range of int */
         public static final int MAX_PROFILE_PIC_SIZE = 5000000;
-        
+
+        /** The largest width and height of the profile picture shown on pages listing many students */
+        public static final int PROFILE_PIC_THUMBNAIL_SIZE = 150;
+
         /** This is the limit given to Blobstore API, beyond which an ugly error page is shown */
         public static final long MAX_FILE_LIMIT_FOR_BLOBSTOREAPI = 11000000;
         
@@ -590,6 +593,7 @@ public final class Const {
         public static final String CSV_TO_HTML_TABLE_NEEDED = "csvtohtmltable";
         
         public static final String COURSE_ID = "courseid";
+        public static final String COURSE_DELETION_STAGE = "coursedeletionstage";
         public static final String COURSE_NAME = "coursename";
         public static final String COURSE_INDEX = "courseidx";
         public static final String COURSE_TIME_ZONE = "coursetimezone";
@@ -646,8 +650,12 @@ public final class Const {
         public static final String ADMIN_EMAIL_EMPTY_TRASH_BIN = "emptytrashbin";
         public static final String ADMIN_EMAIL_TRASH_ACTION_REDIRECT = "redirect";
         
+        public static final String ADMIN_GROUP_RECEIVER_EMAIL_OFFSET = "emailoffset";
+        // only found in tasks queued before the offset was used
         public static final String ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX = "emaillistindex";
         public static final String ADMIN_GROUP_RECEIVER_EMAIL_INDEX = "emailindex";
+        
+        public static final String RESULTS_SNAPSHOT_VERSION = "snapshotversion";
     
         public static final String FEEDBACK_SESSION_NAME = "fsname";
         public static final String FEEDBACK_SESSION_INDEX = "fsindex";
@@ -742,6 +750,7 @@ public final class Const {
         public static final String FEEDBACK_RESULTS_INDICATE_MISSING_RESPONSES = "frindicatemissingresponses";
         public static final String FEEDBACK_RESULTS_NEED_AJAX = "frneedajax";
         public static final String FEEDBACK_RESULTS_MAIN_INDEX = "frmainindex";
+        public static final String FEEDBACK_RESULTS_PAGE_TOKEN = "frpagetoken";
 
         public static final String PREVIEWAS = "previewas";
         
@@ -1022,9 +1031,24 @@ public final class Const {
         public static final String ADMIN_SEND_EMAIL_QUEUE_NAME = "admin-send-email-queue";
         public static final String ADMIN_SEND_EMAIL_WORKER_URL = "/worker/adminSendEmail";
         
+        public static final String COURSE_DELETION_QUEUE_NAME = "course-deletion-queue";
+        public static final String COURSE_DELETION_WORKER_URL = "/worker/courseDeletion";
+        
+        public static final String COURSE_STRUCTURE_QUEUE_NAME = "course-structure-queue";
+        public static final String COURSE_STRUCTURE_WORKER_URL = "/worker/courseStructure";
+        
         public static final String COURSE_JOIN_REMIND_EMAIL_QUEUE_NAME = "course-join-remind-email-queue";
         public static final String COURSE_JOIN_REMIND_EMAIL_WORKER_URL = "/worker/courseJoinRemindEmail";
         
+        public static final String FEEDBACK_SESSION_COPY_QUEUE_NAME = "feedback-session-copy-queue";
+        public static final String FEEDBACK_SESSION_COPY_WORKER_URL = "/worker/feedbackSessionCopy";
+        
+        public static final String FEEDBACK_SESSION_RESPONDENT_COUNT_QUEUE_NAME = "feedback-session-respondent-count-queue";
+        public static final String FEEDBACK_SESSION_RESPONDENT_COUNT_WORKER_URL = "/worker/feedbackSessionRespondentCount";
+        
+        public static final String FEEDBACK_SESSION_RESULTS_SNAPSHOT_QUEUE_NAME = "feedback-session-results-snapshot-queue";
+        public static final String FEEDBACK_SESSION_RESULTS_SNAPSHOT_WORKER_URL = "/worker/feedbackSessionResultsSnapshot";
+        
         public static final String FEEDBACK_SESSION_REMIND_EMAIL_QUEUE_NAME = "feedback-session-remind-email-queue";
         public static final String FEEDBACK_SESSION_REMIND_EMAIL_WORKER_URL = "/worker/feedbackSessionRemindEmail";
         
@@ -1285,6 +1309,9 @@ public final class Const {
                 + "please refresh the page after a few moments";
         public static final String FEEDBACK_SESSION_COPIED =
                 "The feedback session has been copied. Please modify settings/questions as necessary.";
+        public static final String FEEDBACK_SESSION_COPY_SCHEDULED =
+                "The feedback session is being copied to %d courses. "
+                + "The copies will appear in the list below as they are created; refresh the page to see them.";
         public static final String FEEDBACK_SESSION_COPY_NONESELECTED =
                 "You have not selected any course to copy the feedback session to";
         public static final String FEEDBACK_SESSION_COPY_ALREADYEXISTS =
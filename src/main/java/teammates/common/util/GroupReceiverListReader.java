@@ -0,0 +1,189 @@
+package teammates.common.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.blobstore.BlobstoreInputStream;
+
+/**
+ * Reads the email addresses of an admin email group receiver list (a comma-separated txt file
+ * in the Google Cloud Storage) in batches, without loading the whole file into memory.<br>
+ * The reader keeps track of the byte offset just after the last address it has returned, so that
+ * a task that runs out of time can stop after any batch and a new reader can resume from
+ * {@link #getOffset()} without skipping or repeating addresses.<br>
+ * Addresses are trimmed; empty entries are ignored and invalid addresses are logged and skipped.
+ */
+public final class GroupReceiverListReader implements Closeable {
+
+    // well below the amount of data that can be fetched from the blobstore at a time
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // the number of bytes read into each list of addresses when tasks resumed by list and address index
+    private static final long LEGACY_LIST_LENGTH = 900000;
+    private static final byte SEPARATOR = ',';
+    private static final Logger log = Logger.getLogger();
+
+    private final InputStream blobStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteArrayOutputStream currentEntry = new ByteArrayOutputStream();
+    private final FieldValidator validator = new FieldValidator();
+
+    private int bufferLength;
+    private int bufferPosition;
+    private boolean isEndOfFile;
+
+    // the offset just after the separator (or the end of the file) following the last entry read
+    private long offset;
+    private int numberOfInvalidAddresses;
+
+    /**
+     * Opens the file with the specified {@link BlobKey}, to be read from the given byte {@code offset},
+     * which is either 0 or an offset returned by {@link #getOffset()} of a previous reader of the file.
+     */
+    public GroupReceiverListReader(BlobKey blobKey, long offset) throws IOException {
+        Assumption.assertNotNull(blobKey);
+        Assumption.assertTrue(offset >= 0);
+
+        this.blobStream = new BlobstoreInputStream(blobKey, offset);
+        this.offset = offset;
+    }
+
+    /**
+     * Translates the position of a task queued before tasks resumed by offset, given as the index of a list of
+     * addresses read from the file 900000 bytes at a time and the index of an entry in that list, where an
+     * address split between two lists belonged to the earlier list.
+     * @return the offset from which a reader starts with the entry at that position
+     */
+    public static long getOffsetOfLegacyPosition(BlobKey blobKey, int listIndex, int entryIndex) throws IOException {
+        Assumption.assertTrue(listIndex >= 0 && entryIndex >= 0);
+
+        if (listIndex == 0) {
+            try (GroupReceiverListReader reader = new GroupReceiverListReader(blobKey, 0)) {
+                reader.skipEntries(entryIndex);
+                return reader.getOffset();
+            }
+        }
+
+        // starting from the byte before the list, the first entry is either the end of an address split
+        // from the previous list or, if the list started with a whole address, only the separator
+        try (GroupReceiverListReader reader =
+                new GroupReceiverListReader(blobKey, listIndex * LEGACY_LIST_LENGTH - 1)) {
+            reader.skipEntries(1 + entryIndex);
+            return reader.getOffset();
+        }
+    }
+
+    /**
+     * Reads the next valid email addresses in the file.
+     * @return at most {@code batchSize} addresses, in the order they appear in the file;
+     *         fewer than {@code batchSize} addresses only if the end of the file has been reached
+     */
+    public List<String> readBatch(int batchSize) throws IOException {
+        List<String> batch = new ArrayList<String>();
+
+        while (batch.size() < batchSize) {
+            String entry = readEntry();
+            if (entry == null) {
+                break;
+            }
+
+            if (entry.isEmpty()) {
+                continue;
+            }
+
+            String error = validator.getInvalidityInfoForEmail(entry);
+            if (error.isEmpty()) {
+                batch.add(entry);
+            } else {
+                numberOfInvalidAddresses++;
+                log.warning("Skipping invalid address in group receiver list at offset " + offset + ": " + error);
+            }
+        }
+
+        return batch;
+    }
+
+    /**
+     * @return true if all addresses in the file have been read
+     */
+    public boolean isEndOfFile() {
+        return isEndOfFile;
+    }
+
+    /**
+     * @return the byte offset from which a new reader would continue with the address
+     *         following the last one returned by this reader
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the number of invalid addresses skipped by this reader
+     */
+    public int getNumberOfInvalidAddresses() {
+        return numberOfInvalidAddresses;
+    }
+
+    @Override
+    public void close() throws IOException {
+        blobStream.close();
+    }
+
+    /**
+     * Skips the next {@code numberOfEntries} entries in the file, whether or not they are valid addresses.
+     */
+    private void skipEntries(int numberOfEntries) throws IOException {
+        for (int i = 0; i < numberOfEntries && readEntry() != null; i++) {
+            // the entry is discarded
+        }
+    }
+
+    /**
+     * Reads up to and including the next separator (or the end of the file).
+     * @return the trimmed entry before the separator, or null if the end of the file has been reached
+     */
+    private String readEntry() throws IOException {
+        if (isEndOfFile) {
+            return null;
+        }
+
+        currentEntry.reset();
+        long bytesConsumed = 0;
+
+        while (true) {
+            if (bufferPosition == bufferLength && !fillBuffer()) {
+                isEndOfFile = true;
+                if (bytesConsumed == 0) {
+                    return null;
+                }
+                break;
+            }
+
+            byte b = buffer[bufferPosition++];
+            bytesConsumed++;
+            if (b == SEPARATOR) {
+                break;
+            }
+            currentEntry.write(b);
+        }
+
+        offset += bytesConsumed;
+        return currentEntry.toString(Const.SystemParams.ENCODING).trim();
+    }
+
+    private boolean fillBuffer() throws IOException {
+        bufferPosition = 0;
+        bufferLength = blobStream.read(buffer, 0, BUFFER_SIZE);
+        if (bufferLength <= 0) {
+            bufferLength = 0;
+            return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,82 @@
+package teammates.common.util;
+
+import com.google.appengine.api.images.Image;
+import com.google.appengine.api.images.ImagesService;
+import com.google.appengine.api.images.ImagesServiceFactory;
+import com.google.appengine.api.images.OutputSettings;
+import com.google.appengine.api.images.Transform;
+
+/**
+ * Holds functions for operations related to images, such as profile pictures.
+ */
+public final class ImageHelper {
+
+    public static final String CONTENT_TYPE_PNG = "image/png";
+    public static final String CONTENT_TYPE_UNKNOWN = "application/octet-stream";
+
+    /** The number of bytes at the start of an image needed to tell its type. */
+    public static final int CONTENT_TYPE_HEADER_LENGTH = 12;
+
+    private ImageHelper() {
+        // utility class
+    }
+
+    /**
+     * Scales the image down, keeping its aspect ratio, so that neither its width nor its height
+     * is larger than {@code maxSize}. Images that are small enough keep their size.
+     * @return the scaled image as PNG
+     * @throws IllegalArgumentException if the data is not an image in a format the Images service reads
+     * @throws com.google.appengine.api.images.ImagesServiceFailureException if the Images service fails to scale it
+     */
+    public static byte[] createThumbnail(byte[] imageData, int maxSize) {
+        Image image = ImagesServiceFactory.makeImage(imageData);
+        Transform resize = ImagesServiceFactory.makeResize(Math.min(maxSize, image.getWidth()),
+                                                           Math.min(maxSize, image.getHeight()));
+        OutputSettings settings = new OutputSettings(ImagesService.OutputEncoding.PNG);
+
+        return ImagesServiceFactory.getImagesService().applyTransform(resize, image, settings).getImageData();
+    }
+
+    /**
+     * Tells the type of an image from the first {@value #CONTENT_TYPE_HEADER_LENGTH} bytes of its data.
+     * @return the MIME type of the image, or {@value #CONTENT_TYPE_UNKNOWN} if it is not a known image format
+     */
+    public static String getContentType(byte[] imageData) {
+        if (startsWith(imageData, 0x89, 'P', 'N', 'G')) {
+            return CONTENT_TYPE_PNG;
+        }
+        if (startsWith(imageData, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(imageData, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(imageData, 'B', 'M')) {
+            return "image/bmp";
+        }
+        if (startsWith(imageData, 'I', 'I', 0x2A, 0x00) || startsWith(imageData, 'M', 'M', 0x00, 0x2A)) {
+            return "image/tiff";
+        }
+        if (startsWith(imageData, 'R', 'I', 'F', 'F') && imageData.length >= CONTENT_TYPE_HEADER_LENGTH
+                && imageData[8] == 'W' && imageData[9] == 'E' && imageData[10] == 'B' && imageData[11] == 'P') {
+            return "image/webp";
+        }
+        if (startsWith(imageData, 0x00, 0x00, 0x01, 0x00)) {
+            return "image/x-icon";
+        }
+        return CONTENT_TYPE_UNKNOWN;
+    }
+
+    private static boolean startsWith(byte[] data, int... prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((data[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
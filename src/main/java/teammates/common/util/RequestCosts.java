@@ -0,0 +1,370 @@
+package teammates.common.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.ApiConfig;
+import com.google.apphosting.api.ApiProxy.ApiProxyException;
+import com.google.apphosting.api.ApiProxy.Delegate;
+import com.google.apphosting.api.ApiProxy.Environment;
+import com.google.apphosting.api.ApiProxy.LogRecord;
+
+/**
+ * The costs of serving one request: the number of calls made to each kind of service
+ * and the time spent waiting for them, and the number of entities read and written.<br>
+ * The calls are counted where every GAE service call passes, i.e. at {@link ApiProxy}, so that
+ * the storage, search, task queue and email code need not be changed to be counted.
+ * Entities are counted by the storage layer through {@link #recordEntitiesRead(int)} and
+ * {@link #recordEntitiesWritten(int)}.<br>
+ * A scope spans a request; outside a scope nothing is recorded.
+ */
+public final class RequestCosts {
+
+    public static final String DATASTORE = "datastore";
+    public static final String SEARCH = "search";
+    public static final String TASK_QUEUE = "taskqueue";
+    /** Sending emails with the Mail API. */
+    public static final String MAIL = "mail";
+    /**
+     * Calls to other web services over URL Fetch, e.g. sending emails with a third-party service
+     * or reading and writing files in Cloud Storage, which cannot be told apart by the service called.
+     */
+    public static final String URL_FETCH = "urlfetch";
+    public static final String OTHER = "other";
+
+    public static final String ENTITIES_READ = "reads";
+    public static final String ENTITIES_WRITTEN = "writes";
+
+    private static final List<String> CATEGORIES =
+            Arrays.asList(DATASTORE, SEARCH, TASK_QUEUE, MAIL, URL_FETCH, OTHER);
+
+    private static final ThreadLocal<RequestCosts> PER_THREAD_COSTS = new ThreadLocal<RequestCosts>();
+
+    private final int[] calls = new int[CATEGORIES.size()];
+    private final long[] millis = new long[CATEGORIES.size()];
+    private int entitiesRead;
+    private int entitiesWritten;
+
+    public RequestCosts() {
+        // all costs start at zero
+    }
+
+    /**
+     * Starts recording the costs of the request served by the current thread.
+     */
+    public static void beginScope() {
+        installDelegate();
+        PER_THREAD_COSTS.set(new RequestCosts());
+    }
+
+    /**
+     * Ends the scope of the current thread.
+     * @return the costs recorded in the scope; all zero if no scope was started
+     */
+    public static RequestCosts endScope() {
+        RequestCosts costs = PER_THREAD_COSTS.get();
+        PER_THREAD_COSTS.remove();
+        return costs == null ? new RequestCosts() : costs;
+    }
+
+    /**
+     * @return the costs being recorded for the current thread, or {@code null} outside a scope
+     */
+    public static RequestCosts getCurrentScope() {
+        return PER_THREAD_COSTS.get();
+    }
+
+    /**
+     * Records the costs of the current thread, which works for another thread's request, in the scope of
+     * that request until {@link #leaveScope()}. The time of calls made by several threads at once is summed.
+     * @param costs the scope of the request as given by {@link #getCurrentScope()}, may be {@code null}
+     */
+    public static void joinScope(RequestCosts costs) {
+        if (costs != null) {
+            PER_THREAD_COSTS.set(costs);
+        }
+    }
+
+    /**
+     * Stops recording the costs of the current thread, without ending the scope it had joined.
+     */
+    public static void leaveScope() {
+        PER_THREAD_COSTS.remove();
+    }
+
+    public static void recordEntitiesRead(int count) {
+        RequestCosts costs = PER_THREAD_COSTS.get();
+        if (costs != null) {
+            costs.addEntitiesRead(count);
+        }
+    }
+
+    public static void recordEntitiesWritten(int count) {
+        RequestCosts costs = PER_THREAD_COSTS.get();
+        if (costs != null) {
+            costs.addEntitiesWritten(count);
+        }
+    }
+
+    /**
+     * @return the kinds of service calls, in the order they are logged
+     */
+    public static List<String> getCategories() {
+        return CATEGORIES;
+    }
+
+    /**
+     * @return true if {@code costName} is a category or one of {@link #ENTITIES_READ} and
+     *         {@link #ENTITIES_WRITTEN}, i.e. can be given to {@link #getCost(String)}
+     */
+    public static boolean isCostName(String costName) {
+        return CATEGORIES.contains(costName) || ENTITIES_READ.equals(costName) || ENTITIES_WRITTEN.equals(costName);
+    }
+
+    /**
+     * Maps the name of a GAE service to the category its calls are counted in.
+     */
+    static String getCategory(String packageName) {
+        switch (packageName) {
+        case "datastore_v3":
+            return DATASTORE;
+        case "search":
+            return SEARCH;
+        case "taskqueue":
+            return TASK_QUEUE;
+        case "mail":
+            return MAIL;
+        case "urlfetch":
+            return URL_FETCH;
+        default:
+            return OTHER;
+        }
+    }
+
+    public synchronized void addCall(String category, long timeTakenInMillis) {
+        int index = CATEGORIES.indexOf(category);
+        Assumption.assertTrue("Unknown request cost category: " + category, index != -1);
+        calls[index]++;
+        millis[index] += timeTakenInMillis;
+    }
+
+    public synchronized void addEntitiesRead(int count) {
+        entitiesRead += count;
+    }
+
+    public synchronized void addEntitiesWritten(int count) {
+        entitiesWritten += count;
+    }
+
+    public synchronized int getCalls(String category) {
+        return calls[CATEGORIES.indexOf(category)];
+    }
+
+    public synchronized long getMillis(String category) {
+        return millis[CATEGORIES.indexOf(category)];
+    }
+
+    public synchronized int getTotalCalls() {
+        int total = 0;
+        for (int count : calls) {
+            total += count;
+        }
+        return total;
+    }
+
+    public synchronized int getEntitiesRead() {
+        return entitiesRead;
+    }
+
+    public synchronized int getEntitiesWritten() {
+        return entitiesWritten;
+    }
+
+    /**
+     * @param costName a name for which {@link #isCostName(String)} is true
+     * @return the number of calls of the category, or the number of entities read or written
+     */
+    public long getCost(String costName) {
+        if (ENTITIES_READ.equals(costName)) {
+            return getEntitiesRead();
+        }
+        if (ENTITIES_WRITTEN.equals(costName)) {
+            return getEntitiesWritten();
+        }
+        Assumption.assertTrue("Unknown request cost: " + costName, CATEGORIES.contains(costName));
+        return getCalls(costName);
+    }
+
+    /**
+     * @return the costs in the form used in the activity log, e.g.
+     *         {@code datastore:12:340,search:1:25,taskqueue:0:0,mail:0:0,urlfetch:0:0,other:2:4,reads:118,writes:3}
+     *         where a category is followed by its number of calls and the milliseconds spent on them
+     * @see #fromLogToken(String)
+     */
+    public synchronized String toLogToken() {
+        StringBuilder token = new StringBuilder(100);
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            token.append(CATEGORIES.get(i)).append(':').append(calls[i]).append(':').append(millis[i]).append(',');
+        }
+        return token.append(ENTITIES_READ).append(':').append(entitiesRead).append(',')
+                    .append(ENTITIES_WRITTEN).append(':').append(entitiesWritten)
+                    .toString();
+    }
+
+    /**
+     * Parses the result of {@link #toLogToken()}. Unknown names are ignored, so that logs written
+     * by other versions of the app can be read.
+     * @throws NumberFormatException if the token is not in the expected format
+     */
+    public static RequestCosts fromLogToken(String token) {
+        RequestCosts costs = new RequestCosts();
+        for (String cost : token.trim().split(",")) {
+            String[] parts = cost.split(":");
+            int index = CATEGORIES.indexOf(parts[0]);
+            if (index != -1 && parts.length == 3) {
+                costs.calls[index] = Integer.parseInt(parts[1]);
+                costs.millis[index] = Long.parseLong(parts[2]);
+            } else if (ENTITIES_READ.equals(parts[0]) && parts.length == 2) {
+                costs.entitiesRead = Integer.parseInt(parts[1]);
+            } else if (ENTITIES_WRITTEN.equals(parts[0]) && parts.length == 2) {
+                costs.entitiesWritten = Integer.parseInt(parts[1]);
+            } else if (index != -1 || ENTITIES_READ.equals(parts[0]) || ENTITIES_WRITTEN.equals(parts[0])) {
+                throw new NumberFormatException("Invalid request cost: " + cost);
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Wraps the current delegate, unless it is already wrapped. The delegate is checked every time,
+     * as it may have been replaced since, e.g. by the local service test helpers.
+     */
+    private static synchronized void installDelegate() {
+        @SuppressWarnings("unchecked")
+        Delegate<Environment> delegate = ApiProxy.getDelegate();
+        if (delegate == null || delegate instanceof CostRecordingDelegate) {
+            // not running in a GAE environment, or already installed
+            return;
+        }
+        ApiProxy.setDelegate(new CostRecordingDelegate(delegate));
+    }
+
+    /**
+     * Passes the service calls on to the original delegate, recording each against the scope
+     * of the thread that made it.
+     */
+    private static class CostRecordingDelegate implements Delegate<Environment> {
+
+        private final Delegate<Environment> delegate;
+
+        CostRecordingDelegate(Delegate<Environment> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public byte[] makeSyncCall(Environment environment, String packageName, String methodName, byte[] request)
+                throws ApiProxyException {
+            RequestCosts costs = PER_THREAD_COSTS.get();
+            if (costs == null) {
+                return delegate.makeSyncCall(environment, packageName, methodName, request);
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                return delegate.makeSyncCall(environment, packageName, methodName, request);
+            } finally {
+                costs.addCall(getCategory(packageName), System.currentTimeMillis() - startTime);
+            }
+        }
+
+        @Override
+        public Future<byte[]> makeAsyncCall(Environment environment, String packageName, String methodName,
+                                            byte[] request, ApiConfig apiConfig) {
+            RequestCosts costs = PER_THREAD_COSTS.get();
+            Future<byte[]> result = delegate.makeAsyncCall(environment, packageName, methodName, request, apiConfig);
+            return costs == null ? result : new CostRecordingFuture(result, costs, getCategory(packageName));
+        }
+
+        @Override
+        public void log(Environment environment, LogRecord record) {
+            delegate.log(environment, record);
+        }
+
+        @Override
+        public void flushLogs(Environment environment) {
+            delegate.flushLogs(environment);
+        }
+
+        @Override
+        public List<Thread> getRequestThreads(Environment environment) {
+            return delegate.getRequestThreads(environment);
+        }
+
+    }
+
+    /**
+     * Records an asynchronous call once its result has been waited for,
+     * with the time from when the call was made.
+     */
+    private static class CostRecordingFuture implements Future<byte[]> {
+
+        private final Future<byte[]> future;
+        private final RequestCosts costs;
+        private final String category;
+        private final long startTime = System.currentTimeMillis();
+        private boolean isRecorded;
+
+        CostRecordingFuture(Future<byte[]> future, RequestCosts costs, String category) {
+            this.future = future;
+            this.costs = costs;
+            this.category = category;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return future.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public byte[] get() throws InterruptedException, ExecutionException {
+            try {
+                return future.get();
+            } finally {
+                recordIfDone();
+            }
+        }
+
+        @Override
+        public byte[] get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
+                                                               TimeoutException {
+            try {
+                return future.get(timeout, unit);
+            } finally {
+                recordIfDone();
+            }
+        }
+
+        private synchronized void recordIfDone() {
+            if (!isRecorded && future.isDone()) {
+                costs.addCall(category, System.currentTimeMillis() - startTime);
+                isRecorded = true;
+            }
+        }
+
+    }
+
+}
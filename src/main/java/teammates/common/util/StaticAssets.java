@@ -0,0 +1,64 @@
+package teammates.common.util;
+
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Gives the URLs of the scripts and stylesheets that pages load, by bundle.<br>
+ * The bundles are defined in {@value #BUNDLES_FILE}. When the app is built for deployment,
+ * each bundle is minified into a single file whose name contains the hash of its content,
+ * listed in {@value #MANIFEST_FILE}; such a file never changes, so browsers may cache it for long.
+ * Without the manifest (e.g. on the dev server), the files of the bundle are given one by one, as is.
+ */
+public final class StaticAssets {
+
+    public static final String BUNDLES_FILE = "staticAssets.json";
+    public static final String MANIFEST_FILE = "staticAssets.manifest.json";
+
+    private static final Type BUNDLES_TYPE = new TypeToken<Map<String, List<String>>>(){}.getType();
+    private static final Type MANIFEST_TYPE = new TypeToken<Map<String, String>>(){}.getType();
+
+    private static final Map<String, List<String>> bundles = readBundles();
+
+    private StaticAssets() {
+        // utility class
+    }
+
+    /**
+     * @param bundleName the name of a bundle in {@value #BUNDLES_FILE}, e.g. {@code common.js}
+     * @return the URLs to load the bundle from, in order
+     */
+    public static List<String> getUrls(String bundleName) {
+        List<String> urls = bundles.get(bundleName);
+        Assumption.assertNotNull("Unknown static asset bundle: " + bundleName, urls);
+        return urls;
+    }
+
+    private static Map<String, List<String>> readBundles() {
+        Map<String, List<String>> sourceFiles = JsonUtils.fromJson(FileHelper.readResourceFile(BUNDLES_FILE),
+                                                                   BUNDLES_TYPE);
+        InputStream manifestStream = FileHelper.getResourceAsStream(MANIFEST_FILE);
+        if (manifestStream == null) {
+            return sourceFiles;
+        }
+
+        Scanner scanner = new Scanner(manifestStream, Const.SystemParams.ENCODING);
+        Map<String, String> bundledFiles = JsonUtils.fromJson(scanner.useDelimiter("\\Z").next(), MANIFEST_TYPE);
+        scanner.close();
+
+        for (Map.Entry<String, List<String>> bundle : sourceFiles.entrySet()) {
+            String bundledFile = bundledFiles.get(bundle.getKey());
+            if (bundledFile != null) {
+                bundle.setValue(Collections.singletonList(bundledFile));
+            }
+        }
+        return sourceFiles;
+    }
+
+}
@@ -16,6 +16,21 @@ import javax.crypto.spec.SecretKeySpec;
  */
 public final class StringHelper {
     
+    // ciphers are not thread-safe, hence one per thread
+    private static final ThreadLocal<Cipher> ENCRYPT_CIPHER = new ThreadLocal<Cipher>() {
+        @Override
+        protected Cipher initialValue() {
+            return createCipher(Cipher.ENCRYPT_MODE);
+        }
+    };
+    
+    private static final ThreadLocal<Cipher> DECRYPT_CIPHER = new ThreadLocal<Cipher>() {
+        @Override
+        protected Cipher initialValue() {
+            return createCipher(Cipher.DECRYPT_MODE);
+        }
+    };
+    
     private StringHelper() {
         // utility class
     }
@@ -124,25 +139,41 @@ public final class StringHelper {
         return frontPart + ".." + endPart;
     }
 
+    /**
+     * Encrypts the value with the application's key. Equal values always give the same ciphertext.
+     */
     public static String encrypt(String value) {
         try {
-            SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.ENCRYPT_MODE, sks, cipher.getParameters());
-            byte[] encrypted = cipher.doFinal(value.getBytes());
+            byte[] encrypted = ENCRYPT_CIPHER.get().doFinal(value.getBytes());
             return byteArrayToHexString(encrypted);
         } catch (Exception e) {
+            // the state of a cipher is undefined after a failure, so the thread gets a new one next time
+            ENCRYPT_CIPHER.remove();
             throw new RuntimeException(e);
         }
     }
 
     public static String decrypt(String message) {
+        try {
+            byte[] decrypted = DECRYPT_CIPHER.get().doFinal(hexStringToByteArray(message));
+            return new String(decrypted);
+        } catch (Exception e) {
+            DECRYPT_CIPHER.remove();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a cipher initialised with the application's key. Looking up the cipher is much more
+     * expensive than using it, and a cipher returns to its initialised state after each
+     * {@link Cipher#doFinal(byte[])}, so each thread creates one cipher per mode and keeps reusing it.
+     */
+    private static Cipher createCipher(int mode) {
         try {
             SecretKeySpec sks = new SecretKeySpec(hexStringToByteArray(Config.ENCRYPTION_KEY), "AES");
             Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.DECRYPT_MODE, sks);
-            byte[] decrypted = cipher.doFinal(hexStringToByteArray(message));
-            return new String(decrypted);
+            cipher.init(mode, sks);
+            return cipher;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
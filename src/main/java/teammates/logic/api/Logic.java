@@ -1,5 +1,7 @@
 package teammates.logic.api;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -25,11 +27,13 @@ import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
 import teammates.common.datatransfer.FeedbackSessionResponseStatus;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.FeedbackSessionSummaryAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.InstructorPrivileges;
 import teammates.common.datatransfer.InstructorSearchResultBundle;
 import teammates.common.datatransfer.SectionDetailsBundle;
 import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.datatransfer.StudentDashboardBundle;
 import teammates.common.datatransfer.StudentProfileAttributes;
 import teammates.common.datatransfer.StudentSearchResultBundle;
 import teammates.common.datatransfer.TeamDetailsBundle;
@@ -175,6 +179,18 @@ public class Logic {
         return accountsLogic.getAccount(googleId, retrieveStudentProfile);
     }
     
+    /**
+     * Gets the accounts with the given googleIds, without their profiles. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Empty list if none found.
+     */
+    public List<AccountAttributes> getAccounts(List<String> googleIds) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, googleIds);
+        
+        return accountsLogic.getAccounts(googleIds);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -228,6 +244,36 @@ public class Logic {
         profilesLogic.updateStudentProfilePicture(googleId, newPictureKey);
     }
     
+    /**
+     * Updates the picture of the profile and its thumbnail, which may be the picture itself
+     * or empty if there is none. Pictures no longer used are deleted. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void updateStudentProfilePicture(String googleId, String newPictureKey, String newThumbnailKey)
+            throws EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, googleId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, newPictureKey);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, newThumbnailKey);
+        
+        profilesLogic.updateStudentProfilePicture(googleId, newPictureKey, newThumbnailKey);
+    }
+    
+    /**
+     * Writes a thumbnail of the picture, to be shown on pages listing many students. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the key of the thumbnail, or an empty string if the picture cannot be read as an image
+     */
+    public String writeStudentProfilePictureThumbnail(String googleId, byte[] pictureData) throws IOException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, googleId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, pictureData);
+        
+        return profilesLogic.writePictureThumbnail(googleId, pictureData);
+    }
+    
     /**
      * Deletes both instructor and student privileges.
      * Does not delete courses. Can result in orphan courses
@@ -433,6 +479,18 @@ public class Logic {
         return instructorsLogic.getInstructorsForCourse(courseId);
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Empty list if none found.
+     */
+    public List<InstructorAttributes> getInstructorsForCourses(List<String> courseIds) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseIds);
+        
+        return instructorsLogic.getInstructorsForCourses(courseIds);
+    }
+    
     /**
      * Get the encrypted registration key for the instructor.
      * Preconditions: <br>
@@ -462,6 +520,20 @@ public class Logic {
         return feedbackSessionsLogic.getAllOpenFeedbackSessions(start, end, zone);
     }
 
+    /**
+     * Gets the summaries of the sessions which start or end within the given range,
+     * with the institute of each session's course. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public List<FeedbackSessionSummaryAttributes> getFeedbackSessionSummariesWithinTimeRange(Date start, Date end,
+                                                                                             double zone) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, start);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, end);
+        
+        return feedbackSessionsLogic.getFeedbackSessionSummariesWithinTimeRange(start, end, zone);
+    }
+
     /**
      * @return true if this user has instructor privileges.
      */
@@ -654,6 +726,18 @@ public class Logic {
         
         return coursesLogic.getCourse(courseId);
     }
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the courses found; courses that do not exist are left out.
+     */
+    public List<CourseAttributes> getCourses(List<String> courseIds) {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseIds);
+        
+        return coursesLogic.getCourses(courseIds);
+    }
 
     /**
      * Returns a detailed version of course data. <br>
@@ -764,6 +848,18 @@ public class Logic {
         return coursesLogic.getCourseDetailsListForStudent(googleId);
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * 
+     * @return The courses the student is in, with the feedback sessions viewable to the student
+     *         and whether the student has completed each of them.
+     */
+    public StudentDashboardBundle getStudentDashboard(String googleId) throws EntityDoesNotExistException {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, googleId);
+        return coursesLogic.getStudentDashboard(googleId);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -839,6 +935,18 @@ public class Logic {
         coursesLogic.deleteCourseCascade(courseId);
     }
 
+    /**
+     * Deletes the course and all data related to the course in the background.
+     * The course is no longer visible to anyone once this method returns. <br>
+     * Fails silently if no such course. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void scheduleCourseDeletion(String courseId) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        coursesLogic.scheduleCourseDeletion(courseId);
+    }
+
 
     /**
      * Creates a student. <br>
@@ -1318,6 +1426,22 @@ public class Logic {
         return coursesLogic.getCourseStudentListAsCsv(courseId, googleId);
     }
 
+    /**
+     * Writes the students list of a course in CSV format to {@code writer} as the students are read,
+     * for downloads of large courses. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null. <br>
+     */
+    public void writeCourseStudentListAsCsv(String courseId, String googleId, Writer writer)
+            throws EntityDoesNotExistException, IOException {
+
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, googleId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, writer);
+
+        coursesLogic.writeCourseStudentListAsCsv(courseId, googleId, writer);
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -1350,6 +1474,60 @@ public class Logic {
                 copiedCourseId, feedbackSessionName, courseId, instructorEmail);
     }
     
+    /**
+     * Copies the session and its questions to each of the given courses with batch writes.
+     * Nothing is written if any copy is invalid or any of the courses already has a session with the new name.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public List<FeedbackSessionAttributes> copyFeedbackSessionToCourses(String copiedFeedbackSessionName,
+                                                                        List<String> copiedCourseIds,
+                                                                        String feedbackSessionName,
+                                                                        String courseId,
+                                                                        String instructorEmail)
+            throws EntityAlreadyExistsException, InvalidParametersException, EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, copiedFeedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, copiedCourseIds);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, instructorEmail);
+        
+        return feedbackSessionsLogic.copyFeedbackSessionToCourses(copiedFeedbackSessionName, copiedCourseIds,
+                                                                  feedbackSessionName, courseId, instructorEmail);
+    }
+    
+    /**
+     * Validates the copies of the session to each of the given courses, then copies the session
+     * to the courses in the background. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void scheduleFeedbackSessionCopy(String copiedFeedbackSessionName, List<String> copiedCourseIds,
+                                            String feedbackSessionName, String courseId, String instructorEmail)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, copiedFeedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, copiedCourseIds);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, instructorEmail);
+        
+        feedbackSessionsLogic.scheduleFeedbackSessionCopy(copiedFeedbackSessionName, copiedCourseIds,
+                                                          feedbackSessionName, courseId, instructorEmail);
+    }
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the IDs of the given courses that have a session with the given name
+     */
+    public List<String> getCoursesWithFeedbackSession(String feedbackSessionName, List<String> courseIds) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseIds);
+        return feedbackSessionsLogic.getCoursesWithFeedbackSession(feedbackSessionName, courseIds);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -1371,6 +1549,16 @@ public class Logic {
         return feedbackSessionsLogic.getFeedbackSessionsForCourse(courseId);
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Empty list if none found.
+     */
+    public List<FeedbackSessionAttributes> getFeedbackSessionsForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseIds);
+        return feedbackSessionsLogic.getFeedbackSessionsForCourses(courseIds);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -1595,6 +1783,19 @@ public class Logic {
         
         feedbackSessionsLogic.updateRespondentsForSession(feedbackSessionName, courseId);
     }
+    
+    /**
+     * Counts the students and instructors expected to respond to the session again from the course roster,
+     * replacing the stored numbers used for its response rate.
+     * @return the session with the new numbers
+     */
+    public FeedbackSessionAttributes updateExpectedRespondentCounts(String feedbackSessionName, String courseId)
+            throws EntityDoesNotExistException {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        
+        return feedbackSessionsLogic.updateExpectedRespondentCounts(feedbackSessionName, courseId);
+    }
 
     public void addInstructorRespondent(String email, String feedbackSessionName, String courseId)
             throws EntityDoesNotExistException, InvalidParametersException {
@@ -1914,6 +2115,26 @@ public class Logic {
         return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorFromSectionWithinRange(
                                         feedbackSessionName, courseId, userEmail, section, range);
     }
+
+    /**
+     * Gets a page of the question+response bundle for questions with responses that
+     * is visible to the instructor for a feedback session from a section within the given range.
+     * {@code pageToken} is the {@code nextPageToken} of the previous page, or null for the first page.
+     * Preconditions: <br>
+     * * All parameters except {@code pageToken} are non-null.
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromSectionWithinRange(
+            String feedbackSessionName, String courseId, String userEmail, String section, long range,
+            String pageToken)
+            throws EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
+
+        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorFromSectionWithinRange(
+                                        feedbackSessionName, courseId, userEmail, section, range, pageToken);
+    }
     
     /**
      * Gets a question+response bundle for questions with responses that
@@ -1933,6 +2154,26 @@ public class Logic {
                                         feedbackSessionName, courseId, userEmail, section, range);
     }
 
+    /**
+     * Gets a page of the question+response bundle for questions with responses that
+     * is visible to the instructor for a feedback session to a section within the given range.
+     * {@code pageToken} is the {@code nextPageToken} of the previous page, or null for the first page.
+     * Preconditions: <br>
+     * * All parameters except {@code pageToken} are non-null.
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorToSectionWithinRange(
+            String feedbackSessionName, String courseId, String userEmail, String section, long range,
+            String pageToken)
+            throws EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
+
+        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorToSectionWithinRange(
+                                        feedbackSessionName, courseId, userEmail, section, range, pageToken);
+    }
+
     /**
      * Gets a question+response bundle for questions with responses that
      * is visible to the instructor for a feedback session from a given question number
@@ -2102,6 +2343,22 @@ public class Logic {
         feedbackResponsesLogic.createFeedbackResponse(feedbackResponse);
     }
 
+    /**
+     * Creates the response as {@link #createFeedbackResponse(FeedbackResponseAttributes)} does, using
+     * {@code session}, read earlier in the same request, to skip deleting a results snapshot the session
+     * has never had. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void createFeedbackResponse(FeedbackResponseAttributes feedbackResponse,
+                                       FeedbackSessionAttributes session)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackResponse);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, session);
+        feedbackResponsesLogic.createFeedbackResponse(feedbackResponse, session);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestion(String questionId) {
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, questionId);
         return feedbackResponsesLogic.getFeedbackResponsesForQuestion(questionId);
@@ -2129,6 +2386,22 @@ public class Logic {
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackResponse);
         feedbackResponsesLogic.updateFeedbackResponse(feedbackResponse);
     }
+
+    /**
+     * Updates the response as {@link #updateFeedbackResponse(FeedbackResponseAttributes)} does, using
+     * {@code session}, read earlier in the same request, to skip deleting a results snapshot the session
+     * has never had. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void updateFeedbackResponse(FeedbackResponseAttributes feedbackResponse,
+                                       FeedbackSessionAttributes session)
+            throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackResponse);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, session);
+        feedbackResponsesLogic.updateFeedbackResponse(feedbackResponse, session);
+    }
     
     /**
      * Preconditions: <br>
@@ -79,14 +79,12 @@ public class FeedbackSubmissionAdjustmentAction extends TaskQueueWorkerAction {
                                                                         feedbackSession.getCourseId());
         ArrayList<StudentEnrollDetails> enrollmentList =
                 JsonUtils.fromJson(enrollmentDetails, new TypeToken<ArrayList<StudentEnrollDetails>>(){}.getType());
-        for (FeedbackResponseAttributes response : allResponses) {
-            try {
-                StudentsLogic.inst().adjustFeedbackResponseForEnrollments(enrollmentList, response);
-            } catch (Exception e) {
-                log.severe(String.format(errorString, sessionName, courseId, e.getMessage(),
-                                                ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
-                return false;
-            }
+        try {
+            StudentsLogic.inst().adjustFeedbackResponsesForEnrollments(courseId, enrollmentList, allResponses);
+        } catch (Exception e) {
+            log.severe(String.format(errorString, sessionName, courseId, e.getMessage(),
+                                            ActivityLogEntry.generateServletActionFailureLogMessage(request, e)));
+            return false;
         }
         return true;
            
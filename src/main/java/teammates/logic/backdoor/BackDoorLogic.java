@@ -31,10 +31,12 @@ import teammates.common.util.ThreadHelper;
 import teammates.logic.api.Logic;
 import teammates.storage.api.AccountsDb;
 import teammates.storage.api.CommentsDb;
+import teammates.storage.api.CourseStructuresDb;
 import teammates.storage.api.CoursesDb;
 import teammates.storage.api.FeedbackQuestionsDb;
 import teammates.storage.api.FeedbackResponseCommentsDb;
 import teammates.storage.api.FeedbackResponsesDb;
+import teammates.storage.api.FeedbackSessionSummariesDb;
 import teammates.storage.api.FeedbackSessionsDb;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
@@ -46,8 +48,10 @@ public class BackDoorLogic extends Logic {
     private static final CoursesDb coursesDb = new CoursesDb();
     private static final CommentsDb commentsDb = new CommentsDb();
     private static final StudentsDb studentsDb = new StudentsDb();
+    private static final CourseStructuresDb csDb = new CourseStructuresDb();
     private static final InstructorsDb instructorsDb = new InstructorsDb();
     private static final FeedbackSessionsDb fbDb = new FeedbackSessionsDb();
+    private static final FeedbackSessionSummariesDb fssDb = new FeedbackSessionSummariesDb();
     private static final FeedbackQuestionsDb fqDb = new FeedbackQuestionsDb();
     private static final FeedbackResponsesDb frDb = new FeedbackResponsesDb();
     private static final FeedbackResponseCommentsDb fcDb = new FeedbackResponseCommentsDb();
@@ -115,8 +119,10 @@ public class BackDoorLogic extends Logic {
 
         Map<String, StudentAttributes> students = dataBundle.students;
         List<AccountAttributes> studentAccounts = new ArrayList<AccountAttributes>();
+        Set<String> studentCourseIds = new HashSet<String>();
         for (StudentAttributes student : students.values()) {
             student.section = student.section == null ? "None" : student.section;
+            studentCourseIds.add(student.course);
             if (student.googleId != null && !student.googleId.isEmpty()) {
                 AccountAttributes account = new AccountAttributes(student.googleId, student.name, false,
                                                                   student.email, "TEAMMATES Test Institute 1");
@@ -129,6 +135,8 @@ public class BackDoorLogic extends Logic {
         }
         accountsDb.createAccounts(studentAccounts, false);
         studentsDb.createStudentsWithoutSearchability(students.values());
+        // the students are written directly; the structures of their courses are rebuilt when next read
+        csDb.deleteCourseStructures(new ArrayList<String>(studentCourseIds));
         
 
         Map<String, FeedbackSessionAttributes> sessions = dataBundle.feedbackSessions;
@@ -136,6 +144,7 @@ public class BackDoorLogic extends Logic {
             cleanSessionData(session);
         }
         fbDb.createFeedbackSessions(sessions.values());
+        feedbackSessionsLogic.putFeedbackSessionSummaries(sessions.values());
         
         Map<String, FeedbackQuestionAttributes> questions = dataBundle.feedbackQuestions;
         List<FeedbackQuestionAttributes> questionList = new ArrayList<FeedbackQuestionAttributes>(questions.values());
@@ -466,8 +475,10 @@ public class BackDoorLogic extends Logic {
             coursesDb.deleteEntities(courses);
             instructorsDb.deleteInstructorsForCourses(courseIds);
             studentsDb.deleteStudentsForCourses(courseIds);
+            csDb.deleteCourseStructures(courseIds);
             commentsDb.deleteCommentsForCourses(courseIds);
             fbDb.deleteFeedbackSessionsForCourses(courseIds);
+            fssDb.deleteFeedbackSessionSummariesForCourses(courseIds);
             fqDb.deleteFeedbackQuestionsForCourses(courseIds);
             frDb.deleteFeedbackResponsesForCourses(courseIds);
             fcDb.deleteFeedbackResponseCommentsForCourses(courseIds);
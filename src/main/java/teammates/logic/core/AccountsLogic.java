@@ -59,6 +59,10 @@ public class AccountsLogic {
         return accountsDb.getAccount(googleId, retrieveStudentProfile);
     }
     
+    public List<AccountAttributes> getAccounts(List<String> googleIds) {
+        return accountsDb.getAccounts(googleIds);
+    }
+    
     public boolean isAccountPresent(String googleId) {
         return accountsDb.getAccount(googleId) != null;
     }
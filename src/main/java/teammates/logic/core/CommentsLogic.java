@@ -211,6 +211,13 @@ public class CommentsLogic {
         commentsDb.deleteCommentsForCourse(courseId);
     }
     
+    /**
+     * @return the number of comments deleted; 0 if the course has no comments left
+     */
+    public int deleteCommentsForCourse(String courseId, int limit) {
+        return commentsDb.deleteCommentsForCourse(courseId, limit);
+    }
+    
     public void deleteCommentAndDocument(CommentAttributes comment) {
         this.deleteComment(comment);
         this.deleteDocument(comment);
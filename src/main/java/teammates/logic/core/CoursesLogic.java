@@ -1,16 +1,18 @@
 package teammates.logic.core;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseStructureAttributes;
+import teammates.common.datatransfer.CourseStructureAttributes.TeamStructure;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
@@ -18,6 +20,7 @@ import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.InstructorPrivileges;
 import teammates.common.datatransfer.SectionDetailsBundle;
 import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.datatransfer.StudentDashboardBundle;
 import teammates.common.datatransfer.TeamDetailsBundle;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -25,6 +28,8 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.TaskQueue;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.Logger;
 import teammates.common.util.Sanitizer;
@@ -61,6 +66,25 @@ public class CoursesLogic {
     private static final AccountsLogic accountsLogic = AccountsLogic.inst();
     private static final FeedbackSessionsLogic feedbackSessionsLogic = FeedbackSessionsLogic.inst();
     private static final CommentsLogic commentsLogic = CommentsLogic.inst();
+    private static final FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
+    private static final FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
+    private static final FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
+
+    /**
+     * The kinds of data deleted when a course is deleted, in the order they are deleted.
+     * Data that refers to other data (e.g. response comments to responses) is deleted first.
+     */
+    public enum CourseDeletionStage {
+        INSTRUCTORS, STUDENTS, COMMENTS, FEEDBACK_RESPONSE_COMMENTS, FEEDBACK_RESPONSES, FEEDBACK_QUESTIONS,
+        FEEDBACK_SESSIONS, COURSE
+    }
+
+    private static final int COURSE_DELETION_BATCH_SIZE = 500;
+
+    /** How many students the export of a student list reads at a time, unless a single team is larger. */
+    private static final int STUDENT_LIST_BATCH_SIZE = 500;
+    // the datastore runs a query on a list of values as one query per value, for at most 30 values
+    private static final int MAX_TEAMS_PER_STUDENT_LIST_QUERY = 30;
 
     public static CoursesLogic inst() {
         if (instance == null) {
@@ -72,8 +96,13 @@ public class CoursesLogic {
     public void createCourse(String courseId, String courseName, String courseTimeZone)
             throws InvalidParametersException, EntityAlreadyExistsException {
         
+        if (courseId != null && isCoursePendingDeletion(courseId)) {
+            // the ID is taken again before the background deletion is done; the old data must not leak into the new course
+            deleteCourseCascade(courseId);
+        }
         CourseAttributes courseToAdd = new CourseAttributes(courseId, courseName, courseTimeZone);
         coursesDb.createEntity(courseToAdd);
+        studentsLogic.createEmptyCourseStructure(courseId);
     }
     
     /**
@@ -124,6 +153,13 @@ public class CoursesLogic {
     public CourseAttributes getCourse(String courseId) {
         return coursesDb.getCourse(courseId);
     }
+    
+    /**
+     * @return the courses with the given IDs; courses that are not found are left out
+     */
+    public List<CourseAttributes> getCourses(List<String> courseIds) {
+        return coursesDb.getCourses(courseIds);
+    }
 
     /**
      * Checks whether course is present using courseId.
@@ -210,6 +246,50 @@ public class CoursesLogic {
         return courseDetailsList;
     }
 
+    /**
+     * Gets the same courses and sessions as {@link #getCourseDetailsListForStudent(String)}, together with
+     * whether the student has completed each session, reading the student's records in all courses once
+     * and the courses, sessions and questions for all courses together.
+     * @param googleId The Google ID of the student
+     * @throws EntityDoesNotExistException if the student is not enrolled in any course
+     */
+    public StudentDashboardBundle getStudentDashboard(String googleId) throws EntityDoesNotExistException {
+        List<StudentAttributes> enrollments = studentsLogic.getStudentsForGoogleId(googleId);
+        if (enrollments.isEmpty()) {
+            throw new EntityDoesNotExistException("Student with Google ID " + googleId + " does not exist");
+        }
+
+        List<String> courseIds = new ArrayList<String>();
+        for (StudentAttributes enrollment : enrollments) {
+            courseIds.add(enrollment.course);
+        }
+        List<CourseAttributes> courseList = coursesDb.getCourses(courseIds);
+        CourseAttributes.sortById(courseList);
+
+        StudentDashboardBundle dashboard = new StudentDashboardBundle();
+        Map<String, CourseDetailsBundle> courseDetailsForCourse = new HashMap<String, CourseDetailsBundle>();
+        for (CourseAttributes course : courseList) {
+            CourseDetailsBundle cdd = new CourseDetailsBundle(course);
+            courseDetailsForCourse.put(course.getId(), cdd);
+            dashboard.courses.add(cdd);
+        }
+
+        Map<FeedbackSessionAttributes, Boolean> sessionsWithCompletion =
+                feedbackSessionsLogic.getFeedbackSessionsWithCompletionForStudent(enrollments);
+        for (Map.Entry<FeedbackSessionAttributes, Boolean> sessionWithCompletion : sessionsWithCompletion.entrySet()) {
+            FeedbackSessionAttributes session = sessionWithCompletion.getKey();
+            CourseDetailsBundle cdd = courseDetailsForCourse.get(session.getCourseId());
+            if (cdd == null) {
+                // the course has been deleted but its sessions are still being deleted
+                continue;
+            }
+            cdd.feedbackSessions.add(new FeedbackSessionDetailsBundle(session));
+            dashboard.sessionSubmissionStatusMap.put(session, sessionWithCompletion.getValue());
+        }
+
+        return dashboard;
+    }
+
     /**
      * @param courseId
      * @return a list of section names for a course using the courseId
@@ -241,19 +321,7 @@ public class CoursesLogic {
         if (!isCourseVerified) {
             verifyCourseIsPresent(courseId);
         }
-        List<StudentAttributes> studentDataList = studentsLogic.getStudentsForCourse(courseId);
-        
-        Set<String> sectionNameSet = new HashSet<String>();
-        for (StudentAttributes sd : studentDataList) {
-            if (!sd.section.equals(Const.DEFAULT_SECTION)) {
-                sectionNameSet.add(sd.section);
-            }
-        }
-        
-        List<String> sectionNameList = new ArrayList<String>(sectionNameSet);
-        Collections.sort(sectionNameList);
-
-        return sectionNameList;
+        return studentsLogic.getCourseStructure(courseId).getSectionNames();
     }
 
     public SectionDetailsBundle getSectionForCourse(String section, String courseId)
@@ -468,28 +536,25 @@ public class CoursesLogic {
     }
 
     public int getNumberOfTeams(String courseId) throws EntityDoesNotExistException {
-        verifyCourseIsPresent(courseId);
-        List<StudentAttributes> studentDataList = studentsLogic.getStudentsForCourse(courseId);
-
-        List<String> teamNameList = new ArrayList<String>();
-
-        for (StudentAttributes sd : studentDataList) {
-            if (!teamNameList.contains(sd.team)) {
-                teamNameList.add(sd.team);
-            }
-        }
+        return getTeamNamesForCourse(courseId).size();
+    }
 
-        return teamNameList.size();
+    /**
+     * @return the sorted names of the teams of the course, without reading the students
+     */
+    public List<String> getTeamNamesForCourse(String courseId) throws EntityDoesNotExistException {
+        verifyCourseIsPresent(courseId);
+        return studentsLogic.getCourseStructure(courseId).getTeamNames();
     }
 
     public int getTotalEnrolledInCourse(String courseId) throws EntityDoesNotExistException {
         verifyCourseIsPresent(courseId);
-        return studentsLogic.getStudentsForCourse(courseId).size();
+        return studentsLogic.getCourseStructure(courseId).getStudentsTotal();
     }
 
     public int getTotalUnregisteredInCourse(String courseId) throws EntityDoesNotExistException {
         verifyCourseIsPresent(courseId);
-        return studentsLogic.getUnregisteredStudentsForCourse(courseId).size();
+        return studentsLogic.getCourseStructure(courseId).getUnregisteredTotal();
     }
 
     /**
@@ -652,7 +717,8 @@ public class CoursesLogic {
      * 
      * @param instructorAttributesList
      * @return HashMap with courseId as key, and CourseDetailsBundle as value.
-     * Does not include details within the course, such as feedback sessions.
+     * Does not include details within the course, such as feedback sessions and sections;
+     * the statistics are taken from the course structure.
      */
     public HashMap<String, CourseDetailsBundle> getCourseSummariesForInstructor(
             List<InstructorAttributes> instructorAttributesList) {
@@ -675,11 +741,21 @@ public class CoursesLogic {
         }
         
         for (CourseAttributes ca : courseList) {
-            courseSummaryList.put(ca.getId(), getCourseSummary(ca));
+            courseSummaryList.put(ca.getId(), getCourseSummaryWithoutSections(ca));
         }
         
         return courseSummaryList;
     }
+    
+    private CourseDetailsBundle getCourseSummaryWithoutSections(CourseAttributes course) {
+        CourseDetailsBundle cdd = new CourseDetailsBundle(course);
+        CourseStructureAttributes structure = studentsLogic.getCourseStructure(course.getId());
+        cdd.stats.sectionsTotal = structure.getSectionNames().size();
+        cdd.stats.teamsTotal = structure.getTeamNames().size();
+        cdd.stats.studentsTotal = structure.getStudentsTotal();
+        cdd.stats.unregisteredTotal = structure.getUnregisteredTotal();
+        return cdd;
+    }
  
     /**
      * Returns course details list for instructor.<br>
@@ -778,11 +854,76 @@ public class CoursesLogic {
      * This will also cascade the data in other databases which are related to this course
      */
     public void deleteCourseCascade(String courseId) {
-        studentsLogic.deleteStudentsForCourse(courseId);
+        CourseDeletionStage stage = CourseDeletionStage.INSTRUCTORS;
+        while (stage != null) {
+            stage = deleteCourseDataBatch(courseId, stage);
+        }
+    }
+
+    /**
+     * Hides the course and removes it from its instructors at once, then leaves the deletion
+     * of the rest of its data to the course deletion queue.
+     */
+    public void scheduleCourseDeletion(String courseId) {
+        coursesDb.markCourseAsDeleted(courseId);
         instructorsLogic.deleteInstructorsForCourse(courseId);
-        commentsLogic.deleteCommentsForCourse(courseId);
-        feedbackSessionsLogic.deleteFeedbackSessionsForCourseCascade(courseId);
-        coursesDb.deleteCourse(courseId);
+        scheduleCourseDeletion(courseId, CourseDeletionStage.STUDENTS);
+    }
+
+    public boolean isCoursePendingDeletion(String courseId) {
+        return coursesDb.isCourseMarkedAsDeleted(courseId);
+    }
+
+    /**
+     * Adds a task that continues the deletion of the course data from the given stage.
+     */
+    public void scheduleCourseDeletion(String courseId, CourseDeletionStage stage) {
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, courseId);
+        paramMap.put(ParamsNames.COURSE_DELETION_STAGE, stage.name());
+        TaskQueuesLogic.inst().createAndAddTask(TaskQueue.COURSE_DELETION_QUEUE_NAME,
+                                                TaskQueue.COURSE_DELETION_WORKER_URL, paramMap);
+    }
+
+    /**
+     * Deletes at most one batch of the course data of the kind given by {@code stage}.
+     * Each batch is committed on its own, so an interrupted deletion can be resumed
+     * from the last stage returned without repeating finished work.
+     * @return the stage to continue from, or null if the course and all its data are deleted
+     */
+    public CourseDeletionStage deleteCourseDataBatch(String courseId, CourseDeletionStage stage) {
+        int deletedCount = 0;
+        switch (stage) {
+        case INSTRUCTORS:
+            instructorsLogic.deleteInstructorsForCourse(courseId);
+            break;
+        case STUDENTS:
+            deletedCount = studentsLogic.deleteStudentsForCourse(courseId, COURSE_DELETION_BATCH_SIZE);
+            break;
+        case COMMENTS:
+            deletedCount = commentsLogic.deleteCommentsForCourse(courseId, COURSE_DELETION_BATCH_SIZE);
+            break;
+        case FEEDBACK_RESPONSE_COMMENTS:
+            deletedCount = frcLogic.deleteFeedbackResponseCommentsForCourse(courseId, COURSE_DELETION_BATCH_SIZE);
+            break;
+        case FEEDBACK_RESPONSES:
+            deletedCount = frLogic.deleteFeedbackResponsesForCourse(courseId, COURSE_DELETION_BATCH_SIZE);
+            break;
+        case FEEDBACK_QUESTIONS:
+            deletedCount = fqLogic.deleteFeedbackQuestionsForCourse(courseId, COURSE_DELETION_BATCH_SIZE);
+            break;
+        case FEEDBACK_SESSIONS:
+            deletedCount = feedbackSessionsLogic.deleteFeedbackSessionsForCourse(courseId, COURSE_DELETION_BATCH_SIZE);
+            break;
+        case COURSE:
+            studentsLogic.deleteCourseStructure(courseId);
+            coursesDb.deleteCourse(courseId);
+            return null;
+        default:
+            Assumption.fail("Unknown course deletion stage " + stage);
+        }
+        // a full batch may leave more data of the same kind behind
+        return deletedCount > 0 ? stage : CourseDeletionStage.values()[stage.ordinal() + 1];
     }
     
     private HashMap<String, CourseSummaryBundle> getCourseSummaryWithoutStatsForInstructor(
@@ -819,55 +960,90 @@ public class CoursesLogic {
      * @throws EntityDoesNotExistException
      */
     public String getCourseStudentListAsCsv(String courseId, String googleId) throws EntityDoesNotExistException {
+        StringWriter export = new StringWriter();
+        try {
+            writeCourseStudentListAsCsv(courseId, googleId, export);
+        } catch (IOException e) {
+            Assumption.fail("Writing to a string failed: " + TeammatesException.toStringWithStackTrace(e));
+        }
+        return export.toString();
+    }
 
-        HashMap<String, CourseDetailsBundle> courses = getCourseSummariesForInstructor(googleId, false);
-        CourseDetailsBundle course = courses.get(courseId);
-        boolean hasSection = hasIndicatedSections(courseId);
-        
-        StringBuilder export = new StringBuilder(100);
-        String courseInfo = "Course ID," + Sanitizer.sanitizeForCsv(courseId) + Const.EOL
-                      + "Course Name," + Sanitizer.sanitizeForCsv(course.course.getName()) + Const.EOL
-                      + Const.EOL + Const.EOL;
-        export.append(courseInfo);
-        
-        String header = (hasSection ? "Section," : "") + "Team,Full Name,Last Name,Status,Email" + Const.EOL;
-        export.append(header);
-        
-        for (SectionDetailsBundle section : course.sections) {
-            for (TeamDetailsBundle team : section.teams) {
-                for (StudentAttributes student : team.students) {
-                    String studentStatus = null;
-                    if (student.googleId == null || student.googleId.isEmpty()) {
-                        studentStatus = Const.STUDENT_COURSE_STATUS_YET_TO_JOIN;
-                    } else {
-                        studentStatus = Const.STUDENT_COURSE_STATUS_JOINED;
-                    }
-                    
-                    if (hasSection) {
-                        export.append(Sanitizer.sanitizeForCsv(section.name)).append(',');
-                    }
-
-                    export.append(Sanitizer.sanitizeForCsv(team.name) + ','
-                            + Sanitizer.sanitizeForCsv(StringHelper.removeExtraSpace(student.name)) + ','
-                            + Sanitizer.sanitizeForCsv(StringHelper.removeExtraSpace(student.lastName)) + ','
-                            + Sanitizer.sanitizeForCsv(studentStatus) + ','
-                            + Sanitizer.sanitizeForCsv(student.email) + Const.EOL);
+    /**
+     * Writes the student list of the course in CSV format, in section, team and name order.
+     * The students are read a few teams at a time, as counted in the course structure,
+     * so that the whole roster is never held in memory.
+     * @see StudentsLogic#getCourseStructureForTeamBatches(String)
+     */
+    public void writeCourseStudentListAsCsv(String courseId, String googleId, Writer writer)
+            throws EntityDoesNotExistException, IOException {
+
+        instructorsLogic.verifyInstructorExists(googleId);
+        CourseAttributes course = getCourse(courseId);
+        if (course == null || instructorsLogic.getInstructorForGoogleId(courseId, googleId) == null) {
+            throw new EntityDoesNotExistException("Course " + courseId + " of instructor " + googleId
+                                                  + " does not exist");
+        }
+
+        CourseStructureAttributes structure = studentsLogic.getCourseStructureForTeamBatches(courseId);
+        boolean hasSection = structure.hasIndicatedSections();
+
+        writer.write("Course ID," + Sanitizer.sanitizeForCsv(courseId) + Const.EOL
+                     + "Course Name," + Sanitizer.sanitizeForCsv(course.getName()) + Const.EOL
+                     + Const.EOL + Const.EOL);
+        writer.write((hasSection ? "Section," : "") + "Team,Full Name,Last Name,Status,Email" + Const.EOL);
+
+        for (String sectionName : structure.getAllSectionNames()) {
+            List<String> teamNames = new ArrayList<String>();
+            int studentsTotal = 0;
+            for (Map.Entry<String, TeamStructure> team : structure.getTeamsForSection(sectionName).entrySet()) {
+                boolean isBatchFull = studentsTotal + team.getValue().studentsTotal > STUDENT_LIST_BATCH_SIZE
+                                      || teamNames.size() == MAX_TEAMS_PER_STUDENT_LIST_QUERY;
+                if (!teamNames.isEmpty() && isBatchFull) {
+                    writeStudentListRowsAsCsv(courseId, sectionName, teamNames, hasSection, writer);
+                    teamNames.clear();
+                    studentsTotal = 0;
                 }
+                teamNames.add(team.getKey());
+                studentsTotal += team.getValue().studentsTotal;
             }
+            writeStudentListRowsAsCsv(courseId, sectionName, teamNames, hasSection, writer);
         }
-        return export.toString();
     }
 
-    public boolean hasIndicatedSections(String courseId) throws EntityDoesNotExistException {
-        verifyCourseIsPresent(courseId);
-        
-        List<StudentAttributes> studentList = studentsLogic.getStudentsForCourse(courseId);
-        for (StudentAttributes student : studentList) {
-            if (!student.section.equals(Const.DEFAULT_SECTION)) {
-                return true;
+    /**
+     * Writes the rows of the students of the given teams who are in the section, in team and name order.
+     */
+    private void writeStudentListRowsAsCsv(String courseId, String sectionName, List<String> teamNames,
+                                           boolean hasSection, Writer writer) throws IOException {
+        List<StudentAttributes> students = studentsLogic.getStudentsForTeams(courseId, teamNames);
+        StudentAttributes.sortByTeamName(students);
+        for (StudentAttributes student : students) {
+            // a team of the same name may be in another section too
+            if (!student.section.equals(sectionName)) {
+                continue;
             }
+            String studentStatus = null;
+            if (student.googleId == null || student.googleId.isEmpty()) {
+                studentStatus = Const.STUDENT_COURSE_STATUS_YET_TO_JOIN;
+            } else {
+                studentStatus = Const.STUDENT_COURSE_STATUS_JOINED;
+            }
+
+            if (hasSection) {
+                writer.write(Sanitizer.sanitizeForCsv(sectionName) + ',');
+            }
+            writer.write(Sanitizer.sanitizeForCsv(student.team) + ','
+                         + Sanitizer.sanitizeForCsv(StringHelper.removeExtraSpace(student.name)) + ','
+                         + Sanitizer.sanitizeForCsv(StringHelper.removeExtraSpace(student.lastName)) + ','
+                         + Sanitizer.sanitizeForCsv(studentStatus) + ','
+                         + Sanitizer.sanitizeForCsv(student.email) + Const.EOL);
         }
-        return false;
+    }
+
+    public boolean hasIndicatedSections(String courseId) throws EntityDoesNotExistException {
+        verifyCourseIsPresent(courseId);
+        return studentsLogic.getCourseStructure(courseId).hasIndicatedSections();
     }
     
     /**
@@ -17,7 +17,6 @@ import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
-import teammates.common.datatransfer.TeamDetailsBundle;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
@@ -76,7 +75,22 @@ public class FeedbackQuestionsLogic {
             FeedbackQuestionAttributes fqa, int questionNumber) throws InvalidParametersException {
         fqa.questionNumber = questionNumber;
         fqa.removeIrrelevantVisibilityOptions();
-        return fqDb.createFeedbackQuestionWithoutExistenceCheck(fqa);
+        FeedbackQuestionAttributes createdQuestion = fqDb.createFeedbackQuestionWithoutExistenceCheck(fqa);
+        fsLogic.scheduleExpectedRespondentCountUpdate(fqa.feedbackSessionName, fqa.courseId);
+        fsLogic.deleteFeedbackSessionResultsSnapshot(fqa.feedbackSessionName, fqa.courseId);
+        return createdQuestion;
+    }
+    
+    /**
+     * Creates the given questions with one batch write. Used for copying the questions of whole sessions only;
+     * like {@link #createFeedbackQuestionNoIntegrityCheck}, the question numbers are not checked.
+     */
+    public void createFeedbackQuestionsNoIntegrityCheck(List<FeedbackQuestionAttributes> questions)
+            throws InvalidParametersException {
+        for (FeedbackQuestionAttributes question : questions) {
+            question.removeIrrelevantVisibilityOptions();
+        }
+        fqDb.createFeedbackQuestionsWithoutExistenceCheck(questions);
     }
     
     public FeedbackQuestionAttributes copyFeedbackQuestion(
@@ -119,6 +133,35 @@ public class FeedbackQuestionsLogic {
                 courseId, questionNumber);
     }
     
+    /**
+     * Gets every FeedbackQuestion in the given course, mapped by question ID.
+     */
+    public Map<String, FeedbackQuestionAttributes> getFeedbackQuestionsForCourse(String courseId) {
+        Map<String, FeedbackQuestionAttributes> questions = new HashMap<String, FeedbackQuestionAttributes>();
+        for (FeedbackQuestionAttributes question : fqDb.getFeedbackQuestionsForCourse(courseId)) {
+            questions.put(question.getId(), question);
+        }
+        return questions;
+    }
+
+    /**
+     * Gets every FeedbackQuestion in the given courses, mapped by the ID of its session
+     * ({@code feedbackSessionName%courseId}). Sessions without questions are not in the map.
+     */
+    public Map<String, List<FeedbackQuestionAttributes>> getFeedbackQuestionsForCoursesBySession(
+            List<String> courseIds) {
+        Map<String, List<FeedbackQuestionAttributes>> questions =
+                new HashMap<String, List<FeedbackQuestionAttributes>>();
+        for (FeedbackQuestionAttributes question : fqDb.getFeedbackQuestionsForCourses(courseIds)) {
+            String feedbackSessionId = question.feedbackSessionName + "%" + question.courseId;
+            if (!questions.containsKey(feedbackSessionId)) {
+                questions.put(feedbackSessionId, new ArrayList<FeedbackQuestionAttributes>());
+            }
+            questions.get(feedbackSessionId).add(question);
+        }
+        return questions;
+    }
+
     /**
      * Gets a {@link List} of every FeedbackQuestion in the given session.
      */
@@ -395,12 +438,12 @@ public class FeedbackQuestionsLogic {
             }
             break;
         case TEAMS:
-            List<TeamDetailsBundle> teams = coursesLogic.getTeamsForCourse(question.courseId);
-            for (TeamDetailsBundle team : teams) {
+            List<String> teamNames = coursesLogic.getTeamNamesForCourse(question.courseId);
+            for (String teamName : teamNames) {
                 // Ensure student('s team) does not evaluate own team.
-                if (!giverTeam.equals(team.name)) {
+                if (!giverTeam.equals(teamName)) {
                     // recipientEmail doubles as team name in this case.
-                    recipients.put(team.name, team.name);
+                    recipients.put(teamName, teamName);
                 }
             }
             break;
@@ -607,6 +650,11 @@ public class FeedbackQuestionsLogic {
         oldQuestion.updateValues(newAttributes);
         newAttributes.removeIrrelevantVisibilityOptions();
         fqDb.updateFeedbackQuestion(newAttributes);
+        
+        if (newAttributes.giverType != oldQuestion.giverType) {
+            fsLogic.scheduleExpectedRespondentCountUpdate(oldQuestion.feedbackSessionName, oldQuestion.courseId);
+        }
+        fsLogic.deleteFeedbackSessionResultsSnapshot(oldQuestion.feedbackSessionName, oldQuestion.courseId);
     }
 
     public void deleteFeedbackQuestionsForSession(String feedbackSessionName, String courseId)
@@ -676,6 +724,21 @@ public class FeedbackQuestionsLogic {
         fqDb.deleteFeedbackQuestionsForCourse(courseId);
     }
     
+    /**
+     * Deletes the questions of the sessions with the given name in the given courses. This is a non-cascade
+     * delete, for questions that cannot have responses yet, e.g. those of a session copy that was interrupted.
+     */
+    public void deleteFeedbackQuestionsForSessionInCourses(String feedbackSessionName, List<String> courseIds) {
+        fqDb.deleteFeedbackQuestionsForSessionInCourses(feedbackSessionName, courseIds);
+    }
+    
+    /**
+     * @return the number of questions deleted; 0 if the course has no questions left
+     */
+    public int deleteFeedbackQuestionsForCourse(String courseId, int limit) {
+        return fqDb.deleteFeedbackQuestionsForCourse(courseId, limit);
+    }
+    
     /**
      * Deletes a question.<br> Question is identified by it's question number, and
      * the feedback session name and course ID of the question.<br>
@@ -707,6 +770,9 @@ public class FeedbackQuestionsLogic {
         if (questionToDelete.questionNumber < questionsToShiftQnNumber.size()) {
             shiftQuestionNumbersDown(questionToDelete.questionNumber, questionsToShiftQnNumber);
         }
+        
+        fsLogic.scheduleExpectedRespondentCountUpdate(feedbackSessionName, courseId);
+        fsLogic.deleteFeedbackSessionResultsSnapshot(feedbackSessionName, courseId);
     }
     
     // Shifts all question numbers after questionNumberToShiftFrom down by one.
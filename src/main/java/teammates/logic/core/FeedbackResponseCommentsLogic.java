@@ -1,8 +1,10 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import teammates.common.datatransfer.CommentSendingState;
@@ -48,6 +50,7 @@ public class FeedbackResponseCommentsLogic {
         verifyIsCoursePresent(frComment.courseId);
         verifyIsInstructorOfCourse(frComment.courseId, frComment.giverEmail);
         verifyIsFeedbackSessionOfCourse(frComment.courseId, frComment.feedbackSessionName);
+        fsLogic.deleteFeedbackSessionResultsSnapshot(frComment.feedbackSessionName, frComment.courseId);
         
         try {
             return frcDb.createEntity(frComment);
@@ -108,12 +111,28 @@ public class FeedbackResponseCommentsLogic {
         }
     }
     
+    /**
+     * Points the comments on the given responses to their new IDs.
+     * @param newResponseIds new response IDs, mapped from the old ones
+     */
+    public void updateFeedbackResponseIds(Map<String, String> newResponseIds) {
+        frcDb.updateFeedbackResponseIds(newResponseIds);
+    }
+    
+    /**
+     * Sets the sections of the comments on the given responses to those of the responses.
+     */
+    public void updateFeedbackResponseCommentSections(Collection<FeedbackResponseAttributes> responses) {
+        frcDb.updateFeedbackResponseCommentSections(responses);
+    }
+    
     /*
      * Updates all email fields of feedback response comments with the new email
      */
     public void updateFeedbackResponseCommentsEmails(String courseId, String oldEmail, String updatedEmail) {
         frcDb.updateGiverEmailOfFeedbackResponseComments(courseId, oldEmail, updatedEmail);
         frcDb.updateLastEditorEmailOfFeedbackResponseComments(courseId, oldEmail, updatedEmail);
+        fsLogic.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
     }
     
     // right now this method only updates comment's giverSection and receiverSection for a given response
@@ -131,7 +150,10 @@ public class FeedbackResponseCommentsLogic {
     public FeedbackResponseCommentAttributes updateFeedbackResponseComment(
                                                      FeedbackResponseCommentAttributes feedbackResponseComment)
                                                      throws InvalidParametersException, EntityDoesNotExistException {
-        return frcDb.updateFeedbackResponseComment(feedbackResponseComment);
+        FeedbackResponseCommentAttributes updatedComment =
+                frcDb.updateFeedbackResponseComment(feedbackResponseComment);
+        fsLogic.deleteFeedbackSessionResultsSnapshot(updatedComment.feedbackSessionName, updatedComment.courseId);
+        return updatedComment;
     }
     
     public List<FeedbackResponseCommentAttributes> getFeedbackResponseCommentsForSendingState(
@@ -159,6 +181,7 @@ public class FeedbackResponseCommentsLogic {
         for (FeedbackSessionAttributes fs : feedbackSessions) {
             if (fs.isPublished()) {
                 frcDb.updateFeedbackResponseComments(courseId, fs.getFeedbackSessionName(), oldState, newState);
+                fsLogic.deleteFeedbackSessionResultsSnapshot(fs.getFeedbackSessionName(), courseId);
             }
         }
     }
@@ -186,12 +209,26 @@ public class FeedbackResponseCommentsLogic {
         frcDb.deleteFeedbackResponseCommentsForCourse(courseId);
     }
     
+    /**
+     * @return the number of response comments deleted; 0 if the course has no response comments left
+     */
+    public int deleteFeedbackResponseCommentsForCourse(String courseId, int limit) {
+        return frcDb.deleteFeedbackResponseCommentsForCourse(courseId, limit);
+    }
+    
     public void deleteFeedbackResponseCommentsForResponse(String responseId) {
         frcDb.deleteFeedbackResponseCommentsForResponse(responseId);
     }
     
     public void deleteFeedbackResponseComment(FeedbackResponseCommentAttributes feedbackResponseComment) {
+        // the comment to delete may only have its ID set
+        Long commentId = feedbackResponseComment.getId();
+        FeedbackResponseCommentAttributes commentToDelete =
+                commentId == null ? null : frcDb.getFeedbackResponseComment(commentId);
         frcDb.deleteEntity(feedbackResponseComment);
+        if (commentToDelete != null) {
+            fsLogic.deleteFeedbackSessionResultsSnapshot(commentToDelete.feedbackSessionName, commentToDelete.courseId);
+        }
     }
     
     /**
@@ -3,6 +3,7 @@ package teammates.logic.core;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -11,6 +12,8 @@ import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponsesPage;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentEnrollDetails;
 import teammates.common.datatransfer.UserRole;
@@ -43,11 +46,22 @@ public class FeedbackResponsesLogic {
 
     public void createFeedbackResponse(FeedbackResponseAttributes fra)
             throws InvalidParametersException, EntityDoesNotExistException {
+        createFeedbackResponse(fra, null);
+    }
+
+    /**
+     * Creates the response, or updates it if it exists.
+     * @param session the session of the response, as read earlier in the same request, to tell whether the
+     *         session has a results snapshot to delete; null to delete the snapshot in any case
+     */
+    public void createFeedbackResponse(FeedbackResponseAttributes fra, FeedbackSessionAttributes session)
+            throws InvalidParametersException, EntityDoesNotExistException {
         try {
             frDb.createEntity(fra);
+            deleteResultsSnapshot(fra, session);
         } catch (EntityAlreadyExistsException eaee) {
             try {
-                updateFeedbackResponse(fra, (FeedbackResponse) eaee.existingEntity);
+                updateFeedbackResponse(fra, (FeedbackResponse) eaee.existingEntity, session);
             } catch (EntityAlreadyExistsException entityAlreadyExistsException) {
                 Assumption.fail();
             }
@@ -125,6 +139,38 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName, courseId, section, range);
     }
 
+    /**
+     * Gets one page of the responses in a session (in a section, if {@code section} is not null).
+     * @param pageToken token of the page to get, as returned with the previous page,
+     *                  or {@code null} for the first page
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String pageToken, int pageSize) {
+        if (section == null) {
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, pageToken, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, section,
+                                                                pageToken, pageSize);
+    }
+
+    public FeedbackResponsesPage getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String pageToken, int pageSize) {
+        if (section == null) {
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, pageToken, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, section,
+                                                                  pageToken, pageSize);
+    }
+
+    public FeedbackResponsesPage getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String pageToken, int pageSize) {
+        if (section == null) {
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, pageToken, pageSize);
+        }
+        return frDb.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId, section,
+                                                                pageToken, pageSize);
+    }
+
     public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestion(String feedbackQuestionId) {
         return frDb.getFeedbackResponsesForQuestion(feedbackQuestionId);
     }
@@ -369,6 +415,18 @@ public class FeedbackResponsesLogic {
             FeedbackResponseAttributes responseToUpdate)
             throws InvalidParametersException, EntityDoesNotExistException,
             EntityAlreadyExistsException {
+        updateFeedbackResponse(responseToUpdate, (FeedbackSessionAttributes) null);
+    }
+
+    /**
+     * Updates the response as {@link #updateFeedbackResponse(FeedbackResponseAttributes)} does.
+     * @param session the session of the response, as read earlier in the same request, to tell whether the
+     *         session has a results snapshot to delete; null to delete the snapshot in any case
+     */
+    public void updateFeedbackResponse(
+            FeedbackResponseAttributes responseToUpdate, FeedbackSessionAttributes session)
+            throws InvalidParametersException, EntityDoesNotExistException,
+            EntityAlreadyExistsException {
 
         // Create a copy.
         FeedbackResponseAttributes newResponse = new FeedbackResponseAttributes(
@@ -391,7 +449,7 @@ public class FeedbackResponsesLogic {
                     "Trying to update a feedback response that does not exist.");
         }
 
-        updateFeedbackResponse(newResponse, oldResponseEntity);
+        updateFeedbackResponse(newResponse, oldResponseEntity, session);
     }
 
     /**
@@ -401,13 +459,15 @@ public class FeedbackResponsesLogic {
      * in order to prevent an id clash if the previous email is reused later on.
      * @param updatedResponse
      * @param oldResponseEntity  a FeedbackResponse retrieved from the database
+     * @param session  the session of the response, as read earlier in the same request; null if not at hand
      * @throws EntityAlreadyExistsException  if trying to prevent an id clash by recreating a response,
      *                                       a response with the same id already exist.
      * @throws InvalidParametersException
      * @throws EntityDoesNotExistException
      */
     public void updateFeedbackResponse(
-            FeedbackResponseAttributes updatedResponse, FeedbackResponse oldResponseEntity)
+            FeedbackResponseAttributes updatedResponse, FeedbackResponse oldResponseEntity,
+            FeedbackSessionAttributes session)
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
         Assumption.assertNotNull(oldResponseEntity);
         
@@ -450,6 +510,15 @@ public class FeedbackResponsesLogic {
             // Recreate response to prevent possible future id conflict.
             recreateResponse(newResponse, oldResponse);
         }
+        deleteResultsSnapshot(oldResponse, session);
+    }
+
+    private void deleteResultsSnapshot(FeedbackResponseAttributes response, FeedbackSessionAttributes session) {
+        if (session == null) {
+            fsLogic.deleteFeedbackSessionResultsSnapshot(response.feedbackSessionName, response.courseId);
+        } else {
+            fsLogic.deleteFeedbackSessionResultsSnapshot(session);
+        }
     }
 
     private void recreateResponse(
@@ -472,64 +541,152 @@ public class FeedbackResponsesLogic {
     /**
      * Updates responses for a student when his team changes. This is done by
      * deleting responses that are no longer relevant to him in his new team.
+     * The questions of the course are read once and the responses are deleted in one batch.
      */
     public void updateFeedbackResponsesForChangingTeam(
             String courseId, String userEmail, String oldTeam, String newTeam) {
 
-        FeedbackQuestionAttributes question;
+        Map<String, FeedbackQuestionAttributes> questions = fqLogic.getFeedbackQuestionsForCourse(courseId);
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
 
-        List<FeedbackResponseAttributes> responsesFromUser =
-                getFeedbackResponsesFromGiverForCourse(courseId, userEmail);
-
-        for (FeedbackResponseAttributes response : responsesFromUser) {
-            question = fqLogic.getFeedbackQuestion(response.feedbackQuestionId);
-            if (question.giverType == FeedbackParticipantType.TEAMS
-                    || isRecipientTypeTeamMembers(question)) {
-                frDb.deleteEntity(response);
+        for (FeedbackResponseAttributes response : getFeedbackResponsesFromGiverForCourse(courseId, userEmail)) {
+            FeedbackQuestionAttributes question = questions.get(response.feedbackQuestionId);
+            if (question != null
+                    && (question.giverType == FeedbackParticipantType.TEAMS || isRecipientTypeTeamMembers(question))) {
+                responsesToDelete.add(response);
             }
         }
 
-        List<FeedbackResponseAttributes> responsesToUser =
-                getFeedbackResponsesForReceiverForCourse(courseId, userEmail);
-
-        for (FeedbackResponseAttributes response : responsesToUser) {
-            question = fqLogic.getFeedbackQuestion(response.feedbackQuestionId);
-            if (isRecipientTypeTeamMembers(question)) {
-                frDb.deleteEntity(response);
+        for (FeedbackResponseAttributes response : getFeedbackResponsesForReceiverForCourse(courseId, userEmail)) {
+            FeedbackQuestionAttributes question = questions.get(response.feedbackQuestionId);
+            if (question != null && isRecipientTypeTeamMembers(question)) {
+                responsesToDelete.add(response);
             }
         }
 
         if (studentsLogic.getStudentsForTeam(oldTeam, courseId).isEmpty()) {
-            List<FeedbackResponseAttributes> responsesToTeam =
-                    getFeedbackResponsesForReceiverForCourse(courseId, oldTeam);
-            for (FeedbackResponseAttributes response : responsesToTeam) {
-                frDb.deleteEntity(response);
-            }
+            responsesToDelete.addAll(getFeedbackResponsesForReceiverForCourse(courseId, oldTeam));
+        }
+
+        frDb.deleteFeedbackResponses(responsesToDelete);
+        if (!responsesToDelete.isEmpty()) {
+            fsLogic.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
         }
     }
 
+    /**
+     * Updates the sections of the responses of a student, and of the comments on them,
+     * when his section changes. The responses and the comments are each written in batches.
+     */
     public void updateFeedbackResponsesForChangingSection(
             String courseId, String userEmail, String oldSection, String newSection)
             throws EntityDoesNotExistException, InvalidParametersException {
 
-        List<FeedbackResponseAttributes> responsesFromUser =
-                getFeedbackResponsesFromGiverForCourse(courseId, userEmail);
+        // a response to oneself is both given and received, so both its sections change
+        Map<String, FeedbackResponseAttributes> responsesToUpdate =
+                new LinkedHashMap<String, FeedbackResponseAttributes>();
 
-        for (FeedbackResponseAttributes response : responsesFromUser) {
+        for (FeedbackResponseAttributes response : getFeedbackResponsesFromGiverForCourse(courseId, userEmail)) {
             response.giverSection = newSection;
-            frDb.updateFeedbackResponse(response);
-            frcLogic.updateFeedbackResponseCommentsForResponse(response.getId());
+            responsesToUpdate.put(response.getId(), response);
         }
 
-        List<FeedbackResponseAttributes> responsesToUser =
-                getFeedbackResponsesForReceiverForCourse(courseId, userEmail);
+        for (FeedbackResponseAttributes response : getFeedbackResponsesForReceiverForCourse(courseId, userEmail)) {
+            FeedbackResponseAttributes responseToUpdate = responsesToUpdate.get(response.getId());
+            if (responseToUpdate == null) {
+                responseToUpdate = response;
+                responsesToUpdate.put(response.getId(), response);
+            }
+            responseToUpdate.recipientSection = newSection;
+        }
 
-        for (FeedbackResponseAttributes response : responsesToUser) {
-            response.recipientSection = newSection;
-            frDb.updateFeedbackResponse(response);
-            frcLogic.updateFeedbackResponseCommentsForResponse(response.getId());
+        frDb.updateFeedbackResponseSections(responsesToUpdate.values());
+        frcLogic.updateFeedbackResponseCommentSections(responsesToUpdate.values());
+        if (!responsesToUpdate.isEmpty()) {
+            fsLogic.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
+        }
+    }
+
+    /**
+     * Adjusts the given responses of a course to the team and section changes of the given enrollments:
+     * responses that are no longer relevant in a student's new team are deleted, and the sections of
+     * the remaining responses of the student, and of the comments on them, are updated.
+     * The questions of the course are read once and all changes are written in batches.
+     */
+    public void updateFeedbackResponsesForEnrollments(
+            String courseId, List<StudentEnrollDetails> enrollments, List<FeedbackResponseAttributes> responses)
+            throws InvalidParametersException, EntityDoesNotExistException {
+
+        Map<String, FeedbackQuestionAttributes> questions = fqLogic.getFeedbackQuestionsForCourse(courseId);
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        Map<String, FeedbackResponseAttributes> responsesToUpdate =
+                new LinkedHashMap<String, FeedbackResponseAttributes>();
+        // session names mapped to the students whose responses in them were deleted
+        Map<String, Set<String>> studentsWithDeletedResponses = new HashMap<String, Set<String>>();
+
+        for (FeedbackResponseAttributes response : responses) {
+            for (StudentEnrollDetails enrollment : enrollments) {
+                if (isResponseDeletedForChangingTeam(enrollment, response,
+                                                     questions.get(response.feedbackQuestionId))) {
+                    responsesToDelete.add(response);
+                    responsesToUpdate.remove(response.getId());
+                    if (!studentsWithDeletedResponses.containsKey(response.feedbackSessionName)) {
+                        studentsWithDeletedResponses.put(response.feedbackSessionName, new HashSet<String>());
+                    }
+                    studentsWithDeletedResponses.get(response.feedbackSessionName).add(enrollment.email);
+                    break;
+                }
+                if (isResponseUpdatedForChangingSection(enrollment, response)) {
+                    responsesToUpdate.put(response.getId(), response);
+                }
+            }
+        }
+
+        frDb.deleteFeedbackResponses(responsesToDelete);
+        frDb.updateFeedbackResponseSections(responsesToUpdate.values());
+        frcLogic.updateFeedbackResponseCommentSections(responsesToUpdate.values());
+        if (!responsesToDelete.isEmpty() || !responsesToUpdate.isEmpty()) {
+            fsLogic.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
+        }
+
+        for (Map.Entry<String, Set<String>> entry : studentsWithDeletedResponses.entrySet()) {
+            for (String studentEmail : entry.getValue()) {
+                updateSessionResponseRateForDeletingStudentResponse(studentEmail, entry.getKey(), courseId);
+            }
         }
+    }
 
+    private boolean isResponseDeletedForChangingTeam(StudentEnrollDetails enrollment,
+            FeedbackResponseAttributes response, FeedbackQuestionAttributes question) {
+        if (question == null || !studentsLogic.isTeamChanged(enrollment.oldTeam, enrollment.newTeam)) {
+            return false;
+        }
+        boolean shouldDeleteByChangeOfGiver = response.giver.equals(enrollment.email)
+                                              && (question.giverType == FeedbackParticipantType.TEAMS
+                                                  || isRecipientTypeTeamMembers(question));
+        boolean shouldDeleteByChangeOfRecipient = response.recipient.equals(enrollment.email)
+                                                  && isRecipientTypeTeamMembers(question);
+        return shouldDeleteByChangeOfGiver || shouldDeleteByChangeOfRecipient;
+    }
+
+    /**
+     * Sets the sections of the response that belong to the enrolled student to his new section.
+     * @return true if the response is given or received by the student
+     */
+    private boolean isResponseUpdatedForChangingSection(StudentEnrollDetails enrollment,
+                                                        FeedbackResponseAttributes response) {
+        if (!studentsLogic.isSectionChanged(enrollment.oldSection, enrollment.newSection)) {
+            return false;
+        }
+        boolean isGiver = response.giver.equals(enrollment.email);
+        boolean isRecipient = response.recipient.equals(enrollment.email);
+        if (isGiver) {
+            response.giverSection = enrollment.newSection;
+        }
+        if (isRecipient) {
+            response.recipientSection = enrollment.newSection;
+        }
+        return isGiver || isRecipient;
     }
 
     public boolean updateFeedbackResponseForChangingTeam(StudentEnrollDetails enrollment,
@@ -554,6 +711,7 @@ public class FeedbackResponsesLogic {
 
         if (shouldDeleteResponse) {
             frDb.deleteEntity(response);
+            fsLogic.deleteFeedbackSessionResultsSnapshot(response.feedbackSessionName, response.courseId);
             updateSessionResponseRateForDeletingStudentResponse(enrollment.email,
                     response.feedbackSessionName, enrollment.course);
         }
@@ -595,47 +753,39 @@ public class FeedbackResponsesLogic {
         
         if (isGiverSameForResponseAndEnrollment || isReceiverSameForResponseAndEnrollment) {
             frcLogic.updateFeedbackResponseCommentsForResponse(response.getId());
+            fsLogic.deleteFeedbackSessionResultsSnapshot(feedbackResponse.getFeedbackSessionName(),
+                                                         feedbackResponse.getCourseId());
         }
     }
 
     /**
      * Updates responses for a student when his email changes.
+     * As response IDs contain the emails, the responses are copied to their new IDs and the comments
+     * on them re-pointed before the old responses are deleted, each step in one batch.
+     * If the update is interrupted, running it again with the same emails completes it.
      */
-    // TODO: cascade the update to response comments
     public void updateFeedbackResponsesForChangingEmail(
             String courseId, String oldEmail, String newEmail)
             throws InvalidParametersException, EntityDoesNotExistException {
-
-        List<FeedbackResponseAttributes> responsesFromUser =
-                getFeedbackResponsesFromGiverForCourse(courseId, oldEmail);
-
-        for (FeedbackResponseAttributes response : responsesFromUser) {
-            response.giver = newEmail;
-            try {
-                updateFeedbackResponse(response);
-            } catch (EntityAlreadyExistsException e) {
-                Assumption
-                        .fail("Feedback response failed to update successfully"
-                            + "as email was already in use.");
-            }
-        }
-
-        List<FeedbackResponseAttributes> responsesToUser =
-                getFeedbackResponsesForReceiverForCourse(courseId, oldEmail);
-
-        for (FeedbackResponseAttributes response : responsesToUser) {
-            response.recipient = newEmail;
-            try {
-                updateFeedbackResponse(response);
-            } catch (EntityAlreadyExistsException e) {
-                Assumption
-                        .fail("Feedback response failed to update successfully"
-                            + "as email was already in use.");
-            }
+        if (oldEmail.equals(newEmail)) {
+            return;
         }
+        Map<String, String> newResponseIds = frDb.copyFeedbackResponsesForChangedEmail(courseId, oldEmail, newEmail);
+        frcLogic.updateFeedbackResponseIds(newResponseIds);
+        frDb.deleteFeedbackResponsesForParticipant(courseId, oldEmail);
+        fsLogic.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
     }
 
     public void deleteFeedbackResponseAndCascade(FeedbackResponseAttributes responseToDelete) {
+        deleteFeedbackResponseAndComments(responseToDelete);
+        fsLogic.deleteFeedbackSessionResultsSnapshot(responseToDelete.feedbackSessionName, responseToDelete.courseId);
+    }
+
+    /**
+     * Deletes the response and the comments on it, leaving the results snapshot of the session
+     * to be deleted once for all the responses deleted together.
+     */
+    private void deleteFeedbackResponseAndComments(FeedbackResponseAttributes responseToDelete) {
         frcLogic.deleteFeedbackResponseCommentsForResponse(responseToDelete.getId());
         frDb.deleteEntity(responseToDelete);
     }
@@ -648,9 +798,13 @@ public class FeedbackResponsesLogic {
         Set<String> emails = new HashSet<String>();
 
         for (FeedbackResponseAttributes response : responsesForQuestion) {
-            this.deleteFeedbackResponseAndCascade(response);
+            deleteFeedbackResponseAndComments(response);
             emails.add(response.giver);
         }
+        if (!responsesForQuestion.isEmpty()) {
+            FeedbackResponseAttributes response = responsesForQuestion.get(0);
+            fsLogic.deleteFeedbackSessionResultsSnapshot(response.feedbackSessionName, response.courseId);
+        }
 
         if (!hasResponseRateUpdate) {
             return;
@@ -701,7 +855,10 @@ public class FeedbackResponsesLogic {
         }
 
         for (FeedbackResponseAttributes response : responses) {
-            this.deleteFeedbackResponseAndCascade(response);
+            deleteFeedbackResponseAndComments(response);
+        }
+        if (!responses.isEmpty()) {
+            fsLogic.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
         }
     }
 
@@ -714,6 +871,13 @@ public class FeedbackResponsesLogic {
         frDb.deleteFeedbackResponsesForCourse(courseId);
     }
 
+    /**
+     * @return the number of responses deleted; 0 if the course has no responses left
+     */
+    public int deleteFeedbackResponsesForCourse(String courseId, int limit) {
+        return frDb.deleteFeedbackResponsesForCourse(courseId, limit);
+    }
+
     /**
      * Adds {@link FeedbackResponseAttributes} in {@code newResponses} that are
      * not already in to {@code existingResponses} to {@code existingResponses}.
@@ -1,30 +1,38 @@
 package teammates.logic.core;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
 
+import teammates.common.datatransfer.CompiledInstructorPrivileges;
 import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
 import teammates.common.datatransfer.FeedbackSessionResponseStatus;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.FeedbackSessionResultsSnapshotAttributes;
+import teammates.common.datatransfer.FeedbackSessionSummaryAttributes;
 import teammates.common.datatransfer.FeedbackSessionType;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
@@ -45,6 +53,8 @@ import teammates.common.util.Logger;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
 import teammates.common.util.TimeHelper;
+import teammates.storage.api.FeedbackSessionResultsSnapshotsDb;
+import teammates.storage.api.FeedbackSessionSummariesDb;
 import teammates.storage.api.FeedbackSessionsDb;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
@@ -56,6 +66,8 @@ public class FeedbackSessionsLogic {
     private static final Logger log = Logger.getLogger();
 
     private static final FeedbackSessionsDb fsDb = new FeedbackSessionsDb();
+    private static final FeedbackSessionSummariesDb fssDb = new FeedbackSessionSummariesDb();
+    private static final FeedbackSessionResultsSnapshotsDb fsrsDb = new FeedbackSessionResultsSnapshotsDb();
     private static final FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
     private static final FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
     private static final FeedbackResponseCommentsLogic frcLogic = FeedbackResponseCommentsLogic.inst();
@@ -70,12 +82,20 @@ public class FeedbackSessionsLogic {
     private static final String PARAM_FROM_SECTION = "fromSection";
     private static final String PARAM_IN_SECTION = "inSection";
     private static final String PARAM_IS_INCLUDE_RESPONSE_STATUS = "isIncludeResponseStatus";
+    private static final String PARAM_PAGE_TOKEN = "pageToken";
     private static final String PARAM_QUESTION_ID = "questionId";
     private static final String PARAM_RANGE = "range";
     private static final String PARAM_SECTION = "section";
     private static final String PARAM_TO_SECTION = "toSection";
     private static final String PARAM_VIEW_TYPE = "viewType";
     
+    /** Page tokens of responses paged in memory are {@code snapshot:<version>:<offset>}; datastore cursors never are. */
+    private static final String RESULTS_SNAPSHOT_PAGE_TOKEN_PREFIX = "snapshot:";
+    // leaves time for the last responses and comments to show up in the queries that build the snapshot
+    private static final long RESULTS_SNAPSHOT_BUILD_DELAY_MILLIS = 60 * 1000L;
+    // leaves time for recent enrollments to show up in the roster query that counts the respondents
+    private static final long RESPONDENT_COUNT_DELAY_MILLIS = 10 * 1000L;
+    
     private static final String ASSUMPTION_FAIL_DELETE_INSTRUCTOR = "Fail to delete instructor respondent for ";
     private static final String ASSUMPTION_FAIL_RESPONSE_ORIGIN = "Client did not indicate the origin of the response(s)";
     private static final String ERROR_NUMBER_OF_RESPONSES_EXCEEDS_RANGE = "Number of responses exceeds the limited range";
@@ -115,13 +135,60 @@ public class FeedbackSessionsLogic {
 
     public void createFeedbackSession(FeedbackSessionAttributes fsa)
             throws InvalidParametersException, EntityAlreadyExistsException {
+        // a new session has no questions, so no one is expected to respond yet; the counts are
+        // written with the session, and kept up to date from then on
+        fsa.setExpectedStudentRespondentCount(0);
+        fsa.setExpectedInstructorRespondentCount(0);
         fsDb.createEntity(fsa);
+        putFeedbackSessionSummaries(Collections.singletonList(fsa));
     }
 
     public List<FeedbackSessionAttributes> getAllOpenFeedbackSessions(Date start, Date end, double zone) {
         
         return fsDb.getAllOpenFeedbackSessions(start, end, zone);
     }
+
+    /**
+     * @return the summaries of the sessions which start or end within the given range,
+     *         see {@link #getAllOpenFeedbackSessions}
+     */
+    public List<FeedbackSessionSummaryAttributes> getFeedbackSessionSummariesWithinTimeRange(Date start, Date end,
+                                                                                             double zone) {
+        return fssDb.getFeedbackSessionSummariesWithinTimeRange(start, end, zone);
+    }
+
+    /**
+     * Writes the summaries of the given sessions with one batch write, replacing existing ones.
+     */
+    public void putFeedbackSessionSummaries(Collection<FeedbackSessionAttributes> sessions)
+            throws InvalidParametersException {
+        List<FeedbackSessionSummaryAttributes> summaries = new ArrayList<FeedbackSessionSummaryAttributes>();
+        for (FeedbackSessionAttributes session : sessions) {
+            summaries.add(new FeedbackSessionSummaryAttributes(session));
+        }
+        fssDb.putFeedbackSessionSummaries(summaries);
+    }
+
+    /**
+     * Writes the summaries of the sessions with the given name in the given courses which have none,
+     * e.g. for copies whose summaries were not written as the copy was interrupted after their sessions.
+     */
+    public void putMissingFeedbackSessionSummaries(String feedbackSessionName, List<String> courseIds)
+            throws InvalidParametersException {
+        List<FeedbackSessionAttributes> sessionsWithoutSummary = new ArrayList<FeedbackSessionAttributes>();
+        for (String courseId : courseIds) {
+            if (fssDb.getFeedbackSessionSummary(feedbackSessionName, courseId) != null) {
+                continue;
+            }
+            FeedbackSessionAttributes session = fsDb.getFeedbackSession(courseId, feedbackSessionName);
+            if (session != null) {
+                sessionsWithoutSummary.add(session);
+            }
+        }
+        if (!sessionsWithoutSummary.isEmpty()) {
+            putFeedbackSessionSummaries(sessionsWithoutSummary);
+        }
+    }
     
     /**
      * This method returns a single feedback session. Returns null if not found.
@@ -135,28 +202,136 @@ public class FeedbackSessionsLogic {
         return fsDb.getFeedbackSessionsForCourse(courseId);
     }
 
+    public List<FeedbackSessionAttributes> getFeedbackSessionsForCourses(List<String> courseIds) {
+        return fsDb.getFeedbackSessionsForCourses(courseIds);
+    }
+
     public FeedbackSessionAttributes copyFeedbackSession(String newFeedbackSessionName,
             String newCourseId, String feedbackSessionName, String courseId, String instructorEmail)
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
-        FeedbackSessionAttributes copiedFeedbackSession = getFeedbackSession(feedbackSessionName, courseId);
-        copiedFeedbackSession.setCreatorEmail(instructorEmail);
-        copiedFeedbackSession.setFeedbackSessionName(newFeedbackSessionName);
-        copiedFeedbackSession.setCourseId(newCourseId);
-        copiedFeedbackSession.setCreatedTime(new Date());
-        copiedFeedbackSession.setRespondingInstructorList(new HashSet<String>());
-        copiedFeedbackSession.setRespondingStudentList(new HashSet<String>());
-        fsDb.createEntity(copiedFeedbackSession);
+        List<String> newCourseIds = new ArrayList<String>();
+        newCourseIds.add(newCourseId);
+        return copyFeedbackSessionToCourses(newFeedbackSessionName, newCourseIds,
+                                            feedbackSessionName, courseId, instructorEmail).get(0);
+    }
+
+    /**
+     * Copies a session and its questions to each of the given courses.
+     * All copies are validated, and the courses checked for sessions with the new name, before anything
+     * is written; the questions of all copies are then created in one batch, followed by the sessions.
+     * As a copy only appears once its session is written, an interrupted copy can be run again:
+     * questions left behind without a session are removed first.
+     * @return the copied sessions, in the order of the given courses
+     */
+    public List<FeedbackSessionAttributes> copyFeedbackSessionToCourses(String newFeedbackSessionName,
+            List<String> newCourseIds, String feedbackSessionName, String courseId, String instructorEmail)
+            throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
+        List<FeedbackSessionAttributes> copiedFeedbackSessions =
+                getFeedbackSessionCopies(newFeedbackSessionName, newCourseIds, feedbackSessionName, courseId,
+                                         instructorEmail);
+        
+        List<String> conflictingCourseIds = getCoursesWithFeedbackSession(newFeedbackSessionName, newCourseIds);
+        if (!conflictingCourseIds.isEmpty()) {
+            throw new EntityAlreadyExistsException(
+                    String.format(FeedbackSessionsDb.ERROR_CREATE_ENTITY_ALREADY_EXISTS, "Feedback Session")
+                    + newFeedbackSessionName + "/" + StringHelper.toString(conflictingCourseIds, ","));
+        }
         
         List<FeedbackQuestionAttributes> feedbackQuestions =
                 fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
-        for (FeedbackQuestionAttributes question : feedbackQuestions) {
-            question.courseId = newCourseId;
-            question.feedbackSessionName = newFeedbackSessionName;
-            question.creatorEmail = instructorEmail;
-            fqLogic.createFeedbackQuestionNoIntegrityCheck(question, question.questionNumber);
+        List<FeedbackQuestionAttributes> copiedFeedbackQuestions = new ArrayList<FeedbackQuestionAttributes>();
+        for (String newCourseId : newCourseIds) {
+            for (FeedbackQuestionAttributes question : feedbackQuestions) {
+                FeedbackQuestionAttributes copiedQuestion = question.getCopy();
+                copiedQuestion.courseId = newCourseId;
+                copiedQuestion.feedbackSessionName = newFeedbackSessionName;
+                copiedQuestion.creatorEmail = instructorEmail;
+                copiedFeedbackQuestions.add(copiedQuestion);
+            }
         }
         
-        return copiedFeedbackSession;
+        fqLogic.deleteFeedbackQuestionsForSessionInCourses(newFeedbackSessionName, newCourseIds);
+        fqLogic.createFeedbackQuestionsNoIntegrityCheck(copiedFeedbackQuestions);
+        fsDb.createEntitiesWithoutExistenceCheck(copiedFeedbackSessions);
+        // written after the sessions, so that no summary lists a session that is not there; the summaries
+        // of a copy interrupted in between are written when it is run again
+        putFeedbackSessionSummaries(copiedFeedbackSessions);
+        // the copies have the questions of the original, but the rosters of their own courses
+        for (FeedbackSessionAttributes copiedFeedbackSession : copiedFeedbackSessions) {
+            scheduleExpectedRespondentCountUpdate(copiedFeedbackSession.getFeedbackSessionName(),
+                                                  copiedFeedbackSession.getCourseId());
+        }
+        
+        return copiedFeedbackSessions;
+    }
+
+    /**
+     * Validates the copies of a session to each of the given courses, then adds a task
+     * that copies the session to the courses in batches. The courses are not checked
+     * for sessions with the new name; the task skips them.
+     */
+    public void scheduleFeedbackSessionCopy(String newFeedbackSessionName, List<String> newCourseIds,
+            String feedbackSessionName, String courseId, String instructorEmail)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        getFeedbackSessionCopies(newFeedbackSessionName, newCourseIds, feedbackSessionName, courseId, instructorEmail);
+        
+        HashMap<String, String[]> paramMap = new HashMap<String, String[]>();
+        paramMap.put(ParamsNames.COPIED_FEEDBACK_SESSION_NAME, new String[]{newFeedbackSessionName});
+        paramMap.put(ParamsNames.COPIED_COURSES_ID, newCourseIds.toArray(new String[newCourseIds.size()]));
+        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, new String[]{feedbackSessionName});
+        paramMap.put(ParamsNames.COURSE_ID, new String[]{courseId});
+        paramMap.put(ParamsNames.INSTRUCTOR_EMAIL, new String[]{instructorEmail});
+        
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        taskQueueLogic.createAndAddTaskMultisetParam(TaskQueue.FEEDBACK_SESSION_COPY_QUEUE_NAME,
+                                                     TaskQueue.FEEDBACK_SESSION_COPY_WORKER_URL, paramMap);
+    }
+
+    /**
+     * @return the IDs of the given courses that have a session with the given name, in the order given
+     */
+    public List<String> getCoursesWithFeedbackSession(String feedbackSessionName, List<String> courseIds) {
+        Set<String> courseIdsWithSession = new HashSet<String>();
+        for (FeedbackSessionAttributes session : fsDb.getFeedbackSessionsWithName(feedbackSessionName, courseIds)) {
+            courseIdsWithSession.add(session.getCourseId());
+        }
+        
+        List<String> result = new ArrayList<String>();
+        for (String courseId : courseIds) {
+            if (courseIdsWithSession.contains(courseId)) {
+                result.add(courseId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the copies of a session to each of the given courses, all validated
+     */
+    private List<FeedbackSessionAttributes> getFeedbackSessionCopies(String newFeedbackSessionName,
+            List<String> newCourseIds, String feedbackSessionName, String courseId, String instructorEmail)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        FeedbackSessionAttributes feedbackSession = getFeedbackSession(feedbackSessionName, courseId);
+        if (feedbackSession == null) {
+            throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_GET + courseId + "/" + feedbackSessionName);
+        }
+        
+        Date createdTime = new Date();
+        List<FeedbackSessionAttributes> copiedFeedbackSessions = new ArrayList<FeedbackSessionAttributes>();
+        for (String newCourseId : newCourseIds) {
+            FeedbackSessionAttributes copiedFeedbackSession = feedbackSession.getCopy();
+            copiedFeedbackSession.setCreatorEmail(instructorEmail);
+            copiedFeedbackSession.setFeedbackSessionName(newFeedbackSessionName);
+            copiedFeedbackSession.setCourseId(newCourseId);
+            copiedFeedbackSession.setCreatedTime(createdTime);
+            copiedFeedbackSession.setRespondingInstructorList(new HashSet<String>());
+            copiedFeedbackSession.setRespondingStudentList(new HashSet<String>());
+            if (!copiedFeedbackSession.isValid()) {
+                throw new InvalidParametersException(copiedFeedbackSession.getInvalidityInfo());
+            }
+            copiedFeedbackSessions.add(copiedFeedbackSession);
+        }
+        return copiedFeedbackSessions;
     }
 
     /**
@@ -206,6 +381,58 @@ public class FeedbackSessionsLogic {
         return viewableSessions;
     }
 
+    /**
+     * Gets the feedback sessions viewable to a student in all the courses the student is enrolled in,
+     * each mapped to whether the student has completed it, in the same way as
+     * {@link #getFeedbackSessionsForUserInCourseSkipCheck} and {@link #isFeedbackSessionCompletedByStudent}.<br>
+     * The sessions and their questions are read for all the courses together, so the number of
+     * datastore queries depends on the number of courses (in batches) and not on the number of sessions.
+     *
+     * @param enrollments the student's records in each of the courses, as given by
+     *        {@link StudentsLogic#getStudentsForGoogleId}
+     */
+    public Map<FeedbackSessionAttributes, Boolean> getFeedbackSessionsWithCompletionForStudent(
+            List<StudentAttributes> enrollments) {
+        Map<String, String> emailForCourse = new HashMap<String, String>();
+        for (StudentAttributes enrollment : enrollments) {
+            emailForCourse.put(enrollment.course, enrollment.email);
+        }
+        List<String> courseIds = new ArrayList<String>(emailForCourse.keySet());
+
+        // a student is usually enrolled with the same email in all courses, so this is one query
+        Set<String> coursesInstructedWithSameEmail = new HashSet<String>();
+        for (String email : new HashSet<String>(emailForCourse.values())) {
+            for (InstructorAttributes instructor : instructorsLogic.getInstructorsForEmail(email)) {
+                coursesInstructedWithSameEmail.add(instructor.courseId);
+            }
+        }
+
+        Map<String, List<FeedbackQuestionAttributes>> questionsForSessions =
+                fqLogic.getFeedbackQuestionsForCoursesBySession(courseIds);
+
+        Map<FeedbackSessionAttributes, Boolean> sessionsWithCompletion =
+                new LinkedHashMap<FeedbackSessionAttributes, Boolean>();
+        for (FeedbackSessionAttributes session : fsDb.getFeedbackSessionsForCourses(courseIds)) {
+            String email = emailForCourse.get(session.getCourseId());
+            List<FeedbackQuestionAttributes> questions =
+                    questionsForSessions.get(session.getFeedbackSessionName() + "%" + session.getCourseId());
+            if (questions == null) {
+                questions = new ArrayList<FeedbackQuestionAttributes>();
+            }
+
+            boolean isInstructorOfCourse = coursesInstructedWithSameEmail.contains(session.getCourseId());
+            if (!isFeedbackSessionViewableTo(session, email, isInstructorOfCourse, questions)) {
+                continue;
+            }
+
+            boolean isCompleted = session.getRespondingStudentList().contains(email)
+                                  || fqLogic.getFeedbackQuestionsForStudents(questions).isEmpty();
+            sessionsWithCompletion.put(session, isCompleted);
+        }
+
+        return sessionsWithCompletion;
+    }
+
     /**
      * Returns a {@code List} of all feedback sessions bundled with their
      * response statistics for a instructor given by his googleId.<br>
@@ -365,13 +592,14 @@ public class FeedbackSessionsLogic {
                         question.getId(), userEmail);
         Map<String, String> recipients =
                 fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver);
+        CompiledInstructorPrivileges instructorPrivileges = instructor.compilePrivileges();
         // instructor can only see students in allowed sections for him/her
         if (question.recipientType.equals(FeedbackParticipantType.STUDENTS)) {
             Iterator<Map.Entry<String, String>> iter = recipients.entrySet().iterator();
             while (iter.hasNext()) {
                 Map.Entry<String, String> studentEntry = iter.next();
                 StudentAttributes student = studentsLogic.getStudentForEmail(courseId, studentEntry.getKey());
-                if (!instructor.isAllowedForPrivilege(student.section,
+                if (!instructorPrivileges.isAllowedForPrivilege(student.section,
                         fsa.getFeedbackSessionName(), Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)) {
                     iter.remove();
                 }
@@ -383,7 +611,7 @@ public class FeedbackSessionsLogic {
             while (iter.hasNext()) {
                 Map.Entry<String, String> teamEntry = iter.next();
                 String teamSection = studentsLogic.getSectionForTeam(courseId, teamEntry.getKey());
-                if (!instructor.isAllowedForPrivilege(teamSection,
+                if (!instructorPrivileges.isAllowedForPrivilege(teamSection,
                         fsa.getFeedbackSessionName(), Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)) {
                     iter.remove();
                 }
@@ -401,16 +629,18 @@ public class FeedbackSessionsLogic {
      * {@link FeedbackSessionQuestionsBundle}
      */
     public FeedbackSessionQuestionsBundle getFeedbackSessionQuestionsForStudent(
-            String feedbackSessionName, String courseId, String userEmail)
+            String feedbackSessionName, String courseId, final String userEmail)
             throws EntityDoesNotExistException {
 
+        long startTime = System.currentTimeMillis();
+
         FeedbackSessionAttributes fsa = fsDb.getFeedbackSession(
                 courseId, feedbackSessionName);
 
         if (fsa == null) {
             throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_GET + courseId + "/" + feedbackSessionName);
         }
-        StudentAttributes student = studentsLogic.getStudentForEmail(courseId, userEmail);
+        final StudentAttributes student = studentsLogic.getStudentForEmail(courseId, userEmail);
         if (student == null) {
             throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_STUDENT);
         }
@@ -430,13 +660,43 @@ public class FeedbackSessionsLogic {
                 break;
             }
         }
+        long questionsFetchedTime = System.currentTimeMillis();
+
+        // the response and recipient queries of different questions are independent,
+        // so they are run concurrently
+        List<Callable<List<FeedbackResponseAttributes>>> responseQueries =
+                new ArrayList<Callable<List<FeedbackResponseAttributes>>>();
+        List<Callable<Map<String, String>>> recipientQueries = new ArrayList<Callable<Map<String, String>>>();
+        for (final FeedbackQuestionAttributes question : questions) {
+            responseQueries.add(new Callable<List<FeedbackResponseAttributes>>() {
+                @Override
+                public List<FeedbackResponseAttributes> call() {
+                    return frLogic.getFeedbackResponsesFromStudentOrTeamForQuestion(question, student);
+                }
+            });
+            recipientQueries.add(new Callable<Map<String, String>>() {
+                @Override
+                public Map<String, String> call() throws EntityDoesNotExistException {
+                    return fqLogic.getRecipientsForQuestion(question, userEmail, null, student);
+                }
+            });
+        }
+        List<List<FeedbackResponseAttributes>> responsesForQuestions =
+                ParallelQueryExecutor.invokeAll(responseQueries);
+        List<Map<String, String>> recipientsForQuestions =
+                ParallelQueryExecutor.invokeAll(recipientQueries, EntityDoesNotExistException.class);
+        long responsesFetchedTime = System.currentTimeMillis();
 
-        for (FeedbackQuestionAttributes question : questions) {
-
-            updateBundleAndRecipientListWithResponsesForStudent(userEmail, student,
-                    bundle, recipientList, question, hiddenInstructorEmails);
+        for (int i = 0; i < questions.size(); i++) {
+            updateBundleAndRecipientList(bundle, recipientList, questions.get(i), responsesForQuestions.get(i),
+                                         recipientsForQuestions.get(i), hiddenInstructorEmails);
         }
 
+        log.fine("Questions for student in " + courseId + "/" + feedbackSessionName + " (" + questions.size()
+                 + " questions) took " + (System.currentTimeMillis() - startTime) + "ms: questions "
+                 + (questionsFetchedTime - startTime) + "ms, responses and recipients "
+                 + (responsesFetchedTime - questionsFetchedTime) + "ms");
+
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
     }
     
@@ -488,6 +748,16 @@ public class FeedbackSessionsLogic {
         Map<String, String> recipients =
                 fqLogic.getRecipientsForQuestion(question, userEmail, null, student);
 
+        updateBundleAndRecipientList(bundle, recipientList, question, responses, recipients, hiddenInstructorEmails);
+    }
+
+    private void updateBundleAndRecipientList(
+            Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> bundle,
+            Map<String, Map<String, String>> recipientList,
+            FeedbackQuestionAttributes question,
+            List<FeedbackResponseAttributes> responses,
+            Map<String, String> recipients,
+            Set<String> hiddenInstructorEmails) {
         removeHiddenInstructors(question, responses, recipients, hiddenInstructorEmails);
 
         normalizeMaximumResponseEntities(question, recipients);
@@ -657,6 +927,21 @@ public class FeedbackSessionsLogic {
             String feedbackSessionName, String courseId, String userEmail, String section, long range, String viewType)
             throws EntityDoesNotExistException {
         
+        return getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
+                feedbackSessionName, courseId, userEmail, section, range, viewType, null);
+    }
+
+    /**
+     * Gets results of a feedback session to show to an instructor in a section in an indicated range,
+     * starting from the page identified by {@code pageToken} ({@code null} for the first page).
+     * The token of the next page is returned in {@link FeedbackSessionResultsBundle#nextPageToken}.
+     * @throws ExceedingRangeException if the results are beyond the range
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
+            String feedbackSessionName, String courseId, String userEmail, String section, long range, String viewType,
+            String pageToken)
+            throws EntityDoesNotExistException {
+        
         CourseRoster roster = new CourseRoster(
                 new StudentsDb().getStudentsForCourse(courseId),
                 new InstructorsDb().getInstructorsForCourse(courseId));
@@ -668,6 +953,7 @@ public class FeedbackSessionsLogic {
         params.put(PARAM_SECTION, section);
         if (range > 0) {
             params.put(PARAM_RANGE, String.valueOf(range));
+            params.put(PARAM_PAGE_TOKEN, pageToken);
         }
         params.put(PARAM_VIEW_TYPE, viewType);
 
@@ -683,6 +969,20 @@ public class FeedbackSessionsLogic {
             String feedbackSessionName, String courseId, String userEmail, String section, long range)
             throws EntityDoesNotExistException {
         
+        return getFeedbackSessionResultsForInstructorFromSectionWithinRange(
+                feedbackSessionName, courseId, userEmail, section, range, null);
+    }
+
+    /**
+     * Gets results of a feedback session to show to an instructor in a section in an indicated range,
+     * starting from the page identified by {@code pageToken} ({@code null} for the first page).
+     * The token of the next page is returned in {@link FeedbackSessionResultsBundle#nextPageToken}.
+     * @throws ExceedingRangeException if the results are beyond the range
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromSectionWithinRange(
+            String feedbackSessionName, String courseId, String userEmail, String section, long range, String pageToken)
+            throws EntityDoesNotExistException {
+        
         CourseRoster roster = new CourseRoster(
                 new StudentsDb().getStudentsForCourse(courseId),
                 new InstructorsDb().getInstructorsForCourse(courseId));
@@ -694,6 +994,7 @@ public class FeedbackSessionsLogic {
         params.put(PARAM_SECTION, section);
         if (range > 0) {
             params.put(PARAM_RANGE, String.valueOf(range));
+            params.put(PARAM_PAGE_TOKEN, pageToken);
         }
         return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail,
                                                           UserRole.INSTRUCTOR, roster, params);
@@ -707,6 +1008,20 @@ public class FeedbackSessionsLogic {
             String feedbackSessionName, String courseId, String userEmail, String section, long range)
             throws EntityDoesNotExistException {
         
+        return getFeedbackSessionResultsForInstructorToSectionWithinRange(
+                feedbackSessionName, courseId, userEmail, section, range, null);
+    }
+
+    /**
+     * Gets results of a feedback session to show to an instructor in a section in an indicated range,
+     * starting from the page identified by {@code pageToken} ({@code null} for the first page).
+     * The token of the next page is returned in {@link FeedbackSessionResultsBundle#nextPageToken}.
+     * @throws ExceedingRangeException if the results are beyond the range
+     */
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorToSectionWithinRange(
+            String feedbackSessionName, String courseId, String userEmail, String section, long range, String pageToken)
+            throws EntityDoesNotExistException {
+        
         CourseRoster roster = new CourseRoster(
                 new StudentsDb().getStudentsForCourse(courseId),
                 new InstructorsDb().getInstructorsForCourse(courseId));
@@ -718,6 +1033,7 @@ public class FeedbackSessionsLogic {
         params.put(PARAM_SECTION, section);
         if (range > 0) {
             params.put(PARAM_RANGE, String.valueOf(range));
+            params.put(PARAM_PAGE_TOKEN, pageToken);
         }
         return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail,
                                                           UserRole.INSTRUCTOR, roster, params);
@@ -1228,6 +1544,16 @@ public class FeedbackSessionsLogic {
         makeEmailStateConsistent(oldSession, newSession);
 
         fsDb.updateFeedbackSession(newSession);
+        // a reopened session can get new responses, so its snapshot is only used once it is closed again
+        if (!newSession.isClosed()) {
+            fsrsDb.deleteFeedbackSessionResultsSnapshot(newSession.getFeedbackSessionName(), newSession.getCourseId());
+        }
+        
+        FeedbackSessionSummaryAttributes summary =
+                fssDb.getFeedbackSessionSummary(newSession.getFeedbackSessionName(), newSession.getCourseId());
+        if (summary == null || summary.isOutdatedFor(newSession)) {
+            putFeedbackSessionSummaries(Collections.singletonList(newSession));
+        }
     }
     
     public void updateRespondentsForInstructor(String oldEmail, String newEmail, String courseId)
@@ -1236,16 +1562,16 @@ public class FeedbackSessionsLogic {
         List<FeedbackSessionAttributes> feedbackSessions = getFeedbackSessionsForCourse(courseId);
         for (FeedbackSessionAttributes session : feedbackSessions) {
             fsDb.updateInstructorRespondent(oldEmail, newEmail, session);
+            // the creator may have questions of their own, so a change of the creator's email can change the counts
+            if (session.isCreator(oldEmail) || session.isCreator(newEmail)) {
+                scheduleExpectedRespondentCountUpdate(session.getFeedbackSessionName(), courseId);
+            }
         }
     }
 
     public void updateRespondentsForStudent(String oldEmail, String newEmail, String courseId)
             throws InvalidParametersException, EntityDoesNotExistException {
-
-        List<FeedbackSessionAttributes> feedbackSessions = getFeedbackSessionsForCourse(courseId);
-        for (FeedbackSessionAttributes session : feedbackSessions) {
-            fsDb.updateStudentRespondent(oldEmail, newEmail, session);
-        }
+        fsDb.updateStudentRespondentForCourse(oldEmail, newEmail, courseId);
     }
     
     public void updateRespondentsForSession(String feedbackSessionName, String courseId)
@@ -1322,6 +1648,210 @@ public class FeedbackSessionsLogic {
         }
     }
 
+    /**
+     * Counts the students and instructors of the course expected to respond to the session
+     * and sets the numbers in {@code fsa}, without storing them.
+     */
+    public void countExpectedRespondents(FeedbackSessionAttributes fsa) {
+        List<FeedbackQuestionAttributes> questions =
+                fqLogic.getFeedbackQuestionsForSession(fsa.getFeedbackSessionName(), fsa.getCourseId());
+
+        int expectedStudents = 0;
+        if (!fqLogic.getFeedbackQuestionsForStudents(questions).isEmpty()) {
+            expectedStudents = studentsLogic.getStudentsForCourse(fsa.getCourseId()).size();
+        }
+
+        int expectedInstructors = 0;
+        for (InstructorAttributes instructor : instructorsLogic.getInstructorsForCourse(fsa.getCourseId())) {
+            List<FeedbackQuestionAttributes> instructorQns =
+                    fqLogic.getFeedbackQuestionsForInstructor(questions, fsa.isCreator(instructor.email));
+            if (!instructorQns.isEmpty()) {
+                expectedInstructors++;
+            }
+        }
+
+        fsa.setExpectedStudentRespondentCount(expectedStudents);
+        fsa.setExpectedInstructorRespondentCount(expectedInstructors);
+    }
+
+    /**
+     * Counts the students and instructors expected to respond to the session again,
+     * replacing the stored numbers. Used by the task added by {@link #scheduleExpectedRespondentCountUpdate},
+     * and to repair numbers that are out of sync with the roster.
+     * @return the session with the new numbers
+     */
+    public FeedbackSessionAttributes updateExpectedRespondentCounts(String feedbackSessionName, String courseId)
+            throws EntityDoesNotExistException {
+        FeedbackSessionAttributes session = getFeedbackSession(feedbackSessionName, courseId);
+        if (session == null) {
+            throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_UPDATE + courseId + "/" + feedbackSessionName);
+        }
+
+        countExpectedRespondents(session);
+        fsDb.updateExpectedRespondentCounts(session);
+        return session;
+    }
+
+    /**
+     * Adds a task that counts the respondents expected for the session again and stores the numbers.
+     * Used when the givers of the questions of the session change, and for sessions without stored numbers.
+     * Until the task runs, the stored numbers may be out of date.
+     */
+    public void scheduleExpectedRespondentCountUpdate(String feedbackSessionName, String courseId) {
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, feedbackSessionName);
+        paramMap.put(ParamsNames.COURSE_ID, courseId);
+
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        taskQueueLogic.createAndAddDeferredTask(TaskQueue.FEEDBACK_SESSION_RESPONDENT_COUNT_QUEUE_NAME,
+                                                TaskQueue.FEEDBACK_SESSION_RESPONDENT_COUNT_WORKER_URL, paramMap,
+                                                RESPONDENT_COUNT_DELAY_MILLIS);
+    }
+
+    /**
+     * Adds a task that builds a snapshot of the questions, responses and comments of the session,
+     * from which its results are served to instructors, if the session is closed and has no snapshot
+     * that is ready or being built. Private sessions are left out, as only their creators see their results.
+     */
+    public void scheduleFeedbackSessionResultsSnapshot(FeedbackSessionAttributes session) {
+        if (session.isPrivateSession() || !session.isClosed()) {
+            return;
+        }
+
+        Long version = fsrsDb.startFeedbackSessionResultsSnapshot(session.getFeedbackSessionName(),
+                                                                  session.getCourseId());
+        if (version == null) {
+            return;
+        }
+        // recorded before the build reads the responses, which is delayed for longer than a request that
+        // still sees the session without a snapshot can take to write a response
+        fsDb.updateResultsSnapshotVersion(session.getFeedbackSessionName(), session.getCourseId(), version);
+
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, session.getFeedbackSessionName());
+        paramMap.put(ParamsNames.COURSE_ID, session.getCourseId());
+        paramMap.put(ParamsNames.RESULTS_SNAPSHOT_VERSION, String.valueOf(version));
+
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        taskQueueLogic.createAndAddDeferredTask(TaskQueue.FEEDBACK_SESSION_RESULTS_SNAPSHOT_QUEUE_NAME,
+                                                TaskQueue.FEEDBACK_SESSION_RESULTS_SNAPSHOT_WORKER_URL, paramMap,
+                                                RESULTS_SNAPSHOT_BUILD_DELAY_MILLIS);
+    }
+
+    /**
+     * Builds the given version of the results snapshot of the session, if it is still the version
+     * being built. The snapshot is deleted instead if the session no longer exists or has been reopened.
+     */
+    public void buildFeedbackSessionResultsSnapshot(String feedbackSessionName, String courseId, long version)
+            throws IOException {
+        FeedbackSessionResultsSnapshotAttributes snapshot =
+                fsrsDb.getFeedbackSessionResultsSnapshot(feedbackSessionName, courseId);
+        if (snapshot == null || snapshot.isReady || snapshot.version != version) {
+            log.info("Results snapshot of " + courseId + "/" + feedbackSessionName + " version " + version
+                     + " is no longer being built");
+            return;
+        }
+
+        FeedbackSessionAttributes session = fsDb.getFeedbackSession(courseId, feedbackSessionName);
+        if (session == null || !session.isClosed()) {
+            fsrsDb.deleteFeedbackSessionResultsSnapshot(feedbackSessionName, courseId);
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<FeedbackQuestionAttributes> questions;
+        try {
+            questions = fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        } catch (EntityDoesNotExistException e) {
+            fsrsDb.deleteFeedbackSessionResultsSnapshot(feedbackSessionName, courseId);
+            return;
+        }
+        List<FeedbackResponseAttributes> responses =
+                frLogic.getFeedbackResponsesForSession(feedbackSessionName, courseId);
+        sortById(responses);
+        List<FeedbackResponseCommentAttributes> responseComments =
+                frcLogic.getFeedbackResponseCommentForSession(courseId, feedbackSessionName);
+        snapshot.setData(questions, responses, responseComments);
+
+        boolean isReady = fsrsDb.completeFeedbackSessionResultsSnapshot(snapshot);
+        log.info("Results snapshot " + snapshot.getIdentificationString() + " with " + responses.size()
+                 + " responses and " + responseComments.size() + " comments took "
+                 + (System.currentTimeMillis() - startTime) + "ms"
+                 + (isReady ? "" : "; the session changed in the meantime, so it was discarded"));
+    }
+
+    /**
+     * Deletes the results snapshot of the session, so that its results are served from the datastore again.
+     * Used when the questions, responses or response comments of the session change.
+     */
+    public void deleteFeedbackSessionResultsSnapshot(String feedbackSessionName, String courseId) {
+        fsrsDb.deleteFeedbackSessionResultsSnapshot(feedbackSessionName, courseId);
+    }
+
+    /**
+     * Deletes the results snapshot of the session, unless the version stored on {@code session} shows that
+     * the session has never had one, as is the case for all sessions that have not been closed yet.
+     * For callers changing the responses of a session they have read in the same request.
+     */
+    public void deleteFeedbackSessionResultsSnapshot(FeedbackSessionAttributes session) {
+        if (session.getResultsSnapshotVersion() != null) {
+            fsrsDb.deleteFeedbackSessionResultsSnapshot(session.getFeedbackSessionName(), session.getCourseId());
+        }
+    }
+
+    /**
+     * Deletes the results snapshots of all sessions in the course, by key for each session that has had one,
+     * as a query for the snapshots could miss one that has just been started.
+     * Used when the responses of a student or the comments of an instructor change in all sessions at once.
+     */
+    public void deleteFeedbackSessionResultsSnapshotsForCourse(String courseId) {
+        for (FeedbackSessionAttributes session : fsDb.getFeedbackSessionsForCourse(courseId)) {
+            deleteFeedbackSessionResultsSnapshot(session);
+        }
+    }
+
+    /**
+     * Adds {@code difference} to the number of students expected to respond to each session of the course
+     * with questions for students. Used when students are added to or removed from the course.
+     */
+    public void adjustExpectedStudentRespondentCounts(String courseId, int difference) {
+        for (FeedbackSessionAttributes session : fsDb.getFeedbackSessionsForCourse(courseId)) {
+            if (!session.hasExpectedRespondentCounts()
+                    || fqLogic.getFeedbackQuestionsForStudents(session.getFeedbackSessionName(), courseId).isEmpty()) {
+                continue;
+            }
+            try {
+                fsDb.adjustExpectedRespondentCounts(session, difference, 0);
+            } catch (EntityDoesNotExistException e) {
+                log.warning("Session disappeared while adjusting its respondent counts: "
+                            + session.getIdentificationString());
+            }
+        }
+    }
+
+    /**
+     * Adds {@code difference} to the number of instructors expected to respond to each session of the course
+     * with questions for the instructor. Used when the instructor is added to or removed from the course.
+     */
+    public void adjustExpectedInstructorRespondentCounts(String courseId, String instructorEmail, int difference) {
+        for (FeedbackSessionAttributes session : fsDb.getFeedbackSessionsForCourse(courseId)) {
+            if (!session.hasExpectedRespondentCounts()) {
+                continue;
+            }
+            try {
+                List<FeedbackQuestionAttributes> questions =
+                        fqLogic.getFeedbackQuestionsForSession(session.getFeedbackSessionName(), courseId);
+                if (!fqLogic.getFeedbackQuestionsForInstructor(questions, session.isCreator(instructorEmail))
+                            .isEmpty()) {
+                    fsDb.adjustExpectedRespondentCounts(session, 0, difference);
+                }
+            } catch (EntityDoesNotExistException e) {
+                log.warning("Session disappeared while adjusting its respondent counts: "
+                            + session.getIdentificationString());
+            }
+        }
+    }
+
     public void addInstructorRespondent(String email, String feedbackSessionName, String courseId)
             throws EntityDoesNotExistException, InvalidParametersException {
 
@@ -1469,6 +1999,7 @@ public class FeedbackSessionsLogic {
         if (sessionToPublish.isPublishedEmailEnabled()) {
             sendFeedbackSessionPublishedEmail(sessionToPublish);
         }
+        scheduleFeedbackSessionResultsSnapshot(sessionToPublish);
     }
 
     private Date currentDateTime(FeedbackSessionAttributes sessionToPublish) {
@@ -1709,6 +2240,7 @@ public class FeedbackSessionsLogic {
 
         for (FeedbackSessionAttributes session : sessions) {
             addFeedbackSessionReminderToEmailsQueue(session, EmailType.FEEDBACK_CLOSED);
+            scheduleFeedbackSessionResultsSnapshot(session);
         }
     }
 
@@ -1717,6 +2249,7 @@ public class FeedbackSessionsLogic {
 
         for (FeedbackSessionAttributes session : sessions) {
             sendFeedbackSessionPublishedEmail(session);
+            scheduleFeedbackSessionResultsSnapshot(session);
         }
     }
 
@@ -1742,6 +2275,24 @@ public class FeedbackSessionsLogic {
      */
     public void deleteFeedbackSessionsForCourse(String courseId) {
         fsDb.deleteFeedbackSessionsForCourse(courseId);
+        fssDb.deleteFeedbackSessionSummariesForCourses(Collections.singletonList(courseId));
+        fsrsDb.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
+    }
+
+    /**
+     * Deletes at most {@code limit} sessions of the course, and at most {@code limit} session summaries.
+     * This is a non-cascade delete. The results snapshots of the course, at most one per session,
+     * are deleted together once no sessions or summaries are left.
+     * @return the larger of the two numbers deleted; 0 if the course has no sessions or summaries left
+     */
+    public int deleteFeedbackSessionsForCourse(String courseId, int limit) {
+        int numberOfSessionsDeleted = fsDb.deleteFeedbackSessionsForCourse(courseId, limit);
+        int numberOfSummariesDeleted = fssDb.deleteFeedbackSessionSummariesForCourse(courseId, limit);
+        int numberDeleted = Math.max(numberOfSessionsDeleted, numberOfSummariesDeleted);
+        if (numberDeleted == 0) {
+            fsrsDb.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
+        }
+        return numberDeleted;
     }
 
     /**
@@ -1762,6 +2313,8 @@ public class FeedbackSessionsLogic {
         sessionToDelete.setCourseId(courseId);
 
         fsDb.deleteEntity(sessionToDelete);
+        fssDb.deleteFeedbackSessionSummary(feedbackSessionName, courseId);
+        fsrsDb.deleteFeedbackSessionResultsSnapshot(feedbackSessionName, courseId);
 
     }
 
@@ -1776,23 +2329,15 @@ public class FeedbackSessionsLogic {
         
         switch (fsa.getFeedbackSessionType()) {
         case STANDARD:
-            List<StudentAttributes> students = studentsLogic.getStudentsForCourse(fsa.getCourseId());
-            List<InstructorAttributes> instructors = instructorsLogic.getInstructorsForCourse(fsa.getCourseId());
-            List<FeedbackQuestionAttributes> questions =
-                    fqLogic.getFeedbackQuestionsForSession(fsa.getFeedbackSessionName(), fsa.getCourseId());
-            List<FeedbackQuestionAttributes> studentQns = fqLogic.getFeedbackQuestionsForStudents(questions);
-
-            if (!studentQns.isEmpty()) {
-                details.stats.expectedTotal += students.size();
-            }
-        
-            for (InstructorAttributes instructor : instructors) {
-                List<FeedbackQuestionAttributes> instructorQns =
-                        fqLogic.getFeedbackQuestionsForInstructor(questions, fsa.isCreator(instructor.email));
-                if (!instructorQns.isEmpty()) {
-                    details.stats.expectedTotal += 1;
-                }
+            // stored counts are kept up to date on enrollment changes, so the roster only needs to be scanned
+            // for sessions created before the counts were kept; a task stores their counts, as the roster
+            // query here may miss recent changes
+            if (!fsa.hasExpectedRespondentCounts()) {
+                countExpectedRespondents(fsa);
+                scheduleExpectedRespondentCountUpdate(fsa.getFeedbackSessionName(), fsa.getCourseId());
             }
+            details.stats.expectedTotal +=
+                    fsa.getExpectedStudentRespondentCount() + fsa.getExpectedInstructorRespondentCount();
             
             details.stats.submittedTotal += fsa.getRespondingStudentList().size() + fsa.getRespondingInstructorList().size();
 
@@ -1841,10 +2386,12 @@ public class FeedbackSessionsLogic {
 
     /* Get the feedback results for user in a section iterated by questions */
     private FeedbackSessionResultsBundle getFeedbackSessionResultsForUserInSectionByQuestions(
-            String feedbackSessionName, String courseId, String userEmail,
-            UserRole role, String section, CourseRoster roster)
+            String feedbackSessionName, String courseId, final String userEmail,
+            final UserRole role, final String section, CourseRoster roster)
             throws EntityDoesNotExistException {
 
+        long startTime = System.currentTimeMillis();
+
         FeedbackSessionAttributes session = fsDb.getFeedbackSession(
                 courseId, feedbackSessionName);
 
@@ -1884,21 +2431,33 @@ public class FeedbackSessionsLogic {
 
         List<FeedbackQuestionAttributes> allQuestions = fqLogic.getFeedbackQuestionsForSession(
                                                                     feedbackSessionName, courseId);
-        Map<String, FeedbackResponseAttributes> relevantResponse = new HashMap<String, FeedbackResponseAttributes>();
-        for (FeedbackQuestionAttributes question : allQuestions) {
-
-            List<FeedbackResponseAttributes> responsesForThisQn;
+        long questionsFetchedTime = System.currentTimeMillis();
+
+        // the response queries of different questions are independent, so they are run concurrently
+        final boolean isPrivateSessionCreatedByThisUser = session
+                .isCreator(userEmail) && session.isPrivateSession();
+        List<Callable<List<FeedbackResponseAttributes>>> responseQueries =
+                new ArrayList<Callable<List<FeedbackResponseAttributes>>>();
+        for (final FeedbackQuestionAttributes question : allQuestions) {
+            responseQueries.add(new Callable<List<FeedbackResponseAttributes>>() {
+                @Override
+                public List<FeedbackResponseAttributes> call() {
+                    if (isPrivateSessionCreatedByThisUser) {
+                        return frLogic.getFeedbackResponsesForQuestion(question.getId());
+                    }
+                    return frLogic.getViewableFeedbackResponsesForQuestionInSection(
+                            question, userEmail, role, section);
+                }
+            });
+        }
+        List<List<FeedbackResponseAttributes>> responsesForQuestions =
+                ParallelQueryExecutor.invokeAll(responseQueries);
+        long responsesFetchedTime = System.currentTimeMillis();
 
-            boolean isPrivateSessionCreatedByThisUser = session
-                    .isCreator(userEmail) && session.isPrivateSession();
-            if (isPrivateSessionCreatedByThisUser) {
-                responsesForThisQn = frLogic
-                        .getFeedbackResponsesForQuestion(question.getId());
-            } else {
-                responsesForThisQn = frLogic
-                        .getViewableFeedbackResponsesForQuestionInSection(
-                                question, userEmail, role, section);
-            }
+        Map<String, FeedbackResponseAttributes> relevantResponse = new HashMap<String, FeedbackResponseAttributes>();
+        for (int i = 0; i < allQuestions.size(); i++) {
+            FeedbackQuestionAttributes question = allQuestions.get(i);
+            List<FeedbackResponseAttributes> responsesForThisQn = responsesForQuestions.get(i);
 
             boolean thisQuestionHasResponses = !responsesForThisQn.isEmpty();
             if (thisQuestionHasResponses) {
@@ -1917,6 +2476,7 @@ public class FeedbackSessionsLogic {
                 }
             }
         }
+        long responsesProcessedTime = System.currentTimeMillis();
 
         StudentAttributes student = null;
         Set<String> studentsEmailInTeam = new HashSet<String>();
@@ -1969,6 +2529,13 @@ public class FeedbackSessionsLogic {
                         emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                         visibilityTable, responseStatus, roster, responseComments);
 
+        long endTime = System.currentTimeMillis();
+        log.fine("Results by questions for " + courseId + "/" + feedbackSessionName + " (" + allQuestions.size()
+                 + " questions) took " + (endTime - startTime) + "ms: questions "
+                 + (questionsFetchedTime - startTime) + "ms, responses " + (responsesFetchedTime - questionsFetchedTime)
+                 + "ms, tables " + (responsesProcessedTime - responsesFetchedTime) + "ms, comments "
+                 + (endTime - responsesProcessedTime) + "ms");
+
         return results;
     }
 
@@ -1985,9 +2552,14 @@ public class FeedbackSessionsLogic {
             throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_VIEW + courseId + "/" + feedbackSessionName);
         }
 
+        // the questions, responses and comments are read from the snapshot if there is one;
+        // what the user can see of them is worked out in the same way either way
+        FeedbackSessionResultsSnapshotAttributes snapshot = getResultsSnapshotForUser(session, role);
+
         List<FeedbackQuestionAttributes> allQuestions =
-                fqLogic.getFeedbackQuestionsForSession(feedbackSessionName,
-                        courseId);
+                snapshot == null
+                ? fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId)
+                : snapshot.getQuestions();
         
         // create empty data containers to store results
         List<FeedbackResponseAttributes> responses =
@@ -2039,7 +2611,9 @@ public class FeedbackSessionsLogic {
                                ? getFeedbackSessionResponseStatus(session, roster, allQuestions)
                                : null;
             } else {
-                FeedbackQuestionAttributes question = fqLogic.getFeedbackQuestion(questionId);
+                FeedbackQuestionAttributes question = snapshot == null
+                                                      ? fqLogic.getFeedbackQuestion(questionId)
+                                                      : snapshot.getQuestion(questionId);
                 if (question != null) {
                     relevantQuestions.put(question.getId(), question);
                     
@@ -2050,12 +2624,21 @@ public class FeedbackSessionsLogic {
                     if (isPrivateSessionCreatedByThisUser) {
                         responsesForThisQn = frLogic
                                 .getFeedbackResponsesForQuestion(question.getId());
+                    } else if (snapshot != null) {
+                        responsesForThisQn = getViewableResponsesForQuestionInSectionFromSnapshot(
+                                snapshot, question, userEmail, section);
                     } else {
                         responsesForThisQn = frLogic
                                 .getViewableFeedbackResponsesForQuestionInSection(
                                         question, userEmail, UserRole.INSTRUCTOR, section);
                     }
     
+                    CompiledInstructorPrivileges instructorPrivileges = null;
+                    if (role == UserRole.INSTRUCTOR) {
+                        InstructorAttributes instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+                        instructorPrivileges = instructor == null ? null : instructor.compilePrivileges();
+                    }
+    
                     boolean thisQuestionHasResponses = !responsesForThisQn.isEmpty();
                     if (thisQuestionHasResponses) {
                         for (FeedbackResponseAttributes response : responsesForThisQn) {
@@ -2069,20 +2652,16 @@ public class FeedbackSessionsLogic {
                                             && question.isResponseVisibleTo(FeedbackParticipantType.STUDENTS)) {
                                 isVisibleResponse = true;
                             }
-                            InstructorAttributes instructor = null;
-                            if (role == UserRole.INSTRUCTOR) {
-                                instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
-                            }
-                            if (isVisibleResponse && instructor != null) {
+                            if (isVisibleResponse && instructorPrivileges != null) {
                                 boolean isGiverSectionRestricted =
-                                        !instructor.isAllowedForPrivilege(
+                                        !instructorPrivileges.isAllowedForPrivilege(
                                                 response.giverSection, response.feedbackSessionName,
                                                 Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
                                 // If instructors are not restricted to view the giver's section,
                                 // they are allowed to view responses to GENERAL, subject to visibility options
                                 boolean isRecipientSectionRestricted =
                                         question.recipientType != FeedbackParticipantType.NONE
-                                        && !instructor.isAllowedForPrivilege(
+                                        && !instructorPrivileges.isAllowedForPrivilege(
                                                    response.recipientSection, response.feedbackSessionName,
                                                    Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
                                 boolean isNotAllowedForInstructor = isGiverSectionRestricted || isRecipientSectionRestricted;
@@ -2129,42 +2708,42 @@ public class FeedbackSessionsLogic {
         boolean isToSection = Boolean.parseBoolean(params.get(PARAM_TO_SECTION));
         boolean isFromSection = Boolean.parseBoolean(params.get(PARAM_FROM_SECTION));
         boolean isComplete = params.get(PARAM_RANGE) == null;
+        String nextPageToken = null;
         
         List<FeedbackResponseAttributes> allResponses = new ArrayList<FeedbackResponseAttributes>();
         if (params.get(PARAM_RANGE) == null) {
-            if (isInSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionInSection(feedbackSessionName,
-                                                                               courseId, section);
-            } else if (isFromSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionFromSection(feedbackSessionName,
-                                                                                 courseId, section);
-            } else if (isToSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionToSection(feedbackSessionName,
-                                                                               courseId, section);
-            } else {
-                Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
-            }
+            allResponses = getResponsesForSessionBySection(session, snapshot, section,
+                                                           isInSection, isFromSection, isToSection);
         } else {
-            long range = Long.parseLong(params.get(PARAM_RANGE));
-            if (isInSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionInSectionWithinRange(feedbackSessionName,
-                                                                                          courseId, section, range);
+            int range = Integer.parseInt(params.get(PARAM_RANGE));
+            String pageToken = params.get(PARAM_PAGE_TOKEN);
+            FeedbackResponsesPage page = null;
+            boolean isPagedInMemory = pageToken == null
+                                      ? snapshot != null
+                                      : pageToken.startsWith(RESULTS_SNAPSHOT_PAGE_TOKEN_PREFIX);
+            if (isPagedInMemory) {
+                page = getResponsesPageFromSnapshot(session, snapshot, section, isInSection, isFromSection,
+                                                    isToSection, pageToken, range);
+            } else if (isInSection) {
+                page = frLogic.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, section,
+                                                                           pageToken, range);
             } else if (isFromSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionFromSectionWithinRange(feedbackSessionName,
-                                                                                            courseId, section, range);
+                page = frLogic.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, section,
+                                                                             pageToken, range);
             } else if (isToSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName,
-                                                                                          courseId, section, range);
+                page = frLogic.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId, section,
+                                                                           pageToken, range);
             } else {
                 Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
             }
-            if (allResponses.size() <= range) {
-                isComplete = true;
-            } else {
+            allResponses = page.responses;
+            nextPageToken = page.nextPageToken;
+            // a page is partial only if more responses follow it, whether or not it is the first page
+            isComplete = page.isLastPage();
+            if (pageToken != null || !isComplete) {
                 for (FeedbackQuestionAttributes qn : allQuestions) {
                     relevantQuestions.put(qn.getId(), qn);
                 }
-                
             }
         }
         
@@ -2184,8 +2763,10 @@ public class FeedbackSessionsLogic {
         }
         
         InstructorAttributes instructor = null;
+        CompiledInstructorPrivileges instructorPrivileges = null;
         if (role == UserRole.INSTRUCTOR) {
             instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+            instructorPrivileges = instructor == null ? null : instructor.compilePrivileges();
         }
         
         Map<String, FeedbackResponseAttributes> relevantResponse = new HashMap<String, FeedbackResponseAttributes>();
@@ -2195,7 +2776,7 @@ public class FeedbackSessionsLogic {
             if (relatedQuestion != null) {
                 boolean isVisibleResponse = isResponseVisibleForUser(userEmail,
                         role, student, studentsEmailInTeam, response,
-                        relatedQuestion, instructor);
+                        relatedQuestion, instructorPrivileges);
                 if (isVisibleResponse) {
                     responses.add(response);
                     relevantResponse.put(response.getId(), response);
@@ -2218,8 +2799,9 @@ public class FeedbackSessionsLogic {
                 || Const.FeedbackSessionResults.GRQ_SORT_TYPE.equals(params.get(PARAM_VIEW_TYPE))
                 || Const.FeedbackSessionResults.RGQ_SORT_TYPE.equals(params.get(PARAM_VIEW_TYPE))) {
             List<FeedbackResponseCommentAttributes> allResponseComments =
-                    frcLogic.getFeedbackResponseCommentForSessionInSection(courseId,
-                            feedbackSessionName, section);
+                    snapshot == null
+                    ? frcLogic.getFeedbackResponseCommentForSessionInSection(courseId, feedbackSessionName, section)
+                    : snapshot.getResponseCommentsInSection(section);
             for (FeedbackResponseCommentAttributes frc : allResponseComments) {
                 FeedbackResponseAttributes relatedResponse = relevantResponse.get(frc.feedbackResponseId);
                 FeedbackQuestionAttributes relatedQuestion = relevantQuestions.get(frc.feedbackQuestionId);
@@ -2256,10 +2838,121 @@ public class FeedbackSessionsLogic {
                         session, responses, relevantQuestions, emailNameTable,
                         emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                         visibilityTable, responseStatus, roster, responseComments, isComplete);
+        results.nextPageToken = nextPageToken;
 
         return results;
     }
 
+    /**
+     * Gets the ready results snapshot of the session to serve the results to an instructor from,
+     * and schedules a snapshot to be built if there is none.
+     * @return null if the results are to be read from the datastore instead
+     */
+    private FeedbackSessionResultsSnapshotAttributes getResultsSnapshotForUser(FeedbackSessionAttributes session,
+                                                                              UserRole role) {
+        if (role != UserRole.INSTRUCTOR || session.isPrivateSession() || !session.isClosed()) {
+            return null;
+        }
+        FeedbackSessionResultsSnapshotAttributes snapshot =
+                fsrsDb.getReadyFeedbackSessionResultsSnapshot(session.getFeedbackSessionName(), session.getCourseId());
+        if (snapshot == null) {
+            scheduleFeedbackSessionResultsSnapshot(session);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the responses to the question in the section that an instructor can see, in the same way as
+     * {@link FeedbackResponsesLogic#getViewableFeedbackResponsesForQuestionInSection}.
+     */
+    private List<FeedbackResponseAttributes> getViewableResponsesForQuestionInSectionFromSnapshot(
+            FeedbackSessionResultsSnapshotAttributes snapshot, FeedbackQuestionAttributes question,
+            String userEmail, String section) {
+        boolean isVisibleToInstructors = question.isResponseVisibleTo(FeedbackParticipantType.INSTRUCTORS);
+        boolean isVisibleToReceiver = question.isResponseVisibleTo(FeedbackParticipantType.RECEIVER);
+
+        List<FeedbackResponseAttributes> viewableResponses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response
+                : snapshot.getResponsesForQuestionInSection(question.getId(), section)) {
+            if (isVisibleToInstructors
+                    || response.giver.equals(userEmail)
+                    || isVisibleToReceiver && response.recipient.equals(userEmail)) {
+                viewableResponses.add(response);
+            }
+        }
+        return viewableResponses;
+    }
+
+    private List<FeedbackResponseAttributes> getResponsesForSessionBySection(
+            FeedbackSessionAttributes session, FeedbackSessionResultsSnapshotAttributes snapshot, String section,
+            boolean isInSection, boolean isFromSection, boolean isToSection) {
+        String feedbackSessionName = session.getFeedbackSessionName();
+        String courseId = session.getCourseId();
+        if (isInSection) {
+            return snapshot == null
+                   ? frLogic.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, section)
+                   : snapshot.getResponsesInSection(section);
+        } else if (isFromSection) {
+            return snapshot == null
+                   ? frLogic.getFeedbackResponsesForSessionFromSection(feedbackSessionName, courseId, section)
+                   : snapshot.getResponsesFromSection(section);
+        } else if (isToSection) {
+            return snapshot == null
+                   ? frLogic.getFeedbackResponsesForSessionToSection(feedbackSessionName, courseId, section)
+                   : snapshot.getResponsesToSection(section);
+        }
+        Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
+        return null;
+    }
+
+    /**
+     * Gets a page of the responses of the session from the snapshot, with a page token of the form
+     * {@code snapshot:<version>:<offset>}. If the snapshot the paging started from has since been replaced
+     * or deleted, the responses are read from the datastore and sorted by ID, the order of the snapshot,
+     * so that the rest of the pages still follow on from the pages already served.<br>
+     * The token comes from the request; an invalid one gives the first page.
+     */
+    private FeedbackResponsesPage getResponsesPageFromSnapshot(
+            FeedbackSessionAttributes session, FeedbackSessionResultsSnapshotAttributes snapshot, String section,
+            boolean isInSection, boolean isFromSection, boolean isToSection, String pageToken, int range) {
+        // the first page is of the current snapshot, or of the responses in the datastore if there is none
+        long version = snapshot == null ? -1 : snapshot.version;
+        int offset = 0;
+        if (pageToken != null) {
+            String[] tokenParts = pageToken.substring(RESULTS_SNAPSHOT_PAGE_TOKEN_PREFIX.length()).split(":");
+            try {
+                if (tokenParts.length != 2) {
+                    throw new NumberFormatException("Expected a version and an offset");
+                }
+                long tokenVersion = Long.parseLong(tokenParts[0]);
+                offset = Integer.parseInt(tokenParts[1]);
+                version = tokenVersion;
+            } catch (NumberFormatException e) {
+                log.warning("Invalid page token, showing the first page instead: " + pageToken);
+                offset = 0;
+            }
+        }
+
+        boolean isSameSnapshot = snapshot != null && snapshot.version == version;
+        List<FeedbackResponseAttributes> allResponses =
+                getResponsesForSessionBySection(session, isSameSnapshot ? snapshot : null, section,
+                                                isInSection, isFromSection, isToSection);
+        if (!isSameSnapshot) {
+            sortById(allResponses);
+        }
+
+        offset = Math.max(0, Math.min(offset, allResponses.size()));
+        int end = (int) Math.min((long) offset + range, allResponses.size());
+        FeedbackResponsesPage page = new FeedbackResponsesPage();
+        if (offset < end) {
+            page.responses.addAll(allResponses.subList(offset, end));
+        }
+        page.nextPageToken = end < allResponses.size()
+                             ? RESULTS_SNAPSHOT_PAGE_TOKEN_PREFIX + version + ":" + end
+                             : null;
+        return page;
+    }
+
     private void addSectionTeamNamesToTable(Map<String, Set<String>> sectionTeamNameTable,
                                     CourseRoster roster, String courseId, String userEmail, UserRole role,
                                     String feedbackSessionName, String sectionToView) {
@@ -2268,9 +2961,10 @@ public class FeedbackSessionsLogic {
             instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
         }
         if (instructor != null) {
+            CompiledInstructorPrivileges instructorPrivileges = instructor.compilePrivileges();
             for (StudentAttributes student : roster.getStudents()) {
                 boolean isVisibleResponse =
-                        instructor.isAllowedForPrivilege(
+                        instructorPrivileges.isAllowedForPrivilege(
                                            student.section,
                                            feedbackSessionName,
                                            Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
@@ -2295,7 +2989,7 @@ public class FeedbackSessionsLogic {
             UserRole role, StudentAttributes student,
             Set<String> studentsEmailInTeam,
             FeedbackResponseAttributes response,
-            FeedbackQuestionAttributes relatedQuestion, InstructorAttributes instructor) {
+            FeedbackQuestionAttributes relatedQuestion, CompiledInstructorPrivileges instructorPrivileges) {
         
         boolean isVisibleResponse = false;
         if (role == UserRole.INSTRUCTOR && relatedQuestion.isResponseVisibleTo(FeedbackParticipantType.INSTRUCTORS)
@@ -2320,18 +3014,18 @@ public class FeedbackSessionsLogic {
                 isVisibleResponse = true;
             }
         }
-        if (isVisibleResponse && instructor != null) {
+        if (isVisibleResponse && instructorPrivileges != null) {
             boolean isGiverSectionRestricted =
-                    !instructor.isAllowedForPrivilege(response.giverSection,
-                                                      response.feedbackSessionName,
-                                                      Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
+                    !instructorPrivileges.isAllowedForPrivilege(
+                            response.giverSection, response.feedbackSessionName,
+                            Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
             // If instructors are not restricted to view the giver's section,
             // they are allowed to view responses to GENERAL, subject to visibility options
             boolean isRecipientSectionRestricted =
                     relatedQuestion.recipientType != FeedbackParticipantType.NONE
-                    && !instructor.isAllowedForPrivilege(response.recipientSection,
-                                                         response.feedbackSessionName,
-                                                         Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
+                    && !instructorPrivileges.isAllowedForPrivilege(
+                               response.recipientSection, response.feedbackSessionName,
+                               Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS);
             
             boolean isNotAllowedForInstructor = isGiverSectionRestricted || isRecipientSectionRestricted;
             if (isNotAllowedForInstructor) {
@@ -2341,6 +3035,15 @@ public class FeedbackSessionsLogic {
         return isVisibleResponse;
     }
 
+    private void sortById(List<FeedbackResponseAttributes> responses) {
+        Collections.sort(responses, new Comparator<FeedbackResponseAttributes>() {
+            @Override
+            public int compare(FeedbackResponseAttributes fr1, FeedbackResponseAttributes fr2) {
+                return fr1.getId().compareTo(fr2.getId());
+            }
+        });
+    }
+
     private void sortByCreatedDate(List<FeedbackResponseCommentAttributes> responseCommentList) {
         Collections.sort(responseCommentList, new Comparator<FeedbackResponseCommentAttributes>() {
             @Override
@@ -2655,7 +3358,38 @@ public class FeedbackSessionsLogic {
         
         return session.isVisible() && !questionsWithVisibleResponses.isEmpty();
     }
-    
+
+    /**
+     * Same as {@link #isFeedbackSessionViewableTo(FeedbackSessionAttributes, String, boolean)},
+     * with the questions of the session already read.
+     */
+    private boolean isFeedbackSessionViewableTo(FeedbackSessionAttributes session, String userEmail,
+                                                boolean isInstructorOfCourse,
+                                                List<FeedbackQuestionAttributes> questions) {
+        if (session.getFeedbackSessionType() == FeedbackSessionType.PRIVATE) {
+            return session.getCreatorEmail().equals(userEmail);
+        }
+
+        if (isInstructorOfCourse) {
+            return true;
+        }
+
+        if (!session.isVisible()) {
+            return false;
+        }
+
+        if (!fqLogic.getFeedbackQuestionsForStudents(questions).isEmpty()) {
+            return true;
+        }
+
+        for (FeedbackQuestionAttributes question : fqLogic.getFeedbackQuestionsForInstructor(questions, true)) {
+            if (frLogic.isResponseOfFeedbackQuestionVisibleToStudent(question)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns true if there are any questions for students to answer.
      * @param session
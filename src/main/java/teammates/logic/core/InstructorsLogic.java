@@ -78,7 +78,9 @@ public class InstructorsLogic {
         
         log.info("going to create instructor :\n" + instructorToAdd.toString());
         
-        return instructorsDb.createInstructor(instructorToAdd);
+        InstructorAttributes createdInstructor = instructorsDb.createInstructor(instructorToAdd);
+        fsLogic.adjustExpectedInstructorRespondentCounts(instructorToAdd.courseId, instructorToAdd.email, 1);
+        return createdInstructor;
     }
 
     public void setArchiveStatusOfInstructor(String googleId, String courseId, boolean archiveStatus)
@@ -109,6 +111,11 @@ public class InstructorsLogic {
         return instructorsDb.getInstructorsForCourse(courseId);
     }
     
+    public List<InstructorAttributes> getInstructorsForCourses(List<String> courseIds) {
+        
+        return instructorsDb.getInstructorsForCourses(courseIds);
+    }
+    
     public List<InstructorAttributes> getInstructorsForGoogleId(String googleId) {
         
         return getInstructorsForGoogleId(googleId, false);
@@ -343,8 +350,12 @@ public class InstructorsLogic {
     
     public void deleteInstructorCascade(String courseId, String email) {
         commentsLogic.deleteCommentsForInstructor(courseId, email);
-        fsLogic.deleteInstructorFromRespondentsList(getInstructorForEmail(courseId, email));
+        InstructorAttributes instructor = getInstructorForEmail(courseId, email);
+        fsLogic.deleteInstructorFromRespondentsList(instructor);
         instructorsDb.deleteInstructor(courseId, email);
+        if (instructor != null) {
+            fsLogic.adjustExpectedInstructorRespondentCounts(courseId, email, -1);
+        }
     }
 
     public void deleteInstructorsForGoogleIdAndCascade(String googleId) {
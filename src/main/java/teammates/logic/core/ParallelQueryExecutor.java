@@ -0,0 +1,161 @@
+package teammates.logic.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Logger;
+import teammates.common.util.RequestCosts;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.RecentWrites;
+import teammates.storage.datastore.RecentWrites.RecentWrite;
+
+import com.google.appengine.api.ThreadManager;
+
+/**
+ * Runs independent, read-only datastore queries of the current request concurrently,
+ * so that the latency of a batch of queries is close to that of its slowest query
+ * rather than the sum of all of them.<br>
+ * Each task runs in its own request thread and therefore uses its own persistence manager,
+ * which is closed when the task ends; tasks must not modify entities, and must return
+ * data transfer objects rather than entities.
+ */
+public final class ParallelQueryExecutor {
+
+    /** Maximum number of queries of a request that are run at the same time. */
+    public static final int MAX_CONCURRENT_QUERIES = 10;
+
+    private static final Logger log = Logger.getLogger();
+
+    private ParallelQueryExecutor() {
+        // utility class
+    }
+
+    /**
+     * Runs {@code tasks} concurrently and returns their results in the same order as the tasks.
+     * The tasks are run one after another if request threads are not available,
+     * e.g. when not serving a request.
+     * @param exceptionType type of the checked exception that the tasks may throw
+     * @throws E the exception thrown by the first failed task (in task order)
+     */
+    public static <T, E extends Exception> List<T> invokeAll(List<? extends Callable<T>> tasks,
+                                                              Class<E> exceptionType) throws E {
+        return invokeAll(tasks, exceptionType, tasks.size() > 1 ? getRequestThreadFactory() : null);
+    }
+
+    /**
+     * Runs {@code tasks} concurrently in threads created by {@code threadFactory},
+     * or one after another if it is {@code null}. See {@link #invokeAll(List, Class)}.
+     */
+    public static <T, E extends Exception> List<T> invokeAll(List<? extends Callable<T>> tasks,
+                                                              Class<E> exceptionType,
+                                                              ThreadFactory threadFactory) throws E {
+        long startTime = System.currentTimeMillis();
+        boolean isConcurrent = threadFactory != null && !tasks.isEmpty();
+        List<T> results = isConcurrent
+                        ? invokeAllConcurrently(tasks, exceptionType, threadFactory)
+                        : invokeAllSequentially(tasks, exceptionType);
+
+        log.fine("Ran " + tasks.size() + " queries " + (isConcurrent ? "concurrently" : "sequentially")
+                 + " in " + (System.currentTimeMillis() - startTime) + "ms");
+        return results;
+    }
+
+    /**
+     * Runs {@code tasks} which do not throw checked exceptions.
+     * See {@link #invokeAll(List, Class)}.
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        return invokeAll(tasks, RuntimeException.class);
+    }
+
+    private static <T, E extends Exception> List<T> invokeAllSequentially(List<? extends Callable<T>> tasks,
+                                                                          Class<E> exceptionType) throws E {
+        List<T> results = new ArrayList<T>();
+        for (Callable<T> task : tasks) {
+            try {
+                results.add(task.call());
+            } catch (Exception e) {
+                throw rethrow(e, exceptionType);
+            }
+        }
+        return results;
+    }
+
+    private static <T, E extends Exception> List<T> invokeAllConcurrently(List<? extends Callable<T>> tasks,
+                                                                          Class<E> exceptionType,
+                                                                          ThreadFactory threadFactory) throws E {
+        ExecutorService executor =
+                Executors.newFixedThreadPool(Math.min(tasks.size(), MAX_CONCURRENT_QUERIES), threadFactory);
+        try {
+            final RequestCosts requestCosts = RequestCosts.getCurrentScope();
+            final HashMap<String, RecentWrite> recentWrites = RecentWrites.getCurrentScope();
+            List<Future<T>> futures = new ArrayList<Future<T>>();
+            for (final Callable<T> task : tasks) {
+                futures.add(executor.submit(new Callable<T>() {
+                    @Override
+                    public T call() throws Exception {
+                        // the queries are part of the costs of the request, and must see its recent writes
+                        RequestCosts.joinScope(requestCosts);
+                        RecentWrites.joinScope(recentWrites);
+                        try {
+                            return task.call();
+                        } finally {
+                            RecentWrites.leaveScope();
+                            RequestCosts.leaveScope();
+                            // the persistence manager opened by the task's queries; the thread does not outlive
+                            // the request, so nothing else would close it
+                            Datastore.closePersistenceManager();
+                        }
+                    }
+                }));
+            }
+
+            List<T> results = new ArrayList<T>();
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw rethrow(e.getCause(), exceptionType);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <E extends Exception> RuntimeException rethrow(Throwable cause, Class<E> exceptionType) throws E {
+        if (exceptionType.isInstance(cause)) {
+            throw exceptionType.cast(cause);
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        Assumption.fail("Unexpected exception in query: " + cause);
+        return new RuntimeException(cause);
+    }
+
+    private static ThreadFactory getRequestThreadFactory() {
+        try {
+            return ThreadManager.currentRequestThreadFactory();
+        } catch (RuntimeException e) {
+            // not serving a request, e.g. in a remote API script
+            return null;
+        }
+    }
+
+}
@@ -1,11 +1,18 @@
 package teammates.logic.core;
 
+import java.io.IOException;
+
 import teammates.common.datatransfer.StudentProfileAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const;
+import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.ImageHelper;
+import teammates.common.util.Logger;
 import teammates.storage.api.ProfilesDb;
 
 import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.images.ImagesServiceFailureException;
 
 /**
  * Handles the logic related to student profiles.
@@ -14,6 +21,8 @@ public class ProfilesLogic {
     
     private static ProfilesLogic instance;
     
+    private static final Logger log = Logger.getLogger();
+    
     private static final ProfilesDb profilesDb = new ProfilesDb();
     
     public static ProfilesLogic inst() {
@@ -44,4 +53,24 @@ public class ProfilesLogic {
         profilesDb.updateStudentProfilePicture(googleId, newPictureKey);
     }
     
+    public void updateStudentProfilePicture(String googleId, String newPictureKey, String newThumbnailKey)
+            throws EntityDoesNotExistException {
+        profilesDb.updateStudentProfilePicture(googleId, newPictureKey, newThumbnailKey);
+    }
+    
+    /**
+     * Writes a copy of the picture scaled down to {@link Const.SystemParams#PROFILE_PIC_THUMBNAIL_SIZE}.
+     * @return the key of the thumbnail, or an empty string if the picture cannot be read as an image
+     */
+    public String writePictureThumbnail(String googleId, byte[] pictureData) throws IOException {
+        byte[] thumbnailData;
+        try {
+            thumbnailData = ImageHelper.createThumbnail(pictureData, Const.SystemParams.PROFILE_PIC_THUMBNAIL_SIZE);
+        } catch (IllegalArgumentException | ImagesServiceFailureException e) {
+            log.warning("Could not create a thumbnail of the profile picture of " + googleId + ": " + e.getMessage());
+            return "";
+        }
+        return GoogleCloudStorageHelper.writeImageThumbnailToGcs(googleId, thumbnailData);
+    }
+    
 }
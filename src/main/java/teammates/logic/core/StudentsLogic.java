@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseStructureAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
@@ -29,6 +30,7 @@ import teammates.common.util.FieldValidator;
 import teammates.common.util.JsonUtils;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
+import teammates.storage.api.CourseStructuresDb;
 import teammates.storage.api.StudentsDb;
 
 /**
@@ -42,9 +44,12 @@ public class StudentsLogic {
     
     private static final int SECTION_SIZE_LIMIT = 100;
     private static final int SIZE_LIMIT_PER_ENROLLMENT = 150;
+    // leaves time for the students written just before the structure was found missing to show up in the roster query
+    private static final long COURSE_STRUCTURE_BUILD_DELAY_MILLIS = 60 * 1000L;
 
     private static StudentsLogic instance;
     private StudentsDb studentsDb = new StudentsDb();
+    private CourseStructuresDb courseStructuresDb = new CourseStructuresDb();
     
     private CoursesLogic coursesLogic = CoursesLogic.inst();
     private FeedbackResponsesLogic frLogic = FeedbackResponsesLogic.inst();
@@ -73,6 +78,17 @@ public class StudentsLogic {
     
     public void createStudentCascade(StudentAttributes studentData, boolean hasDocument)
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
+        createStudentWithoutRespondentCountUpdate(studentData, hasDocument);
+        fsLogic.adjustExpectedStudentRespondentCounts(studentData.course, 1);
+        updateCourseStructure(studentData.course, new ArrayList<StudentAttributes>(), toList(studentData));
+    }
+    
+    /**
+     * Creates the student without updating the numbers of students expected to respond to the sessions
+     * of the course or the structure of the course, for enrollments which update them once for all new students.
+     */
+    private void createStudentWithoutRespondentCountUpdate(StudentAttributes studentData, boolean hasDocument)
+            throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
         studentsDb.createStudent(studentData, hasDocument);
         
         if (!coursesLogic.isCoursePresent(studentData.course)) {
@@ -107,10 +123,21 @@ public class StudentsLogic {
         return studentsDb.getStudentsForCourse(courseId);
     }
     
+    public int getNumberOfStudentsForCourse(String courseId) {
+        return studentsDb.getNumberOfStudentsForCourse(courseId);
+    }
+    
     public List<StudentAttributes> getStudentsForTeam(String teamName, String courseId) {
         return studentsDb.getStudentsForTeam(teamName, courseId);
     }
 
+    /**
+     * @see StudentsDb#getStudentsForTeams(String, List)
+     */
+    public List<StudentAttributes> getStudentsForTeams(String courseId, List<String> teamNames) {
+        return studentsDb.getStudentsForTeams(courseId, teamNames);
+    }
+
     public List<StudentAttributes> getStudentsForSection(String sectionName, String courseId) {
         return studentsDb.getStudentsForSection(sectionName, courseId);
     }
@@ -118,6 +145,78 @@ public class StudentsLogic {
     public List<StudentAttributes> getUnregisteredStudentsForCourse(String courseId) {
         return studentsDb.getUnregisteredStudentsForCourse(courseId);
     }
+
+    /**
+     * @return the sections and teams of the course with their student counts, built from the roster
+     *         if the course has no structure
+     */
+    public CourseStructureAttributes getCourseStructure(String courseId) {
+        CourseStructureAttributes structure = courseStructuresDb.getCourseStructure(courseId);
+        if (structure == null) {
+            // not stored right away: the roster query is eventually consistent, so a student written just before
+            // may be missing from it, and would be missing from the stored structure for good
+            structure = CourseStructureAttributes.fromStudents(courseId, getStudentsForCourse(courseId));
+            scheduleCourseStructureCreation(courseId);
+        }
+        return structure;
+    }
+
+    /**
+     * Gets the structure of the course for reading its roster a few teams at a time. If the course has
+     * no structure, or its structure does not count as many students as the course has (so the teams it
+     * lists may not be all the teams with students), the structure is built from the roster instead,
+     * read a page at a time.
+     * @see StudentsDb#getCourseStructureFromRoster(String)
+     */
+    public CourseStructureAttributes getCourseStructureForTeamBatches(String courseId) {
+        CourseStructureAttributes structure = courseStructuresDb.getCourseStructure(courseId);
+        if (structure == null) {
+            scheduleCourseStructureCreation(courseId);
+        } else if (structure.getStudentsTotal() == getNumberOfStudentsForCourse(courseId)) {
+            return structure;
+        } else {
+            log.warning("Structure of course " + courseId + " does not match its roster, rebuilding it");
+        }
+        return studentsDb.getCourseStructureFromRoster(courseId);
+    }
+
+    /**
+     * Stores an empty structure for a course that has just been created, so that it is kept up to date
+     * from the first enrollment. Only a course that has never had students can be given a structure
+     * this way, as it is the only roster known without a query.
+     */
+    public void createEmptyCourseStructure(String courseId) {
+        courseStructuresDb.createCourseStructureIfAbsent(
+                CourseStructureAttributes.fromStudents(courseId, new ArrayList<StudentAttributes>()));
+    }
+
+    /**
+     * Stores a structure built from the roster for a course that has none. To be used only when no students
+     * of the course have been written recently (e.g. by a data migration or a delayed task), as the roster
+     * query may miss them.
+     * @return true if the structure was stored
+     */
+    public boolean createCourseStructureFromRoster(String courseId) {
+        return courseStructuresDb.createCourseStructureIfAbsent(studentsDb.getCourseStructureFromRoster(courseId));
+    }
+
+    /**
+     * Adds a task that stores a structure built from the roster for a course that has none, after a delay
+     * long enough for the roster query to include the students written before.
+     */
+    public void scheduleCourseStructureCreation(String courseId) {
+        HashMap<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.COURSE_ID, courseId);
+
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        taskQueueLogic.createAndAddDeferredTask(TaskQueue.COURSE_STRUCTURE_QUEUE_NAME,
+                                                TaskQueue.COURSE_STRUCTURE_WORKER_URL, paramMap,
+                                                COURSE_STRUCTURE_BUILD_DELAY_MILLIS);
+    }
+
+    public void deleteCourseStructure(String courseId) {
+        courseStructuresDb.deleteCourseStructure(courseId);
+    }
     
     public void deleteDocument(StudentAttributes student) {
         studentsDb.deleteDocument(student);
@@ -220,11 +319,6 @@ public class StudentsLogic {
                             ? originalEmail
                             : student.email;
         
-        // cascade email changes to comments
-        if (!originalStudent.email.equals(finalEmail)) {
-            commentsLogic.updateStudentEmail(student.course, originalStudent.email, finalEmail);
-        }
-        
         // adjust submissions if moving to a different team
         if (isTeamChanged(originalStudent.team, student.team)) {
             frLogic.updateFeedbackResponsesForChangingTeam(student.course, finalEmail, originalStudent.team, student.team);
@@ -241,6 +335,20 @@ public class StudentsLogic {
     public void updateStudentCascadeWithSubmissionAdjustmentScheduled(String originalEmail,
             StudentAttributes student, boolean hasDocument)
             throws EntityDoesNotExistException, InvalidParametersException {
+        StudentAttributes originalStudent = updateStudentWithoutStructureUpdate(originalEmail, student, hasDocument);
+        if (isStructureChanged(originalStudent, student)) {
+            updateCourseStructure(student.course, toList(originalStudent), toList(student));
+        }
+    }
+    
+    /**
+     * Updates the student without updating the structure of the course,
+     * for enrollments which update it once for all modified students.
+     * @return the student as it was before the update
+     */
+    private StudentAttributes updateStudentWithoutStructureUpdate(String originalEmail,
+            StudentAttributes student, boolean hasDocument)
+            throws EntityDoesNotExistException, InvalidParametersException {
         // Edit student uses KeepOriginal policy, where unchanged fields are set
         // as null. Hence, we can't do isValid() for student here.
         // After updateWithReferenceToExistingStudentRecord method called,
@@ -263,9 +371,23 @@ public class StudentsLogic {
         
         // cascade email change, if any
         if (!originalEmail.equals(student.email)) {
-            frLogic.updateFeedbackResponsesForChangingEmail(student.course, originalEmail, student.email);
-            fsLogic.updateRespondentsForStudent(originalEmail, student.email, student.course);
+            updateEmailReferencesForStudent(student.course, originalEmail, student.email);
         }
+        
+        return originalStudent;
+    }
+    
+    /**
+     * Replaces the old email of a student by the new one in all data of the course that refers to the student:
+     * responses given and received (and the comments on them), comments, and session respondent lists.
+     * Each kind is read and written in batches. Every step only changes data still referring to the old email,
+     * so running this again after an interruption completes the change.
+     */
+    public void updateEmailReferencesForStudent(String courseId, String oldEmail, String newEmail)
+            throws InvalidParametersException, EntityDoesNotExistException {
+        frLogic.updateFeedbackResponsesForChangingEmail(courseId, oldEmail, newEmail);
+        commentsLogic.updateStudentEmail(courseId, oldEmail, newEmail);
+        fsLogic.updateRespondentsForStudent(oldEmail, newEmail, courseId);
     }
     
     public void resetStudentGoogleId(String originalEmail, String courseId, boolean hasDocument)
@@ -277,6 +399,12 @@ public class StudentsLogic {
     
         studentsDb.verifyStudentExists(courseId, originalEmail);
         StudentAttributes originalStudent = getStudentForEmail(courseId, originalEmail);
+        StudentAttributes registeredStudent = originalStudent.isRegistered()
+                                              ? new StudentAttributes(originalStudent.googleId, originalStudent.email,
+                                                                      originalStudent.name, originalStudent.comments,
+                                                                      courseId, originalStudent.team,
+                                                                      originalStudent.section)
+                                              : null;
         originalStudent.googleId = null;
         
         if (!originalStudent.isValid()) {
@@ -285,6 +413,10 @@ public class StudentsLogic {
         studentsDb.updateStudent(originalStudent.course, originalEmail, originalStudent.name,
                                  originalStudent.team, originalStudent.section, originalStudent.email,
                                  originalStudent.googleId, originalStudent.comments, hasDocument, false);
+        
+        if (registeredStudent != null) {
+            updateCourseStructure(courseId, toList(registeredStudent), toList(originalStudent));
+        }
     }
 
     public List<StudentAttributes> enrollStudents(String enrollLines,
@@ -343,16 +475,28 @@ public class StudentsLogic {
 
         // TODO: can we use a batch persist operation here?
         // enroll all students
+        int numberOfNewStudents = 0;
+        List<StudentAttributes> studentsRemovedFromStructure = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsAddedToStructure = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : studentList) {
             StudentEnrollDetails enrollmentDetails;
             
-            enrollmentDetails = enrollStudent(student, hasDocument);
+            enrollmentDetails = enrollStudent(student, hasDocument, studentsRemovedFromStructure,
+                                              studentsAddedToStructure);
             student.updateStatus = enrollmentDetails.updateStatus;
+            if (enrollmentDetails.updateStatus == StudentUpdateStatus.NEW) {
+                numberOfNewStudents++;
+            }
             
             enrollmentList.add(enrollmentDetails);
             returnList.add(student);
         }
         
+        if (numberOfNewStudents > 0) {
+            fsLogic.adjustExpectedStudentRespondentCounts(courseId, numberOfNewStudents);
+        }
+        updateCourseStructure(courseId, studentsRemovedFromStructure, studentsAddedToStructure);
+        
         //Adjust submissions for all feedback responses within the course
         List<FeedbackSessionAttributes> feedbackSessions = FeedbackSessionsLogic.inst()
                 .getFeedbackSessionsForCourse(courseId);
@@ -617,8 +761,13 @@ public class StudentsLogic {
         // delete responses before deleting the student as we need to know the student's team.
         frLogic.deleteFeedbackResponsesForStudentAndCascade(courseId, studentEmail);
         commentsLogic.deleteCommentsForStudent(courseId, studentEmail);
-        fsLogic.deleteStudentFromRespondentsList(getStudentForEmail(courseId, studentEmail));
+        StudentAttributes student = getStudentForEmail(courseId, studentEmail);
+        fsLogic.deleteStudentFromRespondentsList(student);
         studentsDb.deleteStudent(courseId, studentEmail, hasDocument);
+        if (student != null) {
+            fsLogic.adjustExpectedStudentRespondentCounts(courseId, -1);
+            updateCourseStructure(courseId, toList(student), new ArrayList<StudentAttributes>());
+        }
     }
 
     public void deleteStudentsForGoogleId(String googleId) {
@@ -627,6 +776,10 @@ public class StudentsLogic {
             fsLogic.deleteStudentFromRespondentsList(student);
         }
         studentsDb.deleteStudentsForGoogleId(googleId);
+        for (StudentAttributes student : students) {
+            fsLogic.adjustExpectedStudentRespondentCounts(student.course, -1);
+            updateCourseStructure(student.course, toList(student), new ArrayList<StudentAttributes>());
+        }
     }
 
     public void deleteStudentsForGoogleIdWithoutDocument(String googleId) {
@@ -635,6 +788,10 @@ public class StudentsLogic {
             fsLogic.deleteStudentFromRespondentsList(student);
         }
         studentsDb.deleteStudentsForGoogleIdWithoutDocument(googleId);
+        for (StudentAttributes student : students) {
+            fsLogic.adjustExpectedStudentRespondentCounts(student.course, -1);
+            updateCourseStructure(student.course, toList(student), new ArrayList<StudentAttributes>());
+        }
     }
     
     public void deleteStudentsForGoogleIdAndCascade(String googleId) {
@@ -648,36 +805,63 @@ public class StudentsLogic {
 
     public void deleteStudentsForCourse(String courseId) {
         studentsDb.deleteStudentsForCourse(courseId);
+        courseStructuresDb.deleteCourseStructure(courseId);
     }
 
     public void deleteStudentsForCourseWithoutDocument(String courseId) {
         studentsDb.deleteStudentsForCourseWithoutDocument(courseId);
+        courseStructuresDb.deleteCourseStructure(courseId);
+    }
+    
+    /**
+     * @return the number of students deleted; 0 if the course has no students left
+     */
+    public int deleteStudentsForCourse(String courseId, int limit) {
+        // the structure is dropped with the first batch, as it no longer matches the roster
+        courseStructuresDb.deleteCourseStructure(courseId);
+        return studentsDb.deleteStudentsForCourse(courseId, limit);
     }
     
     public void adjustFeedbackResponseForEnrollments(
             ArrayList<StudentEnrollDetails> enrollmentList,
             FeedbackResponseAttributes response) throws InvalidParametersException, EntityDoesNotExistException {
+        List<FeedbackResponseAttributes> responses = new ArrayList<FeedbackResponseAttributes>();
+        responses.add(response);
+        adjustFeedbackResponsesForEnrollments(response.courseId, enrollmentList, responses);
+    }
+    
+    /**
+     * Adjusts the given responses of a course to the team and section changes of the modified enrollments,
+     * writing the changes in batches.
+     */
+    public void adjustFeedbackResponsesForEnrollments(
+            String courseId, List<StudentEnrollDetails> enrollmentList,
+            List<FeedbackResponseAttributes> responses) throws InvalidParametersException, EntityDoesNotExistException {
+        List<StudentEnrollDetails> modifiedEnrollments = new ArrayList<StudentEnrollDetails>();
         for (StudentEnrollDetails enrollment : enrollmentList) {
-            if (enrollment.updateStatus != StudentUpdateStatus.MODIFIED) {
-                continue;
-            }
-
-            boolean isResponseDeleted = false;
-            if (isTeamChanged(enrollment.oldTeam, enrollment.newTeam)) {
-                isResponseDeleted = frLogic.updateFeedbackResponseForChangingTeam(enrollment, response);
-            }
-        
-            if (!isResponseDeleted && isSectionChanged(enrollment.oldSection, enrollment.newSection)) {
-                frLogic.updateFeedbackResponseForChangingSection(enrollment, response);
+            if (enrollment.updateStatus == StudentUpdateStatus.MODIFIED) {
+                modifiedEnrollments.add(enrollment);
             }
         }
+        if (modifiedEnrollments.isEmpty()) {
+            return;
+        }
+        frLogic.updateFeedbackResponsesForEnrollments(courseId, modifiedEnrollments, responses);
     }
     
     public void putDocument(StudentAttributes student) {
         studentsDb.putDocument(student);
     }
     
-    private StudentEnrollDetails enrollStudent(StudentAttributes validStudentAttributes, Boolean hasDocument)
+    /**
+     * @param studentsRemovedFromStructure to which the student is added, as it was, if the update changes
+     *         the structure of the course
+     * @param studentsAddedToStructure to which the student is added, as it is now, if the student is new
+     *         or the update changes the structure of the course
+     */
+    private StudentEnrollDetails enrollStudent(StudentAttributes validStudentAttributes, Boolean hasDocument,
+                                               List<StudentAttributes> studentsRemovedFromStructure,
+                                               List<StudentAttributes> studentsAddedToStructure)
             throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
         StudentAttributes originalStudentAttributes = getStudentForEmail(
                 validStudentAttributes.course, validStudentAttributes.email);
@@ -692,9 +876,12 @@ public class StudentsLogic {
         if (validStudentAttributes.isEnrollInfoSameAs(originalStudentAttributes)) {
             enrollmentDetails.updateStatus = StudentUpdateStatus.UNMODIFIED;
         } else if (isModifyingExistingStudent) {
-            updateStudentCascadeWithSubmissionAdjustmentScheduled(originalStudentAttributes.email,
-                                                                  validStudentAttributes, true);
+            updateStudentWithoutStructureUpdate(originalStudentAttributes.email, validStudentAttributes, true);
             enrollmentDetails.updateStatus = StudentUpdateStatus.MODIFIED;
+            if (isStructureChanged(originalStudentAttributes, validStudentAttributes)) {
+                studentsRemovedFromStructure.add(originalStudentAttributes);
+                studentsAddedToStructure.add(validStudentAttributes);
+            }
             
             if (!originalStudentAttributes.team.equals(validStudentAttributes.team)) {
                 enrollmentDetails.oldTeam = originalStudentAttributes.team;
@@ -703,8 +890,9 @@ public class StudentsLogic {
                 enrollmentDetails.oldSection = originalStudentAttributes.section;
             }
         } else {
-            createStudentCascade(validStudentAttributes, hasDocument);
+            createStudentWithoutRespondentCountUpdate(validStudentAttributes, hasDocument);
             enrollmentDetails.updateStatus = StudentUpdateStatus.NEW;
+            studentsAddedToStructure.add(validStudentAttributes);
         }
 
         return enrollmentDetails;
@@ -775,16 +963,33 @@ public class StudentsLogic {
         return false;
     }
     
-    private boolean isTeamChanged(String originalTeam, String newTeam) {
+    boolean isTeamChanged(String originalTeam, String newTeam) {
         return newTeam != null && originalTeam != null
                 && !originalTeam.equals(newTeam);
     }
 
-    private boolean isSectionChanged(String originalSection, String newSection) {
+    boolean isSectionChanged(String originalSection, String newSection) {
         return newSection != null && originalSection != null
                 && !originalSection.equals(newSection);
     }
 
+    private boolean isStructureChanged(StudentAttributes originalStudent, StudentAttributes updatedStudent) {
+        return !originalStudent.section.equals(updatedStudent.section)
+                || !originalStudent.team.equals(updatedStudent.team)
+                || originalStudent.isRegistered() != updatedStudent.isRegistered();
+    }
+
+    private void updateCourseStructure(String courseId, List<StudentAttributes> removedStudents,
+                                       List<StudentAttributes> addedStudents) {
+        courseStructuresDb.updateCourseStructure(courseId, removedStudents, addedStudents);
+    }
+
+    private List<StudentAttributes> toList(StudentAttributes student) {
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        students.add(student);
+        return students;
+    }
+
     public TeamDetailsBundle getTeamDetailsForStudent(StudentAttributes student) {
         if (student != null) {
             TeamDetailsBundle teamResult = new TeamDetailsBundle();
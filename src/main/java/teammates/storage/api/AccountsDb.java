@@ -100,6 +100,32 @@ public class AccountsDb extends EntitiesDb {
     public AccountAttributes getAccount(String googleId) {
         return getAccount(googleId, false);
     }
+    
+    /**
+     * Gets the accounts with the given googleIds, without their profiles,
+     * querying up to {@value #MAX_IN_FILTER_VALUES} accounts at a time.
+     * @return empty list if none found.
+     */
+    public List<AccountAttributes> getAccounts(List<String> googleIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleIds);
+        
+        List<AccountAttributes> accounts = new ArrayList<AccountAttributes>();
+        for (List<String> batch : splitIntoInFilterBatches(googleIds)) {
+            Query q = getPm().newQuery(Account.class);
+            q.setFilter(":p.contains(googleId)");
+            
+            @SuppressWarnings("unchecked")
+            List<Account> accountList = (List<Account>) q.execute(batch);
+            
+            for (Account a : accountList) {
+                if (!JDOHelper.isDeleted(a)) {
+                    accounts.add(new AccountAttributes(a));
+                }
+            }
+        }
+        
+        return accounts;
+    }
 
     /**
      * @return {@link AccountAttribute} objects for all accounts with instructor privileges.
@@ -464,6 +464,25 @@ public class CommentsDb extends EntitiesDb {
         getPm().flush();
     }
     
+    /**
+     * Deletes at most {@code limit} comments of the course, together with their search documents.
+     * @return the number of comments deleted; 0 if the course has no comments left
+     */
+    public int deleteCommentsForCourse(String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<Comment> courseComments = getEntitiesForCourse(Comment.class, courseId, limit);
+        String[] documentIds = new String[courseComments.size()];
+        for (int i = 0; i < courseComments.size(); i++) {
+            documentIds[i] = courseComments.get(i).getId().toString();
+        }
+        
+        deleteDocuments(Const.SearchIndex.COMMENT, documentIds);
+        getPm().deletePersistentAll(courseComments);
+        getPm().flush();
+        return courseComments.size();
+    }
+    
     /*
      * Delete comments in certain courses
      */
@@ -0,0 +1,204 @@
+package teammates.storage.api;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import javax.jdo.JDOException;
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Transaction;
+
+import teammates.common.datatransfer.CourseStructureAttributes;
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.CourseStructure;
+
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Handles CRUD Operations for {@link CourseStructure}.
+ * The API uses data transfer classes (i.e. *Attributes) instead of persistable classes.<br>
+ * Structures are updated by read-modify-write in a datastore transaction of their own, separate from the
+ * persistence manager of the thread, so that concurrent enrollments and edits in a course cannot overwrite
+ * each other's changes. All reads and writes go through the key of the course and are strongly consistent.
+ */
+public class CourseStructuresDb extends EntitiesDb {
+
+    /** How many times an update is tried before the structure is dropped to be rebuilt from the roster. */
+    private static final int MAX_UPDATE_ATTEMPTS = 3;
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Null if not found.
+     */
+    public CourseStructureAttributes getCourseStructure(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            CourseStructure structure = getCourseStructureEntity(pm, courseId);
+            return structure == null ? null : new CourseStructureAttributes(structure);
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Creates the given structure, replacing the existing structure of the same course.
+     */
+    public void putCourseStructure(CourseStructureAttributes structure) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, structure);
+        Assumption.assertTrue(structure.getInvalidityInfo().toString(), structure.isValid());
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            pm.makePersistent(structure.toEntity());
+        } finally {
+            pm.close();
+        }
+        log.info(structure.getBackupIdentifier());
+    }
+
+    /**
+     * Creates the given structure if its course has none, in a transaction, so that a structure kept up to date
+     * by {@link #updateCourseStructure(String, List, List)} is never replaced.
+     * @return true if the structure was created
+     */
+    public boolean createCourseStructureIfAbsent(CourseStructureAttributes structure) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, structure);
+        Assumption.assertTrue(structure.getInvalidityInfo().toString(), structure.isValid());
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        Transaction tx = pm.currentTransaction();
+        try {
+            tx.begin();
+            if (getCourseStructureEntity(pm, structure.courseId) != null) {
+                return false;
+            }
+            pm.makePersistent(structure.toEntity());
+            tx.commit();
+        } catch (JDOException | ConcurrentModificationException e) {
+            // another structure was created at the same time
+            return false;
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            pm.close();
+        }
+        log.info(structure.getBackupIdentifier());
+        return true;
+    }
+
+    /**
+     * Removes the students in {@code removedStudents} from the structure of the course, as they were before
+     * being edited or deleted, and adds the students in {@code addedStudents}, as they are now.<br>
+     * Does nothing if the course has no structure; it is built from the roster whenever it is read.
+     * If the structure does not have a removed student, or cannot be updated because of concurrent updates,
+     * it is deleted to be rebuilt instead, as it no longer matches the roster.
+     */
+    public void updateCourseStructure(String courseId, List<StudentAttributes> removedStudents,
+                                      List<StudentAttributes> addedStudents) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, removedStudents);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, addedStudents);
+
+        if (removedStudents.isEmpty() && addedStudents.isEmpty()) {
+            return;
+        }
+
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            PersistenceManager pm = Datastore.newPersistenceManager();
+            Transaction tx = pm.currentTransaction();
+            try {
+                tx.begin();
+                CourseStructure structure = getCourseStructureEntity(pm, courseId);
+                if (structure == null) {
+                    tx.rollback();
+                    return;
+                }
+
+                CourseStructureAttributes structureAttributes = new CourseStructureAttributes(structure);
+                boolean isConsistent = true;
+                for (StudentAttributes student : removedStudents) {
+                    isConsistent = structureAttributes.removeStudent(student) && isConsistent;
+                }
+                for (StudentAttributes student : addedStudents) {
+                    structureAttributes.addStudent(student);
+                }
+
+                if (isConsistent) {
+                    structure.setStructure(new Text(structureAttributes.getStructureAsJson()));
+                } else {
+                    log.warning("Structure of course " + courseId + " does not match the roster; "
+                                + "it will be rebuilt");
+                    pm.deletePersistent(structure);
+                }
+                tx.commit();
+                return;
+            } catch (JDOException | ConcurrentModificationException e) {
+                log.warning("Attempt " + attempt + " to update the structure of course " + courseId
+                            + " failed: " + e.getMessage());
+            } finally {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                pm.close();
+            }
+        }
+
+        deleteCourseStructure(courseId);
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteCourseStructure(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            CourseStructure structure = getCourseStructureEntity(pm, courseId);
+            if (structure != null) {
+                pm.deletePersistent(structure);
+            }
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Deletes the structures of the given courses.
+     */
+    public void deleteCourseStructures(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        for (String courseId : courseIds) {
+            deleteCourseStructure(courseId);
+        }
+    }
+
+    private CourseStructure getCourseStructureEntity(PersistenceManager pm, String courseId) {
+        try {
+            Key key = KeyFactory.createKey(CourseStructure.class.getSimpleName(), courseId);
+            CourseStructure structure = pm.getObjectById(CourseStructure.class, key);
+            return JDOHelper.isDeleted(structure) ? null : structure;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        return getCourseStructureEntity(getPm(), ((CourseStructureAttributes) attributes).courseId);
+    }
+
+}
@@ -13,6 +13,7 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.storage.datastore.RecentWrites;
 import teammates.storage.entity.Course;
 
 /**
@@ -54,20 +55,26 @@ public class CoursesDb extends EntitiesDb {
         
         Course c = getCourseEntity(courseId);
 
-        if (c == null) {
+        if (c == null || c.isDeleted()) {
             return null;
         }
 
         return new CourseAttributes(c);
     }
     
-    public List<CourseAttributes> getCourses(List<String> courseIds) {
+    public List<CourseAttributes> getCourses(final List<String> courseIds) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
-        List<Course> courses = getCourseEntities(courseIds);
+        List<Course> courses = RecentWrites.resolveAll(CourseAttributes.class,
+                getCourseEntities(courseIds), new RecentWrites.QueryFilter<Course>() {
+                    @Override
+                    public boolean matches(Course course) {
+                        return courseIds.contains(course.getUniqueId());
+                    }
+                });
         List<CourseAttributes> courseAttributes = new ArrayList<CourseAttributes>();
         // TODO add method to get List<CourseAttributes> from List<Course>
         for (Course c : courses) {
-            if (!JDOHelper.isDeleted(c)) {
+            if (!JDOHelper.isDeleted(c) && !c.isDeleted()) {
                 courseAttributes.add(new CourseAttributes(c));
             }
         }
@@ -88,7 +95,7 @@ public class CoursesDb extends EntitiesDb {
     
         List<CourseAttributes> courseDataList = new ArrayList<CourseAttributes>();
         for (Course c : courseList) {
-            if (!JDOHelper.isDeleted(c)) {
+            if (!JDOHelper.isDeleted(c) && !c.isDeleted()) {
                 courseDataList.add(new CourseAttributes(c));
             }
         }
@@ -128,6 +135,40 @@ public class CoursesDb extends EntitiesDb {
     }
     
 
+    /**
+     * Marks the course as deleted. It is no longer returned by the get methods of this class,
+     * but it still exists (e.g. a new course cannot take its ID) until it is removed by {@link #deleteCourse}.<br>
+     * Fails silently if there is no such course.
+     * <br> Preconditions:
+     * <br> * {@code courseId} is not null.
+     */
+    public void markCourseAsDeleted(String courseId) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        Course course = getCourseEntity(courseId);
+        
+        if (course == null) {
+            return;
+        }
+        
+        course.setDeleted(true);
+        getPm().close();
+    }
+
+    /**
+     * @return true if the course exists and has been marked as deleted by {@link #markCourseAsDeleted}
+     * <br> Preconditions:
+     * <br> * {@code courseId} is not null.
+     */
+    public boolean isCourseMarkedAsDeleted(String courseId) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        Course course = getCourseEntity(courseId);
+        return course != null && course.isDeleted();
+    }
+
     /**
      * Note: This is a non-cascade delete.<br>
      *   <br> Fails silently if there is no such object.
@@ -157,24 +198,25 @@ public class CoursesDb extends EntitiesDb {
         @SuppressWarnings("unchecked")
         List<Course> courseList = (List<Course>) q.execute(courseId);
         
-        if (courseList.isEmpty() || JDOHelper.isDeleted(courseList.get(0))) {
-            return null;
+        Course course = null;
+        if (!courseList.isEmpty() && !JDOHelper.isDeleted(courseList.get(0))) {
+            course = courseList.get(0);
         }
-    
-        return courseList.get(0);
+        return RecentWrites.resolve(CourseAttributes.class, courseId, course);
     }
     
     private List<Course> getCourseEntities(List<String> courseIds) {
-        if (courseIds.isEmpty()) {
-            return new ArrayList<Course>();
+        List<Course> courses = new ArrayList<Course>();
+        
+        for (List<String> batch : splitIntoInFilterBatches(courseIds)) {
+            Query q = getPm().newQuery(Course.class);
+            q.setFilter(":p.contains(ID)");
+            
+            @SuppressWarnings("unchecked")
+            List<Course> courseList = (List<Course>) q.execute(batch);
+            courses.addAll(courseList);
         }
         
-        Query q = getPm().newQuery(Course.class);
-        q.setFilter(":p.contains(ID)");
-
-        @SuppressWarnings("unchecked")
-        List<Course> courses = (List<Course>) q.execute(courseIds);
-
         return courses;
     }
 }
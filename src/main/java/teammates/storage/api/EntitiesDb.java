@@ -2,26 +2,30 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import javax.jdo.JDOHelper;
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
 
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
-import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.GoogleCloudStorageHelper;
 import teammates.common.util.Logger;
-import teammates.common.util.ThreadHelper;
 import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.RecentWrites;
 import teammates.storage.search.SearchDocument;
 import teammates.storage.search.SearchManager;
 import teammates.storage.search.SearchQuery;
 
 import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.datastore.Cursor;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchQueryException;
@@ -43,6 +47,9 @@ public abstract class EntitiesDb {
     public static final String ERROR_TRYING_TO_MAKE_NON_EXISTENT_ACCOUNT_AN_INSTRUCTOR =
             "Trying to make an non-existent account an Instructor :";
 
+    /** Maximum number of values the datastore accepts in one "contains" filter. */
+    protected static final int MAX_IN_FILTER_VALUES = 30;
+
     protected static final Logger log = Logger.getLogger();
     
     /**
@@ -74,26 +81,7 @@ public abstract class EntitiesDb {
         Object entity = entityToAdd.toEntity();
         getPm().makePersistent(entity);
         getPm().flush();
-
-        // Wait for the operation to persist
-        int elapsedTime = 0;
-        Object createdEntity = getEntity(entityToAdd);
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            while (createdEntity == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                createdEntity = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (createdEntity == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                        + entityToAdd.getEntityTypeAsString() + "->"
-                        + entityToAdd.getIdentificationString());
-            }
-        }
+        RecentWrites.recordCreation(entityToAdd, entity);
         
         log.info(entityToAdd.getBackupIdentifier());
         
@@ -107,6 +95,7 @@ public abstract class EntitiesDb {
                 Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
         
         List<EntityAttributes> entitiesToUpdate = new ArrayList<EntityAttributes>();
+        List<EntityAttributes> entitiesToCreate = new ArrayList<EntityAttributes>();
         List<Object> entities = new ArrayList<Object>();
         
         for (EntityAttributes entityToAdd : entitiesToAdd) {
@@ -117,6 +106,7 @@ public abstract class EntitiesDb {
             }
             
             if (getEntity(entityToAdd) == null) {
+                entitiesToCreate.add(entityToAdd);
                 entities.add(entityToAdd.toEntity());
             } else {
                 entitiesToUpdate.add(entityToAdd);
@@ -127,6 +117,9 @@ public abstract class EntitiesDb {
        
         getPm().makePersistentAll(entities);
         getPm().flush();
+        for (int i = 0; i < entities.size(); i++) {
+            RecentWrites.recordCreation(entitiesToCreate.get(i), entities.get(i));
+        }
  
         return entitiesToUpdate;
 
@@ -139,6 +132,7 @@ public abstract class EntitiesDb {
                 Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
         
         List<EntityAttributes> entitiesToUpdate = new ArrayList<EntityAttributes>();
+        List<EntityAttributes> entitiesToCreate = new ArrayList<EntityAttributes>();
         List<Object> entities = new ArrayList<Object>();
         
         for (EntityAttributes entityToAdd : entitiesToAdd) {
@@ -149,6 +143,7 @@ public abstract class EntitiesDb {
             }
             
             if (getEntity(entityToAdd) == null) {
+                entitiesToCreate.add(entityToAdd);
                 entities.add(entityToAdd.toEntity());
             } else {
                 entitiesToUpdate.add(entityToAdd);
@@ -159,6 +154,9 @@ public abstract class EntitiesDb {
         
         getPm().makePersistentAll(entities);
         getPm().flush();
+        for (int i = 0; i < entities.size(); i++) {
+            RecentWrites.recordCreation(entitiesToCreate.get(i), entities.get(i));
+        }
  
         return entities;
 
@@ -186,30 +184,46 @@ public abstract class EntitiesDb {
         getPm().makePersistent(entity);
         getPm().flush();
 
-        // Wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToAdd);
-            while (entityCheck == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (entityCheck == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                         + entityToAdd.getEntityTypeAsString() + "->"
-                         + entityToAdd.getIdentificationString());
-            }
-        }
+        RecentWrites.recordCreation(entityToAdd, entity);
+
         log.info(entityToAdd.getBackupIdentifier());
         
         return entity;
     }
     
+    /**
+     * Creates the given entities with one batch write, without checking if they already exist.
+     * All entities are validated before any is written.
+     * Warning: Do not use this method unless the entities are known not to exist.
+     */
+    public List<Object> createEntitiesWithoutExistenceCheck(Collection<? extends EntityAttributes> entitiesToAdd)
+            throws InvalidParametersException {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
+        
+        List<EntityAttributes> entitiesToCreate = new ArrayList<EntityAttributes>();
+        List<Object> entities = new ArrayList<Object>();
+        for (EntityAttributes entityToAdd : entitiesToAdd) {
+            entityToAdd.sanitizeForSaving();
+            
+            if (!entityToAdd.isValid()) {
+                throw new InvalidParametersException(entityToAdd.getInvalidityInfo());
+            }
+            
+            entitiesToCreate.add(entityToAdd);
+            entities.add(entityToAdd.toEntity());
+        }
+        
+        getPm().makePersistentAll(entities);
+        getPm().flush();
+        for (int i = 0; i < entities.size(); i++) {
+            RecentWrites.recordCreation(entitiesToCreate.get(i), entities.get(i));
+            log.info(entitiesToCreate.get(i).getBackupIdentifier());
+        }
+        
+        return entities;
+    }
+    
     // TODO: use this method for subclasses.
     /**
      * Note: This is a non-cascade delete.<br>
@@ -228,29 +242,8 @@ public abstract class EntitiesDb {
 
         getPm().deletePersistent(entity);
         getPm().flush();
-        
-        // wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToDelete);
-            boolean isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
-            while (!isEntityDeleted
-                    && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToDelete);
-                
-                isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
-                //check before incrementing to avoid boundary case problem
-                if (!isEntityDeleted) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: delete"
-                        + entityToDelete.getEntityTypeAsString() + "->"
-                        + entityToDelete.getIdentificationString());
-            }
-        }
+        RecentWrites.recordDeletion(entityToDelete, entity);
+
         log.info(entityToDelete.getBackupIdentifier());
     }
     
@@ -270,6 +263,41 @@ public abstract class EntitiesDb {
         getPm().flush();
     }
     
+    /**
+     * @return at most {@code limit} entities of the given class that belong to the course;
+     *         used to delete the data of a course in batches
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> List<T> getEntitiesForCourse(Class<T> entityClass, String courseId, int limit) {
+        Query q = getPm().newQuery(entityClass);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+        q.setRange(0, limit);
+        
+        return (List<T>) q.execute(courseId);
+    }
+    
+    /**
+     * @return the values split into consecutive batches of at most {@value #MAX_IN_FILTER_VALUES},
+     *         each of which can be the parameter of one "contains" filter
+     */
+    protected static <T> List<List<T>> splitIntoInFilterBatches(List<T> values) {
+        List<List<T>> batches = new ArrayList<List<T>>();
+        for (int start = 0; start < values.size(); start += MAX_IN_FILTER_VALUES) {
+            batches.add(values.subList(start, Math.min(start + MAX_IN_FILTER_VALUES, values.size())));
+        }
+        return batches;
+    }
+
+    /**
+     * Makes {@code q} start from the position of {@code cursor}, e.g. the end of the previous page.
+     */
+    protected static void setQueryCursor(Query q, Cursor cursor) {
+        Map<String, Object> extensions = new HashMap<String, Object>();
+        extensions.put(JDOCursorHelper.CURSOR_EXTENSION, cursor);
+        q.setExtensions(extensions);
+    }
+    
     public void commitOutstandingChanges() {
         closePm();
     }
@@ -331,6 +359,9 @@ public abstract class EntitiesDb {
     }
     
     protected void deleteDocuments(String indexName, String[] documentId) {
+        if (documentId.length == 0) {
+            return;
+        }
         SearchManager.deleteDocuments(indexName, documentId);
     }
 }
@@ -34,6 +34,14 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         }
     }
     
+    /**
+     * Creates the given questions with one batch write, without checking if they already exist.
+     */
+    public void createFeedbackQuestionsWithoutExistenceCheck(Collection<FeedbackQuestionAttributes> questionsToAdd)
+            throws InvalidParametersException {
+        createEntitiesWithoutExistenceCheck(questionsToAdd);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -133,6 +141,22 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         return fqList;
     }
     
+    /**
+     * Gets the questions of all sessions of the given courses,
+     * querying up to {@value #MAX_IN_FILTER_VALUES} courses at a time.
+     * @return An empty list if no such questions are found.
+     */
+    public List<FeedbackQuestionAttributes> getFeedbackQuestionsForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        List<FeedbackQuestionAttributes> fqList = new ArrayList<FeedbackQuestionAttributes>();
+        for (List<String> batch : splitIntoInFilterBatches(courseIds)) {
+            fqList.addAll(getListOfQuestionAttributes(getFeedbackQuestionEntitiesForCourses(batch)));
+        }
+
+        return fqList;
+    }
+
     private List<FeedbackQuestionAttributes> getListOfQuestionAttributes(List<FeedbackQuestion> questions) {
         List<FeedbackQuestionAttributes> questionAttributes = new ArrayList<FeedbackQuestionAttributes>();
 
@@ -214,6 +238,35 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         deleteFeedbackQuestionsForCourses(courseIds);
     }
     
+    /**
+     * Deletes at most {@code limit} questions of the course.
+     * @return the number of questions deleted; 0 if the course has no questions left
+     */
+    public int deleteFeedbackQuestionsForCourse(String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<FeedbackQuestion> feedbackQuestionList = getEntitiesForCourse(FeedbackQuestion.class, courseId, limit);
+        
+        getPm().deletePersistentAll(feedbackQuestionList);
+        getPm().flush();
+        return feedbackQuestionList.size();
+    }
+    
+    /**
+     * Deletes the questions of the sessions with the given name in the given courses,
+     * querying up to {@value #MAX_IN_FILTER_VALUES} courses at a time.
+     * This is a non-cascade delete.
+     */
+    public void deleteFeedbackQuestionsForSessionInCourses(String feedbackSessionName, List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        for (List<String> batch : splitIntoInFilterBatches(courseIds)) {
+            getPm().deletePersistentAll(getFeedbackQuestionEntitiesForSessionInCourses(feedbackSessionName, batch));
+            getPm().flush();
+        }
+    }
+    
     public void deleteFeedbackQuestionsForCourses(List<String> courseIds) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
@@ -233,6 +286,19 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         return feedbackQuestionList;
     }
     
+    private List<FeedbackQuestion> getFeedbackQuestionEntitiesForSessionInCourses(String feedbackSessionName,
+                                                                                 List<String> courseIds) {
+        Query q = getPm().newQuery(FeedbackQuestion.class);
+        q.declareParameters("String feedbackSessionNameParam, java.util.Collection courseIdsParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseIdsParam.contains(courseId)");
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackQuestion> feedbackQuestionList =
+                (List<FeedbackQuestion>) q.execute(feedbackSessionName, courseIds);
+        
+        return feedbackQuestionList;
+    }
+    
     // Gets a question entity if it's Key (feedbackQuestionId) is known.
     private FeedbackQuestion getFeedbackQuestionEntity(String feedbackQuestionId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackQuestionId);
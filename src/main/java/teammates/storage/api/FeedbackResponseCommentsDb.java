@@ -12,6 +12,7 @@ import javax.jdo.Query;
 
 import teammates.common.datatransfer.CommentSendingState;
 import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentSearchResultBundle;
 import teammates.common.datatransfer.InstructorAttributes;
@@ -225,6 +226,26 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         deleteFeedbackResponseCommentsForCourses(courseIds);
     }
     
+    /**
+     * Deletes at most {@code limit} response comments of the course, together with their search documents.
+     * @return the number of response comments deleted; 0 if the course has no response comments left
+     */
+    public int deleteFeedbackResponseCommentsForCourse(String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<FeedbackResponseComment> feedbackResponseCommentList =
+                getEntitiesForCourse(FeedbackResponseComment.class, courseId, limit);
+        String[] documentIds = new String[feedbackResponseCommentList.size()];
+        for (int i = 0; i < feedbackResponseCommentList.size(); i++) {
+            documentIds[i] = feedbackResponseCommentList.get(i).getFeedbackResponseCommentId().toString();
+        }
+        
+        deleteDocuments(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, documentIds);
+        getPm().deletePersistentAll(feedbackResponseCommentList);
+        getPm().flush();
+        return feedbackResponseCommentList.size();
+    }
+    
     /*
      * Get response comments for the course Ids
      */
@@ -365,6 +386,54 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         getPm().close();
     }
     
+    /**
+     * Points the comments on each response in {@code newResponseIds} to the response's new ID.
+     * Comments are fetched and written in batches, and their search documents are put again
+     * as the documents are built from the responses the comments are on.
+     * @param newResponseIds new response IDs, mapped from the old ones
+     */
+    public void updateFeedbackResponseIds(Map<String, String> newResponseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newResponseIds);
+        
+        List<String> oldResponseIds = new ArrayList<String>(newResponseIds.keySet());
+        for (List<String> batch : splitIntoInFilterBatches(oldResponseIds)) {
+            List<FeedbackResponseCommentAttributes> updatedComments = new ArrayList<FeedbackResponseCommentAttributes>();
+            for (FeedbackResponseComment responseComment : getFeedbackResponseCommentEntitiesForResponses(batch)) {
+                responseComment.setFeedbackResponseId(newResponseIds.get(responseComment.getFeedbackResponseId()));
+                updatedComments.add(new FeedbackResponseCommentAttributes(responseComment));
+            }
+            // the changes of each batch are written together before the next batch is queried
+            getPm().close();
+            
+            for (FeedbackResponseCommentAttributes comment : updatedComments) {
+                putDocument(comment);
+            }
+        }
+    }
+    
+    /**
+     * Sets the giver and receiver sections of the comments on the given responses to those of the responses,
+     * querying the comments of up to {@value #MAX_IN_FILTER_VALUES} responses at a time.
+     */
+    public void updateFeedbackResponseCommentSections(Collection<FeedbackResponseAttributes> responses) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responses);
+        
+        Map<String, FeedbackResponseAttributes> responsesById = new HashMap<String, FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responses) {
+            responsesById.put(response.getId(), response);
+        }
+        
+        List<String> responseIds = new ArrayList<String>(responsesById.keySet());
+        for (List<String> batch : splitIntoInFilterBatches(responseIds)) {
+            for (FeedbackResponseComment responseComment : getFeedbackResponseCommentEntitiesForResponses(batch)) {
+                FeedbackResponseAttributes response = responsesById.get(responseComment.getFeedbackResponseId());
+                responseComment.setGiverSection(response.giverSection);
+                responseComment.setReceiverSection(response.recipientSection);
+            }
+            getPm().close();
+        }
+    }
+    
     /*
      * Updates last editor for all comments last edited by the given instructor with the instructor's new email
      */
@@ -626,6 +695,18 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         return getCommentsWithoutDeletedEntity(feedbackResponseCommentList);
     }
     
+    private List<FeedbackResponseComment> getFeedbackResponseCommentEntitiesForResponses(
+                                                                    List<String> feedbackResponseIds) {
+        Query q = getPm().newQuery(FeedbackResponseComment.class);
+        q.setFilter(":p.contains(feedbackResponseId)");
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponseComment> feedbackResponseCommentList =
+                (List<FeedbackResponseComment>) q.execute(feedbackResponseIds);
+        
+        return getCommentsWithoutDeletedEntity(feedbackResponseCommentList);
+    }
+    
     private List<FeedbackResponseComment> getFeedbackResponseCommentEntitiesForSession(String courseId,
                                                                                        String feedbackSessionName) {
         
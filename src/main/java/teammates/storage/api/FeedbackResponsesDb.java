@@ -3,20 +3,27 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.storage.datastore.RecentWrites;
 import teammates.storage.entity.FeedbackResponse;
 
+import com.google.appengine.api.datastore.Cursor;
+
 public class FeedbackResponsesDb extends EntitiesDb {
 
     public void createFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToAdd)
@@ -387,6 +394,94 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return fraList;
     }
     
+    /**
+     * Gets one page of the responses in a session, resuming after the page that
+     * returned {@code pageToken}. Each page is fetched with a datastore cursor, so
+     * the cost of a page does not depend on how many pages came before it.<br>
+     * Preconditions: <br>
+     * * {@code feedbackSessionName} and {@code courseId} are non-null.
+     * @param pageToken token returned with the previous page, or {@code null} for the first page;
+     *         an invalid token (e.g. edited in the URL) also gives the first page
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionPage(
+            String feedbackSessionName, String courseId, String pageToken, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
+
+        return getFeedbackResponsesPage(q, pageToken, pageSize, feedbackSessionName, courseId);
+    }
+
+    /**
+     * Gets one page of the responses in a session given by or to a section.
+     * See {@link #getFeedbackResponsesForSessionPage(String, String, String, int)}.<br>
+     * Preconditions: <br>
+     * * {@code feedbackSessionName}, {@code courseId} and {@code section} are non-null.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String pageToken, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
+                    + "&& courseId == courseIdParam "
+                    + "&& participantSections == sectionParam");
+
+        return getFeedbackResponsesPage(q, pageToken, pageSize, feedbackSessionName, courseId, section);
+    }
+
+    /**
+     * Gets one page of the responses in a session given by a section.
+     * See {@link #getFeedbackResponsesForSessionPage(String, String, String, int)}.<br>
+     * Preconditions: <br>
+     * * {@code feedbackSessionName}, {@code courseId} and {@code section} are non-null.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String pageToken, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
+                    + "&& courseId == courseIdParam "
+                    + "&& giverSection == sectionParam");
+
+        return getFeedbackResponsesPage(q, pageToken, pageSize, feedbackSessionName, courseId, section);
+    }
+
+    /**
+     * Gets one page of the responses in a session given to a section.
+     * See {@link #getFeedbackResponsesForSessionPage(String, String, String, int)}.<br>
+     * Preconditions: <br>
+     * * {@code feedbackSessionName}, {@code courseId} and {@code section} are non-null.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String pageToken, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
+                    + "&& courseId == courseIdParam "
+                    + "&& receiverSection == sectionParam");
+
+        return getFeedbackResponsesPage(q, pageToken, pageSize, feedbackSessionName, courseId, section);
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -643,6 +738,53 @@ public class FeedbackResponsesDb extends EntitiesDb {
         getPm().close();
     }
     
+    /**
+     * Sets the giver and recipient sections of the given responses, e.g. after their participants
+     * moved to other sections. The responses are read with one batch get and written together.
+     * Responses that no longer exist are skipped.
+     */
+    public void updateFeedbackResponseSections(Collection<FeedbackResponseAttributes> responses) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responses);
+        
+        Map<String, FeedbackResponseAttributes> responsesById = new HashMap<String, FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responses) {
+            responsesById.put(response.getId(), response);
+        }
+        if (responsesById.isEmpty()) {
+            return;
+        }
+        
+        for (FeedbackResponse fr : getFeedbackResponseEntities(responsesById.keySet())) {
+            FeedbackResponseAttributes response = responsesById.get(fr.getId());
+            fr.setGiverSection(response.giverSection);
+            fr.setRecipientSection(response.recipientSection);
+        }
+        getPm().close();
+    }
+    
+    /**
+     * Deletes the given responses with one batch get and one batch delete.
+     * This is a non-cascade delete; responses that no longer exist are skipped.
+     */
+    public void deleteFeedbackResponses(Collection<FeedbackResponseAttributes> responses) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responses);
+        
+        Map<String, FeedbackResponseAttributes> responsesById = new HashMap<String, FeedbackResponseAttributes>();
+        for (FeedbackResponseAttributes response : responses) {
+            responsesById.put(response.getId(), response);
+        }
+        if (responsesById.isEmpty()) {
+            return;
+        }
+        
+        List<FeedbackResponse> feedbackResponses = getFeedbackResponseEntities(responsesById.keySet());
+        getPm().deletePersistentAll(feedbackResponses);
+        getPm().flush();
+        for (FeedbackResponse feedbackResponse : feedbackResponses) {
+            RecentWrites.recordDeletion(responsesById.get(feedbackResponse.getId()), feedbackResponse);
+        }
+    }
+    
     public void updateFeedbackResponseOptimized(FeedbackResponseAttributes newAttributes, FeedbackResponse fr)
             throws InvalidParametersException, EntityDoesNotExistException {
         updateFeedbackResponseOptimized(newAttributes, fr, false);
@@ -657,6 +799,81 @@ public class FeedbackResponsesDb extends EntitiesDb {
         
     }
     
+    /**
+     * Deletes at most {@code limit} responses of the course.
+     * @return the number of responses deleted; 0 if the course has no responses left
+     */
+    public int deleteFeedbackResponsesForCourse(String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<FeedbackResponse> feedbackResponses = getEntitiesForCourse(FeedbackResponse.class, courseId, limit);
+        
+        getPm().deletePersistentAll(feedbackResponses);
+        getPm().flush();
+        return feedbackResponses.size();
+    }
+
+    /**
+     * Writes a copy of every response of the course given or received by {@code oldEmail},
+     * with {@code oldEmail} replaced by {@code newEmail}, in one batch.
+     * As the ID of a response contains the emails of its giver and recipient, the copies have new IDs;
+     * the old responses are kept until {@link #deleteFeedbackResponsesForParticipant} is called.
+     * Copies that already exist (e.g. from an earlier attempt) are overwritten.
+     * @return the IDs of the copies, mapped from the IDs of the responses they replace
+     */
+    public Map<String, String> copyFeedbackResponsesForChangedEmail(String courseId, String oldEmail, String newEmail) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
+        
+        Map<String, String> newResponseIds = new HashMap<String, String>();
+        List<FeedbackResponseAttributes> copiedResponses = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackResponse> copies = new ArrayList<FeedbackResponse>();
+        for (FeedbackResponse oldResponse : getFeedbackResponseEntitiesForParticipantInCourse(courseId, oldEmail)) {
+            FeedbackResponseAttributes copiedResponse = new FeedbackResponseAttributes(oldResponse);
+            if (oldEmail.equals(copiedResponse.giver)) {
+                copiedResponse.giver = newEmail;
+            }
+            if (oldEmail.equals(copiedResponse.recipient)) {
+                copiedResponse.recipient = newEmail;
+            }
+            FeedbackResponse copy = copiedResponse.toEntity();
+            copy.setCreatedAt(oldResponse.getCreatedAt());
+            copiedResponses.add(copiedResponse);
+            copies.add(copy);
+            newResponseIds.put(oldResponse.getId(), copy.getId());
+        }
+        
+        getPm().makePersistentAll(copies);
+        getPm().flush();
+        for (int i = 0; i < copies.size(); i++) {
+            RecentWrites.recordCreation(copiedResponses.get(i), copies.get(i));
+        }
+        log.info("copied " + copies.size() + " responses from: " + oldEmail + " to: " + newEmail
+                 + " in the course: " + courseId);
+        return newResponseIds;
+    }
+    
+    /**
+     * Deletes all responses of the course given or received by {@code email}, in one batch.
+     */
+    public void deleteFeedbackResponsesForParticipant(String courseId, String email) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
+        
+        List<FeedbackResponse> feedbackResponses = getFeedbackResponseEntitiesForParticipantInCourse(courseId, email);
+        List<FeedbackResponseAttributes> deletedResponses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse feedbackResponse : feedbackResponses) {
+            deletedResponses.add(new FeedbackResponseAttributes(feedbackResponse));
+        }
+        
+        getPm().deletePersistentAll(feedbackResponses);
+        getPm().flush();
+        for (int i = 0; i < feedbackResponses.size(); i++) {
+            RecentWrites.recordDeletion(deletedResponses.get(i), feedbackResponses.get(i));
+        }
+    }
+    
     public void deleteFeedbackResponsesForCourses(List<String> courseIds) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
@@ -744,11 +961,12 @@ public class FeedbackResponsesDb extends EntitiesDb {
         List<FeedbackResponse> feedbackResponses =
                 (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, receiver);
         
-        if (feedbackResponses.isEmpty() || JDOHelper.isDeleted(feedbackResponses.get(0))) {
-            return null;
+        FeedbackResponse feedbackResponse = null;
+        if (!feedbackResponses.isEmpty() && !JDOHelper.isDeleted(feedbackResponses.get(0))) {
+            feedbackResponse = feedbackResponses.get(0);
         }
-    
-        return feedbackResponses.get(0);
+        return RecentWrites.resolve(FeedbackResponseAttributes.class,
+                                    feedbackQuestionId + "/" + giverEmail + ":" + receiver, feedbackResponse);
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesForQuestionInSection(
@@ -757,25 +975,23 @@ public class FeedbackResponsesDb extends EntitiesDb {
         List<FeedbackResponse> feedbackResponses = new ArrayList<FeedbackResponse>();
        
         Query q = getPm().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackQuestionIdParam, String giverSectionParam, String receiverSectionParam");
+        q.declareParameters("String feedbackQuestionIdParam, String sectionParam");
         q.setFilter("feedbackQuestionId == feedbackQuestionIdParam "
-                    + "&& giverSection == giverSectionParam "
-                    + "&& receiverSection == receiverSectionParam");
+                    + "&& participantSections == sectionParam");
         
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, section, section);
-        feedbackResponses.addAll(firstQueryResponses);
-         
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, section, "None");
-        feedbackResponses.addAll(secondQueryResponses);
-
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> thirdQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, "None", section);
-        feedbackResponses.addAll(thirdQueryResponses);
+        List<FeedbackResponse> queryResponses =
+                (List<FeedbackResponse>) q.execute(feedbackQuestionId, section);
+        
+        // keep only responses whose other participant is in the same section or in no section
+        for (FeedbackResponse response : queryResponses) {
+            String otherSection = section.equals(response.getGiverSection())
+                                ? response.getRecipientSection()
+                                : response.getGiverSection();
+            if (section.equals(otherSection) || Const.DEFAULT_SECTION.equals(otherSection)) {
+                feedbackResponses.add(response);
+            }
+        }
        
         return feedbackResponses;
     }
@@ -836,39 +1052,20 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
  
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSection(
             String feedbackSessionName, String courseId, String section) {
 
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
         q.setFilter("feedbackSessionName == feedbackSessionNameParam "
                     + "&& courseId == courseIdParam "
-                    + "&& giverSection == sectionParam");
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
+                    + "&& participantSections == sectionParam");
         
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& receiverSection == sectionParam");
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
                 (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return queryResponses;
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSection(
@@ -903,41 +1100,21 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return queryResponses;
     }
     
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSectionWithinRange(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSectionWithinRange(
             String feedbackSessionName, String courseId, String section, long range) {
 
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
         q.setFilter("feedbackSessionName == feedbackSessionNameParam "
                     + "&& courseId == courseIdParam "
-                    + "&& giverSection == sectionParam");
+                    + "&& participantSections == sectionParam");
         q.setRange(0, range + 1);
         
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& receiverSection == sectionParam");
-        q.setRange(0, range + 1);
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
                 (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return queryResponses;
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSectionWithinRange(
@@ -974,6 +1151,41 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return queryResponses;
     }
     
+    /**
+     * Executes {@code q} from the position encoded in {@code pageToken}. A page that is not full
+     * is the last one; a full page gets a token for the next page even if no response is left,
+     * in which case the next page is an empty last page. An invalid {@code pageToken} is ignored.
+     */
+    private FeedbackResponsesPage getFeedbackResponsesPage(Query q, String pageToken, int pageSize,
+                                                           Object... queryParams) {
+        if (pageToken != null) {
+            try {
+                setQueryCursor(q, Cursor.fromWebSafeString(pageToken));
+            } catch (IllegalArgumentException e) {
+                // the token comes from the request, so may have been tampered with
+                log.warning("Invalid page token, showing the first page instead: " + pageToken);
+            }
+        }
+        q.setRange(0, pageSize);
+
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> queryResponses = (List<FeedbackResponse>) q.executeWithArray(queryParams);
+
+        FeedbackResponsesPage page = new FeedbackResponsesPage();
+        for (FeedbackResponse fr : queryResponses) {
+            if (!JDOHelper.isDeleted(fr)) {
+                page.responses.add(new FeedbackResponseAttributes(fr));
+            }
+        }
+
+        Cursor endOfPageCursor = JDOCursorHelper.getCursor(queryResponses);
+        if (queryResponses.size() == pageSize && endOfPageCursor != null) {
+            page.nextPageToken = endOfPageCursor.toWebSafeString();
+        }
+
+        return page;
+    }
+
     private List<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestion(
             String feedbackQuestionId, String receiver) {
 
@@ -988,37 +1200,19 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
 
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestionInSection(
             String feedbackQuestionId, String receiver, String section) {
         
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-        
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String receiverParam, String sectionParam");
         q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                    + "&& giverSection == sectionParam");
+                    + "&& participantSections == sectionParam");
     
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
                 (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return queryResponses;
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestion(
@@ -1035,37 +1229,19 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
 
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestionInSection(
             String feedbackQuestionId, String giverEmail, String section) {
         
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-        
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String giverEmailParam, String sectionParam");
         q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                    + "&& giverSection == sectionParam");
+                    + "&& participantSections == sectionParam");
     
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
                 (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return queryResponses;
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForSessionWithinRange(
@@ -1098,6 +1274,40 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
 
+    /**
+     * A "contains" filter on the primary key is executed as a single batch get.
+     */
+    private List<FeedbackResponse> getFeedbackResponseEntities(Collection<String> feedbackResponseIds) {
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.setFilter(":p.contains(feedbackResponseId)");
+        
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> feedbackResponses =
+                (List<FeedbackResponse>) q.execute(new ArrayList<String>(feedbackResponseIds));
+        
+        List<FeedbackResponse> existingResponses = new ArrayList<FeedbackResponse>();
+        for (FeedbackResponse feedbackResponse : feedbackResponses) {
+            if (!JDOHelper.isDeleted(feedbackResponse)) {
+                existingResponses.add(feedbackResponse);
+            }
+        }
+        return existingResponses;
+    }
+
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForParticipantInCourse(String courseId, String email) {
+        // a response to oneself is returned by both queries
+        Map<String, FeedbackResponse> feedbackResponses = new LinkedHashMap<String, FeedbackResponse>();
+        List<FeedbackResponse> queriedResponses = new ArrayList<FeedbackResponse>();
+        queriedResponses.addAll(getFeedbackResponseEntitiesFromGiverForCourse(courseId, email));
+        queriedResponses.addAll(getFeedbackResponseEntitiesForReceiverForCourse(courseId, email));
+        for (FeedbackResponse feedbackResponse : queriedResponses) {
+            if (!JDOHelper.isDeleted(feedbackResponse)) {
+                feedbackResponses.put(feedbackResponse.getId(), feedbackResponse);
+            }
+        }
+        return new ArrayList<FeedbackResponse>(feedbackResponses.values());
+    }
+
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForCourse(
             String courseId, String giverEmail) {
 
@@ -0,0 +1,320 @@
+package teammates.storage.api;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.util.ConcurrentModificationException;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.jdo.JDOException;
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+import javax.jdo.Transaction;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.FeedbackSessionResultsSnapshotAttributes;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Config;
+import teammates.common.util.Const;
+import teammates.common.util.Sanitizer;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.FeedbackSessionResultsSnapshot;
+
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.tools.cloudstorage.GcsFileOptions;
+import com.google.appengine.tools.cloudstorage.GcsFilename;
+import com.google.appengine.tools.cloudstorage.GcsService;
+import com.google.appengine.tools.cloudstorage.GcsServiceFactory;
+import com.google.appengine.tools.cloudstorage.RetryParams;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+
+/**
+ * Handles CRUD Operations for {@link FeedbackSessionResultsSnapshot}, and the data of the snapshots, which is
+ * kept in Google Cloud Storage as gzipped JSON, one file per version.<br>
+ * A snapshot is started before its data is read, and completed only if it has not been deleted in the meantime,
+ * in a datastore transaction of its own; deleting the snapshot of a session whenever its responses or comments
+ * change is therefore enough to keep a snapshot that misses the change from being served.
+ */
+public class FeedbackSessionResultsSnapshotsDb extends EntitiesDb {
+
+    /** How long a snapshot may take to build before another build of the session is allowed to start. */
+    private static final long BUILD_TIMEOUT_MILLIS = 15 * 60 * 1000L;
+
+    private static final String SNAPSHOT_FOLDER = "resultsSnapshots/";
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the version and state of the snapshot of the session, without its data; null if not found
+     */
+    public FeedbackSessionResultsSnapshotAttributes getFeedbackSessionResultsSnapshot(String feedbackSessionName,
+                                                                                       String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            FeedbackSessionResultsSnapshot snapshot = getSnapshotEntity(pm, feedbackSessionName, courseId);
+            return snapshot == null ? null : new FeedbackSessionResultsSnapshotAttributes(snapshot);
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the snapshot of the session with its data; null if the session has no snapshot,
+     *         if the snapshot is still being built, or if its data cannot be read
+     */
+    public FeedbackSessionResultsSnapshotAttributes getReadyFeedbackSessionResultsSnapshot(
+            String feedbackSessionName, String courseId) {
+        FeedbackSessionResultsSnapshotAttributes snapshot =
+                getFeedbackSessionResultsSnapshot(feedbackSessionName, courseId);
+        if (snapshot == null || !snapshot.isReady) {
+            return null;
+        }
+
+        GcsFilename fileName = getFileName(snapshot);
+        try (Reader reader = new InputStreamReader(
+                new GZIPInputStream(Channels.newInputStream(
+                        getGcsService().openPrefetchingReadChannel(fileName, 0, 1024 * 1024))),
+                Const.SystemParams.ENCODING)) {
+            FeedbackSessionResultsSnapshotAttributes data =
+                    getSnapshotGson().fromJson(reader, FeedbackSessionResultsSnapshotAttributes.class);
+            snapshot.setData(data.getQuestions(), data.getResponses(), data.getResponseComments());
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            log.warning("Could not read results snapshot " + fileName.getObjectName() + ": "
+                        + TeammatesException.toStringWithStackTrace(e));
+            return null;
+        }
+    }
+
+    /**
+     * Starts a new version of the snapshot of the session, unless the session has a snapshot that is ready,
+     * or is being built and has not timed out.
+     * @return the version started; null if no new version needs to be built
+     */
+    public Long startFeedbackSessionResultsSnapshot(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        Transaction tx = pm.currentTransaction();
+        try {
+            tx.begin();
+            long now = System.currentTimeMillis();
+            FeedbackSessionResultsSnapshot existingSnapshot = getSnapshotEntity(pm, feedbackSessionName, courseId);
+            if (existingSnapshot != null
+                    && (existingSnapshot.isReady() || existingSnapshot.getVersion() > now - BUILD_TIMEOUT_MILLIS)) {
+                tx.rollback();
+                return null;
+            }
+
+            // versions of a session only increase, so the file of a timed-out build is never reused
+            long version = existingSnapshot == null ? now : Math.max(now, existingSnapshot.getVersion() + 1);
+            pm.makePersistent(new FeedbackSessionResultsSnapshot(feedbackSessionName, courseId, version, false));
+            tx.commit();
+            return version;
+        } catch (JDOException | ConcurrentModificationException e) {
+            // another build of the session has just been started
+            log.info("Results snapshot of " + courseId + "/" + feedbackSessionName + " not started: "
+                     + e.getMessage());
+            return null;
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            pm.close();
+        }
+    }
+
+    /**
+     * Writes the data of {@code snapshot}, then marks its version as ready if it is still the version
+     * being built, i.e. if the snapshot has not been deleted or started again since the version was started.
+     * Otherwise the data is deleted again.
+     * @return true if the snapshot is ready to be served
+     */
+    public boolean completeFeedbackSessionResultsSnapshot(FeedbackSessionResultsSnapshotAttributes snapshot)
+            throws IOException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, snapshot);
+
+        GcsFilename fileName = getFileName(snapshot);
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(Channels.newOutputStream(
+                        getGcsService().createOrReplace(fileName, new GcsFileOptions.Builder()
+                                .mimeType("application/json").contentEncoding("gzip").build()))),
+                Const.SystemParams.ENCODING)) {
+            getSnapshotGson().toJson(snapshot, writer);
+        }
+
+        boolean isReady = false;
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        Transaction tx = pm.currentTransaction();
+        try {
+            tx.begin();
+            FeedbackSessionResultsSnapshot snapshotEntity =
+                    getSnapshotEntity(pm, snapshot.feedbackSessionName, snapshot.courseId);
+            if (snapshotEntity != null && snapshotEntity.getVersion() == snapshot.version
+                    && !snapshotEntity.isReady()) {
+                snapshotEntity.setReady(true);
+                tx.commit();
+                isReady = true;
+            }
+        } catch (JDOException | ConcurrentModificationException e) {
+            log.info("Results snapshot " + snapshot.getIdentificationString() + " deleted while being built: "
+                     + e.getMessage());
+        } finally {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            pm.close();
+        }
+
+        if (isReady) {
+            snapshot.isReady = true;
+            log.info(snapshot.getBackupIdentifier());
+        } else {
+            deleteFile(fileName);
+        }
+        return isReady;
+    }
+
+    /**
+     * Deletes the snapshot of the session and its data, so that its results are served from the datastore
+     * until a new snapshot is built. A snapshot being built is not completed.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteFeedbackSessionResultsSnapshot(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            deleteSnapshot(pm, getSnapshotEntity(pm, feedbackSessionName, courseId));
+        } finally {
+            pm.close();
+        }
+    }
+
+    /**
+     * Deletes the snapshots of all sessions in the course, and their data. Used when the course is deleted:
+     * the query may miss a snapshot that has just been started, but its build deletes it on finding
+     * the session gone.
+     */
+    public void deleteFeedbackSessionResultsSnapshotsForCourse(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            Query q = pm.newQuery(FeedbackSessionResultsSnapshot.class);
+            q.declareParameters("String courseIdParam");
+            q.setFilter("courseId == courseIdParam");
+
+            @SuppressWarnings("unchecked")
+            List<FeedbackSessionResultsSnapshot> snapshots = (List<FeedbackSessionResultsSnapshot>) q.execute(courseId);
+            for (FeedbackSessionResultsSnapshot snapshot : snapshots) {
+                deleteSnapshot(pm, snapshot);
+            }
+        } finally {
+            pm.close();
+        }
+    }
+
+    private void deleteSnapshot(PersistenceManager pm, FeedbackSessionResultsSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+
+        FeedbackSessionResultsSnapshotAttributes snapshotAttributes =
+                new FeedbackSessionResultsSnapshotAttributes(snapshot);
+        pm.deletePersistent(snapshot);
+        // the data of a snapshot being built is deleted by the build, as it can no longer be completed
+        if (snapshotAttributes.isReady) {
+            deleteFile(getFileName(snapshotAttributes));
+        }
+    }
+
+    private void deleteFile(GcsFilename fileName) {
+        try {
+            getGcsService().delete(fileName);
+        } catch (IOException e) {
+            log.warning("Could not delete results snapshot " + fileName.getObjectName() + ": " + e.getMessage());
+        }
+    }
+
+    private FeedbackSessionResultsSnapshot getSnapshotEntity(PersistenceManager pm, String feedbackSessionName,
+                                                             String courseId) {
+        try {
+            Key key = KeyFactory.createKey(FeedbackSessionResultsSnapshot.class.getSimpleName(),
+                                           feedbackSessionName + "%" + courseId);
+            FeedbackSessionResultsSnapshot snapshot = pm.getObjectById(FeedbackSessionResultsSnapshot.class, key);
+            return JDOHelper.isDeleted(snapshot) ? null : snapshot;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static GcsFilename getFileName(FeedbackSessionResultsSnapshotAttributes snapshot) {
+        return new GcsFilename(Config.GCS_BUCKETNAME, SNAPSHOT_FOLDER + Sanitizer.sanitizeForUri(snapshot.getSnapshotId())
+                                                      + "/" + snapshot.version + ".json.gz");
+    }
+
+    private static GcsService getGcsService() {
+        return GcsServiceFactory.createGcsService(RetryParams.getDefaultInstance());
+    }
+
+    /**
+     * Unlike {@link teammates.common.util.JsonUtils}, keeps transient fields such as creation times and
+     * comment sending states, and keeps times to the millisecond, so that the data read back is the same as
+     * the data read from the datastore.
+     */
+    private static Gson getSnapshotGson() {
+        return new GsonBuilder().excludeFieldsWithModifiers(Modifier.STATIC)
+                                .registerTypeAdapter(Date.class, new DateAsMillisAdapter())
+                                .disableHtmlEscaping()
+                                .create();
+    }
+
+    private static class DateAsMillisAdapter implements JsonSerializer<Date>, JsonDeserializer<Date> {
+
+        @Override
+        public JsonElement serialize(Date date, Type typeOfDate, JsonSerializationContext context) {
+            return new JsonPrimitive(date.getTime());
+        }
+
+        @Override
+        public Date deserialize(JsonElement json, Type typeOfDate, JsonDeserializationContext context) {
+            return new Date(json.getAsLong());
+        }
+
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        FeedbackSessionResultsSnapshotAttributes snapshot = (FeedbackSessionResultsSnapshotAttributes) attributes;
+        return getSnapshotEntity(getPm(), snapshot.feedbackSessionName, snapshot.courseId);
+    }
+
+}
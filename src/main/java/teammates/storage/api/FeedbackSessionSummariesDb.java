@@ -0,0 +1,187 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.FeedbackSessionSummaryAttributes;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.TimeHelper;
+import teammates.storage.entity.FeedbackSessionSummary;
+
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+
+/**
+ * Handles CRUD Operations for {@link FeedbackSessionSummary}.
+ * The API uses data transfer classes (i.e. *Attributes) instead of persistable classes.
+ */
+public class FeedbackSessionSummariesDb extends EntitiesDb {
+
+    /**
+     * Creates the given summaries with one batch write, replacing existing summaries of the same sessions.
+     */
+    public void putFeedbackSessionSummaries(Collection<FeedbackSessionSummaryAttributes> summaries)
+            throws InvalidParametersException {
+        createEntitiesWithoutExistenceCheck(summaries);
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return Null if not found.
+     */
+    public FeedbackSessionSummaryAttributes getFeedbackSessionSummary(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        FeedbackSessionSummary summary = getFeedbackSessionSummaryEntity(feedbackSessionName, courseId);
+        return summary == null ? null : new FeedbackSessionSummaryAttributes(summary);
+    }
+
+    /**
+     * Gets the summaries of the sessions which start or end within the given range, using the same
+     * criteria as {@link FeedbackSessionsDb#getAllOpenFeedbackSessions}.<br>
+     * These are two range queries, on the end time and on the start time, both bounded by the range
+     * widened by the largest possible time zone difference; the results are merged and then filtered
+     * in memory by the time zone of each session.
+     * @param zone the time zone of {@code start} and {@code end}
+     * @return empty list if none found.
+     */
+    public List<FeedbackSessionSummaryAttributes> getFeedbackSessionSummariesWithinTimeRange(Date start, Date end,
+                                                                                             double zone) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, start);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, end);
+
+        Calendar startCal = Calendar.getInstance();
+        startCal.setTime(start);
+        Calendar endCal = Calendar.getInstance();
+        endCal.setTime(end);
+
+        // widened by the largest possible time zone difference, as the times of sessions are in their own zone
+        Date curStart = TimeHelper.convertToUserTimeZone(startCal, -25).getTime();
+        Date curEnd = TimeHelper.convertToUserTimeZone(endCal, 25).getTime();
+
+        Query endTimeQuery = getPm().newQuery(FeedbackSessionSummary.class);
+        endTimeQuery.declareParameters("java.util.Date rangeStart, java.util.Date rangeEnd");
+        endTimeQuery.setFilter("endTime > rangeStart && endTime <= rangeEnd");
+
+        Query startTimeQuery = getPm().newQuery(FeedbackSessionSummary.class);
+        startTimeQuery.declareParameters("java.util.Date rangeStart, java.util.Date rangeEnd");
+        startTimeQuery.setFilter("startTime >= rangeStart && startTime < rangeEnd");
+
+        @SuppressWarnings("unchecked")
+        List<FeedbackSessionSummary> endTimeSummaryList =
+                (List<FeedbackSessionSummary>) endTimeQuery.execute(curStart, curEnd);
+        @SuppressWarnings("unchecked")
+        List<FeedbackSessionSummary> startTimeSummaryList =
+                (List<FeedbackSessionSummary>) startTimeQuery.execute(curStart, curEnd);
+
+        List<FeedbackSessionSummary> summaryList = new ArrayList<FeedbackSessionSummary>(endTimeSummaryList);
+        summaryList.addAll(startTimeSummaryList);
+
+        // sessions which both start and end within the range are found by both queries
+        Set<String> sessionIds = new HashSet<String>();
+        List<FeedbackSessionSummaryAttributes> summaries = new ArrayList<FeedbackSessionSummaryAttributes>();
+        for (FeedbackSessionSummary summary : summaryList) {
+            if (JDOHelper.isDeleted(summary)
+                    || !sessionIds.add(summary.getFeedbackSessionName() + "%" + summary.getCourseId())) {
+                continue;
+            }
+
+            startCal.setTime(start);
+            endCal.setTime(end);
+            Date standardStart = TimeHelper.convertToUserTimeZone(startCal, summary.getTimeZone() - zone).getTime();
+            Date standardEnd = TimeHelper.convertToUserTimeZone(endCal, summary.getTimeZone() - zone).getTime();
+
+            boolean isStartTimeWithinRange = TimeHelper.isTimeWithinPeriod(standardStart, standardEnd,
+                                                                           summary.getStartTime(), true, false);
+            boolean isEndTimeWithinRange = TimeHelper.isTimeWithinPeriod(standardStart, standardEnd,
+                                                                         summary.getEndTime(), false, true);
+
+            if (isStartTimeWithinRange || isEndTimeWithinRange) {
+                summaries.add(new FeedbackSessionSummaryAttributes(summary));
+            }
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     */
+    public void deleteFeedbackSessionSummary(String feedbackSessionName, String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        FeedbackSessionSummary summary = getFeedbackSessionSummaryEntity(feedbackSessionName, courseId);
+        if (summary == null) {
+            return;
+        }
+
+        getPm().deletePersistent(summary);
+        getPm().flush();
+    }
+
+    /**
+     * Deletes at most {@code limit} summaries of the course.
+     * @return the number of summaries deleted; 0 if the course has no summaries left
+     */
+    public int deleteFeedbackSessionSummariesForCourse(String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        List<FeedbackSessionSummary> summaryList = getEntitiesForCourse(FeedbackSessionSummary.class, courseId, limit);
+
+        getPm().deletePersistentAll(summaryList);
+        getPm().flush();
+        return summaryList.size();
+    }
+
+    /**
+     * Deletes the summaries of the given courses, querying up to {@value #MAX_IN_FILTER_VALUES} courses at a time.
+     */
+    public void deleteFeedbackSessionSummariesForCourses(List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+
+        for (List<String> batch : splitIntoInFilterBatches(courseIds)) {
+            Query q = getPm().newQuery(FeedbackSessionSummary.class);
+            q.setFilter(":p.contains(courseId)");
+
+            @SuppressWarnings("unchecked")
+            List<FeedbackSessionSummary> summaryList = (List<FeedbackSessionSummary>) q.execute(batch);
+
+            getPm().deletePersistentAll(summaryList);
+            getPm().flush();
+        }
+    }
+
+    private FeedbackSessionSummary getFeedbackSessionSummaryEntity(String feedbackSessionName, String courseId) {
+        try {
+            Key key = KeyFactory.createKey(FeedbackSessionSummary.class.getSimpleName(),
+                                           feedbackSessionName + "%" + courseId);
+            FeedbackSessionSummary summary = getPm().getObjectById(FeedbackSessionSummary.class, key);
+            return JDOHelper.isDeleted(summary) ? null : summary;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected Object getEntity(EntityAttributes attributes) {
+        FeedbackSessionSummaryAttributes summaryToGet = (FeedbackSessionSummaryAttributes) attributes;
+        return getFeedbackSessionSummaryEntity(summaryToGet.feedbackSessionName, summaryToGet.courseId);
+    }
+
+}
@@ -3,13 +3,18 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
+import javax.jdo.JDOException;
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
+import javax.jdo.Transaction;
 
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
@@ -19,12 +24,20 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.TimeHelper;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.RecentWrites;
 import teammates.storage.entity.FeedbackSession;
 
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+
 public class FeedbackSessionsDb extends EntitiesDb {
     
     public static final String ERROR_UPDATE_NON_EXISTENT = "Trying to update non-existent Feedback Session : ";
 
+    /** How many times a change to the expected respondent counts is tried before they are marked as not counted. */
+    private static final int MAX_COUNT_UPDATE_ATTEMPTS = 3;
+
     public void createFeedbackSessions(Collection<FeedbackSessionAttributes> feedbackSessionsToAdd)
             throws InvalidParametersException {
         List<EntityAttributes> feedbackSessionsToUpdate = createEntities(feedbackSessionsToAdd);
@@ -132,6 +145,38 @@ public class FeedbackSessionsDb extends EntitiesDb {
         
     }
     
+    /**
+     * Gets the sessions with the given name in the given courses,
+     * querying up to {@value #MAX_IN_FILTER_VALUES} courses at a time.
+     * @return empty list if none found.
+     */
+    public List<FeedbackSessionAttributes> getFeedbackSessionsWithName(String feedbackSessionName,
+                                                                       List<String> courseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        List<String> feedbackSessionIds = new ArrayList<String>();
+        for (String courseId : courseIds) {
+            feedbackSessionIds.add(feedbackSessionName + "%" + courseId);
+        }
+        
+        List<FeedbackSessionAttributes> feedbackSessions = new ArrayList<FeedbackSessionAttributes>();
+        for (List<String> batch : splitIntoInFilterBatches(feedbackSessionIds)) {
+            Query q = getPm().newQuery(FeedbackSession.class);
+            q.setFilter(":p.contains(feedbackSessionId)");
+            
+            @SuppressWarnings("unchecked")
+            List<FeedbackSession> feedbackSessionList = (List<FeedbackSession>) q.execute(batch);
+            
+            for (FeedbackSession fs : feedbackSessionList) {
+                if (!JDOHelper.isDeleted(fs)) {
+                    feedbackSessions.add(new FeedbackSessionAttributes(fs));
+                }
+            }
+        }
+        return feedbackSessions;
+    }
+    
     /**
      * @return empty list if none found.
      * @deprecated Not scalable. Created for data migration purposes.
@@ -154,11 +199,17 @@ public class FeedbackSessionsDb extends EntitiesDb {
      * * All parameters are non-null.
      * @return An empty list if no sessions are found for the given course.
      */
-    public List<FeedbackSessionAttributes> getFeedbackSessionsForCourse(String courseId) {
+    public List<FeedbackSessionAttributes> getFeedbackSessionsForCourse(final String courseId) {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
-        List<FeedbackSession> fsList = getFeedbackSessionEntitiesForCourse(courseId);
+        List<FeedbackSession> fsList = RecentWrites.resolveAll(FeedbackSessionAttributes.class,
+                getFeedbackSessionEntitiesForCourse(courseId), new RecentWrites.QueryFilter<FeedbackSession>() {
+                    @Override
+                    public boolean matches(FeedbackSession session) {
+                        return courseId.equals(session.getCourseId());
+                    }
+                });
         List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
         
         for (FeedbackSession fs : fsList) {
@@ -168,6 +219,25 @@ public class FeedbackSessionsDb extends EntitiesDb {
         }
         return fsaList;
     }
+    
+    /**
+     * Gets the sessions of the given courses, querying up to {@value #MAX_IN_FILTER_VALUES} courses at a time.
+     * @return empty list if none found.
+     */
+    public List<FeedbackSessionAttributes> getFeedbackSessionsForCourses(List<String> courseIds) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
+        for (List<String> batch : splitIntoInFilterBatches(courseIds)) {
+            for (FeedbackSession fs : getFeedbackSessionEntitiesForCourses(batch)) {
+                if (!JDOHelper.isDeleted(fs)) {
+                    fsaList.add(new FeedbackSessionAttributes(fs));
+                }
+            }
+        }
+        return fsaList;
+    }
         
     /**
      * @return An empty list if no sessions are found that have unsent open emails.
@@ -448,6 +518,26 @@ public class FeedbackSessionsDb extends EntitiesDb {
         getPm().close();
     }
 
+    /**
+     * Replaces {@code oldEmail} by {@code newEmail} in the student respondent lists of all sessions
+     * in the course. The sessions are fetched with a single query.
+     */
+    public void updateStudentRespondentForCourse(String oldEmail, String newEmail, String courseId) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, oldEmail);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        for (FeedbackSession fs : getFeedbackSessionEntitiesForCourse(courseId)) {
+            if (fs.getRespondingStudentList().remove(oldEmail)) {
+                fs.getRespondingStudentList().add(newEmail);
+            }
+        }
+        
+        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + courseId);
+        getPm().close();
+    }
+
     public void clearStudentRespondents(FeedbackSessionAttributes feedbackSession)
             throws InvalidParametersException, EntityDoesNotExistException {
 
@@ -494,7 +584,114 @@ public class FeedbackSessionsDb extends EntitiesDb {
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
     }
+
+    /**
+     * Sets the numbers of students and instructors expected to respond to the session
+     * to those in {@code feedbackSession}; null values mark the numbers as not counted.
+     */
+    public void updateExpectedRespondentCounts(FeedbackSessionAttributes feedbackSession)
+            throws EntityDoesNotExistException {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+
+        changeExpectedRespondentCounts(feedbackSession, feedbackSession.getExpectedStudentRespondentCount(),
+                                       feedbackSession.getExpectedInstructorRespondentCount(), false);
+    }
+
+    /**
+     * Adds the given differences to the stored numbers of students and instructors expected to respond
+     * to the session. Numbers that have not been counted are left as they are.
+     */
+    public void adjustExpectedRespondentCounts(FeedbackSessionAttributes feedbackSession,
+                                               int studentDifference, int instructorDifference)
+            throws EntityDoesNotExistException {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+
+        changeExpectedRespondentCounts(feedbackSession, studentDifference, instructorDifference, true);
+    }
+
+    /**
+     * Sets the expected respondent counts of the session, or adds to them if {@code isAdjustment}, by
+     * read-modify-write in a datastore transaction of its own, separate from the persistence manager of
+     * the thread, so that concurrent enrollments and instructor changes cannot overwrite each other's changes.
+     * If the counts cannot be changed because of concurrent updates, they are marked as not counted instead.
+     */
+    private void changeExpectedRespondentCounts(FeedbackSessionAttributes feedbackSession, Integer studentCount,
+                                                Integer instructorCount, boolean isAdjustment)
+            throws EntityDoesNotExistException {
+
+        for (int attempt = 1; attempt <= MAX_COUNT_UPDATE_ATTEMPTS; attempt++) {
+            PersistenceManager pm = Datastore.newPersistenceManager();
+            Transaction tx = pm.currentTransaction();
+            try {
+                tx.begin();
+                FeedbackSession fs = getFeedbackSessionEntityByKey(pm, feedbackSession);
+                if (fs == null) {
+                    throw new EntityDoesNotExistException(
+                            ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
+                }
+
+                if (!isAdjustment) {
+                    fs.setExpectedStudentRespondentCount(studentCount);
+                    fs.setExpectedInstructorRespondentCount(instructorCount);
+                } else {
+                    // adjusted on the stored entity rather than on the given attributes, which may be outdated
+                    if (fs.getExpectedStudentRespondentCount() != null) {
+                        fs.setExpectedStudentRespondentCount(
+                                Math.max(0, fs.getExpectedStudentRespondentCount() + studentCount));
+                    }
+                    if (fs.getExpectedInstructorRespondentCount() != null) {
+                        fs.setExpectedInstructorRespondentCount(
+                                Math.max(0, fs.getExpectedInstructorRespondentCount() + instructorCount));
+                    }
+                }
+                tx.commit();
+                log.info(feedbackSession.getBackupIdentifier());
+                return;
+            } catch (JDOException | ConcurrentModificationException e) {
+                log.warning("Attempt " + attempt + " to update the expected respondent counts of "
+                            + feedbackSession.getIdentificationString() + " failed: " + e.getMessage());
+            } finally {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+                pm.close();
+            }
+        }
+
+        // a write outside a transaction makes the transactions of concurrent changes fail and retry,
+        // so they see the counts as not counted
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            FeedbackSession fs = getFeedbackSessionEntityByKey(pm, feedbackSession);
+            if (fs != null) {
+                fs.setExpectedStudentRespondentCount(null);
+                fs.setExpectedInstructorRespondentCount(null);
+            }
+        } finally {
+            pm.close();
+        }
+    }
     
+    /**
+     * Records {@code version} as the version of the last results snapshot started for the session.
+     */
+    public void updateResultsSnapshotVersion(String feedbackSessionName, String courseId, long version) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            FeedbackSession fs = getFeedbackSessionEntityByKey(pm, feedbackSessionName, courseId);
+            if (fs != null) {
+                fs.setResultsSnapshotVersion(version);
+            }
+        } finally {
+            pm.close();
+        }
+    }
+
     public void deleteFeedbackSessionsForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
@@ -503,6 +700,20 @@ public class FeedbackSessionsDb extends EntitiesDb {
         deleteFeedbackSessionsForCourses(courseIds);
     }
     
+    /**
+     * Deletes at most {@code limit} sessions of the course.
+     * @return the number of sessions deleted; 0 if the course has no sessions left
+     */
+    public int deleteFeedbackSessionsForCourse(String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<FeedbackSession> feedbackSessionList = getEntitiesForCourse(FeedbackSession.class, courseId, limit);
+        
+        getPm().deletePersistentAll(feedbackSessionList);
+        getPm().flush();
+        return feedbackSessionList.size();
+    }
+    
     public void deleteFeedbackSessionsForCourses(List<String> courseIds) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
@@ -592,11 +803,33 @@ public class FeedbackSessionsDb extends EntitiesDb {
         List<FeedbackSession> feedbackSessionList =
                 (List<FeedbackSession>) q.execute(feedbackSessionName, courseId);
         
-        if (feedbackSessionList.isEmpty() || JDOHelper.isDeleted(feedbackSessionList.get(0))) {
+        FeedbackSession feedbackSession = null;
+        if (!feedbackSessionList.isEmpty() && !JDOHelper.isDeleted(feedbackSessionList.get(0))) {
+            feedbackSession = feedbackSessionList.get(0);
+        }
+        return RecentWrites.resolve(FeedbackSessionAttributes.class, feedbackSessionName + "/" + courseId,
+                                    feedbackSession);
+    }
+
+    /**
+     * Gets the session by its key, which unlike a query is strongly consistent and can be done in a transaction.
+     */
+    private FeedbackSession getFeedbackSessionEntityByKey(PersistenceManager pm,
+                                                          FeedbackSessionAttributes feedbackSession) {
+        return getFeedbackSessionEntityByKey(pm, feedbackSession.getFeedbackSessionName(),
+                                             feedbackSession.getCourseId());
+    }
+
+    private FeedbackSession getFeedbackSessionEntityByKey(PersistenceManager pm, String feedbackSessionName,
+                                                          String courseId) {
+        try {
+            Key key = KeyFactory.createKey(FeedbackSession.class.getSimpleName(),
+                                           feedbackSessionName + "%" + courseId);
+            FeedbackSession fs = pm.getObjectById(FeedbackSession.class, key);
+            return JDOHelper.isDeleted(fs) ? null : fs;
+        } catch (JDOObjectNotFoundException e) {
             return null;
         }
-    
-        return feedbackSessionList.get(0);
     }
 
     @Override
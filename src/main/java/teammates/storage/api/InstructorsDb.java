@@ -16,10 +16,10 @@ import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
-import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
 import teammates.common.util.ThreadHelper;
+import teammates.storage.datastore.RecentWrites;
 import teammates.storage.entity.Instructor;
 import teammates.storage.search.InstructorSearchDocument;
 import teammates.storage.search.InstructorSearchQuery;
@@ -218,11 +218,18 @@ public class InstructorsDb extends EntitiesDb {
      * 
      * @return empty list if no matching objects.
      */
-    public List<InstructorAttributes> getInstructorsForGoogleId(String googleId, boolean omitArchived) {
+    public List<InstructorAttributes> getInstructorsForGoogleId(final String googleId, final boolean omitArchived) {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleId);
         
-        List<Instructor> instructorList = getInstructorEntitiesForGoogleId(googleId, omitArchived);
+        List<Instructor> instructorList = RecentWrites.resolveAll(InstructorAttributes.class,
+                getInstructorEntitiesForGoogleId(googleId, omitArchived), new RecentWrites.QueryFilter<Instructor>() {
+                    @Override
+                    public boolean matches(Instructor instructor) {
+                        return googleId.equals(instructor.getGoogleId())
+                               && !(omitArchived && Boolean.TRUE.equals(instructor.getIsArchived()));
+                    }
+                });
         
         List<InstructorAttributes> instructorDataList = new ArrayList<InstructorAttributes>();
         for (Instructor i : instructorList) {
@@ -239,11 +246,17 @@ public class InstructorsDb extends EntitiesDb {
      *  * All parameters are non-null.
      * @return empty list if no matching objects.
      */
-    public List<InstructorAttributes> getInstructorsForCourse(String courseId) {
+    public List<InstructorAttributes> getInstructorsForCourse(final String courseId) {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
-        List<Instructor> instructorList = getInstructorEntitiesForCourse(courseId);
+        List<Instructor> instructorList = RecentWrites.resolveAll(InstructorAttributes.class,
+                getInstructorEntitiesForCourse(courseId), new RecentWrites.QueryFilter<Instructor>() {
+                    @Override
+                    public boolean matches(Instructor instructor) {
+                        return courseId.equals(instructor.getCourseId());
+                    }
+                });
         
         List<InstructorAttributes> instructorDataList = new ArrayList<InstructorAttributes>();
         for (Instructor i : instructorList) {
@@ -255,6 +268,26 @@ public class InstructorsDb extends EntitiesDb {
         return instructorDataList;
     }
     
+    /**
+     * Gets the instructors of the given courses, querying up to {@value #MAX_IN_FILTER_VALUES} courses at a time.
+     * @return empty list if none found.
+     */
+    public List<InstructorAttributes> getInstructorsForCourses(List<String> courseIds) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
+        
+        List<InstructorAttributes> instructorDataList = new ArrayList<InstructorAttributes>();
+        for (List<String> batch : splitIntoInFilterBatches(courseIds)) {
+            for (Instructor i : getInstructorEntitiesForCourses(batch)) {
+                if (!JDOHelper.isDeleted(i)) {
+                    instructorDataList.add(new InstructorAttributes(i));
+                }
+            }
+        }
+        
+        return instructorDataList;
+    }
+    
     /**
      * Not scalable. Don't use unless for admin features.
      * @return {@code InstructorAttributes} objects for all instructor
@@ -368,28 +401,13 @@ public class InstructorsDb extends EntitiesDb {
             return;
         }
         
-        deleteDocument(new InstructorAttributes(instructorToDelete));
+        InstructorAttributes instructorAttributesToDelete = new InstructorAttributes(instructorToDelete);
+        deleteDocument(instructorAttributesToDelete);
 
         getPm().deletePersistent(instructorToDelete);
         getPm().flush();
-  
-        // Check delete operation persisted
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Instructor instructorCheck = getInstructorEntityForEmail(courseId, email);
-            while (instructorCheck != null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                instructorCheck = getInstructorEntityForEmail(courseId, email);
-                elapsedTime += ThreadHelper.WAIT_DURATION;
-            }
-            if (elapsedTime == Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: deleteInstructor->"
-                        + email);
-                                
-            }
-        }
-        
+        RecentWrites.recordDeletion(instructorAttributesToDelete, instructorToDelete);
+
         Instructor instructorCheck = getInstructorEntityForEmail(courseId, email);
         if (instructorCheck != null) {
             putDocument(new InstructorAttributes(instructorCheck));
@@ -475,12 +493,11 @@ public class InstructorsDb extends EntitiesDb {
         @SuppressWarnings("unchecked")
         List<Instructor> instructorList = (List<Instructor>) q.execute(courseId, email);
         
-        if (instructorList.isEmpty()
-                || JDOHelper.isDeleted(instructorList.get(0))) {
-            return null;
+        Instructor instructor = null;
+        if (!instructorList.isEmpty() && !JDOHelper.isDeleted(instructorList.get(0))) {
+            instructor = instructorList.get(0);
         }
-
-        return instructorList.get(0);
+        return RecentWrites.resolve(InstructorAttributes.class, courseId + "/" + email, instructor);
     }
     
     private List<Instructor> getInstructorEntitiesForCourses(List<String> courseIds) {
@@ -101,13 +101,14 @@ public class ProfilesDb extends EntitiesDb {
         
         if (hasNewNonEmptyPictureKey) {
             profileToUpdate.setPictureKey(new BlobKey(newSpa.pictureKey));
+            profileToUpdate.setPictureThumbnailKey(new BlobKey(newSpa.pictureThumbnailKey));
         }
     }
     
     /**
      * Udates the pictureKey of the profile with given GoogleId.
      * Deletes existing picture if key is different and updates
-     * modifiedDate
+     * modifiedDate. The profile is left without a thumbnail.
      * 
      * @param googleId
      * @param newPictureKey
@@ -116,19 +117,47 @@ public class ProfilesDb extends EntitiesDb {
     
     public void updateStudentProfilePicture(String googleId,
             String newPictureKey) throws EntityDoesNotExistException {
+        updateStudentProfilePicture(googleId, newPictureKey, "");
+    }
+
+    /**
+     * Udates the pictureKey and the key of the thumbnail of the picture of the profile with given GoogleId.
+     * The thumbnail may be the picture itself, or empty if there is none.
+     * Deletes the existing picture and thumbnail if they are no longer used and updates modifiedDate.
+     */
+    public void updateStudentProfilePicture(String googleId, String newPictureKey, String newThumbnailKey)
+            throws EntityDoesNotExistException {
         
         validateParametersForUpdatePicture(googleId, newPictureKey);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newThumbnailKey);
         StudentProfile profileToUpdate = getCurrentProfileFromDb(googleId);
+        BlobKey oldPictureKey = profileToUpdate.getPictureKey();
+        BlobKey oldThumbnailKey = profileToUpdate.getPictureThumbnailKey();
         
         boolean hasNewNonEmptyPictureKey = !newPictureKey.isEmpty()
-                && !newPictureKey.equals(profileToUpdate.getPictureKey().getKeyString());
+                && !newPictureKey.equals(oldPictureKey.getKeyString());
+        boolean hasNewThumbnailKey = !newThumbnailKey.equals(oldThumbnailKey.getKeyString());
         
-        if (hasNewNonEmptyPictureKey) {
+        if (hasNewNonEmptyPictureKey || hasNewThumbnailKey) {
             profileToUpdate.setPictureKey(new BlobKey(newPictureKey));
+            profileToUpdate.setPictureThumbnailKey(new BlobKey(newThumbnailKey));
             profileToUpdate.setModifiedDate(new Date());
         }
         
         closePm();
+        
+        // deleted only after the profile no longer refers to them
+        deletePictureIfUnused(oldPictureKey, newPictureKey, newThumbnailKey);
+        if (!oldThumbnailKey.equals(oldPictureKey)) {
+            deletePictureIfUnused(oldThumbnailKey, newPictureKey, newThumbnailKey);
+        }
+    }
+
+    private void deletePictureIfUnused(BlobKey key, String newPictureKey, String newThumbnailKey) {
+        String keyString = key.getKeyString();
+        if (!keyString.isEmpty() && !keyString.equals(newPictureKey) && !keyString.equals(newThumbnailKey)) {
+            deletePicture(key);
+        }
     }
 
     private void validateParametersForUpdatePicture(String googleId,
@@ -152,7 +181,12 @@ public class ProfilesDb extends EntitiesDb {
         
         if (!sp.getPictureKey().equals(new BlobKey(""))) {
             deletePicture(sp.getPictureKey());
+            if (!sp.getPictureThumbnailKey().equals(new BlobKey(""))
+                    && !sp.getPictureThumbnailKey().equals(sp.getPictureKey())) {
+                deletePicture(sp.getPictureThumbnailKey());
+            }
             sp.setPictureKey(new BlobKey(""));
+            sp.setPictureThumbnailKey(new BlobKey(""));
             sp.setModifiedDate(new Date());
         }
         
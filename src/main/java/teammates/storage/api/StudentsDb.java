@@ -8,8 +8,12 @@ import java.util.List;
 import java.util.Map;
 
 import javax.jdo.JDOHelper;
+import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
 
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
+import teammates.common.datatransfer.CourseStructureAttributes;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
@@ -19,14 +23,15 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
-import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
-import teammates.common.util.ThreadHelper;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.RecentWrites;
 import teammates.storage.entity.CourseStudent;
 import teammates.storage.search.StudentSearchDocument;
 import teammates.storage.search.StudentSearchQuery;
 
+import com.google.appengine.api.datastore.Cursor;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 
@@ -38,6 +43,9 @@ import com.google.appengine.api.search.ScoredDocument;
 public class StudentsDb extends EntitiesDb {
 
     public static final String ERROR_UPDATE_EMAIL_ALREADY_USED = "Trying to update to an email that is already used by: ";
+
+    /** Number of students read at a time when building the structure of a course from its roster. */
+    private static final int ROSTER_PAGE_SIZE = 500;
     
     public void putDocument(StudentAttributes student) {
         putDocument(Const.SearchIndex.STUDENT, new StudentSearchDocument(student));
@@ -226,12 +234,18 @@ public class StudentsDb extends EntitiesDb {
      *  * All parameters are non-null.
      * @return an empty list if no students in the course.
      */
-    public List<StudentAttributes> getStudentsForCourse(String courseId) {
+    public List<StudentAttributes> getStudentsForCourse(final String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
         List<StudentAttributes> studentDataList = new ArrayList<StudentAttributes>();
         
-        List<CourseStudent> courseStudentEntities = getCourseStudentEntitiesForCourse(courseId);
+        List<CourseStudent> courseStudentEntities = RecentWrites.resolveAll(StudentAttributes.class,
+                getCourseStudentEntitiesForCourse(courseId), new RecentWrites.QueryFilter<CourseStudent>() {
+                    @Override
+                    public boolean matches(CourseStudent student) {
+                        return courseId.equals(student.getCourseId());
+                    }
+                });
         for (CourseStudent student : courseStudentEntities) {
             if (!JDOHelper.isDeleted(student)) {
                 studentDataList.add(new StudentAttributes(student));
@@ -241,6 +255,58 @@ public class StudentsDb extends EntitiesDb {
         return studentDataList;
     }
     
+    /**
+     * Counts the students of the course with a count query, which does not read the students.<br>
+     * Preconditions: <br>
+     *  * All parameters are non-null.
+     */
+    public int getNumberOfStudentsForCourse(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        Query q = getPm().newQuery(CourseStudent.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+        q.setResult("count(this)");
+        
+        return ((Number) q.execute(courseId)).intValue();
+    }
+
+    /**
+     * Builds the structure of the course from its roster, read {@value #ROSTER_PAGE_SIZE} students at a time,
+     * each page in a persistence manager of its own, so that the students are never all held in memory.
+     * Like other roster queries, it may miss students written just before.<br>
+     * Preconditions: <br>
+     *  * All parameters are non-null.
+     */
+    @SuppressWarnings("unchecked")
+    public CourseStructureAttributes getCourseStructureFromRoster(String courseId) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+
+        CourseStructureAttributes structure = new CourseStructureAttributes(courseId);
+        Cursor endOfPageCursor = null;
+        do {
+            PersistenceManager pm = Datastore.newPersistenceManager();
+            try {
+                Query q = pm.newQuery(CourseStudent.class);
+                q.declareParameters("String courseIdParam");
+                q.setFilter("courseId == courseIdParam");
+                if (endOfPageCursor != null) {
+                    setQueryCursor(q, endOfPageCursor);
+                }
+                q.setRange(0, ROSTER_PAGE_SIZE);
+
+                List<CourseStudent> page = (List<CourseStudent>) q.execute(courseId);
+                for (CourseStudent student : page) {
+                    structure.addStudent(new StudentAttributes(student));
+                }
+                endOfPageCursor = page.size() == ROSTER_PAGE_SIZE ? JDOCursorHelper.getCursor(page) : null;
+            } finally {
+                pm.close();
+            }
+        } while (endOfPageCursor != null);
+        return structure;
+    }
+    
     /**
      * Preconditions: <br>
      *  * All parameters are non-null.
@@ -263,6 +329,39 @@ public class StudentsDb extends EntitiesDb {
         return studentDataList;
     }
 
+    /**
+     * Gets the students of the given teams with one query, for reading a large course a few teams at a time.
+     * The students are read in a persistence manager of their own, so that the students of earlier batches
+     * are not kept in the cache of the persistence manager of the thread.<br>
+     * Preconditions: <br>
+     *  * All parameters are non-null. At most 30 teams are given, the limit of the datastore for such queries.
+     * @return an empty list if the teams have no students
+     */
+    @SuppressWarnings("unchecked")
+    public List<StudentAttributes> getStudentsForTeams(String courseId, List<String> teamNames) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, teamNames);
+
+        List<StudentAttributes> studentDataList = new ArrayList<StudentAttributes>();
+        if (teamNames.isEmpty()) {
+            return studentDataList;
+        }
+
+        PersistenceManager pm = Datastore.newPersistenceManager();
+        try {
+            Query q = pm.newQuery(CourseStudent.class);
+            q.declareParameters("String courseIdParam, java.util.Collection teamNamesParam");
+            q.setFilter("courseId == courseIdParam && teamNamesParam.contains(teamName)");
+
+            for (CourseStudent student : (List<CourseStudent>) q.execute(courseId, teamNames)) {
+                studentDataList.add(new StudentAttributes(student));
+            }
+        } finally {
+            pm.close();
+        }
+        return studentDataList;
+    }
+
     /**
      *  Preconditions: <br>
      *  All parameters are non-null
@@ -461,29 +560,16 @@ public class StudentsDb extends EntitiesDb {
         CourseStudent courseStudentToDelete = getCourseStudentEntityForEmail(courseId, email);
 
         if (courseStudentToDelete != null) {
+            StudentAttributes studentToDelete = new StudentAttributes(courseStudentToDelete);
             if (hasDocument) {
-                deleteDocument(new StudentAttributes(courseStudentToDelete));
+                deleteDocument(studentToDelete);
             }
            
             getPm().deletePersistent(courseStudentToDelete);
             getPm().flush();
+            RecentWrites.recordDeletion(studentToDelete, courseStudentToDelete);
         }
     
-        // Check delete operation persisted
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            CourseStudent studentCheck = getCourseStudentEntityForEmail(courseId, email);
-            while (studentCheck != null
-                    && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                studentCheck = getCourseStudentEntityForEmail(courseId, email);
-                elapsedTime += ThreadHelper.WAIT_DURATION;
-            }
-            if (elapsedTime == Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: deleteStudent->"
-                        + courseId + "/" + email);
-            }
-        }
         //TODO: use the method in the parent class instead.
     }
 
@@ -548,6 +634,25 @@ public class StudentsDb extends EntitiesDb {
         getPm().flush();
     }
 
+    /**
+     * Deletes at most {@code limit} students of the course, together with their search documents.
+     * @return the number of students deleted; 0 if the course has no students left
+     */
+    public int deleteStudentsForCourse(String courseId, int limit) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        
+        List<CourseStudent> courseStudentList = getEntitiesForCourse(CourseStudent.class, courseId, limit);
+        String[] documentIds = new String[courseStudentList.size()];
+        for (int i = 0; i < courseStudentList.size(); i++) {
+            documentIds[i] = new StudentAttributes(courseStudentList.get(i)).key;
+        }
+        
+        deleteDocuments(Const.SearchIndex.STUDENT, documentIds);
+        getPm().deletePersistentAll(courseStudentList);
+        getPm().flush();
+        return courseStudentList.size();
+    }
+
     public void deleteStudentsForCourses(List<String> courseIds) {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
@@ -587,11 +692,11 @@ public class StudentsDb extends EntitiesDb {
         @SuppressWarnings("unchecked")
         List<CourseStudent> studentList = (List<CourseStudent>) q.execute(courseId, email);
     
-        if (studentList.isEmpty() || JDOHelper.isDeleted(studentList.get(0))) {
-            return null;
+        CourseStudent student = null;
+        if (!studentList.isEmpty() && !JDOHelper.isDeleted(studentList.get(0))) {
+            student = studentList.get(0);
         }
-    
-        return studentList.get(0);
+        return RecentWrites.resolve(StudentAttributes.class, courseId + "/" + email, student);
     }
     
     @SuppressWarnings("unchecked")
@@ -26,6 +26,8 @@ public final class Datastore {
         if (pmf == null) {
             pmf = JDOHelper
                     .getPersistenceManagerFactory("transactions-optional");
+            // null: listen to all persistent classes
+            pmf.addInstanceLifecycleListener(new EntityCountingListener(), null);
         } else {
             log.warning("Trying to initialize Datastore again");
         }
@@ -48,4 +50,25 @@ public final class Datastore {
         return pm;
     }
 
+    /**
+     * Closes the persistence manager of the current thread, if it has one, and forgets it.
+     * To be called by threads that end before the request they work for, e.g. threads running
+     * queries concurrently, as nothing else closes their persistence managers.
+     */
+    public static void closePersistenceManager() {
+        PersistenceManager pm = PER_THREAD_PM.get();
+        PER_THREAD_PM.remove();
+        if (pm != null && !pm.isClosed()) {
+            pm.close();
+        }
+    }
+
+    /**
+     * @return a new persistence manager, separate from the one of the current thread,
+     *         for work that has to run in its own datastore transaction. The caller has to close it.
+     */
+    public static PersistenceManager newPersistenceManager() {
+        return pmf.getPersistenceManager();
+    }
+
 }
@@ -1,20 +1,29 @@
 package teammates.storage.datastore;
 
 import java.io.IOException;
+import java.util.HashMap;
 
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import teammates.storage.datastore.RecentWrites.RecentWrite;
 
 //TODO: Do we really need this filter? To be reconsidered.
 /**
  * Servlet Filter to ensure that the datastore is initialized before a request
- * is processed.
+ * is processed.<br>
+ * Also opens a {@link RecentWrites} scope for the request, which is carried over
+ * to the following requests of the same session.
  */
 public final class DatastoreFilter implements javax.servlet.Filter {
 
+    private static final String RECENT_WRITES_ATTRIBUTE = "recentwrites";
+
     @Override
     public void init(FilterConfig config) {
         Datastore.initialize();
@@ -26,8 +35,35 @@ public final class DatastoreFilter implements javax.servlet.Filter {
         //There was a Datastore.finishRequest() here inside a finally clause.
         //  It was removed at 4.19 because some requests span multiple entity
         //  groups. We are not allowed to apply transactions to such requests.
-        chain.doFilter(request, response);
+        HttpSession session = getSession(request);
+        RecentWrites.beginScope(session == null ? null : getRecentWrites(session));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            HashMap<String, RecentWrite> recentWrites = RecentWrites.endScope();
+            // the session may have been created while processing the request
+            session = getSession(request);
+            if (session != null) {
+                saveRecentWrites(session, recentWrites);
+            }
+        }
+    }
+
+    private static HttpSession getSession(ServletRequest request) {
+        return request instanceof HttpServletRequest ? ((HttpServletRequest) request).getSession(false) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HashMap<String, RecentWrite> getRecentWrites(HttpSession session) {
+        return (HashMap<String, RecentWrite>) session.getAttribute(RECENT_WRITES_ATTRIBUTE);
+    }
 
+    private static void saveRecentWrites(HttpSession session, HashMap<String, RecentWrite> recentWrites) {
+        if (!recentWrites.isEmpty()) {
+            session.setAttribute(RECENT_WRITES_ATTRIBUTE, recentWrites);
+        } else if (session.getAttribute(RECENT_WRITES_ATTRIBUTE) != null) {
+            session.removeAttribute(RECENT_WRITES_ATTRIBUTE);
+        }
     }
 
     @Override
@@ -0,0 +1,41 @@
+package teammates.storage.datastore;
+
+import javax.jdo.listener.DeleteLifecycleListener;
+import javax.jdo.listener.InstanceLifecycleEvent;
+import javax.jdo.listener.LoadLifecycleListener;
+import javax.jdo.listener.StoreLifecycleListener;
+
+import teammates.common.util.RequestCosts;
+
+/**
+ * Counts the entities loaded from and stored to or deleted from the datastore
+ * towards the {@link RequestCosts} of the current request.
+ */
+final class EntityCountingListener implements LoadLifecycleListener, StoreLifecycleListener, DeleteLifecycleListener {
+
+    @Override
+    public void postLoad(InstanceLifecycleEvent event) {
+        RequestCosts.recordEntitiesRead(1);
+    }
+
+    @Override
+    public void preStore(InstanceLifecycleEvent event) {
+        // counted once stored
+    }
+
+    @Override
+    public void postStore(InstanceLifecycleEvent event) {
+        RequestCosts.recordEntitiesWritten(1);
+    }
+
+    @Override
+    public void preDelete(InstanceLifecycleEvent event) {
+        // counted once deleted
+    }
+
+    @Override
+    public void postDelete(InstanceLifecycleEvent event) {
+        RequestCosts.recordEntitiesWritten(1);
+    }
+
+}
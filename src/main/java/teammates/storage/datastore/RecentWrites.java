@@ -0,0 +1,251 @@
+package teammates.storage.datastore;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.util.Config;
+
+/**
+ * Read-your-writes overlay for the datastore.<br>
+ * Non-ancestor queries are eventually consistent, so an entity created or deleted in one request
+ * may not be reflected by queries issued shortly afterwards in the same user flow.
+ * Entities written in the current scope are remembered by identity together with their datastore keys,
+ * so that a single-entity read can be answered by a (strongly consistent) key lookup instead,
+ * and a query for several entities can be corrected for the entities written recently.<br>
+ * A scope spans a request; {@link DatastoreFilter} carries the writes over to later requests of the
+ * same HTTP session until they are older than {@link Config#PERSISTENCE_CHECK_DURATION}.
+ * Outside a scope (e.g. in remote API scripts) nothing is recorded.
+ */
+public final class RecentWrites {
+
+    private static final ThreadLocal<HashMap<String, RecentWrite>> PER_THREAD_WRITES =
+            new ThreadLocal<HashMap<String, RecentWrite>>();
+
+    private RecentWrites() {
+        // utility class
+    }
+
+    /**
+     * Starts a scope for the current thread.
+     * @param carriedOverWrites writes returned by {@link #endScope()} of an earlier scope of the same
+     *         user flow, or {@code null}
+     */
+    public static void beginScope(HashMap<String, RecentWrite> carriedOverWrites) {
+        HashMap<String, RecentWrite> writes = new HashMap<String, RecentWrite>();
+        if (carriedOverWrites != null) {
+            writes.putAll(carriedOverWrites);
+        }
+        removeExpiredWrites(writes);
+        PER_THREAD_WRITES.set(writes);
+    }
+
+    /**
+     * Ends the scope of the current thread.
+     * @return the writes which may still be invisible to queries, to be passed to the next scope
+     *         of the same user flow
+     */
+    public static HashMap<String, RecentWrite> endScope() {
+        HashMap<String, RecentWrite> writes = PER_THREAD_WRITES.get();
+        PER_THREAD_WRITES.remove();
+        if (writes == null) {
+            return new HashMap<String, RecentWrite>();
+        }
+        removeExpiredWrites(writes);
+        return writes;
+    }
+
+    /**
+     * @return the writes of the scope of the current thread, to be passed to {@link #joinScope(HashMap)}
+     *         by threads reading for the same request; {@code null} outside a scope
+     */
+    public static HashMap<String, RecentWrite> getCurrentScope() {
+        return PER_THREAD_WRITES.get();
+    }
+
+    /**
+     * Applies the writes of another thread's scope to the reads of the current thread until {@link #leaveScope()}.
+     * The current thread must not write entities, as the writes are not safe to modify from several threads.
+     * @param writes the scope as given by {@link #getCurrentScope()}, may be {@code null}
+     */
+    public static void joinScope(HashMap<String, RecentWrite> writes) {
+        if (writes != null) {
+            PER_THREAD_WRITES.set(writes);
+        }
+    }
+
+    /**
+     * Stops applying the writes of the scope joined by the current thread, without ending that scope.
+     */
+    public static void leaveScope() {
+        PER_THREAD_WRITES.remove();
+    }
+
+    /**
+     * Records that {@code entity}, identified by {@code attributes}, has just been created.
+     * The entity must have been flushed so that its key is known.
+     */
+    public static void recordCreation(EntityAttributes attributes, Object entity) {
+        recordWrite(attributes, entity, false);
+    }
+
+    /**
+     * Records that {@code entity}, identified by {@code attributes}, has just been deleted.
+     * The entity must have been flushed so that its key is known.
+     */
+    public static void recordDeletion(EntityAttributes attributes, Object entity) {
+        recordWrite(attributes, entity, true);
+    }
+
+    private static void recordWrite(EntityAttributes attributes, Object entity, boolean isDeletion) {
+        Map<String, RecentWrite> writes = PER_THREAD_WRITES.get();
+        Object objectId = JDOHelper.getObjectId(entity);
+        if (writes == null || objectId == null) {
+            return;
+        }
+        writes.put(getIdentity(attributes.getClass(), attributes.getIdentificationString()),
+                   new RecentWrite(objectId, isDeletion, System.currentTimeMillis()));
+    }
+
+    /**
+     * Applies the writes of the current scope to the result of a query for a single entity,
+     * as the query may not reflect entities created or deleted moments ago.
+     * @param queriedEntity the entity returned by the query, or {@code null} if there was none
+     * @return {@code queriedEntity} if the entity was not written recently, otherwise the entity as found
+     *         by its key ({@code null} if it no longer exists)
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> E resolve(Class<? extends EntityAttributes> attributesClass, String identificationString,
+                                E queriedEntity) {
+        Map<String, RecentWrite> writes = PER_THREAD_WRITES.get();
+        if (writes == null) {
+            return queriedEntity;
+        }
+        RecentWrite write = writes.get(getIdentity(attributesClass, identificationString));
+        if (write == null || write.isExpired()) {
+            return queriedEntity;
+        }
+        if (write.isDeletion) {
+            return null;
+        }
+        if (queriedEntity != null && write.objectId.equals(JDOHelper.getObjectId(queriedEntity))) {
+            return queriedEntity;
+        }
+        return (E) getEntity(write.objectId);
+    }
+
+    /**
+     * Applies the writes of the current scope to the result of a query for several entities
+     * (see {@link #resolve(Class, String, Object)}): entities deleted recently are removed from it,
+     * and entities created recently which match the query but are missing from it are found by their keys
+     * and added at the end.
+     * @param filter the condition of the query
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> List<E> resolveAll(Class<? extends EntityAttributes> attributesClass, List<E> queriedEntities,
+                                         QueryFilter<E> filter) {
+        Map<String, RecentWrite> writes = PER_THREAD_WRITES.get();
+        if (writes == null || writes.isEmpty()) {
+            return queriedEntities;
+        }
+
+        String identityPrefix = getIdentity(attributesClass, "");
+        Set<Object> deletedIds = new HashSet<Object>();
+        List<Object> createdIds = new ArrayList<Object>();
+        for (Map.Entry<String, RecentWrite> entry : writes.entrySet()) {
+            RecentWrite write = entry.getValue();
+            if (!entry.getKey().startsWith(identityPrefix) || write.isExpired()) {
+                continue;
+            }
+            if (write.isDeletion) {
+                deletedIds.add(write.objectId);
+            } else {
+                createdIds.add(write.objectId);
+            }
+        }
+        if (deletedIds.isEmpty() && createdIds.isEmpty()) {
+            return queriedEntities;
+        }
+
+        List<E> entities = new ArrayList<E>();
+        Set<Object> queriedIds = new HashSet<Object>();
+        for (E entity : queriedEntities) {
+            Object objectId = JDOHelper.getObjectId(entity);
+            queriedIds.add(objectId);
+            if (!deletedIds.contains(objectId)) {
+                entities.add(entity);
+            }
+        }
+        for (Object objectId : createdIds) {
+            if (queriedIds.contains(objectId)) {
+                continue;
+            }
+            E entity = (E) getEntity(objectId);
+            if (entity != null && filter.matches(entity)) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    private static Object getEntity(Object objectId) {
+        try {
+            Object entity = Datastore.getPersistenceManager().getObjectById(objectId);
+            return JDOHelper.isDeleted(entity) ? null : entity;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static String getIdentity(Class<? extends EntityAttributes> attributesClass, String identificationString) {
+        return attributesClass.getSimpleName() + ":" + identificationString;
+    }
+
+    private static void removeExpiredWrites(Map<String, RecentWrite> writes) {
+        Iterator<RecentWrite> iterator = writes.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * The condition of a query for several entities, checked against entities created recently.
+     */
+    public interface QueryFilter<E> {
+        boolean matches(E entity);
+    }
+
+    /**
+     * The key of an entity that was created or deleted recently.
+     */
+    public static class RecentWrite implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object objectId;
+        private final boolean isDeletion;
+        private final long writtenAt;
+
+        RecentWrite(Object objectId, boolean isDeletion, long writtenAt) {
+            this.objectId = objectId;
+            this.isDeletion = isDeletion;
+            this.writtenAt = writtenAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - writtenAt > Config.PERSISTENCE_CHECK_DURATION;
+        }
+    }
+
+}
@@ -31,6 +31,10 @@ public class Course {
     @Persistent
     private String timeZone;
 
+    /** Set when the course is deleted; the course is removed once all of its data has been deleted. */
+    @Persistent
+    private Boolean isDeleted;
+
     public Course(String courseId, String courseName, String courseTimeZone, Date createdAt) {
         this.setUniqueId(courseId);
         this.setName(courseName);
@@ -77,4 +81,12 @@ public class Course {
     public void setTimeZone(String timeZone) {
         this.timeZone = timeZone;
     }
+
+    public boolean isDeleted() {
+        return isDeleted != null && isDeleted;
+    }
+
+    public void setDeleted(boolean isDeleted) {
+        this.isDeleted = isDeleted;
+    }
 }
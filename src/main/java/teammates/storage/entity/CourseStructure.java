@@ -0,0 +1,46 @@
+package teammates.storage.entity;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents the sections and teams of a course, with the number of students and unregistered students
+ * in each team.<br>
+ * There is one structure per course, keyed by the course ID, kept up to date when students are enrolled,
+ * edited, registered or deleted, so that pages which only need section and team names or counts
+ * do not have to read the whole roster.
+ */
+@PersistenceCapable
+public class CourseStructure {
+
+    @PrimaryKey
+    @Persistent
+    private String courseId;
+
+    /** The sections, teams and counts as JSON, see {@code CourseStructureAttributes}. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Text structure;
+
+    public CourseStructure(String courseId, Text structure) {
+        this.courseId = courseId;
+        this.structure = structure;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Text getStructure() {
+        return structure;
+    }
+
+    public void setStructure(Text structure) {
+        this.structure = structure;
+    }
+
+}
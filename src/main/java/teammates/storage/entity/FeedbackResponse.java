@@ -1,6 +1,8 @@
 package teammates.storage.entity;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import javax.jdo.annotations.NotPersistent;
 import javax.jdo.annotations.PersistenceCapable;
@@ -55,6 +57,14 @@ public class FeedbackResponse implements StoreCallback {
     @Persistent
     private String receiverSection;
 
+    /**
+     * Contains both {@code giverSection} and {@code receiverSection} so that
+     * responses involving a section can be fetched with a single equality filter.
+     * Kept in sync with the two section fields; do not set this directly.
+     */
+    @Persistent
+    private List<String> participantSections;
+
     @Persistent
     private Text answer; //TODO: rename to responseMetaData, will require database conversion
 
@@ -76,6 +86,7 @@ public class FeedbackResponse implements StoreCallback {
         this.receiver = recipient;
         this.receiverSection = recipientSection;
         this.answer = answer;
+        updateParticipantSections();
                 
         this.feedbackResponseId = feedbackQuestionId + "%" + giverEmail + "%" + receiver;
         
@@ -137,6 +148,7 @@ public class FeedbackResponse implements StoreCallback {
 
     public void setGiverSection(String giverSection) {
         this.giverSection = giverSection;
+        updateParticipantSections();
     }
 
     public String getRecipientEmail() {
@@ -153,6 +165,25 @@ public class FeedbackResponse implements StoreCallback {
 
     public void setRecipientSection(String recipientSection) {
         this.receiverSection = recipientSection;
+        updateParticipantSections();
+    }
+
+    public List<String> getParticipantSections() {
+        return participantSections;
+    }
+
+    /**
+     * Recomputes {@code participantSections} from the giver and recipient sections.
+     */
+    public void updateParticipantSections() {
+        List<String> sections = new ArrayList<String>();
+        if (giverSection != null) {
+            sections.add(giverSection);
+        }
+        if (receiverSection != null && !receiverSection.equals(giverSection)) {
+            sections.add(receiverSection);
+        }
+        this.participantSections = sections;
     }
 
     public Text getResponseMetaData() {
@@ -188,5 +219,6 @@ public class FeedbackResponse implements StoreCallback {
     @Override
     public void jdoPreStore() {
         this.setLastUpdate(new Date());
+        this.updateParticipantSections();
     }
 }
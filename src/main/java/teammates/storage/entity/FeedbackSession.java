@@ -45,6 +45,28 @@ public class FeedbackSession {
     @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
     private Set<String> respondingStudentList;
 
+    /** The number of students expected to respond to the session. <br>
+     * The value is null if it has not been counted since the last change to the questions of the session.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Integer expectedStudentRespondentCount;
+
+    /** The number of instructors expected to respond to the session. <br>
+     * The value is null if it has not been counted since the last change to the questions of the session.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Integer expectedInstructorRespondentCount;
+
+    /** The version of the last results snapshot started for the session. <br>
+     * The value is null if no snapshot has ever been started, in which case there is no snapshot to delete
+     * when the responses or comments of the session change.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Long resultsSnapshotVersion;
+
     @Persistent
     @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
     private Text instructions;
@@ -358,6 +380,30 @@ public class FeedbackSession {
         this.respondingStudentList = studentList;
     }
 
+    public Integer getExpectedStudentRespondentCount() {
+        return expectedStudentRespondentCount;
+    }
+
+    public void setExpectedStudentRespondentCount(Integer expectedStudentRespondentCount) {
+        this.expectedStudentRespondentCount = expectedStudentRespondentCount;
+    }
+
+    public Integer getExpectedInstructorRespondentCount() {
+        return expectedInstructorRespondentCount;
+    }
+
+    public void setExpectedInstructorRespondentCount(Integer expectedInstructorRespondentCount) {
+        this.expectedInstructorRespondentCount = expectedInstructorRespondentCount;
+    }
+
+    public Long getResultsSnapshotVersion() {
+        return resultsSnapshotVersion;
+    }
+
+    public void setResultsSnapshotVersion(Long resultsSnapshotVersion) {
+        this.resultsSnapshotVersion = resultsSnapshotVersion;
+    }
+
     @Override
     public String toString() {
         return "FeedbackSession [feedbackSessionName=" + feedbackSessionName
@@ -0,0 +1,72 @@
+package teammates.storage.entity;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents a snapshot of the questions, responses and response comments of a closed feedback session,
+ * from which the results of the session are served without querying the responses and comments again.<br>
+ * There is at most one snapshot per session, keyed by {@code feedbackSessionName%courseId}. The entity only
+ * records the version of the snapshot and whether it is complete; the data itself is stored in
+ * Google Cloud Storage, in a file named after the session and the version.
+ */
+@PersistenceCapable
+public class FeedbackSessionResultsSnapshot {
+
+    // Format is feedbackSessionName%courseId
+    @PrimaryKey
+    @Persistent
+    private String snapshotId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String courseId;
+
+    /** The time the snapshot was started; a snapshot of another version is never served in its place. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Long version;
+
+    /** Whether the data of this version has been written; false while the snapshot is being built. */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Boolean isReady;
+
+    public FeedbackSessionResultsSnapshot(String feedbackSessionName, String courseId, long version,
+                                          boolean isReady) {
+        this.snapshotId = feedbackSessionName + "%" + courseId;
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.version = version;
+        this.isReady = isReady;
+    }
+
+    public String getSnapshotId() {
+        return snapshotId;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isReady() {
+        return isReady;
+    }
+
+    public void setReady(boolean isReady) {
+        this.isReady = isReady;
+    }
+
+}
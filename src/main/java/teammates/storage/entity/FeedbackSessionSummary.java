@@ -0,0 +1,110 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents the part of a {@link FeedbackSession} shown in the admin sessions page.<br>
+ * There is one summary per session, kept up to date when the session is created, edited or deleted,
+ * so that the sessions in a time range can be listed with a single query.
+ */
+@PersistenceCapable
+public class FeedbackSessionSummary {
+
+    // Format is feedbackSessionName%courseId, the same as the key of the session
+    // PMD.UnusedPrivateField and SingularField are suppressed
+    // as feedbackSessionId is persisted to the database
+    @SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+    @PrimaryKey
+    @Persistent
+    private transient String feedbackSessionId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private String creatorEmail;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date startTime;
+
+    @Persistent
+    private Date endTime;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date sessionVisibleFromTime;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date resultsVisibleFromTime;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private double timeZone;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private int gracePeriod;
+
+    public FeedbackSessionSummary(String feedbackSessionName, String courseId, String creatorEmail,
+                                  Date startTime, Date endTime, Date sessionVisibleFromTime,
+                                  Date resultsVisibleFromTime, double timeZone, int gracePeriod) {
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.feedbackSessionId = feedbackSessionName + "%" + courseId;
+        this.creatorEmail = creatorEmail;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.sessionVisibleFromTime = sessionVisibleFromTime;
+        this.resultsVisibleFromTime = resultsVisibleFromTime;
+        this.timeZone = timeZone;
+        this.gracePeriod = gracePeriod;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public String getCreatorEmail() {
+        return creatorEmail;
+    }
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    public Date getEndTime() {
+        return endTime;
+    }
+
+    public Date getSessionVisibleFromTime() {
+        return sessionVisibleFromTime;
+    }
+
+    public Date getResultsVisibleFromTime() {
+        return resultsVisibleFromTime;
+    }
+
+    public double getTimeZone() {
+        return timeZone;
+    }
+
+    public int getGracePeriod() {
+        return gracePeriod;
+    }
+
+}
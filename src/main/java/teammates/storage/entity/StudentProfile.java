@@ -59,6 +59,11 @@ public class StudentProfile {
     @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
     private BlobKey pictureKey;
 
+    /** The picture scaled down for pages listing many students; empty if there is none yet */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private BlobKey pictureThumbnailKey;
+
     @Persistent
     private Date modifiedDate;
 
@@ -93,6 +98,7 @@ public class StudentProfile {
         this.setMoreInfo(moreInfo);
         this.setModifiedDate(new Date());
         this.setPictureKey(pictureKey);
+        this.setPictureThumbnailKey(new BlobKey(""));
     }
 
     public StudentProfile(String googleId) {
@@ -104,6 +110,7 @@ public class StudentProfile {
         this.setGender("other");
         this.setMoreInfo(new Text(""));
         this.setPictureKey(new BlobKey(""));
+        this.setPictureThumbnailKey(new BlobKey(""));
         this.setModifiedDate(new Date());
     }
 
@@ -171,6 +178,15 @@ public class StudentProfile {
         this.pictureKey = pictureKey;
     }
 
+    public BlobKey getPictureThumbnailKey() {
+        // profiles saved before thumbnails were kept do not have the field
+        return this.pictureThumbnailKey == null ? new BlobKey("") : this.pictureThumbnailKey;
+    }
+
+    public void setPictureThumbnailKey(BlobKey pictureThumbnailKey) {
+        this.pictureThumbnailKey = pictureThumbnailKey;
+    }
+
     public Date getModifiedDate() {
         return this.modifiedDate;
     }
@@ -0,0 +1,90 @@
+package teammates.storage.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Logger;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Index;
+import com.google.appengine.api.search.IndexSpec;
+import com.google.appengine.api.search.PutException;
+import com.google.appengine.api.search.PutResponse;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchServiceFactory;
+import com.google.appengine.api.search.StatusCode;
+
+/**
+ * {@link SearchBackend} backed by the App Engine Search API.
+ * Codes reference:
+ * https://developers.google.com/appengine/docs/java/search/
+ */
+public class AppEngineSearchBackend implements SearchBackend {
+
+    private static final String ERROR_NON_TRANSIENT_BACKEND_ISSUE =
+            "Failed to put document %s into search index %s due to non-transient backend issue.";
+    /** Maximum number of documents the Search API deletes in one call. */
+    private static final int MAX_DELETE_BATCH_SIZE = 200;
+    private static final Logger log = Logger.getLogger();
+    private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
+
+    @Override
+    public boolean putDocument(String indexName, Document document) {
+        Index index = getIndex(indexName);
+        try {
+            PutResponse result = index.put(document);
+            return result.getResults().get(0).getCode() == StatusCode.OK;
+        } catch (PutException e) {
+            //if it's a transient error in the server, it can be re-tried
+            if (!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())) {
+                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document, indexName)
+                        + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public Document getDocument(String indexName, String documentId) {
+        return getIndex(indexName).get(documentId);
+    }
+
+    @Override
+    public Results<ScoredDocument> searchDocuments(String indexName, Query query) {
+        return getIndex(indexName).search(query);
+    }
+
+    @Override
+    public void deleteDocuments(String indexName, String... documentIds) {
+        Index index = getIndex(indexName);
+        for (int start = 0; start < documentIds.length; start += MAX_DELETE_BATCH_SIZE) {
+            int end = Math.min(start + MAX_DELETE_BATCH_SIZE, documentIds.length);
+            index.deleteAsync(Arrays.copyOfRange(documentIds, start, end));
+        }
+    }
+
+    private static Index getIndex(String indexName) {
+        Map<String, Index> indicesTable = getIndicesTable();
+        Index index = indicesTable.get(indexName);
+        if (index == null) {
+            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build();
+            index = SearchServiceFactory.getSearchService().getIndex(indexSpec);
+            indicesTable.put(indexName, index);
+        }
+        return index;
+    }
+
+    private static Map<String, Index> getIndicesTable() {
+        Map<String, Index> indicesTable = PER_THREAD_INDICES_TABLE.get();
+        if (indicesTable == null) {
+            indicesTable = new HashMap<String, Index>();
+            PER_THREAD_INDICES_TABLE.set(indicesTable);
+        }
+        return indicesTable;
+    }
+
+}
@@ -0,0 +1,103 @@
+package teammates.storage.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Logger;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * {@link SearchBackend} that keeps an inverted index of each index in memory, so that
+ * queries do not need a call to the search service.<br>
+ * If a directory is given, each index is persisted as segment files in a subdirectory of it
+ * and is reloaded from them when first used; otherwise the indexes only live as long as the instance.<br>
+ * For the development server and tests only: App Engine instances neither share memory nor write to local disk.
+ */
+public class EmbeddedSearchBackend implements SearchBackend {
+
+    private static final String ERROR_PERSIST =
+            "Failed to persist changes of search index %s; they will be lost when the index is reloaded.";
+    private static final Logger log = Logger.getLogger();
+
+    private final File directory;
+    private final Map<String, EmbeddedSearchIndex> indices = new HashMap<String, EmbeddedSearchIndex>();
+
+    /**
+     * @param directory the directory to persist the indexes in, or null to keep them in memory only
+     */
+    public EmbeddedSearchBackend(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public boolean putDocument(String indexName, Document document) {
+        try {
+            getIndex(indexName).put(document);
+            return true;
+        } catch (IOException e) {
+            log.severe(String.format(ERROR_PERSIST, indexName) + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+            return false;
+        }
+    }
+
+    @Override
+    public Document getDocument(String indexName, String documentId) {
+        return getIndex(indexName).get(documentId);
+    }
+
+    @Override
+    public Results<ScoredDocument> searchDocuments(String indexName, Query query) {
+        return getIndex(indexName).search(query);
+    }
+
+    @Override
+    public void deleteDocuments(String indexName, String... documentIds) {
+        try {
+            getIndex(indexName).delete(documentIds);
+        } catch (IOException e) {
+            log.severe(String.format(ERROR_PERSIST, indexName) + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
+
+    /**
+     * @return the number of documents in the index
+     */
+    public int getDocumentCount(String indexName) {
+        return getIndex(indexName).size();
+    }
+
+    /**
+     * @return the number of segment files of the index; 0 if it is kept in memory only
+     */
+    public int getSegmentCount(String indexName) {
+        return getIndex(indexName).getSegmentCount();
+    }
+
+    /**
+     * Rewrites the live documents of the index into a single segment.
+     */
+    public void compact(String indexName) throws IOException {
+        getIndex(indexName).compact();
+    }
+
+    private synchronized EmbeddedSearchIndex getIndex(String indexName) {
+        EmbeddedSearchIndex index = indices.get(indexName);
+        if (index == null) {
+            try {
+                index = new EmbeddedSearchIndex(directory == null ? null : new File(directory, indexName));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load search index " + indexName, e);
+            }
+            indices.put(indexName, index);
+        }
+        return index;
+    }
+
+}
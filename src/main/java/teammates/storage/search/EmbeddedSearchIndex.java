@@ -0,0 +1,573 @@
+package teammates.storage.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import teammates.common.util.Logger;
+import teammates.storage.search.EmbeddedSearchQueryParser.Clause;
+
+import com.google.appengine.api.search.Cursor;
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.QueryOptions;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.StatusCode;
+
+/**
+ * One index of the {@link EmbeddedSearchBackend}: an in-memory inverted index from
+ * (field, token) to the documents containing it, optionally persisted as segment files.<br>
+ * Every change is appended to the newest segment of the index directory; when there are
+ * more than {@link #MAX_SEGMENTS} segments, the live documents are rewritten into a single one.
+ * Segments are replayed in order when the index is opened.
+ */
+final class EmbeddedSearchIndex {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MAX_RECORDS_PER_SEGMENT = 1024;
+    private static final int DEFAULT_LIMIT = 20;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String ANY_FIELD = "*";
+    /** start of the cursors of the index, which hold the offset of the next page */
+    private static final String CURSOR_PREFIX = "embedded-offset-";
+
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_DELETE = 2;
+
+    private static final byte TYPE_TEXT = 1;
+    private static final byte TYPE_HTML = 2;
+    private static final byte TYPE_ATOM = 3;
+    private static final byte TYPE_DATE = 4;
+    private static final byte TYPE_NUMBER = 5;
+
+    private static final Logger log = Logger.getLogger();
+
+    /** null if the index is kept in memory only */
+    private final File directory;
+
+    /** documents by ordinal; the ordinal of a document changes whenever it is replaced */
+    private final List<Document> documents = new ArrayList<Document>();
+    private final Map<String, Integer> ordinals = new HashMap<String, Integer>();
+    private final BitSet liveDocuments = new BitSet();
+    private final Map<String, BitSet> postings = new HashMap<String, BitSet>();
+
+    /** segment files by their sequence number */
+    private final TreeMap<Integer, File> segments = new TreeMap<Integer, File>();
+    private int recordsInLastSegment;
+
+    EmbeddedSearchIndex(File directory) throws IOException {
+        this.directory = directory;
+        if (directory != null) {
+            open();
+        }
+    }
+
+    synchronized void put(Document document) throws IOException {
+        addToMemory(document);
+        if (directory != null) {
+            appendToLastSegment(Collections.singletonList(document), Collections.<String>emptyList());
+        }
+    }
+
+    synchronized Document get(String documentId) {
+        Integer ordinal = ordinals.get(documentId);
+        return ordinal == null ? null : documents.get(ordinal);
+    }
+
+    synchronized void delete(String... documentIds) throws IOException {
+        List<String> deletedIds = new ArrayList<String>();
+        for (String documentId : documentIds) {
+            if (removeFromMemory(documentId)) {
+                deletedIds.add(documentId);
+            }
+        }
+        if (directory != null && !deletedIds.isEmpty()) {
+            appendToLastSegment(Collections.<Document>emptyList(), deletedIds);
+        }
+    }
+
+    synchronized int size() {
+        return ordinals.size();
+    }
+
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Runs the query and returns one page of the matching documents.<br>
+     * Documents are ordered by descending match score if the query has a match scorer,
+     * then by descending rank. The cursor of the results points to the next page.
+     */
+    synchronized Results<ScoredDocument> search(Query query) {
+        final Clause clause = EmbeddedSearchQueryParser.parse(query.getQueryString());
+        QueryOptions options = query.getOptions();
+        boolean isScored = options != null && options.getSortOptions() != null
+                           && options.getSortOptions().getMatchScorer() != null;
+
+        BitSet matches = clause.match(this);
+        matches.and(liveDocuments);
+        List<int[]> hits = new ArrayList<int[]>(matches.cardinality());
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            hits.add(new int[] {ordinal, isScored ? clause.score(this, ordinal) : 0});
+        }
+        Collections.sort(hits, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] hit1, int[] hit2) {
+                if (hit1[1] != hit2[1]) {
+                    return Integer.compare(hit2[1], hit1[1]);
+                }
+                Document document1 = documents.get(hit1[0]);
+                Document document2 = documents.get(hit2[0]);
+                if (document1.getRank() != document2.getRank()) {
+                    return Integer.compare(document2.getRank(), document1.getRank());
+                }
+                return document1.getId().compareTo(document2.getId());
+            }
+        });
+
+        int limit = options == null ? DEFAULT_LIMIT : options.getLimit();
+        int offset = options == null ? 0 : options.getOffset() + getCursorOffset(options.getCursor());
+        List<ScoredDocument> page = new ArrayList<ScoredDocument>();
+        for (int i = offset; i < hits.size() && i < offset + limit; i++) {
+            page.add(toScoredDocument(documents.get(hits.get(i)[0]), hits.get(i)[1], isScored));
+        }
+        Cursor nextCursor = offset + limit < hits.size()
+                          ? Cursor.newBuilder().build(CURSOR_PREFIX + (offset + limit))
+                          : null;
+        return new EmbeddedSearchResults(page, hits.size(), nextCursor);
+    }
+
+    /*
+     * Methods used by the query clauses
+     */
+
+    /**
+     * @return the live documents containing the token in the field, or in any field if field is null
+     */
+    BitSet getPostings(String field, String token) {
+        BitSet documentsWithToken = postings.get(getPostingKey(field == null ? ANY_FIELD : field, token));
+        if (documentsWithToken == null) {
+            return new BitSet();
+        }
+        BitSet liveDocumentsWithToken = (BitSet) documentsWithToken.clone();
+        liveDocumentsWithToken.and(liveDocuments);
+        return liveDocumentsWithToken;
+    }
+
+    BitSet getLiveDocuments() {
+        return (BitSet) liveDocuments.clone();
+    }
+
+    /**
+     * @return the number of times the tokens occur consecutively in the field, or in any field if field is null
+     */
+    int countPhrase(int ordinal, String field, List<String> tokens) {
+        Document document = documents.get(ordinal);
+        int count = 0;
+        for (Field documentField : getFields(document, field)) {
+            String text = getText(documentField);
+            if (text == null) {
+                continue;
+            }
+            List<String> fieldTokens = tokenize(text);
+            for (int start = 0; start + tokens.size() <= fieldTokens.size(); start++) {
+                if (fieldTokens.subList(start, start + tokens.size()).equals(tokens)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param value a date in the format of {@link EmbeddedSearchQueryParser#formatDate} or a number
+     * @return the result of comparing the field of the document with the value,
+     *         or null if the document has no date or number field with that name
+     */
+    Integer compareFieldValue(int ordinal, String field, Object value) {
+        for (Field documentField : getFields(documents.get(ordinal), field)) {
+            if (documentField.getType() == Field.FieldType.DATE && value instanceof String) {
+                return EmbeddedSearchQueryParser.formatDate(documentField.getDate()).compareTo((String) value);
+            }
+            if (documentField.getType() == Field.FieldType.NUMBER && value instanceof Double) {
+                return documentField.getNumber().compareTo((Double) value);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the fields of the document with the name, or all its fields if the name is null
+     */
+    private static Iterable<Field> getFields(Document document, String field) {
+        if (field == null) {
+            return document.getFields();
+        }
+        Iterable<Field> fields = document.getFields(field);
+        return fields == null ? Collections.<Field>emptyList() : fields;
+    }
+
+    /**
+     * Splits text into lower-case tokens of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<String>();
+        String lowerCaseText = text.toLowerCase(Locale.ENGLISH);
+        int start = -1;
+        for (int i = 0; i <= lowerCaseText.length(); i++) {
+            boolean isTokenCharacter = i < lowerCaseText.length() && Character.isLetterOrDigit(lowerCaseText.charAt(i));
+            if (isTokenCharacter && start < 0) {
+                start = i;
+            } else if (!isTokenCharacter && start >= 0) {
+                tokens.add(lowerCaseText.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /*
+     * In-memory index
+     */
+
+    private void addToMemory(Document document) {
+        removeFromMemory(document.getId());
+        int ordinal = documents.size();
+        documents.add(document);
+        ordinals.put(document.getId(), ordinal);
+        liveDocuments.set(ordinal);
+        for (Field field : document.getFields()) {
+            String text = getText(field);
+            if (text == null) {
+                continue;
+            }
+            for (String token : tokenize(text)) {
+                addPosting(getPostingKey(field.getName(), token), ordinal);
+                addPosting(getPostingKey(ANY_FIELD, token), ordinal);
+            }
+        }
+    }
+
+    private boolean removeFromMemory(String documentId) {
+        Integer ordinal = ordinals.remove(documentId);
+        if (ordinal == null) {
+            return false;
+        }
+        // postings of removed documents are only dropped when the index is rebuilt
+        liveDocuments.clear(ordinal);
+        documents.set(ordinal, null);
+        if (documents.size() > 2 * ordinals.size() + MAX_RECORDS_PER_SEGMENT) {
+            rebuildMemory();
+        }
+        return true;
+    }
+
+    private void rebuildMemory() {
+        List<Document> liveDocumentList = getLiveDocumentList();
+        documents.clear();
+        ordinals.clear();
+        liveDocuments.clear();
+        postings.clear();
+        for (Document document : liveDocumentList) {
+            addToMemory(document);
+        }
+    }
+
+    private List<Document> getLiveDocumentList() {
+        List<Document> liveDocumentList = new ArrayList<Document>(ordinals.size());
+        for (int ordinal = liveDocuments.nextSetBit(0); ordinal >= 0; ordinal = liveDocuments.nextSetBit(ordinal + 1)) {
+            liveDocumentList.add(documents.get(ordinal));
+        }
+        return liveDocumentList;
+    }
+
+    private void addPosting(String key, int ordinal) {
+        BitSet documentsWithToken = postings.get(key);
+        if (documentsWithToken == null) {
+            documentsWithToken = new BitSet();
+            postings.put(key, documentsWithToken);
+        }
+        documentsWithToken.set(ordinal);
+    }
+
+    private static String getPostingKey(String field, String token) {
+        return field + ":" + token;
+    }
+
+    /**
+     * @return the searchable text of the field, or null if it is not a text field
+     */
+    private static String getText(Field field) {
+        switch (field.getType()) {
+        case TEXT:
+            return field.getText();
+        case HTML:
+            return field.getHTML();
+        case ATOM:
+            return field.getAtom();
+        default:
+            return null;
+        }
+    }
+
+    /*
+     * Segment files
+     */
+
+    private void open() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create search index directory " + directory);
+        }
+        File[] files = directory.listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            String name = file.getName();
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                int number = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                                                             name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(number, file);
+            }
+        }
+        for (File segment : segments.values()) {
+            recordsInLastSegment = readSegment(segment);
+        }
+    }
+
+    /**
+     * Replays the records of the segment on the in-memory index.
+     * @return the number of records read
+     */
+    private int readSegment(File segment) throws IOException {
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new BufferedInputStream(new FileInputStream(segment))))) {
+            while (true) {
+                byte recordType;
+                try {
+                    recordType = in.readByte();
+                } catch (EOFException e) {
+                    return records;
+                }
+                if (recordType == RECORD_PUT) {
+                    addToMemory(readDocument(in));
+                } else if (recordType == RECORD_DELETE) {
+                    removeFromMemory(readString(in));
+                } else {
+                    throw new IOException("Unknown record type " + recordType + " in " + segment);
+                }
+                records++;
+            }
+        } catch (EOFException e) {
+            // the last change was not completely written, e.g. because the server was stopped
+            log.warning("Ignoring incomplete record " + records + " in search index segment " + segment);
+            return records;
+        }
+    }
+
+    private void appendToLastSegment(List<Document> puts, List<String> deletes) throws IOException {
+        if (segments.isEmpty() || recordsInLastSegment >= MAX_RECORDS_PER_SEGMENT) {
+            int number = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+            segments.put(number, getSegmentFile(number));
+            recordsInLastSegment = 0;
+        }
+        // each append is a separate gzip member; GZIPInputStream reads concatenated members as one stream
+        writeRecords(segments.lastEntry().getValue(), true, puts, deletes);
+        recordsInLastSegment += puts.size() + deletes.size();
+
+        if (segments.size() > MAX_SEGMENTS) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the live documents into a single new segment and removes the older segments.
+     */
+    synchronized void compact() throws IOException {
+        if (directory == null) {
+            rebuildMemory();
+            return;
+        }
+        int number = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+        File temporaryFile = new File(directory, SEGMENT_PREFIX + number + ".tmp");
+        List<Document> liveDocumentList = getLiveDocumentList();
+        writeRecords(temporaryFile, false, liveDocumentList, Collections.<String>emptyList());
+        File compactedSegment = getSegmentFile(number);
+        if (!temporaryFile.renameTo(compactedSegment)) {
+            throw new IOException("Cannot rename " + temporaryFile + " to " + compactedSegment);
+        }
+        for (File segment : segments.values()) {
+            if (!segment.delete()) {
+                log.warning("Cannot delete compacted search index segment " + segment);
+            }
+        }
+        segments.clear();
+        segments.put(number, compactedSegment);
+        recordsInLastSegment = liveDocumentList.size();
+        rebuildMemory();
+    }
+
+    private File getSegmentFile(int number) {
+        return new File(directory, SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    private static void writeRecords(File file, boolean isAppend, List<Document> puts, List<String> deletes)
+            throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file, isAppend))))) {
+            for (Document document : puts) {
+                out.writeByte(RECORD_PUT);
+                writeDocument(out, document);
+            }
+            for (String documentId : deletes) {
+                out.writeByte(RECORD_DELETE);
+                writeString(out, documentId);
+            }
+        }
+    }
+
+    private static void writeDocument(DataOutputStream out, Document document) throws IOException {
+        writeString(out, document.getId());
+        out.writeInt(document.getRank());
+        List<Field> fields = new ArrayList<Field>();
+        for (Field field : document.getFields()) {
+            if (field.getType() != Field.FieldType.GEO_POINT) {
+                fields.add(field);
+            }
+        }
+        out.writeInt(fields.size());
+        for (Field field : fields) {
+            writeString(out, field.getName());
+            switch (field.getType()) {
+            case DATE:
+                out.writeByte(TYPE_DATE);
+                out.writeLong(field.getDate().getTime());
+                break;
+            case NUMBER:
+                out.writeByte(TYPE_NUMBER);
+                out.writeDouble(field.getNumber());
+                break;
+            case HTML:
+                out.writeByte(TYPE_HTML);
+                writeString(out, field.getHTML());
+                break;
+            case ATOM:
+                out.writeByte(TYPE_ATOM);
+                writeString(out, field.getAtom());
+                break;
+            default:
+                out.writeByte(TYPE_TEXT);
+                writeString(out, field.getText());
+                break;
+            }
+        }
+    }
+
+    private static Document readDocument(DataInputStream in) throws IOException {
+        Document.Builder builder = Document.newBuilder().setId(readString(in)).setRank(in.readInt());
+        int fieldCount = in.readInt();
+        for (int i = 0; i < fieldCount; i++) {
+            Field.Builder field = Field.newBuilder().setName(readString(in));
+            byte fieldType = in.readByte();
+            switch (fieldType) {
+            case TYPE_DATE:
+                field.setDate(new Date(in.readLong()));
+                break;
+            case TYPE_NUMBER:
+                field.setNumber(in.readDouble());
+                break;
+            case TYPE_HTML:
+                field.setHTML(readString(in));
+                break;
+            case TYPE_ATOM:
+                field.setAtom(readString(in));
+                break;
+            case TYPE_TEXT:
+                field.setText(readString(in));
+                break;
+            default:
+                throw new IOException("Unknown field type " + fieldType);
+            }
+            builder.addField(field);
+        }
+        return builder.build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // writeUTF is limited to 64KB, which searchable text of a long response can exceed
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ScoredDocument toScoredDocument(Document document, int score, boolean isScored) {
+        ScoredDocument.Builder builder = ScoredDocument.newBuilder();
+        builder.setId(document.getId());
+        builder.setRank(document.getRank());
+        for (Field field : document.getFields()) {
+            builder.addField(field);
+        }
+        if (isScored) {
+            builder.addScore(score);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the offset held by a cursor of the index; 0 for the cursor of the first page
+     *         and cursors not issued by the index
+     */
+    private static int getCursorOffset(Cursor cursor) {
+        String cursorString = cursor == null ? null : cursor.toWebSafeString();
+        int prefixStart = cursorString == null ? -1 : cursorString.indexOf(CURSOR_PREFIX);
+        if (prefixStart < 0) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(cursorString.substring(prefixStart + CURSOR_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Search results of an embedded index, in the form returned by the App Engine Search API.
+     */
+    private static class EmbeddedSearchResults extends Results<ScoredDocument> {
+
+        private static final long serialVersionUID = 1L;
+
+        EmbeddedSearchResults(List<ScoredDocument> page, int numberFound, Cursor nextCursor) {
+            super(new OperationResult(StatusCode.OK, null), page, numberFound, page.size(), nextCursor);
+        }
+    }
+
+}
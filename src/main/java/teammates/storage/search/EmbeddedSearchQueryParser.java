@@ -0,0 +1,377 @@
+package teammates.storage.search;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import com.google.appengine.api.search.SearchQueryException;
+
+/**
+ * Parses the query strings built by {@link SearchQuery} into clauses that can be
+ * evaluated against an {@link EmbeddedSearchIndex}.<br>
+ * Supported syntax (a subset of the App Engine Search API query language):
+ * <br> * terms and quoted phrases, optionally restricted to a field, e.g. {@code searchableText:"alice tan"}
+ * <br> * {@code AND}, {@code OR}, {@code NOT} and implicit {@code AND}, with parentheses,
+ *        e.g. {@code courseId:(CS1101 OR CS2103)}
+ * <br> * comparisons of date and number fields, e.g. {@code 2015-01-01 <= createdDate}
+ */
+final class EmbeddedSearchQueryParser {
+
+    private static final String DATE_FORMAT = "yyyy-MM-dd";
+
+    private final List<String> tokens;
+    private int position;
+
+    private EmbeddedSearchQueryParser(String queryString) {
+        this.tokens = lex(queryString);
+    }
+
+    /**
+     * @throws SearchQueryException if the query string cannot be parsed
+     */
+    static Clause parse(String queryString) {
+        EmbeddedSearchQueryParser parser = new EmbeddedSearchQueryParser(queryString);
+        if (parser.tokens.isEmpty()) {
+            return new MatchAllClause();
+        }
+        Clause clause = parser.parseOr(null);
+        if (parser.position < parser.tokens.size()) {
+            throw new SearchQueryException("Unexpected '" + parser.tokens.get(parser.position)
+                                           + "' in query: " + queryString);
+        }
+        return clause;
+    }
+
+    /**
+     * Formats a date the way it is written in queries; dates are compared at day precision.
+     */
+    static String formatDate(Date date) {
+        return getDateFormat().format(date);
+    }
+
+    private Clause parseOr(String field) {
+        List<Clause> clauses = new ArrayList<Clause>();
+        clauses.add(parseAnd(field));
+        while ("OR".equals(peek())) {
+            position++;
+            clauses.add(parseAnd(field));
+        }
+        return clauses.size() == 1 ? clauses.get(0) : new OrClause(clauses);
+    }
+
+    private Clause parseAnd(String field) {
+        List<Clause> clauses = new ArrayList<Clause>();
+        while (peek() != null && !")".equals(peek()) && !"OR".equals(peek())) {
+            if ("AND".equals(peek())) {
+                position++;
+                continue;
+            }
+            clauses.add(parseUnary(field));
+        }
+        if (clauses.isEmpty()) {
+            throw new SearchQueryException("Missing search term at position " + position);
+        }
+        return clauses.size() == 1 ? clauses.get(0) : new AndClause(clauses);
+    }
+
+    private Clause parseUnary(String field) {
+        if ("NOT".equals(peek())) {
+            position++;
+            return new NotClause(parseUnary(field));
+        }
+        return parsePrimary(field);
+    }
+
+    private Clause parsePrimary(String field) {
+        String token = next();
+        if ("(".equals(token)) {
+            Clause clause = parseOr(field);
+            expect(")");
+            return clause;
+        }
+        if (isPhrase(token)) {
+            return new TermClause(field, EmbeddedSearchIndex.tokenize(token.substring(1, token.length() - 1)));
+        }
+        if (":".equals(peek())) {
+            position++;
+            return parsePrimary(token);
+        }
+        if (isComparator(peek())) {
+            return parseComparison(token, next(), next());
+        }
+        if (isOperator(token)) {
+            throw new SearchQueryException("Unexpected '" + token + "' at position " + position);
+        }
+        return new TermClause(field, EmbeddedSearchIndex.tokenize(token));
+    }
+
+    private Clause parseComparison(String left, String comparator, String right) {
+        if (right == null) {
+            throw new SearchQueryException("Missing value after " + comparator);
+        }
+        if (parseValue(left) != null) {
+            // value <= field is written as field >= value
+            return new CompareClause(right, flip(comparator), parseValue(left));
+        }
+        Comparable<?> value = parseValue(right);
+        if (value == null) {
+            throw new SearchQueryException("Cannot compare " + left + " with " + right);
+        }
+        return new CompareClause(left, comparator, value);
+    }
+
+    private static Comparable<?> parseValue(String token) {
+        try {
+            getDateFormat().parse(token);
+            return token;
+        } catch (ParseException e) {
+            try {
+                return Double.valueOf(token);
+            } catch (NumberFormatException nfe) {
+                return null;
+            }
+        }
+    }
+
+    private static String flip(String comparator) {
+        if (comparator.startsWith("<")) {
+            return ">" + comparator.substring(1);
+        } else if (comparator.startsWith(">")) {
+            return "<" + comparator.substring(1);
+        }
+        return comparator;
+    }
+
+    private String peek() {
+        return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private String next() {
+        String token = peek();
+        if (token == null) {
+            throw new SearchQueryException("Unexpected end of query");
+        }
+        position++;
+        return token;
+    }
+
+    private void expect(String expected) {
+        if (!expected.equals(next())) {
+            throw new SearchQueryException("Expected '" + expected + "' at position " + position);
+        }
+    }
+
+    private static boolean isPhrase(String token) {
+        return token.length() >= 2 && token.charAt(0) == '"';
+    }
+
+    private static boolean isComparator(String token) {
+        return token != null && !token.isEmpty() && "<>=".indexOf(token.charAt(0)) >= 0;
+    }
+
+    private static boolean isOperator(String token) {
+        return ")".equals(token) || ":".equals(token) || isComparator(token);
+    }
+
+    private static List<String> lex(String queryString) {
+        List<String> tokens = new ArrayList<String>();
+        int i = 0;
+        while (i < queryString.length()) {
+            char c = queryString.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')' || c == ':') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int end = queryString.indexOf('"', i + 1);
+                end = end < 0 ? queryString.length() : end;
+                tokens.add("\"" + queryString.substring(i + 1, end) + "\"");
+                i = end + 1;
+            } else if ("<>=".indexOf(c) >= 0) {
+                int end = i + 1 < queryString.length() && queryString.charAt(i + 1) == '=' ? i + 2 : i + 1;
+                tokens.add(queryString.substring(i, end));
+                i = end;
+            } else {
+                int end = i;
+                while (end < queryString.length() && !Character.isWhitespace(queryString.charAt(end))
+                        && "():\"<>=".indexOf(queryString.charAt(end)) < 0) {
+                    end++;
+                }
+                tokens.add(queryString.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private static SimpleDateFormat getDateFormat() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        dateFormat.setLenient(false);
+        return dateFormat;
+    }
+
+    /**
+     * A parsed query, or a part of it.
+     */
+    abstract static class Clause {
+
+        /**
+         * @return the live documents matching this clause
+         */
+        abstract BitSet match(EmbeddedSearchIndex index);
+
+        /**
+         * @return how often the terms of this clause occur in the document, used to rank results
+         */
+        int score(EmbeddedSearchIndex index, int document) {
+            return 0;
+        }
+    }
+
+    private static class MatchAllClause extends Clause {
+        @Override
+        BitSet match(EmbeddedSearchIndex index) {
+            return index.getLiveDocuments();
+        }
+    }
+
+    private static class TermClause extends Clause {
+        private final String field;
+        private final List<String> terms;
+
+        TermClause(String field, List<String> terms) {
+            this.field = field;
+            this.terms = terms;
+        }
+
+        @Override
+        BitSet match(EmbeddedSearchIndex index) {
+            if (terms.isEmpty()) {
+                return new BitSet();
+            }
+            BitSet matches = index.getPostings(field, terms.get(0));
+            for (int i = 1; i < terms.size(); i++) {
+                matches.and(index.getPostings(field, terms.get(i)));
+            }
+            if (terms.size() > 1) {
+                for (int document = matches.nextSetBit(0); document >= 0; document = matches.nextSetBit(document + 1)) {
+                    if (index.countPhrase(document, field, terms) == 0) {
+                        matches.clear(document);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        @Override
+        int score(EmbeddedSearchIndex index, int document) {
+            return terms.isEmpty() ? 0 : index.countPhrase(document, field, terms);
+        }
+    }
+
+    private static class AndClause extends Clause {
+        private final List<Clause> clauses;
+
+        AndClause(List<Clause> clauses) {
+            this.clauses = clauses;
+        }
+
+        @Override
+        BitSet match(EmbeddedSearchIndex index) {
+            BitSet matches = clauses.get(0).match(index);
+            for (int i = 1; i < clauses.size() && !matches.isEmpty(); i++) {
+                matches.and(clauses.get(i).match(index));
+            }
+            return matches;
+        }
+
+        @Override
+        int score(EmbeddedSearchIndex index, int document) {
+            int score = 0;
+            for (Clause clause : clauses) {
+                score += clause.score(index, document);
+            }
+            return score;
+        }
+    }
+
+    private static class OrClause extends AndClause {
+        private final List<Clause> clauses;
+
+        OrClause(List<Clause> clauses) {
+            super(clauses);
+            this.clauses = clauses;
+        }
+
+        @Override
+        BitSet match(EmbeddedSearchIndex index) {
+            BitSet matches = new BitSet();
+            for (Clause clause : clauses) {
+                matches.or(clause.match(index));
+            }
+            return matches;
+        }
+    }
+
+    private static class NotClause extends Clause {
+        private final Clause clause;
+
+        NotClause(Clause clause) {
+            this.clause = clause;
+        }
+
+        @Override
+        BitSet match(EmbeddedSearchIndex index) {
+            BitSet matches = index.getLiveDocuments();
+            matches.andNot(clause.match(index));
+            return matches;
+        }
+    }
+
+    private static class CompareClause extends Clause {
+        private final String field;
+        private final String comparator;
+        private final Comparable<?> value;
+
+        CompareClause(String field, String comparator, Comparable<?> value) {
+            this.field = field;
+            this.comparator = comparator;
+            this.value = value;
+        }
+
+        @Override
+        BitSet match(EmbeddedSearchIndex index) {
+            BitSet matches = new BitSet();
+            BitSet documents = index.getLiveDocuments();
+            for (int document = documents.nextSetBit(0); document >= 0; document = documents.nextSetBit(document + 1)) {
+                Integer comparison = index.compareFieldValue(document, field, value);
+                if (comparison != null && isSatisfiedBy(comparison)) {
+                    matches.set(document);
+                }
+            }
+            return matches;
+        }
+
+        private boolean isSatisfiedBy(int comparison) {
+            switch (comparator) {
+            case "<":
+                return comparison < 0;
+            case "<=":
+                return comparison <= 0;
+            case ">":
+                return comparison > 0;
+            case ">=":
+                return comparison >= 0;
+            default:
+                return comparison == 0;
+            }
+        }
+    }
+
+}
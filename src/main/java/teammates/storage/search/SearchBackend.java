@@ -0,0 +1,30 @@
+package teammates.storage.search;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * A full-text search engine that stores {@link Document}s in named indexes
+ * and answers the {@link Query} objects built by {@link SearchQuery}.
+ * {@link SearchManager} delegates all search operations to one backend.
+ */
+public interface SearchBackend {
+
+    /**
+     * Creates or replaces the document with the same id in the index.
+     * @return true if the document was stored
+     */
+    boolean putDocument(String indexName, Document document);
+
+    /**
+     * @return the document with the given id, or null if there is none
+     */
+    Document getDocument(String indexName, String documentId);
+
+    Results<ScoredDocument> searchDocuments(String indexName, Query query);
+
+    void deleteDocuments(String indexName, String... documentIds);
+
+}
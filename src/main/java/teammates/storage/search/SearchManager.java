@@ -1,122 +1,96 @@
 package teammates.storage.search;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
 
-import teammates.common.exception.TeammatesException;
 import teammates.common.util.Config;
 import teammates.common.util.Logger;
-import teammates.common.util.ThreadHelper;
 
 import com.google.appengine.api.search.Document;
-import com.google.appengine.api.search.Index;
-import com.google.appengine.api.search.IndexSpec;
-import com.google.appengine.api.search.PutException;
-import com.google.appengine.api.search.PutResponse;
 import com.google.appengine.api.search.Query;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
-import com.google.appengine.api.search.SearchServiceFactory;
-import com.google.appengine.api.search.StatusCode;
 
 /**
  * Represents the search manager for index.
- * Codes reference:
- * https://developers.google.com/appengine/docs/java/search/
+ * All operations are delegated to the {@link SearchBackend} selected by
+ * the "app.search.backend" value in build.properties.
  */
 public final class SearchManager {
-    private static final String ERROR_NON_TRANSIENT_BACKEND_ISSUE =
-            "Failed to put document %s into search index %s due to non-transient backend issue.";
-    private static final String ERROR_EXCEED_DURATION =
-            "Operation did not succeed in time to put document %s into search index %s";
+    private static final String BACKEND_EMBEDDED = "embedded";
+    private static final int MAX_PUT_ATTEMPTS = 3;
+    private static final String ERROR_EXCEED_ATTEMPTS =
+            "Operation did not succeed after " + MAX_PUT_ATTEMPTS + " attempts to put document %s into search index %s";
     private static final Logger log = Logger.getLogger();
-    private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
-    
+
+    private static SearchBackend backend = createBackend();
+
     private SearchManager() {
         // utility class
     }
-    
+
+    /**
+     * Replaces the backend used by all search operations, e.g. to compare backends.
+     */
+    public static void setBackend(SearchBackend newBackend) {
+        backend = newBackend;
+    }
+
+    public static SearchBackend getBackend() {
+        return backend;
+    }
+
     /*
-     * Create or update the search document for the given document and index
+     * Create or update the search document for the given document and index.
+     * Transient failures are retried immediately, up to MAX_PUT_ATTEMPTS times.
      */
     public static void putDocument(String indexName, Document document) {
-        int elapsedTime = 0;
-        boolean isSuccessful = tryPutDocument(indexName, document);
-        while (!isSuccessful
-                && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-            ThreadHelper.waitBriefly();
-            //retry putting the document
-            isSuccessful = tryPutDocument(indexName, document);
-            //check before incrementing to avoid boundary case problem
-            if (!isSuccessful) {
-                elapsedTime += ThreadHelper.WAIT_DURATION;
+        for (int attempt = 1; attempt <= MAX_PUT_ATTEMPTS; attempt++) {
+            if (backend.putDocument(indexName, document)) {
+                return;
             }
         }
-        if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-            log.severe(String.format(ERROR_EXCEED_DURATION, document, indexName));
-        }
+        log.severe(String.format(ERROR_EXCEED_ATTEMPTS, document, indexName));
     }
-    
-    private static boolean tryPutDocument(String indexName, Document document) {
-        Index index = getIndex(indexName);
-        try {
-            PutResponse result = index.put(document);
-            return result.getResults().get(0).getCode() == StatusCode.OK;
-        } catch (PutException e) {
-            //if it's a transient error in the server, it can be re-tried
-            if (!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())) {
-                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document, indexName)
-                        + " e:\n" + TeammatesException.toStringWithStackTrace(e));
-            }
-            return false;
-        }
-    }
-    
+
     /*
      * Get document for index and the documentId
      */
     public static Document getDocument(String indexName, String documentId) {
-        return getIndex(indexName).get(documentId);
+        return backend.getDocument(indexName, documentId);
     }
-    
+
     /*
      * Search document by query
      */
     public static Results<ScoredDocument> searchDocuments(String indexName, Query query) {
-        return getIndex(indexName).search(query);
+        return backend.searchDocuments(indexName, query);
     }
-    
+
     /*
      * Delete document by documentId
      */
     public static void deleteDocument(String indexName, String documentId) {
-        getIndex(indexName).deleteAsync(documentId);
+        backend.deleteDocuments(indexName, documentId);
     }
-    
+
     /*
      * Delete documents by documentIds
      */
     public static void deleteDocuments(String indexName, String[] documentIds) {
-        getIndex(indexName).deleteAsync(documentIds);
-    }
-    
-    private static Index getIndex(String indexName) {
-        Map<String, Index> indicesTable = getIndicesTable();
-        Index index = indicesTable.get(indexName);
-        if (index == null) {
-            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build();
-            index = SearchServiceFactory.getSearchService().getIndex(indexSpec);
-            indicesTable.put(indexName, index);
-        }
-        return index;
+        backend.deleteDocuments(indexName, documentIds);
     }
 
-    private static Map<String, Index> getIndicesTable() {
-        Map<String, Index> indicesTable = PER_THREAD_INDICES_TABLE.get();
-        if (indicesTable == null) {
-            indicesTable = new HashMap<String, Index>();
-            PER_THREAD_INDICES_TABLE.set(indicesTable);
+    private static SearchBackend createBackend() {
+        if (!BACKEND_EMBEDDED.equals(Config.SEARCH_BACKEND)) {
+            return new AppEngineSearchBackend();
+        }
+        if (Config.isProductionServer()) {
+            // instances do not share memory and cannot write to local disk, so the index would not be kept
+            log.severe("The embedded search backend is for the development server and tests only; "
+                       + "using the App Engine Search API instead");
+            return new AppEngineSearchBackend();
         }
-        return indicesTable;
+        String directory = Config.SEARCH_EMBEDDED_DIRECTORY;
+        return new EmbeddedSearchBackend(directory == null || directory.isEmpty() ? null : new File(directory));
     }
 }
@@ -13,7 +13,7 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.TaskQueue;
-import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.GroupReceiverListReader;
 import teammates.logic.core.AdminEmailsLogic;
 import teammates.logic.core.TaskQueuesLogic;
 
@@ -25,6 +25,8 @@ import com.google.apphosting.api.ApiProxy;
  */
 public class AdminPrepareEmailWorkerAction extends AutomatedAction {
     
+    private static final int RECEIVER_BATCH_SIZE = 100;
+    
     @Override
     protected String getActionDescription() {
         return null;
@@ -62,23 +64,9 @@ public class AdminPrepareEmailWorkerAction extends AutomatedAction {
             String groupReceiverListFileKey = getRequestParamValue(ParamsNames.ADMIN_EMAIL_GROUP_RECEIVER_LIST_FILE_KEY);
             Assumption.assertNotNull(groupReceiverListFileKey);
             
-            String indexOfEmailListToResumeAsString =
-                    getRequestParamValue(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX);
-            String indexOfEmailToResumeAsString = getRequestParamValue(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX);
-            
-            int indexOfEmailListToResume = indexOfEmailListToResumeAsString == null
-                                           ? 0
-                                           : Integer.parseInt(indexOfEmailListToResumeAsString);
-            int indexOfEmailToResume = indexOfEmailToResumeAsString == null
-                                       ? 0
-                                       : Integer.parseInt(indexOfEmailToResumeAsString);
-            
             try {
-                List<List<String>> processedReceiverEmails =
-                        GoogleCloudStorageHelper.getGroupReceiverList(new BlobKey(groupReceiverListFileKey));
-                addAdminEmailToTaskQueue(emailId, groupReceiverListFileKey, processedReceiverEmails,
-                                         indexOfEmailListToResume, indexOfEmailToResume);
-                
+                long offsetToResume = getOffsetToResume(groupReceiverListFileKey);
+                addAdminEmailToTaskQueue(emailId, groupReceiverListFileKey, offsetToResume);
             } catch (IOException e) {
                 log.severe("Unexpected error while adding admin email tasks: "
                            + TeammatesException.toStringWithStackTrace(e));
@@ -88,21 +76,41 @@ public class AdminPrepareEmailWorkerAction extends AutomatedAction {
         
     }
     
+    private long getOffsetToResume(String groupReceiverListFileKey) throws IOException {
+        String offsetToResumeAsString = getRequestParamValue(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_OFFSET);
+        if (offsetToResumeAsString != null) {
+            return Long.parseLong(offsetToResumeAsString);
+        }
+        
+        // a task queued before the offset was used resumes from the list and email index it was given
+        String indexOfEmailListToResumeAsString =
+                getRequestParamValue(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX);
+        String indexOfEmailToResumeAsString = getRequestParamValue(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX);
+        if (indexOfEmailListToResumeAsString == null || indexOfEmailToResumeAsString == null) {
+            return 0;
+        }
+        
+        int indexOfEmailListToResume = Integer.parseInt(indexOfEmailListToResumeAsString);
+        int indexOfEmailToResume = Integer.parseInt(indexOfEmailToResumeAsString);
+        log.info("Translating list index: " + indexOfEmailListToResume + " email index: " + indexOfEmailToResume
+                 + " into an offset");
+        return GroupReceiverListReader.getOffsetOfLegacyPosition(new BlobKey(groupReceiverListFileKey),
+                                                                 indexOfEmailListToResume, indexOfEmailToResume);
+    }
+    
     private boolean isNearDeadline() {
         
         long timeLeftInMillis = ApiProxy.getCurrentEnvironment().getRemainingMillis();
         return timeLeftInMillis / 1000 < 100;
     }
     
-    private void pauseAndCreateAnNewTask(String emailId, String groupReceiverListFileKey,
-                                         int indexOfEmailList, int indexOfEmail) {
+    private void pauseAndCreateAnNewTask(String emailId, String groupReceiverListFileKey, long offset) {
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
         
         Map<String, String> paramMap = new HashMap<String, String>();
         paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
         paramMap.put(ParamsNames.ADMIN_EMAIL_GROUP_RECEIVER_LIST_FILE_KEY, groupReceiverListFileKey);
-        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX, Integer.toString(indexOfEmailList));
-        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX, Integer.toString(indexOfEmail));
+        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_OFFSET, Long.toString(offset));
         paramMap.put(ParamsNames.ADMIN_EMAIL_TASK_QUEUE_MODE, Const.ADMIN_EMAIL_TASK_QUEUE_GROUP_MODE);
         
         taskQueueLogic.createAndAddTask(TaskQueue.ADMIN_PREPARE_EMAIL_QUEUE_NAME,
@@ -113,7 +121,6 @@ public class AdminPrepareEmailWorkerAction extends AutomatedAction {
         
         AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
         Assumption.assertNotNull(adminEmail);
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
         List<String> addressList = new ArrayList<String>();
         
         if (addressReceiverListString.contains(",")) {
@@ -122,10 +129,49 @@ public class AdminPrepareEmailWorkerAction extends AutomatedAction {
             addressList.add(addressReceiverListString);
         }
         
-        for (String emailAddress : addressList) {
+        addSendEmailTasks(emailId, adminEmail, addressList);
+        
+    }
+    
+    private void addAdminEmailToTaskQueue(String emailId, String groupReceiverListFileKey, long offsetToResume)
+            throws IOException {
+        
+        AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
+        Assumption.assertNotNull(adminEmail);
+        
+        log.info("Resume adding group mail tasks for mail with id " + emailId + " from offset: " + offsetToResume);
+        
+        int numberOfTasksAdded = 0;
+        try (GroupReceiverListReader reader =
+                new GroupReceiverListReader(new BlobKey(groupReceiverListFileKey), offsetToResume)) {
+            
+            while (!reader.isEndOfFile()) {
+                List<String> batch = reader.readBatch(RECEIVER_BATCH_SIZE);
+                addSendEmailTasks(emailId, adminEmail, batch);
+                numberOfTasksAdded += batch.size();
+                
+                // only pause between batches, so that the offset never points into a batch already added
+                if (!reader.isEndOfFile() && isNearDeadline()) {
+                    pauseAndCreateAnNewTask(emailId, groupReceiverListFileKey, reader.getOffset());
+                    log.info("Adding group mail tasks for mail with id " + emailId + " have been paused with "
+                             + numberOfTasksAdded + " tasks added, at offset: " + reader.getOffset());
+                    return;
+                }
+            }
+            
+            log.info("Adding group mail tasks for mail with id " + emailId + " was complete with "
+                     + numberOfTasksAdded + " tasks added in this run, "
+                     + reader.getNumberOfInvalidAddresses() + " invalid addresses skipped");
+        }
+    }
+    
+    private void addSendEmailTasks(String emailId, AdminEmailAttributes adminEmail, List<String> receiverEmails) {
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        
+        for (String receiverEmail : receiverEmails) {
             Map<String, String> paramMap = new HashMap<String, String>();
             paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
-            paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, emailAddress);
+            paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, receiverEmail);
             paramMap.put(ParamsNames.ADMIN_EMAIL_SUBJECT, adminEmail.getSubject());
             paramMap.put(ParamsNames.ADMIN_EMAIL_CONTENT, adminEmail.getContent().getValue());
             
@@ -141,66 +187,7 @@ public class AdminPrepareEmailWorkerAction extends AutomatedAction {
                                                     TaskQueue.ADMIN_SEND_EMAIL_WORKER_URL, paramMap);
                 }
             }
-            
         }
-        
-    }
-    
-    private void addAdminEmailToTaskQueue(String emailId, String groupReceiverListFileKey,
-                                          List<List<String>> processedReceiverEmails,
-                                          int indexOfEmailListToResume, int indexOfEmailToResume) {
-        
-        AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
-        Assumption.assertNotNull(adminEmail);
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-        
-        log.info("Resume Adding group mail tasks for mail with id " + emailId + "from list index: "
-                 + indexOfEmailListToResume + " email index: " + indexOfEmailToResume);
-        
-        int indexOfLastEmailList = 0;
-        int indexOfLastEmail = 0;
-        
-        for (int i = indexOfEmailListToResume; i < processedReceiverEmails.size(); i++) {
-            
-            List<String> currentEmailList = processedReceiverEmails.get(i);
-            
-            for (int j = indexOfEmailToResume; j < currentEmailList.size(); j++) {
-                String receiverEmail = currentEmailList.get(j);
-                
-                Map<String, String> paramMap = new HashMap<String, String>();
-                paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
-                paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, receiverEmail);
-                paramMap.put(ParamsNames.ADMIN_EMAIL_SUBJECT, adminEmail.getSubject());
-                paramMap.put(ParamsNames.ADMIN_EMAIL_CONTENT, adminEmail.getContent().getValue());
-                
-                try {
-                    taskQueueLogic.createAndAddTask(TaskQueue.ADMIN_SEND_EMAIL_QUEUE_NAME,
-                                                    TaskQueue.ADMIN_SEND_EMAIL_WORKER_URL, paramMap);
-                } catch (IllegalArgumentException e) {
-                    if (e.getMessage().toLowerCase().contains("task size too large")) {
-                        log.info("Email task size exceeds max limit. Switching to large email task mode.");
-                        paramMap.remove(ParamsNames.ADMIN_EMAIL_SUBJECT);
-                        paramMap.remove(ParamsNames.ADMIN_EMAIL_CONTENT);
-                        taskQueueLogic.createAndAddTask(TaskQueue.ADMIN_SEND_EMAIL_QUEUE_NAME,
-                                                        TaskQueue.ADMIN_SEND_EMAIL_WORKER_URL, paramMap);
-                    }
-                }
-                
-                if (isNearDeadline()) {
-                    pauseAndCreateAnNewTask(emailId, groupReceiverListFileKey, i, j);
-                    log.info("Adding group mail tasks for mail with id " + emailId
-                             + " have been paused with list index: " + i + " email index: " + j);
-                    return;
-                }
-                
-                indexOfLastEmail = j;
-            }
-            indexOfLastEmailList = i;
-        }
-        
-        log.info("Adding Group mail tasks for mail with id " + emailId
-                 + "was complete. List index : " + indexOfLastEmailList
-                 + " Email index: " + indexOfLastEmail);
     }
     
 }
@@ -30,8 +30,13 @@ public class AutomatedActionFactory {
         // Task queue workers
         map(TaskQueue.ADMIN_PREPARE_EMAIL_WORKER_URL, AdminPrepareEmailWorkerAction.class);
         map(TaskQueue.ADMIN_SEND_EMAIL_WORKER_URL, AdminSendEmailWorkerAction.class);
+        map(TaskQueue.COURSE_DELETION_WORKER_URL, CourseDeletionWorkerAction.class);
         map(TaskQueue.COURSE_JOIN_REMIND_EMAIL_WORKER_URL, CourseJoinRemindEmailWorkerAction.class);
+        map(TaskQueue.COURSE_STRUCTURE_WORKER_URL, CourseStructureWorkerAction.class);
         map("/auto/emailWorker", null);
+        map(TaskQueue.FEEDBACK_SESSION_COPY_WORKER_URL, FeedbackSessionCopyWorkerAction.class);
+        map(TaskQueue.FEEDBACK_SESSION_RESPONDENT_COUNT_WORKER_URL, FeedbackSessionRespondentCountWorkerAction.class);
+        map(TaskQueue.FEEDBACK_SESSION_RESULTS_SNAPSHOT_WORKER_URL, FeedbackSessionResultsSnapshotWorkerAction.class);
         map(TaskQueue.FEEDBACK_SESSION_REMIND_EMAIL_WORKER_URL, FeedbackSessionRemindEmailWorkerAction.class);
         map(TaskQueue.FEEDBACK_SESSION_REMIND_PARTICULAR_USERS_EMAIL_WORKER_URL,
                 FeedbackSessionRemindParticularUsersEmailWorkerAction.class);
@@ -0,0 +1,47 @@
+package teammates.ui.automated;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.logic.core.CoursesLogic;
+import teammates.logic.core.CoursesLogic.CourseDeletionStage;
+
+/**
+ * Task queue worker action: deletes the data of a course marked as deleted, starting from the given stage.
+ * Batches are deleted until the time budget runs out; the remaining data is left to a new task
+ * that starts from the stage reached.
+ */
+public class CourseDeletionWorkerAction extends AutomatedAction {
+    
+    // leaves a margin within the 10-minute deadline of task queue requests
+    private static final long TIME_BUDGET_MILLIS = 5 * 60 * 1000L;
+    
+    @Override
+    protected String getActionDescription() {
+        return null;
+    }
+    
+    @Override
+    protected String getActionMessage() {
+        return null;
+    }
+    
+    @Override
+    public void execute() {
+        String courseId = getRequestParamValue(ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+        String stageName = getRequestParamValue(ParamsNames.COURSE_DELETION_STAGE);
+        Assumption.assertNotNull(stageName);
+        
+        CoursesLogic coursesLogic = CoursesLogic.inst();
+        CourseDeletionStage stage = CourseDeletionStage.valueOf(stageName);
+        long deadline = System.currentTimeMillis() + TIME_BUDGET_MILLIS;
+        // stops if the course has been deleted by other means, or its ID taken again by a new course
+        while (stage != null && System.currentTimeMillis() < deadline && coursesLogic.isCoursePendingDeletion(courseId)) {
+            stage = coursesLogic.deleteCourseDataBatch(courseId, stage);
+        }
+        if (stage != null && coursesLogic.isCoursePendingDeletion(courseId)) {
+            coursesLogic.scheduleCourseDeletion(courseId, stage);
+        }
+    }
+    
+}
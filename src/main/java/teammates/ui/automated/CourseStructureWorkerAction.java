@@ -0,0 +1,38 @@
+package teammates.ui.automated;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.logic.core.CoursesLogic;
+import teammates.logic.core.StudentsLogic;
+
+/**
+ * Task queue worker action: stores a structure built from the roster for a course that was found without one,
+ * so that the sections and teams of the course are no longer rebuilt from its roster on every read.
+ */
+public class CourseStructureWorkerAction extends AutomatedAction {
+
+    @Override
+    protected String getActionDescription() {
+        return null;
+    }
+
+    @Override
+    protected String getActionMessage() {
+        return null;
+    }
+
+    @Override
+    public void execute() {
+        String courseId = getRequestParamValue(ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+
+        if (!CoursesLogic.inst().isCoursePresent(courseId)) {
+            // the course was deleted after the task was added; a structure stored now would never be deleted
+            log.info("Course " + courseId + " no longer exists");
+            return;
+        }
+
+        StudentsLogic.inst().createCourseStructureFromRoster(courseId);
+    }
+
+}
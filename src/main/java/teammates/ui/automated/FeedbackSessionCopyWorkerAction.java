@@ -0,0 +1,104 @@
+package teammates.ui.automated;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import teammates.common.exception.EntityAlreadyExistsException;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.logic.core.FeedbackSessionsLogic;
+
+/**
+ * Task queue worker action: copies a session to many courses, a batch of courses at a time.
+ * Courses that already have the copy are skipped, so a retried task continues where it stopped.
+ * The courses left when the time budget runs out are passed on to a new task.
+ */
+public class FeedbackSessionCopyWorkerAction extends AutomatedAction {
+    
+    private static final int COURSES_PER_BATCH = 10;
+    
+    // leaves a margin within the 10-minute deadline of task queue requests
+    private static final long TIME_BUDGET_MILLIS = 5 * 60 * 1000L;
+    
+    @Override
+    protected String getActionDescription() {
+        return null;
+    }
+    
+    @Override
+    protected String getActionMessage() {
+        return null;
+    }
+    
+    @Override
+    public void execute() {
+        String newFeedbackSessionName = getRequestParamValue(ParamsNames.COPIED_FEEDBACK_SESSION_NAME);
+        Assumption.assertNotNull(newFeedbackSessionName);
+        String[] newCourseIds = getRequestParamValues(ParamsNames.COPIED_COURSES_ID);
+        Assumption.assertNotNull(newCourseIds);
+        String feedbackSessionName = getRequestParamValue(ParamsNames.FEEDBACK_SESSION_NAME);
+        Assumption.assertNotNull(feedbackSessionName);
+        String courseId = getRequestParamValue(ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+        String instructorEmail = getRequestParamValue(ParamsNames.INSTRUCTOR_EMAIL);
+        Assumption.assertNotNull(instructorEmail);
+        
+        FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
+        List<String> remainingCourseIds = new ArrayList<String>(Arrays.asList(newCourseIds));
+        List<String> copiedCourseIds = fsLogic.getCoursesWithFeedbackSession(newFeedbackSessionName, remainingCourseIds);
+        remainingCourseIds.removeAll(copiedCourseIds);
+        
+        long deadline = System.currentTimeMillis() + TIME_BUDGET_MILLIS;
+        try {
+            // a run of the task interrupted after writing sessions leaves them without summaries
+            fsLogic.putMissingFeedbackSessionSummaries(newFeedbackSessionName, copiedCourseIds);
+            while (!remainingCourseIds.isEmpty() && System.currentTimeMillis() < deadline) {
+                List<String> batch = remainingCourseIds.subList(0, Math.min(COURSES_PER_BATCH, remainingCourseIds.size()));
+                try {
+                    fsLogic.copyFeedbackSessionToCourses(newFeedbackSessionName, batch, feedbackSessionName, courseId,
+                                                         instructorEmail);
+                } catch (InvalidParametersException | EntityAlreadyExistsException e) {
+                    // e.g. a session with the new name was created in one of the courses after the task was added
+                    copyFeedbackSessionToEachCourse(newFeedbackSessionName, batch, feedbackSessionName, courseId,
+                                                    instructorEmail);
+                }
+                batch.clear();
+                log.info("Copied " + courseId + "/" + feedbackSessionName + " as " + newFeedbackSessionName + " to "
+                         + (newCourseIds.length - remainingCourseIds.size()) + " of " + newCourseIds.length
+                         + " courses");
+            }
+            if (!remainingCourseIds.isEmpty()) {
+                fsLogic.scheduleFeedbackSessionCopy(newFeedbackSessionName, remainingCourseIds, feedbackSessionName,
+                                                    courseId, instructorEmail);
+            }
+        } catch (EntityDoesNotExistException e) {
+            log.warning("Session to copy no longer exists: " + courseId + "/" + feedbackSessionName);
+        } catch (InvalidParametersException e) {
+            // the copies are validated before the task is added; retrying the task would fail in the same way
+            log.warning("Session " + courseId + "/" + feedbackSessionName + " can no longer be copied: "
+                        + e.getMessage());
+        }
+    }
+    
+    /**
+     * Copies the session to the courses one by one, skipping the courses it cannot be copied to,
+     * so that a conflict in one course does not make the task fail and be retried forever.
+     */
+    private void copyFeedbackSessionToEachCourse(String newFeedbackSessionName, List<String> newCourseIds,
+                                                 String feedbackSessionName, String courseId, String instructorEmail)
+            throws EntityDoesNotExistException {
+        for (String newCourseId : newCourseIds) {
+            try {
+                FeedbackSessionsLogic.inst().copyFeedbackSession(newFeedbackSessionName, newCourseId,
+                                                                 feedbackSessionName, courseId, instructorEmail);
+            } catch (InvalidParametersException | EntityAlreadyExistsException e) {
+                log.warning("Skipped copying " + courseId + "/" + feedbackSessionName + " as "
+                            + newFeedbackSessionName + " to " + newCourseId + ": " + e.getMessage());
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,39 @@
+package teammates.ui.automated;
+
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.logic.core.FeedbackSessionsLogic;
+
+/**
+ * Task queue worker action: counts the students and instructors expected to respond to a session
+ * and stores the numbers, after the givers of its questions have changed.
+ */
+public class FeedbackSessionRespondentCountWorkerAction extends AutomatedAction {
+
+    @Override
+    protected String getActionDescription() {
+        return null;
+    }
+
+    @Override
+    protected String getActionMessage() {
+        return null;
+    }
+
+    @Override
+    public void execute() {
+        String feedbackSessionName = getRequestParamValue(ParamsNames.FEEDBACK_SESSION_NAME);
+        Assumption.assertNotNull(feedbackSessionName);
+        String courseId = getRequestParamValue(ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+
+        try {
+            FeedbackSessionsLogic.inst().updateExpectedRespondentCounts(feedbackSessionName, courseId);
+        } catch (EntityDoesNotExistException e) {
+            // the session was deleted after the task was added; there is nothing left to count
+            log.info("Session " + courseId + "/" + feedbackSessionName + " no longer exists: " + e.getMessage());
+        }
+    }
+
+}
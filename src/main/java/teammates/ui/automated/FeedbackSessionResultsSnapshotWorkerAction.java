@@ -0,0 +1,45 @@
+package teammates.ui.automated;
+
+import java.io.IOException;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.logic.core.FeedbackSessionsLogic;
+
+/**
+ * Task queue worker action: builds a version of the results snapshot of a closed session.
+ * If the build fails, the version is left unfinished; the results are served from the datastore,
+ * and a new version is started by a later view of the results once the unfinished one has timed out.
+ */
+public class FeedbackSessionResultsSnapshotWorkerAction extends AutomatedAction {
+
+    @Override
+    protected String getActionDescription() {
+        return null;
+    }
+
+    @Override
+    protected String getActionMessage() {
+        return null;
+    }
+
+    @Override
+    public void execute() {
+        String feedbackSessionName = getRequestParamValue(ParamsNames.FEEDBACK_SESSION_NAME);
+        Assumption.assertNotNull(feedbackSessionName);
+        String courseId = getRequestParamValue(ParamsNames.COURSE_ID);
+        Assumption.assertNotNull(courseId);
+        String version = getRequestParamValue(ParamsNames.RESULTS_SNAPSHOT_VERSION);
+        Assumption.assertNotNull(version);
+
+        try {
+            FeedbackSessionsLogic.inst().buildFeedbackSessionResultsSnapshot(feedbackSessionName, courseId,
+                                                                             Long.parseLong(version));
+        } catch (IOException e) {
+            log.severe("Could not write results snapshot of " + courseId + "/" + feedbackSessionName + ": "
+                       + TeammatesException.toStringWithStackTrace(e));
+        }
+    }
+
+}
@@ -508,6 +508,19 @@ public abstract class Action {
                                statusToUser);
     }
 
+    /**
+     * @param contentType the type of the image, or null if it is to be found from the image data
+     * @param isRequestedByKey whether the URL of the request contains the key of the image
+     */
+    protected ActionResult createImageResult(String blobKey, String contentType, boolean isRequestedByKey) {
+        return new ImageResult("imagedisplay",
+                               blobKey,
+                               contentType,
+                               isRequestedByKey,
+                               account,
+                               statusToUser);
+    }
+
     /**
      * Status messages to be shown to the user and the admin will be set based
      * on the error message in the exception {@code e}.<br>
@@ -106,6 +106,8 @@ public class AdminActivityLogPageAction extends Action {
         
         String courseIdFromSearchPage = getRequestParamValue("courseId");
         generateStatusMessage(versionToQuery, data, logs, courseIdFromSearchPage);
+        // sorted only after the earliest log searched is known from the chronological order
+        data.sortLogs(logs);
         data.init(ifShowAll, ifShowTestData, logs);
         
         if (searchTimeOffset.isEmpty()) {
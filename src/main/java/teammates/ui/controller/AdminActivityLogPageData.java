@@ -5,8 +5,12 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
 import teammates.common.datatransfer.AccountAttributes;
@@ -14,6 +18,7 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.ActivityLogEntry;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.common.util.RequestCosts;
 import teammates.common.util.StringHelper;
 import teammates.common.util.TimeHelper;
 
@@ -215,6 +220,13 @@ public class AdminActivityLogPageData extends PageData {
                 return logEntry;
             }
         }
+        for (Map.Entry<String, Long> minimumCost : q.minimumCostValues.entrySet()) {
+            RequestCosts costs = logEntry.getRequestCosts();
+            if (costs == null || costs.getCost(minimumCost.getKey()) < minimumCost.getValue()) {
+                logEntry.setToShow(false);
+                return logEntry;
+            }
+        }
         if (q.isInfoInQuery) {
             
             for (String keyString : q.infoValues) {
@@ -243,6 +255,37 @@ public class AdminActivityLogPageData extends PageData {
         return logEntry;
     }
     
+    /**
+     * Sorts the logs in descending order of the time taken or of the request cost given by
+     * the "sort" label of the query, if any. Logs without the value are put last.
+     */
+    public void sortLogs(List<ActivityLogEntry> logs) {
+        if (q == null || q.sortValue == null) {
+            return;
+        }
+        
+        final String sortValue = q.sortValue;
+        Collections.sort(logs, new Comparator<ActivityLogEntry>() {
+            @Override
+            public int compare(ActivityLogEntry log1, ActivityLogEntry log2) {
+                Long value1 = getValueToSortBy(log1, sortValue);
+                Long value2 = getValueToSortBy(log2, sortValue);
+                if (value1 == null) {
+                    return value2 == null ? 0 : 1;
+                }
+                return value2 == null ? -1 : value2.compareTo(value1);
+            }
+        });
+    }
+    
+    private static Long getValueToSortBy(ActivityLogEntry logEntry, String sortValue) {
+        if ("time".equals(sortValue)) {
+            return logEntry.getTimeTaken();
+        }
+        RequestCosts costs = logEntry.getRequestCosts();
+        return costs == null ? null : costs.getCost(sortValue);
+    }
+    
     /**
      * Converts the query string into a QueryParameters object
      * 
@@ -425,6 +468,12 @@ public class AdminActivityLogPageData extends PageData {
         public boolean isIdInQuery;
         public String[] idValues;
         
+        /** The minimum request costs, e.g. 50 for "datastore" to show requests with 50 datastore calls or more. */
+        public Map<String, Long> minimumCostValues = new HashMap<String, Long>();
+        
+        /** "time" or a request cost to sort the logs by; null to keep them in chronological order. */
+        public String sortValue;
+        
         QueryParameters() {
             isRequestInQuery = false;
             isResponseInQuery = false;
@@ -468,8 +517,21 @@ public class AdminActivityLogPageData extends PageData {
                 isIdInQuery = true;
                 idValues = values;
                 break;
+            case "sort":
+                if (!"time".equals(values[0]) && !RequestCosts.isCostName(values[0])) {
+                    throw new InvalidParametersException("Invalid value to sort by");
+                }
+                sortValue = values[0];
+                break;
             default:
-                throw new InvalidParametersException("Invalid label");
+                if (!RequestCosts.isCostName(label)) {
+                    throw new InvalidParametersException("Invalid label");
+                }
+                try {
+                    minimumCostValues.put(label, Long.parseLong(values[0]));
+                } catch (NumberFormatException e) {
+                    throw new InvalidParametersException("Invalid value for " + label);
+                }
             }
         }
     }
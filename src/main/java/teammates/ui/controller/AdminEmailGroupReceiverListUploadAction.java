@@ -5,7 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import teammates.common.util.Const;
-import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.GroupReceiverListReader;
 import teammates.logic.api.GateKeeper;
 
 import com.google.appengine.api.blobstore.BlobInfo;
@@ -15,6 +15,8 @@ import com.google.appengine.api.blobstore.BlobstoreServiceFactory;
 
 public class AdminEmailGroupReceiverListUploadAction extends Action {
     
+    private static final int RECEIVER_LIST_BATCH_SIZE = 1000;
+    
     AdminEmailComposePageData data;
 
     @Override
@@ -35,18 +37,18 @@ public class AdminEmailGroupReceiverListUploadAction extends Action {
         }
         
         try {
-            List<List<String>> groupReceiverList =
-                    GoogleCloudStorageHelper.getGroupReceiverList(blobInfo.getBlobKey());
-            
-            // log all email addresses retrieved from the txt file
-            int i = 0;
-            
-            for (List<String> list : groupReceiverList) {
-                for (String str : list) {
-                    log.info(str + " - " + i + " \n");
-                    i++;
+            // read through the whole file in batches to make sure that it can be parsed
+            int numberOfAddresses = 0;
+            int numberOfInvalidAddresses;
+            try (GroupReceiverListReader reader = new GroupReceiverListReader(blobInfo.getBlobKey(), 0)) {
+                while (!reader.isEndOfFile()) {
+                    numberOfAddresses += reader.readBatch(RECEIVER_LIST_BATCH_SIZE).size();
                 }
+                numberOfInvalidAddresses = reader.getNumberOfInvalidAddresses();
             }
+            
+            log.info("Group receiver list contains " + numberOfAddresses + " valid email addresses and "
+                     + numberOfInvalidAddresses + " invalid ones, which will be skipped");
         } catch (IOException e) {
             data.isFileUploaded = false;
             data.fileSrcUrl = null;
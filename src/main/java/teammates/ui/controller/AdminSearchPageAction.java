@@ -2,7 +2,9 @@ package teammates.ui.controller;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
@@ -17,12 +19,19 @@ import teammates.common.util.StatusMessageColor;
 import teammates.common.util.StringHelper;
 import teammates.common.util.Url;
 import teammates.logic.api.GateKeeper;
-import teammates.logic.api.Logic;
 
+/**
+ * Searches for students and instructors in the whole system.
+ * The courses, instructors, accounts and sessions used to build the result rows are read
+ * for all the courses in the results at once, so the number of reads does not grow with the results.
+ */
 public class AdminSearchPageAction extends Action {
 
+    private HashMap<String, CourseAttributes> tempCourseIdToCourseMap = new HashMap<String, CourseAttributes>();
     private HashMap<String, String> tempCourseIdToInstituteMap = new HashMap<String, String>();
     private HashMap<String, String> tempCourseIdToInstructorGoogleIdMap = new HashMap<String, String>();
+    private HashMap<String, List<FeedbackSessionAttributes>> tempCourseIdToFeedbackSessionsMap =
+            new HashMap<String, List<FeedbackSessionAttributes>>();
 
     @Override
     protected ActionResult execute() {
@@ -49,13 +58,15 @@ public class AdminSearchPageAction extends Action {
         data.searchKey = Sanitizer.sanitizeForHtml(searchKey);
        
         data.studentResultBundle = logic.searchStudentsInWholeSystem(searchKey, "");
+        data.instructorResultBundle = logic.searchInstructorsInWholeSystem(searchKey, "");
+        
+        prefetchCourseData(data.studentResultBundle.studentList, data.instructorResultBundle.instructorList);
         
         data = putFeedbackSessionLinkIntoMap(data.studentResultBundle.studentList, data);
         data = putStudentHomePageLinkIntoMap(data.studentResultBundle.studentList, data);
         data = putStudentRecordsPageLinkIntoMap(data.studentResultBundle.studentList, data);
         data = putStudentInsitituteIntoMap(data.studentResultBundle.studentList, data);
                    
-        data.instructorResultBundle = logic.searchInstructorsInWholeSystem(searchKey, "");
         data = putInstructorInsitituteIntoMap(data.instructorResultBundle.instructorList, data);
         data = putInstructorHomePageLinkIntoMap(data.instructorResultBundle.instructorList, data);
         data = putInstructorCourseJoinLinkIntoMap(data.instructorResultBundle.instructorList, data);
@@ -81,27 +92,86 @@ public class AdminSearchPageAction extends Action {
         return createShowPageResult(Const.ViewURIs.ADMIN_SEARCH, data);
     }
     
+    /**
+     * Reads the courses, instructors, instructor accounts and sessions of all the courses
+     * in the results with one batched read each, for the other steps to look up in memory.
+     */
+    private void prefetchCourseData(List<StudentAttributes> students, List<InstructorAttributes> instructors) {
+        
+        Set<String> courseIdSet = new LinkedHashSet<String>();
+        Set<String> studentCourseIdSet = new LinkedHashSet<String>();
+        for (StudentAttributes student : students) {
+            if (student.course != null) {
+                courseIdSet.add(student.course);
+                studentCourseIdSet.add(student.course);
+            }
+        }
+        for (InstructorAttributes instructor : instructors) {
+            if (instructor.courseId != null) {
+                courseIdSet.add(instructor.courseId);
+            }
+        }
+        List<String> courseIds = new ArrayList<String>(courseIdSet);
+        
+        for (CourseAttributes course : logic.getCourses(courseIds)) {
+            tempCourseIdToCourseMap.put(course.getId(), course);
+        }
+        
+        HashMap<String, List<InstructorAttributes>> courseIdToInstructorsMap =
+                new HashMap<String, List<InstructorAttributes>>();
+        for (InstructorAttributes instructor : logic.getInstructorsForCourses(courseIds)) {
+            if (!courseIdToInstructorsMap.containsKey(instructor.courseId)) {
+                courseIdToInstructorsMap.put(instructor.courseId, new ArrayList<InstructorAttributes>());
+            }
+            courseIdToInstructorsMap.get(instructor.courseId).add(instructor);
+        }
+        
+        Set<String> instructorGoogleIdSet = new LinkedHashSet<String>();
+        for (String courseId : courseIds) {
+            String googleId = findAvailableInstructorGoogleIdForCourse(courseIdToInstructorsMap.get(courseId));
+            tempCourseIdToInstructorGoogleIdMap.put(courseId, googleId);
+            if (!googleId.isEmpty()) {
+                instructorGoogleIdSet.add(googleId);
+            }
+        }
+        
+        HashMap<String, AccountAttributes> googleIdToAccountMap = new HashMap<String, AccountAttributes>();
+        for (AccountAttributes instructorAccount : logic.getAccounts(new ArrayList<String>(instructorGoogleIdSet))) {
+            googleIdToAccountMap.put(instructorAccount.googleId, instructorAccount);
+        }
+        for (String courseId : courseIds) {
+            String googleId = tempCourseIdToInstructorGoogleIdMap.get(courseId);
+            AccountAttributes instructorAccount = googleIdToAccountMap.get(googleId);
+            if (instructorAccount != null) {
+                String institute = instructorAccount.institute.trim().isEmpty() ? "None" : instructorAccount.institute;
+                tempCourseIdToInstituteMap.put(courseId, institute);
+            }
+        }
+        
+        for (String courseId : studentCourseIdSet) {
+            tempCourseIdToFeedbackSessionsMap.put(courseId, new ArrayList<FeedbackSessionAttributes>());
+        }
+        for (FeedbackSessionAttributes fsa
+                : logic.getFeedbackSessionsForCourses(new ArrayList<String>(studentCourseIdSet))) {
+            tempCourseIdToFeedbackSessionsMap.get(fsa.getCourseId()).add(fsa);
+        }
+    }
+    
     private AdminSearchPageData putCourseNameIntoMap(List<StudentAttributes> students,
                                                      List<InstructorAttributes> instructors,
                                                      AdminSearchPageData data) {
         
-        Logic logic = new Logic();
-        
         for (StudentAttributes student : students) {
-            if (student.course != null && !data.courseIdToCourseNameMap.containsKey(student.course)) {
-                CourseAttributes course = logic.getCourse(student.course);
-                if (course != null) {
-                    data.courseIdToCourseNameMap.put(student.course, course.getName());
-                }
+            CourseAttributes course = tempCourseIdToCourseMap.get(student.course);
+            if (course != null) {
+                data.courseIdToCourseNameMap.put(student.course, course.getName());
             }
         }
         
         for (InstructorAttributes instructor : instructors) {
-            if (instructor.courseId != null && !data.courseIdToCourseNameMap.containsKey(instructor.courseId)) {
-                CourseAttributes course = logic.getCourse(instructor.courseId);
-                if (course != null) {
-                    data.courseIdToCourseNameMap.put(instructor.courseId, course.getName());
-                }
+            CourseAttributes course = tempCourseIdToCourseMap.get(instructor.courseId);
+            if (course != null) {
+                data.courseIdToCourseNameMap.put(instructor.courseId, course.getName());
             }
         }
         
@@ -113,9 +183,9 @@ public class AdminSearchPageAction extends Action {
 
         for (InstructorAttributes instructor : instructors) {
             
-            String googleIdOfAlreadyRegisteredInstructor = findAvailableInstructorGoogleIdForCourse(instructor.courseId);
+            String googleIdOfAlreadyRegisteredInstructor = tempCourseIdToInstructorGoogleIdMap.get(instructor.courseId);
             
-            if (!googleIdOfAlreadyRegisteredInstructor.isEmpty()) {
+            if (googleIdOfAlreadyRegisteredInstructor != null && !googleIdOfAlreadyRegisteredInstructor.isEmpty()) {
                 String joinLinkWithoutInsititute = Config.getAppUrl(Const.ActionURIs.INSTRUCTOR_COURSE_JOIN)
                                                 .withRegistrationKey(StringHelper.encrypt(instructor.key))
                                                 .toAbsoluteString();
@@ -130,26 +200,12 @@ public class AdminSearchPageAction extends Action {
     
     private AdminSearchPageData putInstructorInsitituteIntoMap(List<InstructorAttributes> instructors,
                                                                AdminSearchPageData data) {
-        Logic logic = new Logic();
         for (InstructorAttributes instructor : instructors) {
             
-            if (tempCourseIdToInstituteMap.get(instructor.courseId) != null) {
-                data.instructorInstituteMap.put(instructor.getIdentificationString(),
-                                                tempCourseIdToInstituteMap.get(instructor.courseId));
-                continue;
+            String institute = tempCourseIdToInstituteMap.get(instructor.courseId);
+            if (institute != null) {
+                data.instructorInstituteMap.put(instructor.getIdentificationString(), institute);
             }
-            
-            String googleId = findAvailableInstructorGoogleIdForCourse(instructor.courseId);
-            
-            AccountAttributes account = logic.getAccount(googleId);
-            if (account == null) {
-                continue;
-            }
-            
-            String institute = account.institute.trim().isEmpty() ? "None" : account.institute;
-            
-            tempCourseIdToInstituteMap.put(instructor.courseId, institute);
-            data.instructorInstituteMap.put(instructor.getIdentificationString(), institute);
         }
         
         return data;
@@ -176,28 +232,12 @@ public class AdminSearchPageAction extends Action {
 
     private AdminSearchPageData putStudentInsitituteIntoMap(List<StudentAttributes> students, AdminSearchPageData data) {
         
-        Logic logic = new Logic();
-        
         for (StudentAttributes student : students) {
             
-            if (tempCourseIdToInstituteMap.get(student.course) != null) {
-                data.studentInstituteMap.put(student.getIdentificationString(),
-                                             tempCourseIdToInstituteMap.get(student.course));
-                continue;
+            String institute = tempCourseIdToInstituteMap.get(student.course);
+            if (institute != null) {
+                data.studentInstituteMap.put(student.getIdentificationString(), institute);
             }
-            
-            String instructorForCoursegoogleId = findAvailableInstructorGoogleIdForCourse(student.course);
-            
-            AccountAttributes account = logic.getAccount(instructorForCoursegoogleId);
-            if (account == null) {
-                continue;
-            }
-            
-            String institute = account.institute.trim().isEmpty() ? "None" : account.institute;
-            
-            tempCourseIdToInstituteMap.put(student.course, institute);
-            
-            data.studentInstituteMap.put(student.getIdentificationString(), institute);
         }
         
         return data;
@@ -234,9 +274,9 @@ public class AdminSearchPageAction extends Action {
                                                         Const.ParamsNames.COURSE_ID,
                                                         student.course);
             curLink = Url.addParamToUrl(curLink, Const.ParamsNames.STUDENT_EMAIL, student.email);
-            String availableGoogleId = findAvailableInstructorGoogleIdForCourse(student.course);
+            String availableGoogleId = tempCourseIdToInstructorGoogleIdMap.get(student.course);
             
-            if (!availableGoogleId.isEmpty()) {
+            if (availableGoogleId != null && !availableGoogleId.isEmpty()) {
                 curLink = Url.addParamToUrl(curLink, Const.ParamsNames.USER_ID, availableGoogleId);
                 data.studentRecordsPageLinkMap.put(student.getIdentificationString(), curLink);
             }
@@ -250,18 +290,12 @@ public class AdminSearchPageAction extends Action {
      * If there is no such instructor, finds the googleId of a registered
      * instructor with the privilege to modify instructors.
      * 
-     * @param courseId
-     *            the ID of the course
+     * @param instructorList
+     *            the instructors of the course
      * @return the googleId of a suitable instructor if found, otherwise an
      *         empty string
      */
-    private String findAvailableInstructorGoogleIdForCourse(String courseId) {
-        
-        if (tempCourseIdToInstructorGoogleIdMap.get(courseId) != null) {
-            return tempCourseIdToInstructorGoogleIdMap.get(courseId);
-        }
-        
-        List<InstructorAttributes> instructorList = logic.getInstructorsForCourse(courseId);
+    private String findAvailableInstructorGoogleIdForCourse(List<InstructorAttributes> instructorList) {
         
         if (instructorList == null || instructorList.isEmpty()) {
             return "";
@@ -270,7 +304,6 @@ public class AdminSearchPageAction extends Action {
         for (InstructorAttributes instructor : instructorList) {
 
             if (instructor.isRegistered() && instructor.hasCoownerPrivileges()) {
-                tempCourseIdToInstructorGoogleIdMap.put(courseId, instructor.googleId);
                 return instructor.googleId;
             }
         }
@@ -280,7 +313,6 @@ public class AdminSearchPageAction extends Action {
             if (instructor.isRegistered()
                     && instructor.isAllowedForPrivilege(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_INSTRUCTOR)) {
 
-                tempCourseIdToInstructorGoogleIdMap.put(courseId, instructor.googleId);
                 return instructor.googleId;
             }
         }
@@ -291,11 +323,13 @@ public class AdminSearchPageAction extends Action {
     private AdminSearchPageData putFeedbackSessionLinkIntoMap(List<StudentAttributes> students,
                                                               AdminSearchPageData rawData) {
         
-        Logic logic = new Logic();
         AdminSearchPageData processedData = rawData;
         
         for (StudentAttributes student : students) {
-            List<FeedbackSessionAttributes> feedbackSessions = logic.getFeedbackSessionsForCourse(student.course);
+            List<FeedbackSessionAttributes> feedbackSessions = tempCourseIdToFeedbackSessionsMap.get(student.course);
+            if (feedbackSessions == null) {
+                continue;
+            }
             
             for (FeedbackSessionAttributes fsa : feedbackSessions) {
                 processedData = extractDataFromFeedbackSeesion(fsa, processedData, student);
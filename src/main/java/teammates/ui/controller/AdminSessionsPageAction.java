@@ -2,13 +2,17 @@ package teammates.ui.controller;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.FeedbackSessionSummaryAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.util.Const;
 import teammates.common.util.Sanitizer;
@@ -17,6 +21,11 @@ import teammates.common.util.StatusMessageColor;
 import teammates.common.util.TimeHelper;
 import teammates.logic.api.GateKeeper;
 
+/**
+ * Lists the sessions which start or end within a time range, grouped by institute.
+ * The sessions come from the session summaries with a single range query; a registered instructor
+ * of each course and the instructor's institute are then looked up with one batched read each.
+ */
 public class AdminSessionsPageAction extends Action {
     
     private static final String UNKNOWN_INSTITUTION = "Unknown";
@@ -48,15 +57,15 @@ public class AdminSessionsPageAction extends Action {
             return result;
         }
         
-        List<FeedbackSessionAttributes> allOpenFeedbackSessionsList =
-                logic.getAllOpenFeedbackSessions(this.rangeStart, this.rangeEnd, this.zone);
+        List<FeedbackSessionSummaryAttributes> allOpenFeedbackSessionSummaries =
+                logic.getFeedbackSessionSummariesWithinTimeRange(this.rangeStart, this.rangeEnd, this.zone);
         
-        result = createShowPageResultIfNoOngoingSession(allOpenFeedbackSessionsList);
+        result = createShowPageResultIfNoOngoingSession(allOpenFeedbackSessionSummaries);
         if (result != null) {
             return result;
         }
         
-        result = createAdminSessionPageResult(allOpenFeedbackSessionsList);
+        result = createAdminSessionPageResult(allOpenFeedbackSessionSummaries);
         
         return result;
         
@@ -158,8 +167,8 @@ public class AdminSessionsPageAction extends Action {
     }
     
     private ActionResult createShowPageResultIfNoOngoingSession(
-            List<FeedbackSessionAttributes> allOpenFeedbackSessionsList) {
-        if (allOpenFeedbackSessionsList.isEmpty()) {
+            List<FeedbackSessionSummaryAttributes> allOpenFeedbackSessionSummaries) {
+        if (allOpenFeedbackSessionSummaries.isEmpty()) {
 
             isError = false;
             statusToUser.add(new StatusMessage("Currently No Ongoing Sessions", StatusMessageColor.WARNING));
@@ -182,37 +191,37 @@ public class AdminSessionsPageAction extends Action {
         
     }
     
-    private ActionResult createAdminSessionPageResult(List<FeedbackSessionAttributes> allOpenFeedbackSessionsList) {
+    private ActionResult createAdminSessionPageResult(
+            List<FeedbackSessionSummaryAttributes> allOpenFeedbackSessionSummaries) {
         HashMap<String, List<FeedbackSessionAttributes>> map = new HashMap<String, List<FeedbackSessionAttributes>>();
-        this.totalOngoingSessions = allOpenFeedbackSessionsList.size();
-        this.totalOpenStatusSessions = getTotalNumOfOpenStatusSession(allOpenFeedbackSessionsList);
-        this.totalClosedStatusSessions = getTotalNumOfCloseStatusSession(allOpenFeedbackSessionsList);
-        this.totalWaitToOpenStatusSessions = getTotalNumOfWaitToOpenStatusSession(allOpenFeedbackSessionsList);
-
-        for (FeedbackSessionAttributes fs : allOpenFeedbackSessionsList) {
-
-            List<InstructorAttributes> instructors = logic.getInstructorsForCourse(fs.getCourseId());
-
-            if (instructors.isEmpty()) {
+        List<FeedbackSessionAttributes> allOpenFeedbackSessionsList = new ArrayList<FeedbackSessionAttributes>();
+        Map<String, String> courseIdToInstructorGoogleIdMap =
+                getRegisteredInstructorGoogleIds(allOpenFeedbackSessionSummaries);
+        Map<String, String> googleIdToInstituteMap = getInstitutes(courseIdToInstructorGoogleIdMap.values());
+
+        for (FeedbackSessionSummaryAttributes summary : allOpenFeedbackSessionSummaries) {
+            FeedbackSessionAttributes fs = summary.toFeedbackSessionAttributes();
+            allOpenFeedbackSessionsList.add(fs);
+            String instructorGoogleId = courseIdToInstructorGoogleIdMap.get(summary.courseId);
+            String institute = instructorGoogleId == null ? null : googleIdToInstituteMap.get(instructorGoogleId);
+            this.sessionToInstructorIdMap.put(fs.getIdentificationString(),
+                                              instructorGoogleId == null ? "" : instructorGoogleId);
+
+            if (institute == null) {
                 putIntoUnknownList(map, fs);
+            } else if (map.get(institute) == null) {
+                List<FeedbackSessionAttributes> newList = new ArrayList<FeedbackSessionAttributes>();
+                newList.add(fs);
+                map.put(institute, newList);
             } else {
-                AccountAttributes account = getRegisteredInstructorAccountFromInstructors(instructors);
-
-                if (account == null) {
-                    putIntoUnknownList(map, fs);
-                    continue;
-                }
-
-                if (map.get(account.institute) == null) {
-                    List<FeedbackSessionAttributes> newList = new ArrayList<FeedbackSessionAttributes>();
-                    newList.add(fs);
-                    map.put(account.institute, newList);
-                } else {
-                    map.get(account.institute).add(fs);
-                }
-
+                map.get(institute).add(fs);
             }
         }
+
+        this.totalOngoingSessions = allOpenFeedbackSessionsList.size();
+        this.totalOpenStatusSessions = getTotalNumOfOpenStatusSession(allOpenFeedbackSessionsList);
+        this.totalClosedStatusSessions = getTotalNumOfCloseStatusSession(allOpenFeedbackSessionsList);
+        this.totalWaitToOpenStatusSessions = getTotalNumOfWaitToOpenStatusSession(allOpenFeedbackSessionsList);
         this.map = map;
         this.totalInstitutes = getTotalInstitutes(map);
         statusToAdmin = "Admin Sessions Page Load<br>"
@@ -221,56 +230,40 @@ public class AdminSessionsPageAction extends Action {
                       + "<span class=\"bold\">Total Opened Sessions:</span> "
                       + this.totalOpenStatusSessions;
         
-        constructSessionToInstructorIdMap();
         data.init(this.map, this.sessionToInstructorIdMap, this.totalOngoingSessions,
                   this.totalOpenStatusSessions, this.totalClosedStatusSessions, this.totalWaitToOpenStatusSessions,
                   this.totalInstitutes, this.rangeStart, this.rangeEnd, this.zone, this.isShowAll);
         return createShowPageResult(Const.ViewURIs.ADMIN_SESSIONS, data);
     }
     
-    private void constructSessionToInstructorIdMap() {
-        for (String institute : this.map.keySet()) {
-            for (FeedbackSessionAttributes fs : this.map.get(institute)) {
-                String googleId = findAvailableInstructorGoogleIdForCourse(fs.getCourseId());
-                this.sessionToInstructorIdMap.put(fs.getIdentificationString(), googleId);
-            }
-        }
-    }
-
     /**
-     * This method loops through all instructors for the given course until a registered Instructor is found.
-     * It returns the google id of the found instructor.
-     * @param CourseId
-     * @return empty string if no available instructor google id is found
+     * @return the googleId of a registered instructor of each course of the summaries, by course ID;
+     *         courses without registered instructors are left out
      */
-    private String findAvailableInstructorGoogleIdForCourse(String courseId) {
-        
-        String googleId = "";
-        
-        if (logic.getInstructorsForCourse(courseId) == null) {
-            return googleId;
+    private Map<String, String> getRegisteredInstructorGoogleIds(List<FeedbackSessionSummaryAttributes> summaries) {
+        Set<String> courseIds = new LinkedHashSet<String>();
+        for (FeedbackSessionSummaryAttributes summary : summaries) {
+            courseIds.add(summary.courseId);
         }
-        
-        for (InstructorAttributes instructor : logic.getInstructorsForCourse(courseId)) {
-          
-            if (instructor.googleId != null) {
-                googleId = instructor.googleId;
-                break;
+
+        Map<String, String> courseIdToInstructorGoogleIdMap = new HashMap<String, String>();
+        for (InstructorAttributes instructor : logic.getInstructorsForCourses(new ArrayList<String>(courseIds))) {
+            if (instructor.googleId != null && !courseIdToInstructorGoogleIdMap.containsKey(instructor.courseId)) {
+                courseIdToInstructorGoogleIdMap.put(instructor.courseId, instructor.googleId);
             }
         }
-        
-        return googleId;
+        return courseIdToInstructorGoogleIdMap;
     }
 
-    private AccountAttributes getRegisteredInstructorAccountFromInstructors(List<InstructorAttributes> instructors) {
-        
-        for (InstructorAttributes instructor : instructors) {
-            if (instructor.googleId != null) {
-                return logic.getAccount(instructor.googleId);
-            }
+    /**
+     * @return the institutes of the accounts, by googleId
+     */
+    private Map<String, String> getInstitutes(Collection<String> googleIds) {
+        Map<String, String> googleIdToInstituteMap = new HashMap<String, String>();
+        for (AccountAttributes account : logic.getAccounts(new ArrayList<String>(new LinkedHashSet<String>(googleIds)))) {
+            googleIdToInstituteMap.put(account.googleId, account.institute);
         }
-        
-        return null;
+        return googleIdToInstituteMap;
     }
 
     private int getTotalNumOfOpenStatusSession(List<FeedbackSessionAttributes> allOpenFeedbackSessionsList) {
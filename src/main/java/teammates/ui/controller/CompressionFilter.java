@@ -0,0 +1,417 @@
+package teammates.ui.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Servlet Filter that compresses text responses (pages, AJAX JSON, CSV downloads) with gzip
+ * or deflate, whichever the browser accepts according to its {@code Accept-Encoding} header.<br>
+ * The response is streamed: only its first {@code minCompressSize} bytes are held back, to find out
+ * whether it is long enough to be worth compressing. Content flushed before that is compressed anyway,
+ * as more is expected to follow. Responses of other types (e.g. images), responses that are already
+ * encoded and blobs served by the Blobstore are passed through unchanged.<br>
+ * Init parameters: {@code minCompressSize} (bytes) and {@code compressibleContentTypes}
+ * (comma-separated MIME types).
+ */
+public final class CompressionFilter implements Filter {
+
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private static final int DEFAULT_MIN_COMPRESS_SIZE = 1024;
+    private static final String DEFAULT_COMPRESSIBLE_CONTENT_TYPES =
+            "text/html,text/plain,text/css,text/csv,text/javascript,application/javascript,application/json";
+
+    /** Set by the Blobstore service when it is asked to serve a blob; the blob is added to the response later. */
+    private static final String BLOBSTORE_SERVE_HEADER = "X-AppEngine-BlobKey";
+
+    private int minCompressSize;
+    private Set<String> compressibleContentTypes;
+
+    @Override
+    public void init(FilterConfig config) {
+        String minCompressSizeParam = config.getInitParameter("minCompressSize");
+        minCompressSize = minCompressSizeParam == null ? DEFAULT_MIN_COMPRESS_SIZE
+                                                       : Integer.parseInt(minCompressSizeParam.trim());
+
+        String contentTypesParam = config.getInitParameter("compressibleContentTypes");
+        compressibleContentTypes = new HashSet<String>();
+        for (String contentType : (contentTypesParam == null ? DEFAULT_COMPRESSIBLE_CONTENT_TYPES
+                                                               : contentTypesParam).split(",")) {
+            compressibleContentTypes.add(contentType.trim().toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response,
+            FilterChain chain) throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest req = (HttpServletRequest) request;
+        String encoding = getAcceptedEncoding(req.getHeader("Accept-Encoding"));
+        if (encoding == null || "HEAD".equals(req.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        CompressingResponse compressingResponse = new CompressingResponse((HttpServletResponse) response, encoding);
+        chain.doFilter(request, compressingResponse);
+        compressingResponse.finish();
+    }
+
+    @Override
+    public void destroy() {
+        // nothing to release
+    }
+
+    /**
+     * @return the encoding to compress with, preferring gzip, or null if the browser accepts neither
+     *         gzip nor deflate
+     */
+    private static String getAcceptedEncoding(String acceptEncodingHeader) {
+        if (acceptEncodingHeader == null) {
+            return null;
+        }
+        boolean isDeflateAccepted = false;
+        for (String codingWithParams : acceptEncodingHeader.split(",")) {
+            String[] parts = codingWithParams.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            if (isRefused(parts)) {
+                continue;
+            }
+            if (GZIP.equals(coding) || "x-gzip".equals(coding)) {
+                return GZIP;
+            }
+            isDeflateAccepted = isDeflateAccepted || DEFLATE.equals(coding);
+        }
+        return isDeflateAccepted ? DEFLATE : null;
+    }
+
+    /**
+     * @return true if the coding is given a quality value of 0, e.g. {@code gzip;q=0}
+     */
+    private static boolean isRefused(String[] codingAndParams) {
+        for (int i = 1; i < codingAndParams.length; i++) {
+            String param = codingAndParams[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Holds back the start of the body until it is known whether it is to be compressed,
+     * then writes everything through to the wrapped response, compressed or not.
+     */
+    private class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final String encoding;
+
+        /** The start of the body; null once the body is being written through. */
+        private ByteArrayOutputStream heldBackBody = new ByteArrayOutputStream();
+        private OutputStream bodyOutput;
+        private boolean isCompressing;
+
+        private boolean isBlobServed;
+        private boolean isAlreadyEncoded;
+        private boolean isWithoutBody;
+        private int contentLength = -1;
+
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        private boolean isFinished;
+
+        CompressingResponse(HttpServletResponse response, String encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (outputStream != null && writer == null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            if (writer == null) {
+                outputStream = new CompressingOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            if (heldBackBody == null && !isCompressing) {
+                super.setContentLength(length);
+            } else {
+                // passed on only if the body turns out not to be compressed
+                contentLength = length;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                setContentLength(Integer.parseInt(value));
+                return;
+            }
+            noteHeader(name);
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                setContentLength(Integer.parseInt(value));
+                return;
+            }
+            noteHeader(name);
+            super.addHeader(name, value);
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                setContentLength(value);
+                return;
+            }
+            super.setIntHeader(name, value);
+        }
+
+        private void noteHeader(String name) {
+            isBlobServed = isBlobServed || BLOBSTORE_SERVE_HEADER.equalsIgnoreCase(name);
+            isAlreadyEncoded = isAlreadyEncoded || "Content-Encoding".equalsIgnoreCase(name);
+        }
+
+        @Override
+        public void setStatus(int status) {
+            noteStatus(status);
+            super.setStatus(status);
+        }
+
+        private void noteStatus(int status) {
+            isWithoutBody = status == HttpServletResponse.SC_NO_CONTENT
+                            || status == HttpServletResponse.SC_NOT_MODIFIED;
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            discardHeldBackBody();
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            discardHeldBackBody();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            discardHeldBackBody();
+            super.sendRedirect(location);
+        }
+
+        /**
+         * The container writes the body of errors and redirects; it is not to be compressed.
+         */
+        private void discardHeldBackBody() {
+            if (heldBackBody != null) {
+                heldBackBody = null;
+                isFinished = true;
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            resetHeldBackBody();
+            isBlobServed = false;
+            isAlreadyEncoded = false;
+            isWithoutBody = false;
+            contentLength = -1;
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            resetHeldBackBody();
+        }
+
+        private void resetHeldBackBody() {
+            if (heldBackBody != null) {
+                heldBackBody.reset();
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        private boolean isCompressible() {
+            String contentType = getContentType();
+            if (contentType == null || isBlobServed || isAlreadyEncoded || isWithoutBody) {
+                return false;
+            }
+            int parametersStart = contentType.indexOf(';');
+            String mimeType = parametersStart == -1 ? contentType : contentType.substring(0, parametersStart);
+            return compressibleContentTypes.contains(mimeType.trim().toLowerCase(Locale.ENGLISH));
+        }
+
+        /**
+         * Ends holding back the body: from now on it is written through, compressed if
+         * {@code isLongEnough} and the response is of a compressible type.
+         */
+        private void startWritingThrough(boolean isLongEnough) throws IOException {
+            ByteArrayOutputStream bodyStart = heldBackBody;
+            heldBackBody = null;
+
+            if (isCompressible()) {
+                // the response differs by the encodings the browser accepts even if this one is not compressed
+                super.addHeader("Vary", "Accept-Encoding");
+            }
+            isCompressing = isLongEnough && isCompressible();
+            if (isCompressing) {
+                super.setHeader("Content-Encoding", encoding);
+                // sync flush, so that flushing sends out everything written so far
+                bodyOutput = GZIP.equals(encoding) ? new GZIPOutputStream(super.getOutputStream(), true)
+                                                   : new DeflaterOutputStream(super.getOutputStream(), true);
+            } else {
+                if (contentLength >= 0) {
+                    super.setContentLength(contentLength);
+                }
+                bodyOutput = super.getOutputStream();
+            }
+            bodyStart.writeTo(bodyOutput);
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (isFinished) {
+                // e.g. written after an error was sent; ignored as the container would
+                return;
+            }
+            if (heldBackBody == null) {
+                bodyOutput.write(bytes, offset, length);
+                return;
+            }
+            heldBackBody.write(bytes, offset, length);
+            if (heldBackBody.size() >= minCompressSize) {
+                startWritingThrough(true);
+            }
+        }
+
+        private void flush() throws IOException {
+            if (isFinished) {
+                return;
+            }
+            if (heldBackBody != null) {
+                if (heldBackBody.size() == 0) {
+                    return;
+                }
+                // more is likely to follow, so the response is treated as long
+                startWritingThrough(true);
+            }
+            bodyOutput.flush();
+        }
+
+        /**
+         * Writes out what is still held back and completes the compressed body.
+         * Does nothing if the response has been completed already.
+         */
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (isFinished) {
+                return;
+            }
+            isFinished = true;
+
+            if (heldBackBody != null) {
+                if (heldBackBody.size() == 0) {
+                    // nothing written; e.g. a blob to be served, or a response without a body
+                    if (contentLength >= 0) {
+                        super.setContentLength(contentLength);
+                    }
+                    return;
+                }
+                startWritingThrough(heldBackBody.size() >= minCompressSize);
+            }
+            if (bodyOutput instanceof DeflaterOutputStream) {
+                ((DeflaterOutputStream) bodyOutput).finish();
+            }
+            bodyOutput.flush();
+        }
+
+        private class CompressingOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                CompressingResponse.this.write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                CompressingResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                CompressingResponse.this.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                finish();
+                CompressingResponse.super.getOutputStream().close();
+            }
+
+        }
+
+    }
+
+}
@@ -19,6 +19,7 @@ import teammates.common.util.Const;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Logger;
+import teammates.common.util.RequestCosts;
 import teammates.common.util.StatusMessage;
 import teammates.common.util.StatusMessageColor;
 import teammates.logic.api.GateKeeper;
@@ -53,6 +54,7 @@ public class ControllerServlet extends HttpServlet {
              * classes, based on request-specific needs.
              */
             long startTime = System.currentTimeMillis();
+            RequestCosts.beginScope();
             
             log.info("Request received : [" + req.getMethod() + "] " + req.getRequestURL().toString()
                     + ":" + HttpRequestHelper.printRequestParameters(req));
@@ -67,9 +69,10 @@ public class ControllerServlet extends HttpServlet {
             }
             
             long timeTaken = System.currentTimeMillis() - startTime;
+            RequestCosts costs = RequestCosts.endScope();
             // This is the log message that is used to generate the 'activity log' for the admin.
             
-            log.info(c.getLogMessage() + "|||" + timeTaken);
+            log.info(c.getLogMessage() + "|||" + timeTaken + "|||" + costs.toLogToken());
             
         } catch (PageNotFoundException e) {
             log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
@@ -134,6 +137,9 @@ public class ControllerServlet extends HttpServlet {
             }
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ERROR_PAGE);
+        } finally {
+            // the scope is still open if the request failed
+            RequestCosts.endScope();
         }
         
     }
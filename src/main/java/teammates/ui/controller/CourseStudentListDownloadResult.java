@@ -0,0 +1,54 @@
+package teammates.ui.controller;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
+import teammates.common.util.StatusMessage;
+import teammates.logic.api.Logic;
+
+/**
+ * The student list of a course as a CSV file, written to the response as the students are read
+ * instead of being built as one string first.
+ */
+public class CourseStudentListDownloadResult extends FileDownloadResult {
+
+    private Logic logic;
+    private String courseId;
+
+    public CourseStudentListDownloadResult(String destination, AccountAttributes account,
+                                           List<StatusMessage> status, String fileName,
+                                           Logic logic, String courseId) {
+        super(destination, account, status);
+        this.fileName = fileName;
+        this.logic = logic;
+        this.courseId = courseId;
+    }
+
+    @Override
+    protected void writeFileContent(Writer writer) throws IOException {
+        try {
+            logic.writeCourseStudentListAsCsv(courseId, account.googleId, writer);
+        } catch (EntityDoesNotExistException e) {
+            // the course was checked to be accessible when the action was executed
+            throw new IOException("Course " + courseId + " disappeared while its student list was downloaded", e);
+        }
+    }
+
+    @Override
+    public String getFileContent() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeFileContent(writer);
+        } catch (IOException e) {
+            Assumption.fail(TeammatesException.toStringWithStackTrace(e));
+        }
+        return writer.toString();
+    }
+
+}
@@ -218,7 +218,7 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
                 return;
             }
             try {
-                logic.updateFeedbackResponse(response);
+                logic.updateFeedbackResponse(response, data.bundle.feedbackSession);
                 hasValidResponse = true;
             } catch (EntityAlreadyExistsException | InvalidParametersException e) {
                 setStatusForException(e);
@@ -226,7 +226,7 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
         } else if (!response.responseMetaData.getValue().isEmpty()
                    && !response.recipient.isEmpty()) {
             try {
-                logic.createFeedbackResponse(response);
+                logic.createFeedbackResponse(response, data.bundle.feedbackSession);
                 hasValidResponse = true;
             } catch (InvalidParametersException e) {
                 setStatusForException(e);
@@ -7,31 +7,79 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.ImageHelper;
 import teammates.common.util.StatusMessage;
 
 import com.google.appengine.api.blobstore.BlobKey;
 import com.google.appengine.api.blobstore.BlobstoreService;
 import com.google.appengine.api.blobstore.BlobstoreServiceFactory;
 
+/**
+ * An image stored in Google Cloud Storage, served with an ETag made from its key.
+ * A picture never changes once written (a new picture gets a new key), so browsers may keep it
+ * for long when the key is part of the URL; otherwise they check with the ETag whether it is still
+ * the picture the URL refers to, and get an empty response if it is.
+ */
 public class ImageResult extends ActionResult {
 
+    /** How long browsers may keep an image that is requested by its key. */
+    private static final int MAX_AGE_SECONDS_FOR_REQUEST_BY_KEY = 365 * 24 * 60 * 60;
+
     public String blobKey;
-    
+
+    /** The type of the image, or null if it is to be found from the image data. */
+    public String contentType;
+
+    /** Whether the URL of the request contains the key, so that it always refers to this image. */
+    public boolean isRequestedByKey;
+
     public ImageResult(String destination, String blobKey, AccountAttributes account,
             List<StatusMessage> status) {
+        this(destination, blobKey, null, true, account, status);
+    }
+
+    public ImageResult(String destination, String blobKey, String contentType, boolean isRequestedByKey,
+                       AccountAttributes account, List<StatusMessage> status) {
         super(destination, account, status);
         this.blobKey = blobKey;
+        this.contentType = contentType;
+        this.isRequestedByKey = isRequestedByKey;
     }
 
     @Override
     public void send(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        
+
         if (blobKey.isEmpty()) {
             resp.sendError(1, "No image found");
-        } else {
-            resp.setContentType("image/png");
-            BlobstoreService blobstoreService = BlobstoreServiceFactory.getBlobstoreService();
-            blobstoreService.serve(new BlobKey(blobKey), resp);
+            return;
+        }
+
+        String etag = "\"" + blobKey + "\"";
+        resp.setHeader("ETag", etag);
+        // private: the image is only shown to users who may see the student's profile
+        resp.setHeader("Cache-Control", isRequestedByKey ? "private, max-age=" + MAX_AGE_SECONDS_FOR_REQUEST_BY_KEY
+                                                         : "private, max-age=0, must-revalidate");
+        if (etag.equals(req.getHeader("If-None-Match"))) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        BlobKey key = new BlobKey(blobKey);
+        resp.setContentType(contentType == null ? getContentType(key) : contentType);
+        BlobstoreService blobstoreService = BlobstoreServiceFactory.getBlobstoreService();
+        blobstoreService.serve(key, resp);
+    }
+
+    private String getContentType(BlobKey key) {
+        try {
+            byte[] header = GoogleCloudStorageHelper.readFileHeaderFromGcs(key, ImageHelper.CONTENT_TYPE_HEADER_LENGTH);
+            String type = ImageHelper.getContentType(header);
+            // pictures were always served as PNG before their type was checked
+            return ImageHelper.CONTENT_TYPE_UNKNOWN.equals(type) ? ImageHelper.CONTENT_TYPE_PNG : type;
+        } catch (IllegalArgumentException e) {
+            // the file does not exist; serving it gives the error
+            return ImageHelper.CONTENT_TYPE_PNG;
         }
     }
 
@@ -16,12 +16,13 @@ public class InstructorCourseStudentListDownloadAction extends Action {
                 logic.getInstructorForGoogleId(courseId, account.googleId),
                 logic.getCourse(courseId));
         
-        String fileContent = logic.getCourseStudentListAsCsv(courseId, account.googleId);
         String fileName = courseId + "_studentList";
         
         statusToAdmin = "Students data for Course " + courseId + " was downloaded";
         
-        return createFileDownloadResult(fileName, fileContent);
+        // the list is written as the students are read, so that large courses are not held in memory
+        return new CourseStudentListDownloadResult("filedownload", account, statusToUser, fileName,
+                                                   logic, courseId);
     }
 
 }
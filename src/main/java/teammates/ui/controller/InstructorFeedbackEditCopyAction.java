@@ -2,8 +2,11 @@ package teammates.ui.controller;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
@@ -19,6 +22,9 @@ import teammates.logic.api.GateKeeper;
 
 public class InstructorFeedbackEditCopyAction extends Action {
 
+    // copies to more courses are made in the background
+    private static final int MAX_COURSES_COPIED_IN_REQUEST = 5;
+
     @Override
     protected ActionResult execute() throws EntityDoesNotExistException {
         String newFeedbackSessionName = getRequestParamValue(Const.ParamsNames.COPIED_FEEDBACK_SESSION_NAME);
@@ -49,10 +55,13 @@ public class InstructorFeedbackEditCopyAction extends Action {
                 Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION);
         gk.verifyAccessible(instructor, fsa, false);
         
+        List<String> courseIdsToCopyTo = Arrays.asList(coursesIdToCopyTo);
+        verifyCoursesAccessible(gk, courseIdsToCopyTo);
+        
         try {
             // Check if there are no conflicting feedback sessions in all the courses
-            List<String> conflictCourses =
-                    filterConflictsInCourses(newFeedbackSessionName, coursesIdToCopyTo);
+            List<String> conflictCourses = logic.getCoursesWithFeedbackSession(newFeedbackSessionName,
+                                                                               courseIdsToCopyTo);
             
             if (!conflictCourses.isEmpty()) {
                 String commaSeparatedListOfCourses = StringHelper.toString(conflictCourses, ",");
@@ -63,36 +72,38 @@ public class InstructorFeedbackEditCopyAction extends Action {
                 return createAjaxResultWithErrorMessage(errorToUser);
             }
             
-            FeedbackSessionAttributes fs = null;
-            // Copy the feedback sessions
-            // TODO: consider doing this as a batch insert
-            for (String courseIdToCopyTo : coursesIdToCopyTo) {
-                InstructorAttributes instructorForCourse =
-                        logic.getInstructorForGoogleId(courseIdToCopyTo, account.googleId);
-                gk.verifyAccessible(
-                        instructorForCourse,
-                        logic.getCourse(courseIdToCopyTo),
-                        Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION);
+            String commaSeparatedListOfCourses = StringHelper.toString(courseIdsToCopyTo, ",");
+            
+            if (courseIdsToCopyTo.size() > MAX_COURSES_COPIED_IN_REQUEST) {
+                logic.scheduleFeedbackSessionCopy(newFeedbackSessionName, courseIdsToCopyTo,
+                                                  originalFeedbackSessionName, originalCourseId, instructor.email);
+                statusToUser.add(new StatusMessage(String.format(Const.StatusMessages.FEEDBACK_SESSION_COPY_SCHEDULED,
+                                                                 courseIdsToCopyTo.size()),
+                                                   StatusMessageColor.INFO));
+                statusToAdmin = "Copying of feedback session <span class=\"bold\">(" + originalFeedbackSessionName
+                                + ")</span> for Course <span class=\"bold\">[" + originalCourseId + "]</span> "
+                                + "as <span class=\"bold\">(" + newFeedbackSessionName + ")</span> "
+                                + "scheduled for Courses: <br>" + commaSeparatedListOfCourses;
+            } else {
+                FeedbackSessionAttributes fs = logic.copyFeedbackSessionToCourses(
+                        newFeedbackSessionName, courseIdsToCopyTo,
+                        originalFeedbackSessionName, originalCourseId, instructor.email).get(0);
                 
-                fs = logic.copyFeedbackSession(newFeedbackSessionName, courseIdToCopyTo,
-                        originalFeedbackSessionName, originalCourseId, instructor.email);
+                statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_SESSION_COPIED,
+                                                   StatusMessageColor.SUCCESS));
+                statusToAdmin =
+                        "Copying to multiple feedback sessions.<br>"
+                        + "New Feedback Session <span class=\"bold\">(" + fs.getFeedbackSessionName() + ")</span> "
+                        + "for Courses: <br>" + commaSeparatedListOfCourses + "<br>"
+                        + "<span class=\"bold\">From:</span> " + fs.getStartTime()
+                        + "<span class=\"bold\"> to</span> " + fs.getEndTime() + "<br>"
+                        + "<span class=\"bold\">Session visible from:</span> " + fs.getSessionVisibleFromTime() + "<br>"
+                        + "<span class=\"bold\">Results visible from:</span> " + fs.getResultsVisibleFromTime()
+                        + "<br><br>"
+                        + "<span class=\"bold\">Instructions:</span> " + fs.getInstructions() + "<br>"
+                        + "Copied from <span class=\"bold\">(" + originalFeedbackSessionName + ")</span> for Course "
+                        + "<span class=\"bold\">[" + originalCourseId + "]</span> created.<br>";
             }
-            
-            List<String> courses = Arrays.asList(coursesIdToCopyTo);
-            String commaSeparatedListOfCourses = StringHelper.toString(courses, ",");
-            
-            statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_SESSION_COPIED, StatusMessageColor.SUCCESS));
-            statusToAdmin =
-                    "Copying to multiple feedback sessions.<br>"
-                    + "New Feedback Session <span class=\"bold\">(" + fs.getFeedbackSessionName() + ")</span> "
-                    + "for Courses: <br>" + commaSeparatedListOfCourses + "<br>"
-                    + "<span class=\"bold\">From:</span> " + fs.getStartTime()
-                    + "<span class=\"bold\"> to</span> " + fs.getEndTime() + "<br>"
-                    + "<span class=\"bold\">Session visible from:</span> " + fs.getSessionVisibleFromTime() + "<br>"
-                    + "<span class=\"bold\">Results visible from:</span> " + fs.getResultsVisibleFromTime() + "<br><br>"
-                    + "<span class=\"bold\">Instructions:</span> " + fs.getInstructions() + "<br>"
-                    + "Copied from <span class=\"bold\">(" + originalFeedbackSessionName + ")</span> for Course "
-                    + "<span class=\"bold\">[" + originalCourseId + "]</span> created.<br>";
 
             // Return with redirection url (handled in javascript) to the sessions page after copying,
             // so that the instructor can see the new feedback sessions
@@ -117,25 +128,30 @@ public class InstructorFeedbackEditCopyAction extends Action {
     }
 
     /**
-     * Given an array of Course Ids, return only the Ids of Courses which has
-     * an existing feedback session with a name conflicting with feedbackSessionName
-     * @param feedbackSessionName
-     * @param coursesIdToCopyTo
+     * Verifies that the instructor can modify sessions in all the given courses, reading the instructor's
+     * records and the courses in one batch each.
      */
-    private List<String> filterConflictsInCourses(String feedbackSessionName, String[] coursesIdToCopyTo) {
-        List<String> courses = new ArrayList<String>();
+    private void verifyCoursesAccessible(GateKeeper gk, List<String> courseIds) {
+        Map<String, InstructorAttributes> instructorsByCourse = new HashMap<String, InstructorAttributes>();
+        for (InstructorAttributes instructor : logic.getInstructorsForGoogleId(account.googleId)) {
+            instructorsByCourse.put(instructor.courseId, instructor);
+        }
         
-        for (String courseIdToCopy : coursesIdToCopyTo) {
-            FeedbackSessionAttributes existingFs =
-                    logic.getFeedbackSession(feedbackSessionName, courseIdToCopy);
-            boolean fsAlreadyExists = existingFs != null;
-            
-            if (fsAlreadyExists) {
-                courses.add(existingFs.getCourseId());
+        List<InstructorAttributes> instructorsForCourses = new ArrayList<InstructorAttributes>();
+        for (String courseId : courseIds) {
+            if (instructorsByCourse.containsKey(courseId)) {
+                instructorsForCourses.add(instructorsByCourse.get(courseId));
             }
         }
+        Map<String, CourseAttributes> coursesById = new HashMap<String, CourseAttributes>();
+        for (CourseAttributes course : logic.getCoursesForInstructor(instructorsForCourses)) {
+            coursesById.put(course.getId(), course);
+        }
         
-        return courses;
+        for (String courseId : courseIds) {
+            gk.verifyAccessible(instructorsByCourse.get(courseId), coursesById.get(courseId),
+                                Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION);
+        }
     }
     
     private AjaxResult createAjaxResultWithErrorMessage(String errorToUser) {
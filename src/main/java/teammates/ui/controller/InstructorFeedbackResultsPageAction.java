@@ -64,6 +64,7 @@ public class InstructorFeedbackResultsPageAction extends Action {
         String groupByTeam = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_GROUPBYTEAM);
         String sortType = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_SORTTYPE);
         String startIndex = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_MAIN_INDEX);
+        String pageToken = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_PAGE_TOKEN);
 
         if (startIndex != null) {
             data.setStartIndex(Integer.parseInt(startIndex));
@@ -97,14 +98,16 @@ public class InstructorFeedbackResultsPageAction extends Action {
                     .getFeedbackSessionResultsForInstructorFromSectionWithinRange(feedbackSessionName, courseId,
                                                                                   instructor.email,
                                                                                   selectedSection,
-                                                                                  DEFAULT_SECTION_QUERY_RANGE));
+                                                                                  DEFAULT_SECTION_QUERY_RANGE,
+                                                                                  pageToken));
         } else if (Const.FeedbackSessionResults.RQG_SORT_TYPE.equals(sortType)
                 || Const.FeedbackSessionResults.RGQ_SORT_TYPE.equals(sortType)) {
             data.setBundle(logic
                     .getFeedbackSessionResultsForInstructorToSectionWithinRange(feedbackSessionName, courseId,
                                                                                 instructor.email,
                                                                                 selectedSection,
-                                                                                DEFAULT_SECTION_QUERY_RANGE));
+                                                                                DEFAULT_SECTION_QUERY_RANGE,
+                                                                                pageToken));
         }
 
         if (data.getBundle() == null) {
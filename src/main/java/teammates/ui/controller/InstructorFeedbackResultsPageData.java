@@ -14,6 +14,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.datatransfer.CompiledInstructorPrivileges;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
@@ -25,6 +26,7 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.StringHelper;
+import teammates.common.util.Url;
 import teammates.ui.template.ElementTag;
 import teammates.ui.template.FeedbackResponseCommentRow;
 import teammates.ui.template.FeedbackSessionPublishButton;
@@ -55,6 +57,8 @@ public class InstructorFeedbackResultsPageData extends PageData {
     
     private FeedbackSessionResultsBundle bundle;
     private InstructorAttributes instructor;
+    // compiled once, as the privileges are checked for every response
+    private CompiledInstructorPrivileges instructorPrivileges;
     private List<String> sections;
     private String selectedSection;
     private String sortType;
@@ -165,6 +169,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
         Assumption.assertNotNull(bundle);
         
         this.instructor = instructor;
+        this.instructorPrivileges = instructor.compilePrivileges();
         this.selectedSection = selectedSection;
         this.showStats = showStats;
         this.groupByTeam = groupByTeam;
@@ -485,7 +490,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
             
             if (!viewType.isPrimaryGroupingOfGiverType()) {
                 String sectionName = bundle.getSectionFromRoster(secondaryParticipantIdentifier);
-                boolean isAllowedToModerate = isAllowedToModerate(instructor, sectionName, feedbackSessionName);
+                boolean isAllowedToModerate = isAllowedToModerate(sectionName, feedbackSessionName);
 
                 secondaryParticipantPanel.setModerationButton(
                         isAllowedToModerate
@@ -535,12 +540,12 @@ public class InstructorFeedbackResultsPageData extends PageData {
             
             List<FeedbackResponseCommentRow> comments = buildResponseComments(giverName, recipientName, question, response);
             boolean isAllowedToSubmitSessionsInBothSection =
-                    instructor.isAllowedForPrivilege(response.giverSection,
-                                                     response.feedbackSessionName,
-                                                     Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)
-                    && instructor.isAllowedForPrivilege(response.recipientSection,
-                                                        response.feedbackSessionName,
-                                                        Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS);
+                    instructorPrivileges.isAllowedForPrivilege(
+                            response.giverSection, response.feedbackSessionName,
+                            Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)
+                    && instructorPrivileges.isAllowedForPrivilege(
+                               response.recipientSection, response.feedbackSessionName,
+                               Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS);
 
             Matcher matcher = sectionIdPattern.matcher(additionalInfoId);
             if (matcher.find()) {
@@ -1421,7 +1426,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
         }
         
         String sectionName = bundle.getSectionFromRoster(giverIdentifier);
-        boolean isAllowedToModerate = isAllowedToModerate(instructor, sectionName, getFeedbackSessionName());
+        boolean isAllowedToModerate = isAllowedToModerate(sectionName, getFeedbackSessionName());
         boolean isDisabled = !isAllowedToModerate;
         String moderateFeedbackResponseLink = isGiverInstructorOfCourse
                                               ? Const.ActionURIs.INSTRUCTOR_EDIT_INSTRUCTOR_FEEDBACK_PAGE
@@ -1487,10 +1492,10 @@ public class InstructorFeedbackResultsPageData extends PageData {
             FeedbackResponseCommentAttributes frcAttributes) {
         boolean isInstructorGiver = instructor.email.equals(frcAttributes.giverEmail);
         boolean isInstructorWithPrivilegesToModify =
-                instructor.isAllowedForPrivilege(
+                instructorPrivileges.isAllowedForPrivilege(
                         response.giverSection, response.feedbackSessionName,
                         Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION_COMMENT_IN_SECTIONS)
-                && instructor.isAllowedForPrivilege(
+                && instructorPrivileges.isAllowedForPrivilege(
                            response.recipientSection, response.feedbackSessionName,
                            Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION_COMMENT_IN_SECTIONS);
         boolean isInstructorAllowedToEditAndDeleteComment = isInstructorGiver || isInstructorWithPrivilegesToModify;
@@ -1600,7 +1605,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
             }
             
             String sectionName = bundle.getSectionFromRoster(giverIdentifier);
-            boolean isAllowedToModerate = isAllowedToModerate(instructor, sectionName, feedbackSessionName);
+            boolean isAllowedToModerate = isAllowedToModerate(sectionName, feedbackSessionName);
             String moderateFeedbackLink = isStudent ? Const.ActionURIs.INSTRUCTOR_EDIT_STUDENT_FEEDBACK_PAGE
                                                             : Const.ActionURIs.INSTRUCTOR_EDIT_INSTRUCTOR_FEEDBACK_PAGE;
             moderateFeedbackLink = addUserIdToUrl(moderateFeedbackLink);
@@ -1708,14 +1713,34 @@ public class InstructorFeedbackResultsPageData extends PageData {
                : null;
     }
     
+    /**
+     * Returns the link to the next page of responses in the selected section,
+     * or {@code null} if there are no more responses to show.
+     */
+    public String getNextPageLink() {
+        if (bundle.nextPageToken == null || isAllSectionsSelected()) {
+            return null;
+        }
+        String link = getInstructorFeedbackSessionResultsLink();
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_GROUPBYSECTION, selectedSection);
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_SORTTYPE, sortType);
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_GROUPBYTEAM, groupByTeam);
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_SHOWSTATS, showStats);
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_INDICATE_MISSING_RESPONSES,
+                                 String.valueOf(isMissingResponsesShown));
+        link = Url.addParamToUrl(link, Const.ParamsNames.FEEDBACK_RESULTS_PAGE_TOKEN, bundle.nextPageToken);
+        return link;
+    }
+
     private String getInstructorFeedbackSessionResultsLink() {
         return getInstructorFeedbackResultsLink(bundle.feedbackSession.getCourseId(),
                                                 bundle.feedbackSession.getFeedbackSessionName());
     }
     
-    private boolean isAllowedToModerate(InstructorAttributes instructor, String sectionName, String feedbackSessionName) {
-        return instructor.isAllowedForPrivilege(sectionName, feedbackSessionName,
-                                                Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION_COMMENT_IN_SECTIONS);
+    private boolean isAllowedToModerate(String sectionName, String feedbackSessionName) {
+        return instructorPrivileges.isAllowedForPrivilege(
+                sectionName, feedbackSessionName,
+                Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION_COMMENT_IN_SECTIONS);
     }
     
     public boolean isAllSectionsSelected() {
@@ -5,6 +5,7 @@ import teammates.common.datatransfer.StudentProfileAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.common.util.ImageHelper;
 import teammates.common.util.StringHelper;
 import teammates.logic.api.GateKeeper;
 
@@ -50,7 +51,14 @@ public class StudentProfilePictureAction extends Action {
         StudentAttributes student = getStudentForGivenParameters(courseId, email);
         new GateKeeper().verifyAccessibleForCurrentUserAsInstructor(account, courseId, student.section);
 
-        return createImageResult(getPictureKeyForStudent(student));
+        StudentProfileAttributes profile = getProfileForStudent(student);
+        if (profile == null) {
+            return createImageResult("", null, false);
+        }
+        // pages that show the picture this way list many students, so the thumbnail is served if there is one
+        String pictureKey = profile.getPictureKeyForListing();
+        boolean isThumbnail = pictureKey.equals(profile.pictureThumbnailKey);
+        return createImageResult(pictureKey, isThumbnail ? ImageHelper.CONTENT_TYPE_PNG : null, false);
     }
 
     private StudentAttributes getStudentForGivenParameters(String courseId, String email)
@@ -82,17 +90,13 @@ public class StudentProfilePictureAction extends Action {
         return email;
     }
 
-    private String getPictureKeyForStudent(StudentAttributes student) {
+    private StudentProfileAttributes getProfileForStudent(StudentAttributes student) {
         // picture request is only relevant for registered student
-        if (!student.googleId.isEmpty()) {
-            StudentProfileAttributes profile = logic.getStudentProfile(student.googleId);
-
-            // TODO: remove the null check once all legacy data has been ported
-            if (profile != null) {
-                return profile.pictureKey;
-            }
+        if (student.googleId.isEmpty()) {
+            return null;
         }
-        return "";
+        // TODO: remove the null check by callers once all legacy data has been ported
+        return logic.getStudentProfile(student.googleId);
     }
 
 }
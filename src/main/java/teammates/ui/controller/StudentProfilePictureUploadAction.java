@@ -35,6 +35,7 @@ public class StudentProfilePictureUploadAction extends Action {
         new GateKeeper().verifyLoggedInUserPrivileges();
 
         String pictureKey = "";
+        String thumbnailKey = "";
         BlobKey blobKey = new BlobKey("");
         RedirectResult r = createRedirectResult(Const.ActionURIs.STUDENT_PROFILE_PAGE);
 
@@ -42,8 +43,10 @@ public class StudentProfilePictureUploadAction extends Action {
             BlobInfo blobInfo = extractProfilePictureKey();
             if (!isError) {
                 blobKey = blobInfo.getBlobKey();
-                pictureKey = renameFileToGoogleId(blobInfo);
-                logic.updateStudentProfilePicture(account.googleId, pictureKey);
+                byte[] imageData = readPictureData(blobInfo);
+                pictureKey = renameFileToGoogleId(blobKey, imageData);
+                thumbnailKey = logic.writeStudentProfilePictureThumbnail(account.googleId, imageData);
+                logic.updateStudentProfilePicture(account.googleId, pictureKey, thumbnailKey);
                 statusToUser.add(new StatusMessage(Const.StatusMessages.STUDENT_PROFILE_PICTURE_SAVED,
                                                    StatusMessageColor.SUCCESS));
                 r.addResponseParam(Const.ParamsNames.STUDENT_PROFILE_PHOTOEDIT, "true");
@@ -58,6 +61,7 @@ public class StudentProfilePictureUploadAction extends Action {
              * that occur rarely and are handled higher up.
              */
             deletePicture(new BlobKey(pictureKey));
+            deletePicture(new BlobKey(thumbnailKey));
             statusToUser.clear();
             throw e;
         }
@@ -65,15 +69,17 @@ public class StudentProfilePictureUploadAction extends Action {
         return r;
     }
 
-    private String renameFileToGoogleId(BlobInfo blobInfo) throws IOException {
+    private byte[] readPictureData(BlobInfo blobInfo) throws IOException {
         Assumption.assertNotNull(blobInfo);
 
-        BlobKey blobKey = blobInfo.getBlobKey();
-        InputStream blobStream = new BlobstoreInputStream(blobKey);
+        InputStream blobStream = new BlobstoreInputStream(blobInfo.getBlobKey());
         byte[] imageData = new byte[(int) blobInfo.getSize()];
         blobStream.read(imageData);
         blobStream.close();
+        return imageData;
+    }
 
+    private String renameFileToGoogleId(BlobKey blobKey, byte[] imageData) throws IOException {
         String newKey = GoogleCloudStorageHelper.writeImageDataToGcs(account.googleId, imageData);
         deletePicture(blobKey);
         return newKey;
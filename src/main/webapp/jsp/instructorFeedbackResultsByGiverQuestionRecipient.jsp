@@ -1,9 +1,10 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8" %>
 
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib tagdir="/WEB-INF/tags" prefix="t" %>
 <%@ taglib tagdir="/WEB-INF/tags/instructor/results" prefix="results" %>
-<c:set var="jsIncludes">    
-    <script type="text/javascript" src="/js/instructorFeedbackResultsAjaxByGQR.js"></script>
+<c:set var="jsIncludes">
+    <t:scripts bundle="instructorFeedbackResultsByGiverQuestionRecipient.js" />
 </c:set>
 
 <results:resultsPage pageTitle="TEAMMATES - Feedback Session Results" bodyTitle="Session Results" jsIncludes="${jsIncludes}" data="${data}">
@@ -1,12 +1,11 @@
 <%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8" %>
 
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib tagdir="/WEB-INF/tags" prefix="t" %>
 <%@ taglib tagdir="/WEB-INF/tags/instructor/results" prefix="results" %>
 <c:set var="jsIncludes">
     <script type="text/javascript" src="/js/lib/tinymce.min.js"></script>
-    <script type="text/javascript" src="/js/richTextEditor.js"></script>
-    <script type="text/javascript" src="/js/feedbackResponseComments.js"></script>
-    <script type="text/javascript" src="/js/instructorFeedbackResultsAjaxByGRQ.js"></script>
+    <t:scripts bundle="instructorFeedbackResultsByGiverRecipientQuestion.js" />
 </c:set>
 
 <results:resultsPage pageTitle="TEAMMATES - Feedback Session Results" bodyTitle="Session Results" jsIncludes="${jsIncludes}" data="${data}">
@@ -0,0 +1,65 @@
+package teammates.test.cases.automated;
+
+import java.util.HashMap;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.api.Logic;
+import teammates.logic.core.CoursesLogic.CourseDeletionStage;
+
+import com.google.appengine.api.urlfetch.URLFetchServicePb.URLFetchRequest;
+
+public class CourseDeletionTaskQueueTest extends BaseComponentUsingTaskQueueTestCase {
+    private static final Logic logic = new Logic();
+    
+    @SuppressWarnings("serial")
+    public static class CourseDeletionTaskQueueCallback extends BaseTaskQueueCallback {
+        
+        @Override
+        public int execute(URLFetchRequest request) {
+            HashMap<String, String> paramMap = HttpRequestHelper.getParamMap(request);
+            
+            assertTrue(paramMap.containsKey(ParamsNames.COURSE_ID));
+            assertNotNull(paramMap.get(ParamsNames.COURSE_ID));
+            
+            assertEquals(CourseDeletionStage.STUDENTS.name(), paramMap.get(ParamsNames.COURSE_DELETION_STAGE));
+            
+            CourseDeletionTaskQueueCallback.taskCount++;
+            
+            return Const.StatusCodes.TASK_QUEUE_RESPONSE_OK;
+        }
+    }
+    
+    @BeforeClass
+    public static void classSetUp() throws Exception {
+        printTestClassHeader();
+        gaeSimulation.tearDown();
+        gaeSimulation.setupWithTaskQueueCallbackClass(CourseDeletionTaskQueueCallback.class);
+        gaeSimulation.resetDatastore();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+    
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+    
+    @Test
+    public void testScheduleCourseDeletion() {
+        
+        CourseDeletionTaskQueueCallback.resetTaskCount();
+        
+        ______TS("course is hidden at once and one task is added for the rest of its data");
+        
+        logic.scheduleCourseDeletion("idOfTypicalCourse1");
+        
+        assertNull(logic.getCourse("idOfTypicalCourse1"));
+        assertTrue(CourseDeletionTaskQueueCallback.verifyTaskCount(1));
+        assertEquals(1, CourseDeletionTaskQueueCallback.taskCount);
+    }
+}
@@ -0,0 +1,78 @@
+package teammates.test.cases.automated;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.logic.api.Logic;
+
+import com.google.appengine.api.urlfetch.URLFetchServicePb.URLFetchRequest;
+
+public class FeedbackSessionCopyTaskQueueTest extends BaseComponentUsingTaskQueueTestCase {
+    private static final Logic logic = new Logic();
+    
+    @SuppressWarnings("serial")
+    public static class FeedbackSessionCopyTaskQueueCallback extends BaseTaskQueueCallback {
+        
+        @Override
+        public int execute(URLFetchRequest request) {
+            HashMap<String, String> paramMap = HttpRequestHelper.getParamMap(request);
+            
+            assertNotNull(paramMap.get(ParamsNames.COPIED_FEEDBACK_SESSION_NAME));
+            assertNotNull(paramMap.get(ParamsNames.COPIED_COURSES_ID));
+            assertNotNull(paramMap.get(ParamsNames.FEEDBACK_SESSION_NAME));
+            assertNotNull(paramMap.get(ParamsNames.COURSE_ID));
+            assertNotNull(paramMap.get(ParamsNames.INSTRUCTOR_EMAIL));
+            
+            FeedbackSessionCopyTaskQueueCallback.taskCount++;
+            
+            return Const.StatusCodes.TASK_QUEUE_RESPONSE_OK;
+        }
+    }
+    
+    @BeforeClass
+    public static void classSetUp() throws Exception {
+        printTestClassHeader();
+        gaeSimulation.tearDown();
+        gaeSimulation.setupWithTaskQueueCallbackClass(FeedbackSessionCopyTaskQueueCallback.class);
+        gaeSimulation.resetDatastore();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+    
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+    
+    @Test
+    public void testScheduleFeedbackSessionCopy() throws Exception {
+        
+        FeedbackSessionCopyTaskQueueCallback.resetTaskCount();
+        
+        ______TS("invalid copies are rejected before any task is added");
+        
+        try {
+            logic.scheduleFeedbackSessionCopy("", Arrays.asList("idOfTypicalCourse2", "idOfCourseNoEvals"),
+                                              "First feedback session", "idOfTypicalCourse1",
+                                              "instructor1@course1.tmt");
+            signalFailureToDetectException();
+        } catch (InvalidParametersException e) {
+            ignoreExpectedException();
+        }
+        
+        ______TS("one task is added for all the courses");
+        
+        logic.scheduleFeedbackSessionCopy("Copied Session", Arrays.asList("idOfTypicalCourse2", "idOfCourseNoEvals"),
+                                          "First feedback session", "idOfTypicalCourse1", "instructor1@course1.tmt");
+        
+        assertTrue(FeedbackSessionCopyTaskQueueCallback.verifyTaskCount(1));
+        assertEquals(1, FeedbackSessionCopyTaskQueueCallback.taskCount);
+    }
+}
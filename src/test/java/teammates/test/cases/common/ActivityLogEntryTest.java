@@ -4,6 +4,7 @@ import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.util.ActivityLogEntry;
+import teammates.common.util.RequestCosts;
 import teammates.test.cases.BaseTestCase;
 import teammates.test.driver.AssertHelper;
 
@@ -45,6 +46,27 @@ public class ActivityLogEntryTest extends BaseTestCase {
         assertEquals("Message", entry.getMessageInfo());
         assertEquals("UserId", entry.getPersonInfo());
         assertEquals("Instructor", entry.getRole());
+        assertNull(entry.getTimeTaken());
+        assertNull(entry.getRequestCosts());
+        
+        ______TS("Test log with time taken and request costs");
+        appLog.setLogMessage(logMessage + "|||1520"
+                             + "|||datastore:12:340,search:1:25,taskqueue:0:0,mail:0:0,other:0:0,reads:118,writes:3");
+        entry = new ActivityLogEntry(appLog);
+        
+        assertEquals(Long.valueOf(1520), entry.getTimeTaken());
+        assertEquals(12, entry.getRequestCosts().getCalls(RequestCosts.DATASTORE));
+        assertEquals(118, entry.getRequestCosts().getEntitiesRead());
+        assertEquals("<p class=\"text-muted request-costs\"><small>datastore: 12 (340ms)<br>search: 1 (25ms)<br>"
+                     + "reads: 118<br>writes: 3</small></p>", entry.getRequestCostsAsHtml());
+        
+        ______TS("Test log with time taken only");
+        appLog.setLogMessage(logMessage + "|||1520");
+        entry = new ActivityLogEntry(appLog);
+        
+        assertEquals(Long.valueOf(1520), entry.getTimeTaken());
+        assertNull(entry.getRequestCosts());
+        assertEquals("", entry.getRequestCostsAsHtml());
     }
     
     @Test
@@ -0,0 +1,202 @@
+package teammates.test.cases.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.Config;
+import teammates.common.util.Const;
+import teammates.common.util.GroupReceiverListReader;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.blobstore.BlobstoreServiceFactory;
+import com.google.appengine.tools.cloudstorage.GcsFileOptions;
+import com.google.appengine.tools.cloudstorage.GcsFilename;
+import com.google.appengine.tools.cloudstorage.GcsOutputChannel;
+import com.google.appengine.tools.cloudstorage.GcsServiceFactory;
+import com.google.appengine.tools.cloudstorage.RetryParams;
+
+public class GroupReceiverListReaderTest extends BaseComponentTestCase {
+
+    // about 3MB, so that the file spans several buffers and blobstore fetches
+    private static final int NUMBER_OF_ADDRESSES = 100000;
+    private static final int BATCH_SIZE = 100;
+
+    private static String largeListContent;
+    private static List<String> expectedAddresses = new ArrayList<String>();
+    private static int expectedNumberOfInvalidAddresses;
+    private static BlobKey largeListKey;
+
+    @BeforeClass
+    public static void setupClass() throws IOException {
+        printTestClassHeader();
+
+        StringBuilder fileContent = new StringBuilder();
+        for (int i = 0; i < NUMBER_OF_ADDRESSES; i++) {
+            String address = "group.receiver." + i + "@gmail.tmt";
+            expectedAddresses.add(address);
+
+            // the kinds of noise found in uploaded lists: spaces, line breaks, empty entries and non-addresses
+            if (i % 1000 == 0) {
+                fileContent.append(" ").append(address).append("\n,");
+            } else if (i % 1000 == 1) {
+                fileContent.append(address).append(",,");
+            } else if (i % 1000 == 2) {
+                fileContent.append(address).append(",not an address,");
+                expectedNumberOfInvalidAddresses++;
+            } else {
+                fileContent.append(address).append(',');
+            }
+        }
+
+        largeListContent = fileContent.toString();
+        largeListKey = writeTextToGcs("largeGroupReceiverList.txt", largeListContent);
+    }
+
+    @Test
+    public void testReadAll() throws IOException {
+
+        ______TS("whole file, in batches");
+
+        List<String> actualAddresses = new ArrayList<String>();
+        GroupReceiverListReader reader = new GroupReceiverListReader(largeListKey, 0);
+        while (!reader.isEndOfFile()) {
+            List<String> batch = reader.readBatch(BATCH_SIZE);
+            assertTrue(batch.size() == BATCH_SIZE || reader.isEndOfFile());
+            actualAddresses.addAll(batch);
+        }
+        reader.close();
+
+        assertEquals(expectedAddresses, actualAddresses);
+        assertEquals(expectedNumberOfInvalidAddresses, reader.getNumberOfInvalidAddresses());
+        assertTrue(reader.readBatch(BATCH_SIZE).isEmpty());
+
+        ______TS("small file without trailing separator");
+
+        BlobKey smallListKey = writeTextToGcs("smallGroupReceiverList.txt", "first@gmail.tmt, second@gmail.tmt");
+        reader = new GroupReceiverListReader(smallListKey, 0);
+        List<String> batch = reader.readBatch(BATCH_SIZE);
+        reader.close();
+
+        assertEquals(2, batch.size());
+        assertEquals("first@gmail.tmt", batch.get(0));
+        assertEquals("second@gmail.tmt", batch.get(1));
+        assertTrue(reader.isEndOfFile());
+        assertEquals("first@gmail.tmt, second@gmail.tmt".length(), reader.getOffset());
+
+        ______TS("empty file");
+
+        BlobKey emptyListKey = writeTextToGcs("emptyGroupReceiverList.txt", ",\n");
+        reader = new GroupReceiverListReader(emptyListKey, 0);
+        assertTrue(reader.readBatch(BATCH_SIZE).isEmpty());
+        assertTrue(reader.isEndOfFile());
+        reader.close();
+    }
+
+    @Test
+    public void testResumeFromOffset() throws IOException {
+
+        ______TS("interrupted after some batches, resumed by a new reader from the stored offset");
+
+        List<String> actualAddresses = new ArrayList<String>();
+        GroupReceiverListReader reader = new GroupReceiverListReader(largeListKey, 0);
+        // an odd number of batches, so that the offset does not fall on a buffer boundary
+        for (int i = 0; i < 333; i++) {
+            actualAddresses.addAll(reader.readBatch(BATCH_SIZE));
+        }
+        long offset = reader.getOffset();
+        reader.close();
+
+        assertEquals(333 * BATCH_SIZE, actualAddresses.size());
+
+        reader = new GroupReceiverListReader(largeListKey, offset);
+        // resuming more than once, as a task running out of time repeatedly would
+        for (int i = 0; i < 111; i++) {
+            actualAddresses.addAll(reader.readBatch(BATCH_SIZE));
+        }
+        offset = reader.getOffset();
+        reader.close();
+
+        reader = new GroupReceiverListReader(largeListKey, offset);
+        while (!reader.isEndOfFile()) {
+            actualAddresses.addAll(reader.readBatch(BATCH_SIZE));
+        }
+        reader.close();
+
+        // every address is read exactly once, in order
+        assertEquals(expectedAddresses, actualAddresses);
+    }
+
+    @Test
+    public void testGetOffsetOfLegacyPosition() throws IOException {
+
+        ______TS("first list");
+
+        assertEquals(0, GroupReceiverListReader.getOffsetOfLegacyPosition(largeListKey, 0, 0));
+        assertEquals(getOffsetAfterSeparators(0, 5),
+                     GroupReceiverListReader.getOffsetOfLegacyPosition(largeListKey, 0, 5));
+
+        ______TS("later lists, starting after the end of an address split from the previous list");
+
+        for (int listIndex = 1; listIndex <= 3; listIndex++) {
+            int listStart = listIndex * 900000;
+            // the file only has one-byte characters, so character and byte offsets are the same
+            int firstEntryStart = largeListContent.charAt(listStart - 1) == ','
+                                ? listStart
+                                : largeListContent.indexOf(',', listStart) + 1;
+            assertEquals(firstEntryStart,
+                         GroupReceiverListReader.getOffsetOfLegacyPosition(largeListKey, listIndex, 0));
+            assertEquals(getOffsetAfterSeparators(firstEntryStart, 7),
+                         GroupReceiverListReader.getOffsetOfLegacyPosition(largeListKey, listIndex, 7));
+        }
+
+        ______TS("resuming from a translated position");
+
+        int offset = (int) GroupReceiverListReader.getOffsetOfLegacyPosition(largeListKey, 2, 7);
+        GroupReceiverListReader reader = new GroupReceiverListReader(largeListKey, offset);
+        List<String> batch = reader.readBatch(1);
+        reader.close();
+
+        // the first address at or after the position, skipping empty entries and non-addresses
+        String expectedAddress = "";
+        while (!expectedAddress.contains("@")) {
+            int entryEnd = largeListContent.indexOf(',', offset);
+            expectedAddress = largeListContent.substring(offset, entryEnd).trim();
+            offset = entryEnd + 1;
+        }
+        assertEquals(expectedAddress, batch.get(0));
+    }
+
+    private static int getOffsetAfterSeparators(int start, int numberOfSeparators) {
+        int offset = start;
+        for (int i = 0; i < numberOfSeparators; i++) {
+            offset = largeListContent.indexOf(',', offset) + 1;
+        }
+        return offset;
+    }
+
+    private static BlobKey writeTextToGcs(String fileName, String content) throws IOException {
+        GcsFilename gcsFilename = new GcsFilename(Config.GCS_BUCKETNAME, fileName);
+        GcsOutputChannel outputChannel =
+                GcsServiceFactory.createGcsService(RetryParams.getDefaultInstance())
+                                 .createOrReplace(gcsFilename,
+                                                  new GcsFileOptions.Builder().mimeType("text/plain").build());
+        outputChannel.write(ByteBuffer.wrap(content.getBytes(Const.SystemParams.ENCODING)));
+        outputChannel.close();
+
+        return BlobstoreServiceFactory.getBlobstoreService()
+                .createGsBlobKey("/gs/" + Config.GCS_BUCKETNAME + "/" + fileName);
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+
+}
@@ -2,11 +2,13 @@ package teammates.test.cases.common;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import teammates.common.datatransfer.CompiledInstructorPrivileges;
 import teammates.common.datatransfer.InstructorPrivileges;
 import teammates.common.util.Const;
 import teammates.test.cases.BaseTestCase;
@@ -440,6 +442,57 @@ public class InstructorPrivilegesTest extends BaseTestCase {
                 sectionId, sessionId, Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS));
     }
     
+    @Test
+    public void testCompile() {
+        InstructorPrivileges privileges =
+                new InstructorPrivileges(Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_TUTOR);
+        String sectionId = "sectionId";
+        String sectionId2 = "sectionId2";
+        String sessionId = "sessionId";
+        String sessionId2 = "sessionId2";
+        privileges.updatePrivilege(sectionId, Const.ParamsNames.INSTRUCTOR_PERMISSION_VIEW_SESSION_IN_SECTIONS, false);
+        privileges.updatePrivilege(
+                sectionId, sessionId, Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_SESSION_COMMENT_IN_SECTIONS, true);
+        privileges.updatePrivilege(
+                sectionId2, sessionId2, Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS, false);
+        
+        CompiledInstructorPrivileges compiled = privileges.compile();
+        
+        ______TS("same answers as the uncompiled privileges, including unknown sections and sessions");
+        String[] sections = {sectionId, sectionId2, "unknownSection", null};
+        String[] sessions = {sessionId, sessionId2, "unknownSession"};
+        Set<String> privilegeNames = new InstructorPrivileges(
+                Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER).getCourseLevelPrivileges().keySet();
+        for (String privilegeName : privilegeNames) {
+            assertEquals(privileges.isAllowedForPrivilege(privilegeName), compiled.isAllowedForPrivilege(privilegeName));
+            for (String section : sections) {
+                assertEquals(privileges.isAllowedForPrivilege(section, privilegeName),
+                             compiled.isAllowedForPrivilege(section, privilegeName));
+                for (String session : sessions) {
+                    assertEquals(privileges.isAllowedForPrivilege(section, session, privilegeName),
+                                 compiled.isAllowedForPrivilege(section, session, privilegeName));
+                }
+            }
+            for (String session : sessions) {
+                assertEquals(privileges.isAllowedForPrivilegeAnySection(session, privilegeName),
+                             compiled.isAllowedForPrivilegeAnySection(session, privilegeName));
+            }
+        }
+        
+        ______TS("snapshot is not affected by later updates");
+        privileges.updatePrivilege(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE, true);
+        assertFalse(compiled.isAllowedForPrivilege(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE));
+        assertTrue(privileges.compile().isAllowedForPrivilege(Const.ParamsNames.INSTRUCTOR_PERMISSION_MODIFY_COURSE));
+        
+        ______TS("invalid privilege name");
+        try {
+            compiled.isAllowedForPrivilege("invalid privilege");
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            ignoreExpectedException();
+        }
+    }
+    
     @Test
     public void testValidatePrivileges() {
         InstructorPrivileges privileges =
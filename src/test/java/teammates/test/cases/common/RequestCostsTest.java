@@ -0,0 +1,202 @@
+package teammates.test.cases.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.RequestCosts;
+import teammates.test.cases.BaseTestCase;
+
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.ApiConfig;
+import com.google.apphosting.api.ApiProxy.Delegate;
+import com.google.apphosting.api.ApiProxy.Environment;
+import com.google.apphosting.api.ApiProxy.LogRecord;
+
+public class RequestCostsTest extends BaseTestCase {
+
+    @Test
+    public void testScope() throws InterruptedException {
+
+        ______TS("costs recorded within a scope only");
+
+        RequestCosts.recordEntitiesRead(5);
+        RequestCosts.beginScope();
+        RequestCosts.recordEntitiesRead(3);
+        RequestCosts.recordEntitiesRead(2);
+        RequestCosts.recordEntitiesWritten(1);
+        RequestCosts costs = RequestCosts.endScope();
+        RequestCosts.recordEntitiesWritten(4);
+
+        assertEquals(5, costs.getEntitiesRead());
+        assertEquals(1, costs.getEntitiesWritten());
+
+        ______TS("costs of another thread working for the request");
+
+        RequestCosts.beginScope();
+        final RequestCosts requestCosts = RequestCosts.getCurrentScope();
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                RequestCosts.joinScope(requestCosts);
+                RequestCosts.recordEntitiesRead(7);
+                RequestCosts.leaveScope();
+                RequestCosts.recordEntitiesRead(1);
+            }
+        });
+        worker.start();
+        worker.join();
+        RequestCosts.recordEntitiesRead(2);
+        costs = RequestCosts.endScope();
+
+        assertEquals(9, costs.getEntitiesRead());
+
+        ______TS("no scope started: no costs");
+
+        costs = RequestCosts.endScope();
+
+        assertEquals(0, costs.getTotalCalls());
+        assertEquals(0, costs.getEntitiesRead());
+        assertEquals(0, costs.getEntitiesWritten());
+    }
+
+    @Test
+    public void testServiceCalls() {
+
+        @SuppressWarnings("unchecked")
+        Delegate<Environment> originalDelegate = ApiProxy.getDelegate();
+        try {
+            ______TS("calls made within a scope counted by service");
+
+            ApiProxy.setDelegate(new StubDelegate());
+            RequestCosts.beginScope();
+            makeSyncCall("datastore_v3", "RunQuery");
+            makeSyncCall("datastore_v3", "Put");
+            makeSyncCall("urlfetch", "Fetch");
+            makeSyncCall("mail", "Send");
+            makeSyncCall("memcache", "Get");
+            RequestCosts costs = RequestCosts.endScope();
+            makeSyncCall("datastore_v3", "Get");
+
+            assertEquals(2, costs.getCalls(RequestCosts.DATASTORE));
+            assertEquals(1, costs.getCalls(RequestCosts.URL_FETCH));
+            assertEquals(1, costs.getCalls(RequestCosts.MAIL));
+            assertEquals(1, costs.getCalls(RequestCosts.OTHER));
+            assertEquals(5, costs.getTotalCalls());
+
+            ______TS("delegate replaced after the first scope: calls still counted");
+
+            ApiProxy.setDelegate(new StubDelegate());
+            RequestCosts.beginScope();
+            makeSyncCall("datastore_v3", "Get");
+            costs = RequestCosts.endScope();
+
+            assertEquals(1, costs.getCalls(RequestCosts.DATASTORE));
+            assertEquals(1, costs.getTotalCalls());
+        } finally {
+            RequestCosts.endScope();
+            ApiProxy.setDelegate(originalDelegate);
+        }
+    }
+
+    private static void makeSyncCall(String packageName, String methodName) {
+        @SuppressWarnings("unchecked")
+        Delegate<Environment> delegate = ApiProxy.getDelegate();
+        delegate.makeSyncCall(null, packageName, methodName, new byte[0]);
+    }
+
+    /**
+     * Answers every call with an empty response, as the services are not needed to count calls.
+     */
+    private static class StubDelegate implements Delegate<Environment> {
+
+        @Override
+        public byte[] makeSyncCall(Environment environment, String packageName, String methodName, byte[] request) {
+            return new byte[0];
+        }
+
+        @Override
+        public Future<byte[]> makeAsyncCall(Environment environment, String packageName, String methodName,
+                                            byte[] request, ApiConfig apiConfig) {
+            FutureTask<byte[]> result = new FutureTask<byte[]>(new Callable<byte[]>() {
+                @Override
+                public byte[] call() {
+                    return new byte[0];
+                }
+            });
+            result.run();
+            return result;
+        }
+
+        @Override
+        public void log(Environment environment, LogRecord record) {
+            // no logs kept
+        }
+
+        @Override
+        public void flushLogs(Environment environment) {
+            // no logs kept
+        }
+
+        @Override
+        public List<Thread> getRequestThreads(Environment environment) {
+            return new ArrayList<Thread>();
+        }
+
+    }
+
+    @Test
+    public void testLogToken() {
+
+        ______TS("round trip");
+
+        RequestCosts costs = new RequestCosts();
+        costs.addCall(RequestCosts.DATASTORE, 200);
+        costs.addCall(RequestCosts.DATASTORE, 140);
+        costs.addCall(RequestCosts.SEARCH, 25);
+        costs.addEntitiesRead(118);
+        costs.addEntitiesWritten(3);
+
+        String token = costs.toLogToken();
+        assertEquals("datastore:2:340,search:1:25,taskqueue:0:0,mail:0:0,urlfetch:0:0,other:0:0,reads:118,writes:3",
+                     token);
+
+        RequestCosts parsed = RequestCosts.fromLogToken(token);
+        assertEquals(token, parsed.toLogToken());
+        assertEquals(3, parsed.getTotalCalls());
+        assertEquals(2, parsed.getCost(RequestCosts.DATASTORE));
+        assertEquals(340, parsed.getMillis(RequestCosts.DATASTORE));
+        assertEquals(118, parsed.getCost(RequestCosts.ENTITIES_READ));
+        assertEquals(3, parsed.getCost(RequestCosts.ENTITIES_WRITTEN));
+
+        ______TS("unknown costs ignored, missing costs zero");
+
+        parsed = RequestCosts.fromLogToken("memcache:4:2,datastore:7:90,reads:40");
+
+        assertEquals(7, parsed.getCalls(RequestCosts.DATASTORE));
+        assertEquals(0, parsed.getCalls(RequestCosts.MAIL));
+        assertEquals(40, parsed.getEntitiesRead());
+        assertEquals(0, parsed.getEntitiesWritten());
+
+        ______TS("invalid token");
+
+        try {
+            RequestCosts.fromLogToken("datastore:seven:90");
+            signalFailureToDetectException();
+        } catch (NumberFormatException e) {
+            ignoreExpectedException();
+        }
+
+        try {
+            RequestCosts.fromLogToken("reads:1:2");
+            signalFailureToDetectException();
+        } catch (NumberFormatException e) {
+            assertEquals("Invalid request cost: reads:1:2", e.getMessage());
+        }
+    }
+
+}
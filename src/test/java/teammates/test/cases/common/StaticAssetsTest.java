@@ -0,0 +1,51 @@
+package teammates.test.cases.common;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.FileHelper;
+import teammates.common.util.JsonUtils;
+import teammates.common.util.StaticAssets;
+import teammates.test.cases.BaseTestCase;
+
+import com.google.gson.reflect.TypeToken;
+
+public class StaticAssetsTest extends BaseTestCase {
+
+    @Test
+    public void testBundledFilesExist() {
+        Map<String, List<String>> bundles = JsonUtils.fromJson(
+                FileHelper.readResourceFile(StaticAssets.BUNDLES_FILE),
+                new TypeToken<Map<String, List<String>>>(){}.getType());
+
+        for (Map.Entry<String, List<String>> bundle : bundles.entrySet()) {
+            assertTrue(bundle.getKey().endsWith(".js") || bundle.getKey().endsWith(".css"));
+            for (String file : bundle.getValue()) {
+                assertTrue(bundle.getKey() + ": " + file, new File("src/main/webapp" + file).isFile());
+            }
+        }
+    }
+
+    @Test
+    public void testGetUrls() {
+
+        ______TS("not built for deployment: files of the bundle as is");
+
+        assertEquals(Arrays.asList("/js/lib/bootstrap.min.js", "/js/lib/bootbox.min.js", "/js/common.js"),
+                     StaticAssets.getUrls("common.js"));
+
+        ______TS("unknown bundle");
+
+        try {
+            StaticAssets.getUrls("nonExistentBundle.js");
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            assertEquals("Unknown static asset bundle: nonExistentBundle.js", e.getMessage());
+        }
+    }
+
+}
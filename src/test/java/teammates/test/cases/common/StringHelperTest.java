@@ -2,8 +2,12 @@ package teammates.test.cases.common;
 
 import java.util.ArrayList;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
 import org.testng.annotations.Test;
 
+import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
 import teammates.common.util.Sanitizer;
@@ -121,6 +125,39 @@ public class StringHelperTest extends BaseTestCase {
         
         decrptedMsg = StringHelper.decrypt(StringHelper.encrypt(msg));
         assertEquals(msg, decrptedMsg);
+        
+        ______TS("reused cipher gives the same ciphertext as a new cipher");
+        for (String value : new String[] {msg, "", "student1@email.tmt", "a longer value spanning several AES blocks"}) {
+            assertEquals(encryptWithNewCipher(value), StringHelper.encrypt(value));
+            assertEquals(StringHelper.encrypt(value), StringHelper.encrypt(value));
+        }
+        
+        ______TS("cipher still usable after failing to decrypt an invalid message");
+        try {
+            StringHelper.decrypt("ABCDEF");
+            signalFailureToDetectException();
+        } catch (RuntimeException e) {
+            ignoreExpectedException();
+        }
+        assertEquals(msg, StringHelper.decrypt(StringHelper.encrypt(msg)));
+    }
+    
+    private static String encryptWithNewCipher(String value) {
+        try {
+            byte[] key = new byte[Config.ENCRYPTION_KEY.length() / 2];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = (byte) Integer.parseInt(Config.ENCRYPTION_KEY.substring(i * 2, i * 2 + 2), 16);
+            }
+            Cipher cipher = Cipher.getInstance("AES");
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), cipher.getParameters());
+            StringBuilder encrypted = new StringBuilder();
+            for (byte b : cipher.doFinal(value.getBytes())) {
+                encrypted.append(String.format("%02X", b & 0xff));
+            }
+            return encrypted.toString();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
     }
     
     @Test
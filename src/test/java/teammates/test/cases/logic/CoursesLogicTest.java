@@ -3,6 +3,7 @@ package teammates.test.cases.logic;
 import static teammates.common.util.Const.EOL;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,23 +15,31 @@ import org.testng.annotations.Test;
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseStructureAttributes;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.datatransfer.StudentDashboardBundle;
 import teammates.common.datatransfer.StudentProfileAttributes;
 import teammates.common.datatransfer.TeamDetailsBundle;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.logic.core.AccountsLogic;
 import teammates.logic.core.CoursesLogic;
+import teammates.logic.core.CoursesLogic.CourseDeletionStage;
+import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.InstructorsLogic;
 import teammates.logic.core.StudentsLogic;
 import teammates.storage.api.AccountsDb;
+import teammates.storage.api.CourseStructuresDb;
 import teammates.storage.api.CoursesDb;
 import teammates.storage.api.InstructorsDb;
+import teammates.storage.api.StudentsDb;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
+import teammates.test.driver.DatastoreCallCounter;
 
 public class CoursesLogicTest extends BaseComponentTestCase {
  
@@ -65,6 +74,7 @@ public class CoursesLogicTest extends BaseComponentTestCase {
         testGetTotalUnregisteredInCourse();
         testGetCoursesForStudentAccount();
         testGetCourseDetailsListForStudent();
+        testGetStudentDashboard();
         testGetCourseSummariesForInstructor();
         testGetCourseDetailsListForInstructor();
         testGetCoursesSummaryWithoutStatsForInstructor();
@@ -74,6 +84,7 @@ public class CoursesLogicTest extends BaseComponentTestCase {
         testCreateCourseAndInstructor();
         testGetCourseIdToSectionNamesMap();
         testDeleteCourse();
+        testScheduleCourseDeletion();
     }
 
     public void testGetCourse() throws Exception {
@@ -730,6 +741,73 @@ public class CoursesLogicTest extends BaseComponentTestCase {
         }
     }
 
+    public void testGetStudentDashboard() throws Exception {
+
+        ______TS("student in multiple courses");
+
+        // This student is in both course 1 and 2
+        StudentAttributes studentInBothCourses = dataBundle.students.get("student2InCourse1");
+
+        StudentDashboardBundle dashboard = coursesLogic.getStudentDashboard(studentInBothCourses.googleId);
+        List<CourseDetailsBundle> expectedCourses =
+                coursesLogic.getCourseDetailsListForStudent(studentInBothCourses.googleId);
+
+        assertEquals(2, dashboard.courses.size());
+        for (int i = 0; i < expectedCourses.size(); i++) {
+            CourseDetailsBundle expectedCourse = expectedCourses.get(i);
+            CourseDetailsBundle actualCourse = dashboard.courses.get(i);
+            assertEquals(expectedCourse.course.getId(), actualCourse.course.getId());
+            assertEquals(getSortedSessionIds(expectedCourse), getSortedSessionIds(actualCourse));
+
+            String email = StudentsLogic.inst().getStudentForCourseIdAndGoogleId(actualCourse.course.getId(),
+                                                                                 studentInBothCourses.googleId).email;
+            for (FeedbackSessionAttributes session : actualCourse.getFeedbackSessionsList()) {
+                assertEquals(FeedbackSessionsLogic.inst().isFeedbackSessionCompletedByStudent(session, email),
+                             dashboard.sessionSubmissionStatusMap.get(session).booleanValue());
+            }
+        }
+        assertEquals(expectedCourses.get(0).feedbackSessions.size() + expectedCourses.get(1).feedbackSessions.size(),
+                     dashboard.sessionSubmissionStatusMap.size());
+
+        ______TS("datastore reads do not depend on the number of courses or sessions");
+
+        DatastoreCallCounter counter = DatastoreCallCounter.start();
+        try {
+            coursesLogic.getStudentDashboard(studentInBothCourses.googleId);
+        } finally {
+            counter.stop();
+        }
+        // student records, courses, instructors with the student's email, sessions and questions
+        assertEquals(5, counter.getReadCount());
+
+        StudentAttributes studentInOneCourse = dataBundle.students.get("student1InCourse1");
+        DatastoreCallCounter counterForOneCourse = DatastoreCallCounter.start();
+        try {
+            coursesLogic.getStudentDashboard(studentInOneCourse.googleId);
+        } finally {
+            counterForOneCourse.stop();
+        }
+        assertEquals(counter.getReadCount(), counterForOneCourse.getReadCount());
+
+        ______TS("non-existent student");
+
+        try {
+            coursesLogic.getStudentDashboard("non-existent-student");
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            AssertHelper.assertContains("does not exist", e.getMessage());
+        }
+    }
+
+    private List<String> getSortedSessionIds(CourseDetailsBundle course) {
+        List<String> sessionIds = new ArrayList<String>();
+        for (FeedbackSessionAttributes session : course.getFeedbackSessionsList()) {
+            sessionIds.add(session.getIdentificationString());
+        }
+        Collections.sort(sessionIds);
+        return sessionIds;
+    }
+
     public void testGetCourseSummariesForInstructor() throws Exception {
 
         ______TS("Instructor with 2 courses");
@@ -925,6 +1003,38 @@ public class CoursesLogicTest extends BaseComponentTestCase {
 
         assertEquals(StringUtils.join(expectedCsvString, EOL), csvString);
 
+        ______TS("Structure missing a student: exported with a structure rebuilt from the roster");
+
+        instructorId = instructor1OfCourse1.googleId;
+        courseId = instructor1OfCourse1.courseId;
+
+        List<StudentAttributes> studentsInStructure = StudentsLogic.inst().getStudentsForCourse(courseId);
+        StudentAttributes studentNotInStructure = dataBundle.students.get("student5InCourse1");
+        for (StudentAttributes student : studentsInStructure) {
+            if (student.email.equals(studentNotInStructure.email)) {
+                studentsInStructure.remove(student);
+                break;
+            }
+        }
+        CourseStructuresDb courseStructuresDb = new CourseStructuresDb();
+        courseStructuresDb.deleteCourseStructure(courseId);
+        courseStructuresDb.createCourseStructureIfAbsent(
+                CourseStructureAttributes.fromStudents(courseId, studentsInStructure));
+
+        csvString = coursesLogic.getCourseStudentListAsCsv(courseId, instructorId);
+        AssertHelper.assertContains(studentNotInStructure.email, csvString);
+        assertEquals(5, StringUtils.countMatches(csvString, "\"Joined\""));
+
+        ______TS("Structure missing: exported with a structure built from the roster");
+
+        String csvStringWithStructure = csvString;
+        StudentsLogic.inst().deleteCourseStructure(courseId);
+
+        csvString = coursesLogic.getCourseStudentListAsCsv(courseId, instructorId);
+        assertEquals(csvStringWithStructure, csvString);
+
+        StudentsLogic.inst().createCourseStructureFromRoster(courseId);
+
         ______TS("Failure case: non existent instructor");
         
         try {
@@ -1207,4 +1317,57 @@ public class CoursesLogicTest extends BaseComponentTestCase {
             assertEquals("Supplied parameter was null\n", e.getMessage());
         }
     }
+
+    public void testScheduleCourseDeletion() throws Exception {
+        CourseAttributes course = dataBundle.courses.get("typicalCourse2");
+        String courseId = course.getId();
+        List<StudentAttributes> extraStudents = new ArrayList<StudentAttributes>();
+        for (int i = 0; i < 600; i++) {
+            extraStudents.add(new StudentAttributes("Section " + i / 100, "Team " + i / 4, "Student " + i,
+                                                    "student" + i + "@deletion.tmt", "", courseId));
+        }
+        new StudentsDb().createStudentsWithoutSearchability(extraStudents);
+        int studentCount = StudentsLogic.inst().getStudentsForCourse(courseId).size();
+        assertTrue(studentCount > 600);
+
+        ______TS("course is hidden at once, the rest of its data is left for the worker");
+
+        coursesLogic.scheduleCourseDeletion(courseId);
+
+        assertNull(coursesLogic.getCourse(courseId));
+        assertTrue(instructorsDb.getInstructorsForCourse(courseId).isEmpty());
+        assertEquals(studentCount, StudentsLogic.inst().getStudentsForCourse(courseId).size());
+        verifyPresentInDatastore(dataBundle.feedbackSessions.get("session1InCourse2"));
+
+        ______TS("data is deleted batch by batch");
+
+        CourseDeletionStage stage = coursesLogic.deleteCourseDataBatch(courseId, CourseDeletionStage.STUDENTS);
+        assertEquals(CourseDeletionStage.STUDENTS, stage);
+        assertEquals(studentCount - 500, StudentsLogic.inst().getStudentsForCourse(courseId).size());
+
+        while (stage != null) {
+            stage = coursesLogic.deleteCourseDataBatch(courseId, stage);
+        }
+
+        assertTrue(StudentsLogic.inst().getStudentsForCourse(courseId).isEmpty());
+        verifyAbsentInDatastore(dataBundle.feedbackSessions.get("session1InCourse2"));
+        verifyAbsentInDatastore(dataBundle.feedbackQuestions.get("qn1InSession1InCourse2"));
+
+        // the course entity itself is gone, so its ID can be taken again
+        coursesLogic.createCourse(courseId, course.getName(), course.getTimeZone());
+        assertEquals(courseId, coursesLogic.getCourse(courseId).getId());
+
+        ______TS("ID of a course pending deletion is taken again");
+
+        StudentsLogic.inst().createStudentCascadeWithoutDocument(extraStudents.get(0));
+        coursesLogic.scheduleCourseDeletion(courseId);
+        assertTrue(coursesLogic.isCoursePendingDeletion(courseId));
+
+        coursesLogic.createCourse(courseId, course.getName(), course.getTimeZone());
+
+        assertFalse(coursesLogic.isCoursePendingDeletion(courseId));
+        assertNotNull(coursesLogic.getCourse(courseId));
+        assertTrue(StudentsLogic.inst().getStudentsForCourse(courseId).isEmpty());
+        coursesLogic.deleteCourseCascade(courseId);
+    }
 }
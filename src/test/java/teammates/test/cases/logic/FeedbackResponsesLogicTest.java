@@ -28,6 +28,7 @@ import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.FeedbackResponsesDb;
 import teammates.storage.api.InstructorsDb;
 import teammates.storage.api.StudentsDb;
 import teammates.test.cases.BaseComponentTestCase;
@@ -61,6 +62,7 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
         testUpdateFeedbackResponsesForChangingTeam_deleteLastResponse_decreaseResponseRate();
         testUpdateFeedbackResponsesForChangingTeam_deleteNotLastResponse_sameResponseRate();
         testUpdateFeedbackResponsesForChangingEmail();
+        testUpdateFeedbackResponsesForChangingSection();
         testDeleteFeedbackResponsesForStudent();
         testSpecialCharactersInTeamName();
         testDeleteFeedbackResponsesForCourse();
@@ -422,8 +424,84 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
         assertEquals(responsesFromGiver.size(), 2);
         assertEquals(responseCommentsForStudent.size(), 2);
         
+        ______TS("interrupted update is completed by running it again");
+        
+        // only the copies of the responses are written before the interruption
+        new FeedbackResponsesDb().copyFeedbackResponsesForChangedEmail(
+                studentToUpdate.course, "new@email.tmt", studentToUpdate.email);
+        assertEquals(2, frLogic.getFeedbackResponsesFromGiverForCourse(studentToUpdate.course, "new@email.tmt").size());
+        
+        frLogic.updateFeedbackResponsesForChangingEmail(
+                studentToUpdate.course, "new@email.tmt", studentToUpdate.email);
         frLogic.updateFeedbackResponsesForChangingEmail(
                 studentToUpdate.course, "new@email.tmt", studentToUpdate.email);
+        
+        assertTrue(frLogic.getFeedbackResponsesFromGiverForCourse(studentToUpdate.course, "new@email.tmt").isEmpty());
+        responsesForReceiver = frLogic.getFeedbackResponsesForReceiverForCourse(
+                studentToUpdate.course, studentToUpdate.email);
+        responsesFromGiver = frLogic.getFeedbackResponsesFromGiverForCourse(
+                studentToUpdate.course, studentToUpdate.email);
+        responsesToAndFromStudent = new ArrayList<FeedbackResponseAttributes>();
+        responsesToAndFromStudent.addAll(responsesForReceiver);
+        responsesToAndFromStudent.addAll(responsesFromGiver);
+        
+        assertEquals(2, responsesForReceiver.size());
+        assertEquals(2, responsesFromGiver.size());
+        assertEquals(2, getFeedbackResponseCommentsForResponsesFromDatastore(responsesToAndFromStudent).size());
+    }
+    
+    public void testUpdateFeedbackResponsesForChangingSection() throws Exception {
+        ______TS("standard update section case");
+        
+        // Student 1 has 2 responses to him and 2 from himself, with 1 comment on each side.
+        StudentAttributes studentToUpdate = typicalBundle.students.get("student1InCourse1");
+        frLogic.updateFeedbackResponsesForChangingSection(
+                studentToUpdate.course, studentToUpdate.email, studentToUpdate.section, "Section 2");
+        
+        List<FeedbackResponseAttributes> responsesForReceiver =
+                frLogic.getFeedbackResponsesForReceiverForCourse(studentToUpdate.course, studentToUpdate.email);
+        List<FeedbackResponseAttributes> responsesFromGiver =
+                frLogic.getFeedbackResponsesFromGiverForCourse(studentToUpdate.course, studentToUpdate.email);
+        assertEquals(2, responsesForReceiver.size());
+        assertEquals(2, responsesFromGiver.size());
+        for (FeedbackResponseAttributes response : responsesForReceiver) {
+            assertEquals("Section 2", response.recipientSection);
+        }
+        for (FeedbackResponseAttributes response : responsesFromGiver) {
+            assertEquals("Section 2", response.giverSection);
+        }
+        
+        List<FeedbackResponseAttributes> responsesToAndFromStudent = new ArrayList<FeedbackResponseAttributes>();
+        responsesToAndFromStudent.addAll(responsesForReceiver);
+        responsesToAndFromStudent.addAll(responsesFromGiver);
+        List<FeedbackResponseCommentAttributes> responseComments =
+                getFeedbackResponseCommentsForResponsesFromDatastore(responsesToAndFromStudent);
+        assertEquals(2, responseComments.size());
+        for (FeedbackResponseCommentAttributes comment : responseComments) {
+            FeedbackResponseAttributes response = frLogic.getFeedbackResponse(comment.feedbackResponseId);
+            assertEquals(response.giverSection, comment.giverSection);
+            assertEquals(response.recipientSection, comment.receiverSection);
+        }
+        
+        ______TS("response to oneself has both sections updated");
+        
+        FeedbackResponseAttributes responseToSelf =
+                new FeedbackResponseAttributes("First feedback session", studentToUpdate.course,
+                                               getQuestionFromDatastore("qn1InSession1InCourse1").getId(),
+                                               FeedbackQuestionType.TEXT, studentToUpdate.email, "Section 2",
+                                               studentToUpdate.email, "Section 2", new Text("Response to self"));
+        frLogic.createFeedbackResponse(responseToSelf);
+        
+        frLogic.updateFeedbackResponsesForChangingSection(
+                studentToUpdate.course, studentToUpdate.email, "Section 2", studentToUpdate.section);
+        
+        FeedbackResponseAttributes responseToSelfAfter = frLogic.getFeedbackResponse(
+                responseToSelf.feedbackQuestionId, studentToUpdate.email, studentToUpdate.email);
+        assertEquals(studentToUpdate.section, responseToSelfAfter.giverSection);
+        assertEquals(studentToUpdate.section, responseToSelfAfter.recipientSection);
+        
+        // restore DataStore so other tests are unaffected
+        frLogic.deleteFeedbackResponseAndCascade(responseToSelfAfter);
     }
     
     public void testGetViewableResponsesForQuestionInSection() throws Exception {
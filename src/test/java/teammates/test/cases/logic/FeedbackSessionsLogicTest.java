@@ -1,12 +1,14 @@
 package teammates.test.cases.logic;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.testng.annotations.AfterClass;
@@ -20,11 +22,14 @@ import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
 import teammates.common.datatransfer.FeedbackSessionResultsBundle;
+import teammates.common.datatransfer.FeedbackSessionResultsSnapshotAttributes;
 import teammates.common.datatransfer.FeedbackSessionStats;
+import teammates.common.datatransfer.FeedbackSessionSummaryAttributes;
 import teammates.common.datatransfer.FeedbackSessionType;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
@@ -44,8 +49,14 @@ import teammates.logic.automated.FeedbackSessionUnpublishedMailAction;
 import teammates.logic.backdoor.BackDoorLogic;
 import teammates.logic.core.CoursesLogic;
 import teammates.logic.core.FeedbackQuestionsLogic;
+import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
+import teammates.logic.core.InstructorsLogic;
+import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.FeedbackSessionResultsSnapshotsDb;
+import teammates.storage.api.FeedbackSessionSummariesDb;
+import teammates.storage.api.FeedbackSessionsDb;
 import teammates.storage.api.StudentsDb;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
@@ -74,14 +85,18 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         testGetFeedbackSessionsWhichNeedOpenMailsToBeSent();
         testGetFeedbackSessionWhichNeedPublishedEmailsToBeSent();
         testGetFeedbackSessionDetailsForInstructor();
+        testExpectedRespondentCounts();
         testGetFeedbackSessionQuestionsForStudent();
         testGetFeedbackSessionQuestionsForInstructor();
         testGetFeedbackSessionResultsForUser();
+        testFeedbackSessionResultsSnapshot();
         testGetFeedbackSessionResultsSummaryAsCsv();
         testIsFeedbackSessionViewableToStudents();
         
         testCreateAndDeleteFeedbackSession();
         testCopyFeedbackSession();
+        testCopyFeedbackSessionToCourses();
+        testFeedbackSessionSummaries();
         
         testUpdateFeedbackSession();
         testPublishUnpublishFeedbackSession();
@@ -268,6 +283,11 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         FeedbackSessionAttributes fs = getNewFeedbackSession();
         fsLogic.createFeedbackSession(fs);
         verifyPresentInDatastore(fs);
+        // no questions yet, so no one is expected to respond
+        FeedbackSessionAttributes createdSession = fsLogic.getFeedbackSession(fs.getFeedbackSessionName(),
+                                                                              fs.getCourseId());
+        assertEquals(0, createdSession.getExpectedStudentRespondentCount().intValue());
+        assertEquals(0, createdSession.getExpectedInstructorRespondentCount().intValue());
         
         ______TS("test create with invalid session name");
         fs.setFeedbackSessionName("test & test");
@@ -317,6 +337,85 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         verifyAbsentInDatastore(fq);
     }
     
+    public void testFeedbackSessionSummaries() throws Exception {
+        FeedbackSessionSummariesDb fssDb = new FeedbackSessionSummariesDb();
+        
+        ______TS("create: summary written with the session");
+        
+        FeedbackSessionAttributes fs = getNewFeedbackSession();
+        fs.setFeedbackSessionName("Session with summary");
+        fs.setCourseId("idOfTypicalCourse1");
+        fsLogic.createFeedbackSession(fs);
+        
+        FeedbackSessionSummaryAttributes summary =
+                fssDb.getFeedbackSessionSummary(fs.getFeedbackSessionName(), fs.getCourseId());
+        assertNotNull(summary);
+        assertFalse(summary.isOutdatedFor(fs));
+        
+        ______TS("missing summary: written again, existing summary: kept");
+        
+        fssDb.deleteFeedbackSessionSummary(fs.getFeedbackSessionName(), fs.getCourseId());
+        fsLogic.putMissingFeedbackSessionSummaries(fs.getFeedbackSessionName(),
+                                                   Arrays.asList(fs.getCourseId(), "idOfTypicalCourse2"));
+        summary = fssDb.getFeedbackSessionSummary(fs.getFeedbackSessionName(), fs.getCourseId());
+        assertNotNull(summary);
+        assertFalse(summary.isOutdatedFor(fs));
+        // no session with the name in the other course, so no summary either
+        assertNull(fssDb.getFeedbackSessionSummary(fs.getFeedbackSessionName(), "idOfTypicalCourse2"));
+        
+        ______TS("range query: session within the range is listed");
+        
+        List<FeedbackSessionSummaryAttributes> summaries = fsLogic.getFeedbackSessionSummariesWithinTimeRange(
+                TimeHelper.getHoursOffsetToCurrentTime(-24), TimeHelper.getHoursOffsetToCurrentTime(24), 0);
+        assertTrue(containsSummaryOf(summaries, fs));
+        
+        ______TS("range query: session starting and ending within the range is listed once");
+        
+        long oneDayMillis = 24 * 60 * 60 * 1000L;
+        summaries = fsLogic.getFeedbackSessionSummariesWithinTimeRange(
+                new Date(fs.getStartTime().getTime() - oneDayMillis),
+                new Date(fs.getEndTime().getTime() + oneDayMillis), 0);
+        int numberOfSummariesOfSession = 0;
+        for (FeedbackSessionSummaryAttributes listedSummary : summaries) {
+            if (listedSummary.feedbackSessionName.equals(fs.getFeedbackSessionName())
+                    && listedSummary.courseId.equals(fs.getCourseId())) {
+                numberOfSummariesOfSession++;
+            }
+        }
+        assertEquals(1, numberOfSummariesOfSession);
+        
+        ______TS("update: summary follows the new times");
+        
+        fs.setEndTime(TimeHelper.getDateOffsetToCurrentTime(30));
+        fsLogic.updateFeedbackSession(fs);
+        
+        summary = fssDb.getFeedbackSessionSummary(fs.getFeedbackSessionName(), fs.getCourseId());
+        assertEquals(fs.getEndTime(), summary.endTime);
+        assertFalse(summary.isOutdatedFor(fs));
+        
+        ______TS("range query: session outside the range is not listed");
+        
+        summaries = fsLogic.getFeedbackSessionSummariesWithinTimeRange(
+                TimeHelper.getDateOffsetToCurrentTime(-10), TimeHelper.getDateOffsetToCurrentTime(-5), 0);
+        assertFalse(containsSummaryOf(summaries, fs));
+        
+        ______TS("delete: summary deleted with the session");
+        
+        fsLogic.deleteFeedbackSessionCascade(fs.getFeedbackSessionName(), fs.getCourseId());
+        assertNull(fssDb.getFeedbackSessionSummary(fs.getFeedbackSessionName(), fs.getCourseId()));
+    }
+    
+    private boolean containsSummaryOf(List<FeedbackSessionSummaryAttributes> summaries,
+                                      FeedbackSessionAttributes session) {
+        for (FeedbackSessionSummaryAttributes summary : summaries) {
+            if (summary.feedbackSessionName.equals(session.getFeedbackSessionName())
+                    && summary.courseId.equals(session.getCourseId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     public void testCopyFeedbackSession() throws Exception {
         
         ______TS("Test copy");
@@ -369,6 +468,76 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         fsLogic.deleteFeedbackSessionCascade(copiedSession.getFeedbackSessionName(), copiedSession.getCourseId());
     }
 
+    public void testCopyFeedbackSessionToCourses() throws Exception {
+        
+        FeedbackSessionAttributes session1InCourse1 = dataBundle.feedbackSessions.get("session1InCourse1");
+        InstructorAttributes instructor2OfCourse1 = dataBundle.instructors.get("instructor2OfCourse1");
+        String course2Id = dataBundle.courses.get("typicalCourse2").getId();
+        String courseNoEvalsId = dataBundle.courses.get("courseNoEvals").getId();
+        int numberOfQuestions = fqLogic.getFeedbackQuestionsForSession(session1InCourse1.getFeedbackSessionName(),
+                                                                       session1InCourse1.getCourseId()).size();
+        
+        ______TS("Failure case: one of the courses has a session with the name, nothing is copied");
+        
+        try {
+            fsLogic.copyFeedbackSessionToCourses(
+                    session1InCourse1.getFeedbackSessionName(),
+                    Arrays.asList(course2Id, session1InCourse1.getCourseId()),
+                    session1InCourse1.getFeedbackSessionName(),
+                    session1InCourse1.getCourseId(), instructor2OfCourse1.email);
+            signalFailureToDetectException();
+        } catch (EntityAlreadyExistsException e) {
+            AssertHelper.assertContains(session1InCourse1.getCourseId(), e.getMessage());
+        }
+        assertNull(fsLogic.getFeedbackSession(session1InCourse1.getFeedbackSessionName(), course2Id));
+        
+        ______TS("Failure case: invalid name, nothing is copied");
+        
+        try {
+            fsLogic.copyFeedbackSessionToCourses(
+                    "", Arrays.asList(course2Id, courseNoEvalsId),
+                    session1InCourse1.getFeedbackSessionName(),
+                    session1InCourse1.getCourseId(), instructor2OfCourse1.email);
+            signalFailureToDetectException();
+        } catch (InvalidParametersException e) {
+            ignoreExpectedException();
+        }
+        assertTrue(fqLogic.getFeedbackQuestionsForCourse(courseNoEvalsId).isEmpty());
+        
+        ______TS("Copy to many courses, completing an interrupted copy");
+        
+        // the questions of an interrupted copy are written before its session
+        FeedbackQuestionAttributes leftoverQuestion =
+                fqLogic.getFeedbackQuestionsForSession(session1InCourse1.getFeedbackSessionName(),
+                                                       session1InCourse1.getCourseId()).get(0);
+        leftoverQuestion.courseId = courseNoEvalsId;
+        leftoverQuestion.feedbackSessionName = "Copied Session";
+        fqLogic.createFeedbackQuestionNoIntegrityCheck(leftoverQuestion, leftoverQuestion.questionNumber);
+        
+        List<FeedbackSessionAttributes> copiedSessions = fsLogic.copyFeedbackSessionToCourses(
+                "Copied Session", Arrays.asList(course2Id, courseNoEvalsId),
+                session1InCourse1.getFeedbackSessionName(),
+                session1InCourse1.getCourseId(), instructor2OfCourse1.email);
+        
+        assertEquals(2, copiedSessions.size());
+        assertEquals(course2Id, copiedSessions.get(0).getCourseId());
+        assertEquals(courseNoEvalsId, copiedSessions.get(1).getCourseId());
+        for (FeedbackSessionAttributes copiedSession : copiedSessions) {
+            verifyPresentInDatastore(copiedSession);
+            assertEquals(instructor2OfCourse1.email, copiedSession.getCreatorEmail());
+            assertEquals(numberOfQuestions,
+                         fqLogic.getFeedbackQuestionsForSession("Copied Session", copiedSession.getCourseId()).size());
+        }
+        assertEquals(Arrays.asList(course2Id, courseNoEvalsId),
+                     fsLogic.getCoursesWithFeedbackSession("Copied Session",
+                                                           Arrays.asList(course2Id, "nonExistentCourse",
+                                                                         courseNoEvalsId)));
+        
+        for (FeedbackSessionAttributes copiedSession : copiedSessions) {
+            fsLogic.deleteFeedbackSessionCascade(copiedSession.getFeedbackSessionName(), copiedSession.getCourseId());
+        }
+    }
+
     public void testGetFeedbackSessionDetailsForInstructor() throws Exception {
         
         // This file contains a session with a private session + a standard
@@ -528,6 +697,80 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         assertTrue(fsLogic.getFeedbackSessionDetailsForInstructor("non-existent.google.id").isEmpty());
                     
     }
+
+    public void testExpectedRespondentCounts() throws Exception {
+        
+        // uses the data of FeedbackSessionDetailsTest.json, persisted by testGetFeedbackSessionDetailsForInstructor
+        DataBundle newDataBundle = loadDataBundle("/FeedbackSessionDetailsTest.json");
+        FeedbackSessionAttributes session = newDataBundle.feedbackSessions.get("no.responses.session");
+        String sessionName = session.getFeedbackSessionName();
+        String courseId = session.getCourseId();
+        
+        ______TS("counts of a session without them not stored when the response rate is shown");
+        
+        session = fsLogic.getFeedbackSession(sessionName, courseId);
+        assertFalse(session.hasExpectedRespondentCounts());
+        assertEquals(2, fsLogic.getFeedbackSessionDetails(session).stats.expectedTotal);
+        assertFalse(fsLogic.getFeedbackSession(sessionName, courseId).hasExpectedRespondentCounts());
+        
+        ______TS("counts stored");
+        
+        session = fsLogic.updateExpectedRespondentCounts(sessionName, courseId);
+        session = fsLogic.getFeedbackSession(sessionName, courseId);
+        assertTrue(session.hasExpectedRespondentCounts());
+        assertEquals(1, session.getExpectedStudentRespondentCount().intValue());
+        assertEquals(1, session.getExpectedInstructorRespondentCount().intValue());
+        
+        ______TS("student added and removed");
+        
+        StudentAttributes student = new StudentAttributes("Section 1", "Team 1", "New Student",
+                                                          "FSDTest.newStudent@gmail.tmt", "", courseId);
+        StudentsLogic.inst().createStudentCascadeWithoutDocument(student);
+        assertEquals(2, fsLogic.getFeedbackSession(sessionName, courseId).getExpectedStudentRespondentCount().intValue());
+        assertEquals(3, fsLogic.getFeedbackSessionDetails(fsLogic.getFeedbackSession(sessionName, courseId))
+                               .stats.expectedTotal);
+        
+        StudentsLogic.inst().deleteStudentCascadeWithoutDocument(courseId, student.email);
+        assertEquals(1, fsLogic.getFeedbackSession(sessionName, courseId).getExpectedStudentRespondentCount().intValue());
+        
+        ______TS("instructor added and removed");
+        
+        InstructorAttributes instructor = new InstructorAttributes("FSDTest.newInstr", courseId, "New Instructor",
+                                                                   "FSDTest.newInstr@course2.tmt");
+        InstructorsLogic.inst().createInstructor(instructor);
+        assertEquals(2, fsLogic.getFeedbackSession(sessionName, courseId)
+                               .getExpectedInstructorRespondentCount().intValue());
+        
+        InstructorsLogic.inst().deleteInstructorCascade(courseId, instructor.email);
+        assertEquals(1, fsLogic.getFeedbackSession(sessionName, courseId)
+                               .getExpectedInstructorRespondentCount().intValue());
+        
+        ______TS("only question for students deleted: counts kept until counted again by the task");
+        
+        FeedbackQuestionAttributes studentQuestion = fqLogic.getFeedbackQuestion(sessionName, courseId, 1);
+        assertEquals(FeedbackParticipantType.STUDENTS, studentQuestion.giverType);
+        fqLogic.deleteFeedbackQuestionCascade(studentQuestion.getId());
+        
+        session = fsLogic.getFeedbackSession(sessionName, courseId);
+        assertTrue(session.hasExpectedRespondentCounts());
+        assertEquals(1, session.getExpectedStudentRespondentCount().intValue());
+        // what the task does: only the instructor is expected to respond
+        session = fsLogic.updateExpectedRespondentCounts(sessionName, courseId);
+        assertEquals(0, session.getExpectedStudentRespondentCount().intValue());
+        assertEquals(1, session.getExpectedInstructorRespondentCount().intValue());
+        
+        ______TS("counts out of sync with the roster repaired");
+        
+        new FeedbackSessionsDb().adjustExpectedRespondentCounts(session, 5, 2);
+        assertEquals(8, fsLogic.getFeedbackSessionDetails(fsLogic.getFeedbackSession(sessionName, courseId))
+                               .stats.expectedTotal);
+        
+        session = fsLogic.updateExpectedRespondentCounts(sessionName, courseId);
+        assertEquals(0, session.getExpectedStudentRespondentCount().intValue());
+        assertEquals(1, session.getExpectedInstructorRespondentCount().intValue());
+        assertEquals(1, fsLogic.getFeedbackSessionDetails(fsLogic.getFeedbackSession(sessionName, courseId))
+                               .stats.expectedTotal);
+    }
     
     public void testGetFeedbackSessionsForCourse() throws Exception {
         
@@ -1137,6 +1380,193 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         //TODO: check for cases where a person is both a student and an instructor
     }
 
+    public void testFeedbackSessionResultsSnapshot() throws Exception {
+        
+        // uses the data of FeedbackSessionResultsTest.json, persisted by testGetFeedbackSessionResultsForUser
+        DataBundle responseBundle = loadDataBundle("/FeedbackSessionResultsTest.json");
+        FeedbackSessionAttributes session = responseBundle.feedbackSessions.get("standard.session");
+        String sessionName = session.getFeedbackSessionName();
+        String courseId = session.getCourseId();
+        String instructorEmail = responseBundle.instructors.get("instructor1OfCourse1").email;
+        FeedbackSessionResultsSnapshotsDb fsrsDb = new FeedbackSessionResultsSnapshotsDb();
+        
+        ______TS("open session: no snapshot");
+        
+        fsLogic.getFeedbackSessionResultsForInstructor(sessionName, courseId, instructorEmail);
+        assertNull(fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        ______TS("closed session: snapshot started when the results are first viewed");
+        
+        session = fsLogic.getFeedbackSession(sessionName, courseId);
+        Date originalEndTime = session.getEndTime();
+        session.setEndTime(TimeHelper.getDateOffsetToCurrentTime(-2));
+        fsLogic.updateFeedbackSession(session);
+        
+        FeedbackResponseAttributes commentedResponse = getResponseFromDatastore("qn1.resp1", responseBundle);
+        FeedbackResponseCommentAttributes comment =
+                FeedbackResponseCommentsLogic.inst().createFeedbackResponseComment(
+                        new FeedbackResponseCommentAttributes(courseId, sessionName, commentedResponse.feedbackQuestionId,
+                                                              instructorEmail, commentedResponse.getId(), new Date(),
+                                                              new Text("Snapshot comment"),
+                                                              commentedResponse.giverSection,
+                                                              commentedResponse.recipientSection));
+        
+        FeedbackSessionResultsBundle expected =
+                fsLogic.getFeedbackSessionResultsForInstructor(sessionName, courseId, instructorEmail);
+        FeedbackSessionResultsSnapshotAttributes snapshot =
+                fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId);
+        assertFalse(snapshot.isReady);
+        // a second view does not start another build while the first one is running
+        fsLogic.scheduleFeedbackSessionResultsSnapshot(session);
+        assertEquals(snapshot.version, fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId).version);
+        
+        ______TS("snapshot built: same results as from the datastore");
+        
+        fsLogic.buildFeedbackSessionResultsSnapshot(sessionName, courseId, snapshot.version);
+        snapshot = fsrsDb.getReadyFeedbackSessionResultsSnapshot(sessionName, courseId);
+        assertEquals(responseBundle.feedbackQuestions.size() - 2, snapshot.getQuestions().size());
+        assertEquals(1, snapshot.getResponseComments().size());
+        
+        FeedbackSessionResultsBundle actual =
+                fsLogic.getFeedbackSessionResultsForInstructor(sessionName, courseId, instructorEmail);
+        assertSameResults(expected, actual);
+        assertEquals("Snapshot comment",
+                     actual.responseComments.get(commentedResponse.getId()).get(0).commentText.getValue());
+        
+        String questionId = commentedResponse.feedbackQuestionId;
+        expected = fsLogic.getFeedbackSessionResultsForInstructorFromQuestion(sessionName, courseId, instructorEmail,
+                                                                               questionId);
+        assertSameResults(expected, fsLogic.getFeedbackSessionResultsForInstructorFromQuestion(
+                sessionName, courseId, instructorEmail, questionId));
+        
+        ______TS("snapshot paged in memory");
+        
+        List<String> pagedResponseIds = new ArrayList<String>();
+        List<String> firstPageResponseIds = null;
+        String pageToken = null;
+        do {
+            FeedbackSessionResultsBundle page =
+                    fsLogic.getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
+                            sessionName, courseId, instructorEmail, null, 4,
+                            Const.FeedbackSessionResults.GRQ_SORT_TYPE, pageToken);
+            for (FeedbackResponseAttributes response : page.responses) {
+                pagedResponseIds.add(response.getId());
+            }
+            if (firstPageResponseIds == null) {
+                firstPageResponseIds = new ArrayList<String>(pagedResponseIds);
+            }
+            pageToken = page.nextPageToken;
+            assertTrue(pageToken == null || pageToken.startsWith("snapshot:"));
+            // only pages followed by more responses are partial
+            assertEquals(pageToken == null, page.isComplete);
+        } while (pageToken != null);
+        Collections.sort(pagedResponseIds);
+        assertEquals(getSortedResponseIds(actual), pagedResponseIds);
+        
+        ______TS("invalid snapshot page tokens: first page");
+        
+        String[] invalidPageTokens = {"snapshot:", "snapshot:x", "snapshot:" + snapshot.version,
+                                      "snapshot:" + snapshot.version + ":x", "snapshot:" + snapshot.version + ":-3",
+                                      "snapshot:" + snapshot.version + ":1:2"};
+        for (String invalidPageToken : invalidPageTokens) {
+            FeedbackSessionResultsBundle page =
+                    fsLogic.getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
+                            sessionName, courseId, instructorEmail, null, 4,
+                            Const.FeedbackSessionResults.GRQ_SORT_TYPE, invalidPageToken);
+            List<String> pageResponseIds = new ArrayList<String>();
+            for (FeedbackResponseAttributes response : page.responses) {
+                pageResponseIds.add(response.getId());
+            }
+            assertEquals(firstPageResponseIds, pageResponseIds);
+        }
+        
+        ______TS("snapshot page token past the end: empty last page");
+        
+        FeedbackSessionResultsBundle pastTheEndPage =
+                fsLogic.getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
+                        sessionName, courseId, instructorEmail, null, 4,
+                        Const.FeedbackSessionResults.GRQ_SORT_TYPE, "snapshot:" + snapshot.version + ":100000");
+        assertTrue(pastTheEndPage.responses.isEmpty());
+        assertNull(pastTheEndPage.nextPageToken);
+        
+        ______TS("comment deleted: snapshot deleted");
+        
+        FeedbackResponseCommentAttributes commentToDelete = new FeedbackResponseCommentAttributes();
+        commentToDelete.setId(comment.getId());
+        FeedbackResponseCommentsLogic.inst().deleteFeedbackResponseComment(commentToDelete);
+        assertNull(fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        ______TS("response updated: snapshot deleted");
+        
+        fsLogic.scheduleFeedbackSessionResultsSnapshot(session);
+        fsLogic.buildFeedbackSessionResultsSnapshot(
+                sessionName, courseId, fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId).version);
+        assertNotNull(fsrsDb.getReadyFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        frLogic.updateFeedbackResponse(commentedResponse);
+        assertNull(fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        ______TS("response updated with the session read: snapshot deleted only if the session has had one");
+        
+        fsLogic.scheduleFeedbackSessionResultsSnapshot(session);
+        long builtVersion = fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId).version;
+        fsLogic.buildFeedbackSessionResultsSnapshot(sessionName, courseId, builtVersion);
+        FeedbackSessionAttributes sessionWithSnapshot = fsLogic.getFeedbackSession(sessionName, courseId);
+        assertEquals(Long.valueOf(builtVersion), sessionWithSnapshot.getResultsSnapshotVersion());
+        
+        // read before the first snapshot of the session was started
+        assertNull(session.getResultsSnapshotVersion());
+        frLogic.updateFeedbackResponse(commentedResponse, session);
+        assertNotNull(fsrsDb.getReadyFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        frLogic.updateFeedbackResponse(commentedResponse, sessionWithSnapshot);
+        assertNull(fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        ______TS("responses changed in all sessions of the course: snapshot deleted");
+        
+        fsLogic.scheduleFeedbackSessionResultsSnapshot(session);
+        fsLogic.buildFeedbackSessionResultsSnapshot(
+                sessionName, courseId, fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId).version);
+        assertNotNull(fsrsDb.getReadyFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        fsLogic.deleteFeedbackSessionResultsSnapshotsForCourse(courseId);
+        assertNull(fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        ______TS("session reopened: snapshot deleted, and not built");
+        
+        fsLogic.scheduleFeedbackSessionResultsSnapshot(session);
+        long version = fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId).version;
+        session.setEndTime(originalEndTime);
+        fsLogic.updateFeedbackSession(session);
+        assertNull(fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId));
+        
+        fsLogic.buildFeedbackSessionResultsSnapshot(sessionName, courseId, version);
+        assertNull(fsrsDb.getFeedbackSessionResultsSnapshot(sessionName, courseId));
+    }
+
+    private void assertSameResults(FeedbackSessionResultsBundle expected, FeedbackSessionResultsBundle actual) {
+        assertEquals(getSortedResponseIds(expected), getSortedResponseIds(actual));
+        assertEquals(new TreeMap<String, FeedbackQuestionAttributes>(expected.questions).keySet(),
+                     new TreeMap<String, FeedbackQuestionAttributes>(actual.questions).keySet());
+        assertEquals(new TreeMap<String, String>(expected.emailNameTable).toString(),
+                     new TreeMap<String, String>(actual.emailNameTable).toString());
+        assertEquals(new TreeMap<String, String>(expected.emailTeamNameTable).toString(),
+                     new TreeMap<String, String>(actual.emailTeamNameTable).toString());
+        assertEquals(tableToString(new TreeMap<String, boolean[]>(expected.visibilityTable)),
+                     tableToString(new TreeMap<String, boolean[]>(actual.visibilityTable)));
+        assertEquals(new TreeMap<String, List<FeedbackResponseCommentAttributes>>(expected.responseComments).keySet(),
+                     new TreeMap<String, List<FeedbackResponseCommentAttributes>>(actual.responseComments).keySet());
+    }
+
+    private List<String> getSortedResponseIds(FeedbackSessionResultsBundle results) {
+        List<String> responseIds = new ArrayList<String>();
+        for (FeedbackResponseAttributes response : results.responses) {
+            responseIds.add(response.getId());
+        }
+        Collections.sort(responseIds);
+        return responseIds;
+    }
+
     public void testGetFeedbackSessionResultsSummaryAsCsv() throws Exception {
 
         ______TS("typical case");
@@ -0,0 +1,207 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.util.RequestCosts;
+import teammates.logic.core.ParallelQueryExecutor;
+import teammates.storage.datastore.RecentWrites;
+import teammates.storage.datastore.RecentWrites.RecentWrite;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class ParallelQueryExecutorTest extends BaseComponentTestCase {
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testInvokeAll() throws Exception {
+
+        ______TS("results are returned in the order of the tasks");
+
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 2 * ParallelQueryExecutor.MAX_CONCURRENT_QUERIES; i++) {
+            final int value = i;
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws InterruptedException {
+                    // later tasks finish first
+                    Thread.sleep(2 * ParallelQueryExecutor.MAX_CONCURRENT_QUERIES - value);
+                    return value;
+                }
+            });
+        }
+
+        List<Integer> results = ParallelQueryExecutor.invokeAll(tasks, InterruptedException.class);
+        assertEquals(tasks.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).intValue());
+        }
+
+        ______TS("no tasks");
+
+        assertTrue(ParallelQueryExecutor.invokeAll(new ArrayList<Callable<Integer>>()).isEmpty());
+
+        ______TS("checked exception of a task is rethrown");
+
+        List<Callable<String>> failingTasks = Arrays.<Callable<String>>asList(
+                new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return "success";
+                    }
+                },
+                new Callable<String>() {
+                    @Override
+                    public String call() throws EntityDoesNotExistException {
+                        throw new EntityDoesNotExistException("task failed");
+                    }
+                });
+
+        try {
+            ParallelQueryExecutor.invokeAll(failingTasks, EntityDoesNotExistException.class);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            assertEquals("task failed", e.getMessage());
+        }
+
+        ______TS("runtime exception of a task is rethrown");
+
+        List<Callable<String>> crashingTasks = Arrays.<Callable<String>>asList(
+                new Callable<String>() {
+                    @Override
+                    public String call() {
+                        throw new IllegalStateException("task crashed");
+                    }
+                },
+                new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return "success";
+                    }
+                });
+
+        try {
+            ParallelQueryExecutor.invokeAll(crashingTasks);
+            signalFailureToDetectException();
+        } catch (IllegalStateException e) {
+            assertEquals("task crashed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testInvokeAllConcurrently() throws Exception {
+        ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+        ______TS("tasks run at the same time and results are returned in the order of the tasks");
+
+        // each task waits for as many others as can run at once, which never happens if they run one by one
+        final CyclicBarrier barrier = new CyclicBarrier(ParallelQueryExecutor.MAX_CONCURRENT_QUERIES);
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int i = 0; i < 2 * ParallelQueryExecutor.MAX_CONCURRENT_QUERIES; i++) {
+            final int value = i;
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    barrier.await(10, TimeUnit.SECONDS);
+                    // later tasks finish first
+                    Thread.sleep(2 * ParallelQueryExecutor.MAX_CONCURRENT_QUERIES - value);
+                    return value;
+                }
+            });
+        }
+
+        List<Integer> results = ParallelQueryExecutor.invokeAll(tasks, Exception.class, threadFactory);
+        assertEquals(tasks.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).intValue());
+        }
+
+        ______TS("tasks join the scopes of the request");
+
+        RequestCosts.beginScope();
+        RecentWrites.beginScope(null);
+        final RequestCosts requestCosts = RequestCosts.getCurrentScope();
+        final HashMap<String, RecentWrite> recentWrites = RecentWrites.getCurrentScope();
+        Callable<Boolean> scopeCheckingTask = new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return RequestCosts.getCurrentScope() == requestCosts
+                       && RecentWrites.getCurrentScope() == recentWrites;
+            }
+        };
+        List<Boolean> areScopesJoined = ParallelQueryExecutor.invokeAll(
+                Arrays.asList(scopeCheckingTask, scopeCheckingTask), RuntimeException.class, threadFactory);
+        RecentWrites.endScope();
+        RequestCosts.endScope();
+        assertEquals(Arrays.asList(true, true), areScopesJoined);
+
+        ______TS("exception of the first failed task in task order is rethrown");
+
+        List<Callable<String>> failingTasks = Arrays.<Callable<String>>asList(
+                new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        // fails after the second task
+                        Thread.sleep(50);
+                        throw new EntityDoesNotExistException("first task failed");
+                    }
+                },
+                new Callable<String>() {
+                    @Override
+                    public String call() throws EntityDoesNotExistException {
+                        throw new EntityDoesNotExistException("second task failed");
+                    }
+                },
+                new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return "success";
+                    }
+                });
+
+        try {
+            ParallelQueryExecutor.invokeAll(failingTasks, EntityDoesNotExistException.class, threadFactory);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            assertEquals("first task failed", e.getMessage());
+        }
+
+        ______TS("runtime exception of a task is rethrown");
+
+        List<Callable<String>> crashingTasks = Arrays.<Callable<String>>asList(
+                new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return "success";
+                    }
+                },
+                new Callable<String>() {
+                    @Override
+                    public String call() {
+                        throw new IllegalStateException("task crashed");
+                    }
+                });
+
+        try {
+            ParallelQueryExecutor.invokeAll(crashingTasks, EntityDoesNotExistException.class, threadFactory);
+            signalFailureToDetectException();
+        } catch (IllegalStateException e) {
+            assertEquals("task crashed", e.getMessage());
+        }
+    }
+
+}
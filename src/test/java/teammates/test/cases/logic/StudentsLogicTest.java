@@ -12,6 +12,7 @@ import org.testng.annotations.Test;
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseStructureAttributes;
 import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
@@ -40,6 +41,7 @@ import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.StudentsLogic;
+import teammates.storage.api.CourseStructuresDb;
 import teammates.storage.api.StudentsDb;
 import teammates.storage.entity.CourseStudent;
 import teammates.test.cases.BaseComponentTestCase;
@@ -92,7 +94,7 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         
         testDeleteStudent();
         
-        
+        testCourseStructure();
     }
 
     /*
@@ -1187,10 +1189,116 @@ public class StudentsLogicTest extends BaseComponentTestCase {
         }
     }
 
+    public void testCourseStructure() throws Exception {
+        
+        String instructorId = "instructorForStructureTesting";
+        String courseId = "courseForStructureTesting";
+        
+        accountsLogic.deleteAccountCascade(instructorId);
+        coursesLogic.deleteCourseCascade(courseId);
+        
+        accountsLogic.createAccount(
+                new AccountAttributes(instructorId, "ICST Instr Name", true,
+                        "instructor@icst.tmt", "TEAMMATES Test Institute 1",
+                        new StudentProfileAttributes(instructorId, "ICST", "", "", "", "other", "", "")));
+        coursesLogic.createCourseAndInstructor(instructorId, courseId, "Course for Structure Testing", "UTC");
+        
+        ______TS("course without students");
+        
+        // stored when the course is created, to be kept up to date from then on
+        assertNotNull(new CourseStructuresDb().getCourseStructure(courseId));
+        verifyCourseStructureMatchesRoster(courseId);
+        assertEquals(0, studentsLogic.getCourseStructure(courseId).getStudentsTotal());
+        
+        ______TS("enrollment of new students");
+        
+        String headerLine = "section | team | name | email | comment";
+        String lines = headerLine + Const.EOL
+                       + "Section 1|Team 1.1|n1|e1@g|c1" + Const.EOL
+                       + "Section 1|Team 1.1|n2|e2@g|c2" + Const.EOL
+                       + "Section 1|Team 1.2|n3|e3@g|c3" + Const.EOL
+                       + "Section 2|Team 2.1|n4|e4@g|c4";
+        studentsLogic.enrollStudentsWithoutDocument(lines, courseId);
+        
+        verifyCourseStructureMatchesRoster(courseId);
+        assertEquals(4, coursesLogic.getTotalEnrolledInCourse(courseId));
+        assertEquals(3, coursesLogic.getNumberOfTeams(courseId));
+        assertEquals("[Section 1, Section 2]", coursesLogic.getSectionsNameForCourse(courseId).toString());
+        
+        ______TS("enrollment moving students to other teams and sections");
+        
+        lines = headerLine + Const.EOL
+                + "Section 2|Team 2.1|n1|e1@g|c1" + Const.EOL
+                + "Section 2|Team 2.2|n3|e3@g|c3" + Const.EOL
+                + "Section 3|Team 3.1|n5|e5@g|c5";
+        studentsLogic.enrollStudentsWithoutDocument(lines, courseId);
+        
+        verifyCourseStructureMatchesRoster(courseId);
+        assertEquals("[Team 1.1, Team 2.1, Team 2.2, Team 3.1]",
+                     coursesLogic.getTeamNamesForCourse(courseId).toString());
+        
+        ______TS("edit, registration and Google ID reset of a student");
+        
+        StudentAttributes student = studentsLogic.getStudentForEmail(courseId, "e2@g");
+        student.team = "Team 2.1";
+        student.section = "Section 2";
+        studentsLogic.updateStudentCascadeWithoutDocument(student.email, student);
+        verifyCourseStructureMatchesRoster(courseId);
+        assertEquals("[Section 2, Section 3]", coursesLogic.getSectionsNameForCourse(courseId).toString());
+        
+        student = studentsLogic.getStudentForEmail(courseId, "e4@g");
+        student.googleId = "structure.student4";
+        studentsLogic.updateStudentCascadeWithoutDocument(student.email, student);
+        verifyCourseStructureMatchesRoster(courseId);
+        assertEquals(4, coursesLogic.getTotalUnregisteredInCourse(courseId));
+        
+        studentsLogic.resetStudentGoogleId(student.email, courseId, false);
+        verifyCourseStructureMatchesRoster(courseId);
+        assertEquals(5, coursesLogic.getTotalUnregisteredInCourse(courseId));
+        
+        ______TS("creation and deletion of single students");
+        
+        studentsLogic.createStudentCascadeWithoutDocument(
+                new StudentAttributes("Section 3", "Team 3.1", "n6", "e6@g", "c6", courseId));
+        verifyCourseStructureMatchesRoster(courseId);
+        
+        studentsLogic.deleteStudentCascadeWithoutDocument(courseId, "e5@g");
+        studentsLogic.deleteStudentCascadeWithoutDocument(courseId, "e6@g");
+        verifyCourseStructureMatchesRoster(courseId);
+        assertEquals("[Section 2]", coursesLogic.getSectionsNameForCourse(courseId).toString());
+        
+        ______TS("structure not matching the roster is rebuilt");
+        
+        // a student written directly, without updating the structure
+        new StudentsDb().createStudentWithoutDocument(
+                new StudentAttributes("Section 4", "Team 4.1", "n7", "e7@g", "c7", courseId));
+        studentsLogic.deleteStudentCascadeWithoutDocument(courseId, "e7@g");
+        verifyCourseStructureMatchesRoster(courseId);
+        // a structure rebuilt from an eventually consistent roster query is not stored until the delayed task
+        assertNull(new CourseStructuresDb().getCourseStructure(courseId));
+        
+        // what the task does
+        assertTrue(studentsLogic.createCourseStructureFromRoster(courseId));
+        assertNotNull(new CourseStructuresDb().getCourseStructure(courseId));
+        verifyCourseStructureMatchesRoster(courseId);
+        
+        coursesLogic.deleteCourseCascade(courseId);
+        accountsLogic.deleteAccountCascade(instructorId);
+    }
+
+    private void verifyCourseStructureMatchesRoster(String courseId) {
+        CourseStructureAttributes expected =
+                CourseStructureAttributes.fromStudents(courseId, studentsLogic.getStudentsForCourse(courseId));
+        assertEquals(expected.getStructureAsJson(), studentsLogic.getCourseStructure(courseId).getStructureAsJson());
+    }
+
     private static StudentEnrollDetails enrollStudent(StudentAttributes student) throws Exception {
         return (StudentEnrollDetails) invokeMethod(StudentsLogic.class, "enrollStudent",
-                                                   new Class<?>[] { StudentAttributes.class, Boolean.class },
-                                                   StudentsLogic.inst(), new Object[] { student, false });
+                                                   new Class<?>[] { StudentAttributes.class, Boolean.class,
+                                                                    List.class, List.class },
+                                                   StudentsLogic.inst(),
+                                                   new Object[] { student, false, new ArrayList<StudentAttributes>(),
+                                                                  new ArrayList<StudentAttributes>() });
     }
     
     @SuppressWarnings("unchecked")
@@ -79,6 +79,41 @@ public class AccountsDbTest extends BaseComponentTestCase {
         deleteInstructorAccounts(numOfInstructors);
     }
     
+    @Test
+    public void testGetAccounts() throws Exception {
+        // more accounts than the datastore accepts in one "contains" filter
+        int numOfAccounts = 35;
+        createInstructorAccounts(numOfAccounts);
+
+        ______TS("typical success case, non-existent accounts are left out");
+
+        List<String> googleIds = new ArrayList<String>();
+        for (int i = 0; i < numOfAccounts; i++) {
+            googleIds.add("id." + i);
+        }
+        googleIds.add("non.existent");
+
+        List<AccountAttributes> retrieved = accountsDb.getAccounts(googleIds);
+        assertEquals(numOfAccounts, retrieved.size());
+        for (AccountAttributes aa : retrieved) {
+            assertTrue(googleIds.contains(aa.googleId));
+        }
+
+        ______TS("no googleIds");
+
+        assertTrue(accountsDb.getAccounts(new ArrayList<String>()).isEmpty());
+
+        ______TS("failure: null parameter");
+        try {
+            accountsDb.getAccounts(null);
+            signalFailureToDetectException(" - AssertionError");
+        } catch (AssertionError ae) {
+            assertEquals(Const.StatusCodes.DBLEVEL_NULL_INPUT, ae.getMessage());
+        }
+
+        deleteInstructorAccounts(numOfAccounts);
+    }
+
     private List<AccountAttributes> createInstructorAccounts(
             int numOfInstructors) throws Exception {
         AccountAttributes a;
@@ -0,0 +1,191 @@
+package teammates.test.cases.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.util.Const;
+import teammates.storage.search.EmbeddedSearchBackend;
+import teammates.storage.search.InstructorSearchQuery;
+import teammates.storage.search.StudentSearchQuery;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchQueryException;
+
+public class EmbeddedSearchBackendTest extends BaseComponentTestCase {
+
+    private static final String INDEX = "student";
+
+    private static File directory;
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        printTestClassHeader();
+        directory = File.createTempFile("EmbeddedSearchBackendTest", "");
+        directory.delete();
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        deleteRecursively(directory);
+    }
+
+    @Test
+    public void testSearch() {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend(null);
+        backend.putDocument(INDEX, createDocument("alice", "ESBT.CS1101",
+                                                  "ESBT.CS1101,Alice Betsy,alice.b@gmail.tmt,Team 1"));
+        backend.putDocument(INDEX, createDocument("bob", "ESBT.CS1101", "ESBT.CS1101,Bob Alice,bob@gmail.tmt,Team 2"));
+        backend.putDocument(INDEX, createDocument("carol", "ESBT.CS2103", "ESBT.CS2103,Carol Alice,carol@gmail.tmt,Team 1"));
+
+        ______TS("only documents of the instructor's courses are returned");
+
+        List<InstructorAttributes> instructors = Arrays.asList(
+                new InstructorAttributes("ESBT.instr", "ESBT.CS1101", "Instructor", "instr@gmail.tmt"));
+        assertEquals(Arrays.asList("alice", "bob"),
+                     search(backend, new StudentSearchQuery(instructors, "alice", "").toQuery()));
+
+        ______TS("documents with more occurrences of the keywords come first");
+
+        assertEquals(Arrays.asList("alice", "bob"),
+                     search(backend, new StudentSearchQuery(instructors, "alice team 1", "").toQuery()));
+
+        ______TS("quoted keywords are matched as a phrase");
+
+        assertEquals(Arrays.asList("bob"),
+                     search(backend, new StudentSearchQuery(instructors, "\"bob alice\"", "").toQuery()));
+        assertEquals(Arrays.asList("alice"),
+                     search(backend, new StudentSearchQuery(instructors, "alice.b@gmail.tmt", "").toQuery()));
+
+        ______TS("queries without visibility restriction search all courses");
+
+        assertEquals(Arrays.asList("alice", "carol"),
+                     search(backend, new InstructorSearchQuery("\"team 1\"", "").toQuery()));
+
+        ______TS("NOT and comparisons");
+
+        backend.putDocument(INDEX, Document.newBuilder().setId("dated")
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.CREATED_DATE).setDate(new Date(0)))
+                .build());
+        assertEquals(Arrays.asList("alice", "carol"),
+                     search(backend, Query.newBuilder().build("team NOT bob")));
+        assertEquals(Arrays.asList("dated"),
+                     search(backend, Query.newBuilder().build("1969-12-31 < createdDate AND createdDate <= 1970-01-01")));
+        assertTrue(search(backend, Query.newBuilder().build("createdDate > 1970-01-01")).isEmpty());
+
+        ______TS("deleted and replaced documents");
+
+        backend.deleteDocuments(INDEX, "bob", "dated");
+        backend.putDocument(INDEX, createDocument("carol", "ESBT.CS1101", "ESBT.CS1101,Carol Tan,carol@gmail.tmt,Team 3"));
+        assertEquals(Arrays.asList("alice", "carol"),
+                     search(backend, new StudentSearchQuery(instructors, "alice carol", "").toQuery()));
+        assertNull(backend.getDocument(INDEX, "bob"));
+        assertEquals("ESBT.CS1101", backend.getDocument(INDEX, "carol")
+                                           .getOnlyField(Const.SearchDocumentField.COURSE_ID).getText());
+
+        ______TS("invalid query");
+
+        try {
+            search(backend, Query.newBuilder().build("courseId:(ESBT.CS1101"));
+            signalFailureToDetectException();
+        } catch (SearchQueryException e) {
+            ignoreExpectedException();
+        }
+    }
+
+    @Test
+    public void testPaging() {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend(null);
+        for (int i = 0; i < 45; i++) {
+            backend.putDocument(INDEX, createDocument(String.format("student%02d", i), "ESBT.paging",
+                                                     "ESBT.paging,Student " + i));
+        }
+
+        List<String> ids = new ArrayList<String>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            Results<ScoredDocument> results =
+                    backend.searchDocuments(INDEX, new InstructorSearchQuery("student", cursor).toQuery());
+            assertEquals(45, results.getNumberFound());
+            for (ScoredDocument document : results) {
+                ids.add(document.getId());
+            }
+            cursor = results.getCursor() == null ? null : results.getCursor().toWebSafeString();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(45, ids.size());
+        assertEquals("student00", ids.get(0));
+        assertEquals("student44", ids.get(44));
+    }
+
+    @Test
+    public void testPersistence() throws Exception {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend(directory);
+        for (int i = 0; i < 20; i++) {
+            backend.putDocument(INDEX, createDocument("persisted" + i, "ESBT.persist",
+                                                      "ESBT.persist,Persisted élève " + i));
+        }
+        backend.deleteDocuments(INDEX, "persisted0");
+
+        ______TS("index is reloaded from its segments");
+
+        EmbeddedSearchBackend reloadedBackend = new EmbeddedSearchBackend(directory);
+        assertEquals(19, reloadedBackend.getDocumentCount(INDEX));
+        assertNull(reloadedBackend.getDocument(INDEX, "persisted0"));
+        assertEquals(Arrays.asList("persisted1"),
+                     search(reloadedBackend, new InstructorSearchQuery("\"élève 1\"", "").toQuery()));
+
+        ______TS("compaction keeps only the live documents");
+
+        reloadedBackend.compact(INDEX);
+        assertEquals(1, reloadedBackend.getSegmentCount(INDEX));
+        reloadedBackend.putDocument(INDEX, createDocument("persisted20", "ESBT.persist", "ESBT.persist,Persisted 20"));
+
+        EmbeddedSearchBackend compactedBackend = new EmbeddedSearchBackend(directory);
+        assertEquals(20, compactedBackend.getDocumentCount(INDEX));
+        assertEquals(Arrays.asList("persisted20"),
+                     search(compactedBackend, new InstructorSearchQuery("20", "").toQuery()));
+    }
+
+    private static Document createDocument(String id, String courseId, String searchableText) {
+        return Document.newBuilder().setId(id)
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.COURSE_ID).setText(courseId))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT).setText(searchableText))
+                .setRank(0)
+                .build();
+    }
+
+    private static List<String> search(EmbeddedSearchBackend backend, Query query) {
+        List<String> ids = new ArrayList<String>();
+        for (ScoredDocument document : backend.searchDocuments(INDEX, query)) {
+            ids.add(document.getId());
+        }
+        return ids;
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+}
@@ -1,6 +1,7 @@
 package teammates.test.cases.storage;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -13,6 +14,7 @@ import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseDetails;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.datatransfer.FeedbackTextResponseDetails;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -621,6 +623,93 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
                 feedbackSessionName, "non-existent courseId", 1).isEmpty());
     }
 
+    @Test
+    public void testGetFeedbackResponsesForSessionPage() {
+
+        ______TS("standard success case: page through all responses");
+
+        String courseId = fras.get("response1ForQ1S1C1").courseId;
+        String feedbackSessionName = fras.get("response1ForQ1S1C1").feedbackSessionName;
+        List<FeedbackResponseAttributes> allResponses =
+                frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId);
+
+        Set<String> pagedResponseIds = new HashSet<String>();
+        int numberOfPages = 0;
+        String pageToken = null;
+        do {
+            FeedbackResponsesPage page =
+                    frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, pageToken, 2);
+            assertTrue(page.responses.size() <= 2);
+            for (FeedbackResponseAttributes response : page.responses) {
+                assertTrue(pagedResponseIds.add(response.getId()));
+            }
+            pageToken = page.nextPageToken;
+            numberOfPages++;
+        } while (pageToken != null);
+
+        assertEquals(allResponses.size(), pagedResponseIds.size());
+        // a full page always has a next page, which is empty after the last full page
+        assertEquals(allResponses.size() / 2 + 1, numberOfPages);
+
+        ______TS("page size covering all responses");
+
+        FeedbackResponsesPage page = frDb.getFeedbackResponsesForSessionPage(
+                feedbackSessionName, courseId, null, allResponses.size() + 1);
+        assertEquals(allResponses.size(), page.responses.size());
+        assertTrue(page.isLastPage());
+
+        ______TS("page size equal to the number of responses: empty last page");
+
+        page = frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, null, allResponses.size());
+        assertEquals(allResponses.size(), page.responses.size());
+        assertFalse(page.isLastPage());
+        page = frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, page.nextPageToken,
+                                                       allResponses.size());
+        assertTrue(page.responses.isEmpty());
+        assertTrue(page.isLastPage());
+
+        ______TS("in section");
+
+        List<FeedbackResponseAttributes> responsesInSection =
+                frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, "Section 1");
+        page = frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, "Section 1",
+                                                                null, responsesInSection.size() - 1);
+        assertEquals(responsesInSection.size() - 1, page.responses.size());
+        assertFalse(page.isLastPage());
+        page = frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, "Section 1",
+                                                                page.nextPageToken, responsesInSection.size());
+        assertEquals(1, page.responses.size());
+        assertTrue(page.isLastPage());
+
+        ______TS("invalid page token: first page");
+
+        page = frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, "not-a-cursor",
+                                                       allResponses.size());
+        assertEquals(allResponses.size(), page.responses.size());
+
+        ______TS("null params");
+
+        try {
+            frDb.getFeedbackResponsesForSessionPage(null, courseId, null, 5);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+
+        try {
+            frDb.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, null, null, 5);
+            signalFailureToDetectException();
+        } catch (AssertionError e) {
+            AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
+        }
+
+        ______TS("non-existent feedback session");
+
+        page = frDb.getFeedbackResponsesForSessionPage("non-existent feedback session", courseId, null, 1);
+        assertTrue(page.responses.isEmpty());
+        assertTrue(page.isLastPage());
+    }
+
     @Test
     public void testGetFeedbackResponsesForSessionInSection() {
 
@@ -818,7 +907,23 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
                                                     modifiedResponse.giver,
                                                     modifiedResponse.recipient);
         assertEquals("New answer text!", modifiedResponse.getResponseDetails().getAnswerString());
-        
+
+        ______TS("change of section is reflected in section queries");
+
+        String originalGiverSection = modifiedResponse.giverSection;
+        modifiedResponse.giverSection = "Section 3";
+        frDb.updateFeedbackResponse(modifiedResponse);
+
+        List<FeedbackResponseAttributes> responsesInSection =
+                frDb.getFeedbackResponsesForSessionInSection(modifiedResponse.feedbackSessionName,
+                                                             modifiedResponse.courseId, "Section 3");
+        assertEquals(1, responsesInSection.size());
+        assertEquals(modifiedResponse.getId(), responsesInSection.get(0).getId());
+
+        modifiedResponse.giverSection = originalGiverSection;
+        frDb.updateFeedbackResponse(modifiedResponse);
+        assertTrue(frDb.getFeedbackResponsesForSessionInSection(modifiedResponse.feedbackSessionName,
+                                                                modifiedResponse.courseId, "Section 3").isEmpty());
     }
     
     private FeedbackResponseAttributes getNewFeedbackResponseAttributes() {
@@ -11,11 +11,13 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
 import teammates.common.util.FieldValidator;
+import teammates.common.util.GoogleCloudStorageHelper;
 import teammates.storage.api.AccountsDb;
 import teammates.storage.api.EntitiesDb;
 import teammates.storage.api.ProfilesDb;
 import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
+import teammates.test.util.FileHelper;
 
 import com.google.appengine.api.blobstore.BlobKey;
 
@@ -153,6 +155,7 @@ public class ProfilesDbTest extends BaseComponentTestCase {
         // success test cases
         testUpdateProfilePictureSuccessInitiallyEmpty(a);
         testUpdateProfilePictureSuccessSamePictureKey(a);
+        testUpdateProfilePictureSuccessWithThumbnail(a);
     }
 
     private void testUpdateProfilePictureWithNullParameters()
@@ -226,6 +229,33 @@ public class ProfilesDbTest extends BaseComponentTestCase {
         ______TS("update picture key - same key; does nothing");
         profilesDb.updateStudentProfilePicture(a.googleId, a.studentProfile.pictureKey);
     }
+
+    private void testUpdateProfilePictureSuccessWithThumbnail(
+            AccountAttributes a) throws IOException, EntityDoesNotExistException {
+        ______TS("update picture key and thumbnail key; old picture deleted");
+        String oldPictureKey = a.studentProfile.pictureKey;
+        String newPictureKey = uploadDefaultPictureForProfile(a.googleId);
+        String newThumbnailKey = GoogleCloudStorageHelper.writeImageThumbnailToGcs(
+                a.googleId, FileHelper.readFileAsBytes("src/test/resources/images/not_a_picture.txt"));
+        profilesDb.updateStudentProfilePicture(a.googleId, newPictureKey, newThumbnailKey);
+
+        StudentProfileAttributes updatedProfile = profilesDb.getStudentProfile(a.googleId);
+        assertEquals(newPictureKey, updatedProfile.pictureKey);
+        assertEquals(newThumbnailKey, updatedProfile.pictureThumbnailKey);
+        assertEquals(newThumbnailKey, updatedProfile.getPictureKeyForListing());
+        assertFalse(doesFileExistInGcs(new BlobKey(oldPictureKey)));
+
+        ______TS("update picture key only; old picture and thumbnail deleted");
+        a.studentProfile.pictureKey = uploadDefaultPictureForProfile(a.googleId);
+        profilesDb.updateStudentProfilePicture(a.googleId, a.studentProfile.pictureKey);
+
+        updatedProfile = profilesDb.getStudentProfile(a.googleId);
+        assertEquals(a.studentProfile.pictureKey, updatedProfile.pictureKey);
+        assertEquals("", updatedProfile.pictureThumbnailKey);
+        assertEquals(a.studentProfile.pictureKey, updatedProfile.getPictureKeyForListing());
+        assertFalse(doesFileExistInGcs(new BlobKey(newPictureKey)));
+        assertFalse(doesFileExistInGcs(new BlobKey(newThumbnailKey)));
+    }
     
     @Test
     public void testDeleteProfilePicture() throws Exception {
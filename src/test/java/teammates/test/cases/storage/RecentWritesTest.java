@@ -0,0 +1,129 @@
+package teammates.test.cases.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.datastore.RecentWrites;
+import teammates.storage.datastore.RecentWrites.RecentWrite;
+import teammates.storage.entity.Course;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class RecentWritesTest extends BaseComponentTestCase {
+
+    private CoursesDb coursesDb = new CoursesDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        RecentWrites.endScope();
+    }
+
+    @Test
+    public void testWritesOutsideScope() throws Exception {
+        CourseAttributes course = new CourseAttributes("RWT.outsideScope", "Recent Writes Course", "UTC");
+        coursesDb.createEntity(course);
+
+        assertTrue(RecentWrites.endScope().isEmpty());
+        assertNull(RecentWrites.resolve(CourseAttributes.class, course.getId(), null));
+
+        coursesDb.deleteCourse(course.getId());
+    }
+
+    @Test
+    public void testWritesInScope() throws Exception {
+        CourseAttributes course = new CourseAttributes("RWT.inScope", "Recent Writes Course", "UTC");
+
+        ______TS("created entity is served when the query misses it");
+
+        RecentWrites.beginScope(null);
+        coursesDb.createEntity(course);
+        Course createdCourse = RecentWrites.resolve(CourseAttributes.class, course.getId(), null);
+        assertEquals(course.getId(), createdCourse.getUniqueId());
+
+        ______TS("writes are carried over to the next scope of the same session");
+
+        HashMap<String, RecentWrite> writes = serializeAndDeserialize(RecentWrites.endScope());
+        assertEquals(1, writes.size());
+
+        RecentWrites.beginScope(writes);
+        createdCourse = RecentWrites.resolve(CourseAttributes.class, course.getId(), null);
+        assertEquals(course.getId(), createdCourse.getUniqueId());
+
+        ______TS("deleted entity is not served even if the query still returns it");
+
+        Course staleCourse = createdCourse;
+        coursesDb.deleteEntity(course);
+        assertNull(RecentWrites.resolve(CourseAttributes.class, course.getId(), staleCourse));
+        assertNull(coursesDb.getCourse(course.getId()));
+
+        ______TS("entities that were not written recently are not affected");
+
+        assertNull(RecentWrites.resolve(CourseAttributes.class, "RWT.otherCourse", null));
+        assertEquals(staleCourse, RecentWrites.resolve(CourseAttributes.class, "RWT.otherCourse", staleCourse));
+    }
+
+    @Test
+    public void testWritesInScopeForListQueries() throws Exception {
+        CourseAttributes course = new CourseAttributes("RWT.listQuery", "Recent Writes Course", "UTC");
+        RecentWrites.QueryFilter<Course> filter = new RecentWrites.QueryFilter<Course>() {
+            @Override
+            public boolean matches(Course entity) {
+                return entity.getUniqueId().startsWith("RWT.list");
+            }
+        };
+
+        ______TS("created entity is added when the query misses it");
+
+        RecentWrites.beginScope(null);
+        coursesDb.createEntity(course);
+        List<Course> courses = RecentWrites.resolveAll(CourseAttributes.class, new ArrayList<Course>(), filter);
+        assertEquals(1, courses.size());
+        assertEquals(course.getId(), courses.get(0).getUniqueId());
+
+        ______TS("created entity is not added twice, nor when it does not match the query");
+
+        assertEquals(courses, RecentWrites.resolveAll(CourseAttributes.class, courses, filter));
+        RecentWrites.QueryFilter<Course> otherFilter = new RecentWrites.QueryFilter<Course>() {
+            @Override
+            public boolean matches(Course entity) {
+                return false;
+            }
+        };
+        assertTrue(RecentWrites.resolveAll(CourseAttributes.class, new ArrayList<Course>(), otherFilter).isEmpty());
+
+        ______TS("deleted entity is removed even if the query still returns it");
+
+        Course staleCourse = courses.get(0);
+        coursesDb.deleteEntity(course);
+        assertTrue(RecentWrites.resolveAll(CourseAttributes.class, Arrays.asList(staleCourse), filter).isEmpty());
+        assertTrue(coursesDb.getCourses(Arrays.asList(course.getId())).isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HashMap<String, RecentWrite> serializeAndDeserialize(HashMap<String, RecentWrite> writes)
+            throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(writes);
+        out.close();
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        return (HashMap<String, RecentWrite>) in.readObject();
+    }
+
+}
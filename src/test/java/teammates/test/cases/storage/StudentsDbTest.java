@@ -3,6 +3,10 @@ package teammates.test.cases.storage;
 import static teammates.common.util.FieldValidator.COURSE_ID_ERROR_MESSAGE;
 import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
@@ -161,6 +165,17 @@ public class StudentsDbTest extends BaseComponentTestCase {
                 || studentsDb.getStudentsForCourse(s.course).get(0).isEnrollInfoSameAs(s2));
         assertTrue(studentsDb.getStudentsForTeam(s.team, s.course).get(0).isEnrollInfoSameAs(s));
         
+        List<String> emailsInTeams = new ArrayList<String>();
+        for (StudentAttributes student
+                : studentsDb.getStudentsForTeams(s.course, Arrays.asList(s.team, s2.team, "non-existent team"))) {
+            assertTrue(student.team.equals(s.team) || student.team.equals(s2.team));
+            emailsInTeams.add(student.email);
+        }
+        assertTrue(emailsInTeams.contains(s.email));
+        assertTrue(emailsInTeams.contains(s2.email));
+        assertTrue(studentsDb.getStudentsForTeams(s.course, Arrays.asList(s.team)).get(0).isEnrollInfoSameAs(s));
+        assertTrue(studentsDb.getStudentsForTeams(s.course, new ArrayList<String>()).isEmpty());
+        
         
         ______TS("null params case");
         try {
@@ -0,0 +1,287 @@
+package teammates.test.cases.ui;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.test.cases.BaseTestCase;
+import teammates.test.driver.TestProperties;
+import teammates.test.util.FileHelper;
+import teammates.ui.controller.CompressionFilter;
+
+import com.meterware.httpunit.GetMethodWebRequest;
+import com.meterware.servletunit.InvocationContext;
+import com.meterware.servletunit.ServletRunner;
+
+public class CompressionFilterTest extends BaseTestCase {
+
+    private static final String LARGE_RESULTS_PAGE = "/instructorFeedbackResultsAddComment.html";
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
+
+    private static CompressionFilter filter = new CompressionFilter();
+    private static byte[] largePage;
+
+    @BeforeClass
+    public static void classSetUp() throws IOException {
+        printTestClassHeader();
+        filter.init(new TestFilterConfig());
+        largePage = FileHelper.readFileAsBytes(TestProperties.TEST_PAGES_FOLDER + LARGE_RESULTS_PAGE);
+    }
+
+    @Test
+    public void testLargePage() throws Exception {
+
+        ______TS("gzip accepted: bytes on the wire reduced");
+
+        TestResponse response = sendThroughFilter("gzip, deflate", HTML_CONTENT_TYPE, largePage, false);
+
+        assertEquals("gzip", response.headers.get("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.headers.get("Vary"));
+        byte[] wire = response.body.toByteArray();
+        print("  results page: " + largePage.length + " bytes, sent as " + wire.length + " bytes with gzip");
+        assertTrue(wire.length * 4 < largePage.length);
+        assertArrayEqualsAsString(largePage, readFully(new GZIPInputStream(new ByteArrayInputStream(wire))));
+
+        ______TS("only deflate accepted");
+
+        response = sendThroughFilter("deflate, gzip;q=0", HTML_CONTENT_TYPE, largePage, false);
+
+        assertEquals("deflate", response.headers.get("Content-Encoding"));
+        wire = response.body.toByteArray();
+        print("  results page: " + largePage.length + " bytes, sent as " + wire.length + " bytes with deflate");
+        assertTrue(wire.length * 4 < largePage.length);
+        assertArrayEqualsAsString(largePage, readFully(new InflaterInputStream(new ByteArrayInputStream(wire))));
+
+        ______TS("no compression accepted: sent as is");
+
+        response = sendThroughFilter(null, HTML_CONTENT_TYPE, largePage, false);
+
+        assertNull(response.headers.get("Content-Encoding"));
+        assertArrayEqualsAsString(largePage, response.body.toByteArray());
+
+        response = sendThroughFilter("identity", HTML_CONTENT_TYPE, largePage, false);
+
+        assertNull(response.headers.get("Content-Encoding"));
+        assertArrayEqualsAsString(largePage, response.body.toByteArray());
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+
+        ______TS("compressed output is sent as it is flushed, not at the end");
+
+        TestResponse response = sendThroughFilter("gzip", HTML_CONTENT_TYPE, largePage, true);
+
+        assertEquals("gzip", response.headers.get("Content-Encoding"));
+        assertTrue(response.bytesSentBeforeEnd > 0);
+        assertTrue(response.bytesSentBeforeEnd < response.body.size());
+        assertArrayEqualsAsString(largePage,
+                                  readFully(new GZIPInputStream(new ByteArrayInputStream(response.body.toByteArray()))));
+    }
+
+    @Test
+    public void testResponsesNotCompressed() throws Exception {
+
+        ______TS("short response: sent as is");
+
+        byte[] shortJson = "{\"isError\":false}".getBytes(Const.SystemParams.ENCODING);
+        TestResponse response = sendThroughFilter("gzip", "application/json", shortJson, false);
+
+        assertNull(response.headers.get("Content-Encoding"));
+        assertArrayEqualsAsString(shortJson, response.body.toByteArray());
+
+        ______TS("image: sent as is");
+
+        response = sendThroughFilter("gzip", "image/png", largePage, false);
+
+        assertNull(response.headers.get("Content-Encoding"));
+        assertNull(response.headers.get("Vary"));
+        assertArrayEqualsAsString(largePage, response.body.toByteArray());
+    }
+
+    private static TestResponse sendThroughFilter(String acceptEncoding, final String contentType,
+                                                  final byte[] content, final boolean isFlushedInParts)
+            throws IOException, ServletException {
+        InvocationContext ic = new ServletRunner().newClient().newInvocation(
+                new GetMethodWebRequest("http://localhost:8888" + Const.ActionURIs.INSTRUCTOR_FEEDBACK_RESULTS_PAGE));
+        HttpServletRequest request = new TestRequest(ic.getRequest(), acceptEncoding);
+        final TestResponse response = new TestResponse(ic.getResponse());
+
+        filter.doFilter(request, response, new FilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse resp) throws IOException {
+                resp.setContentType(contentType);
+                ServletOutputStream out = resp.getOutputStream();
+                if (isFlushedInParts) {
+                    int half = content.length / 2;
+                    out.write(content, 0, half);
+                    out.flush();
+                    response.bytesSentBeforeEnd = response.body.size();
+                    out.write(content, half, content.length - half);
+                } else {
+                    out.write(content);
+                }
+            }
+        });
+        return response;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read = in.read(buffer);
+        while (read != -1) {
+            out.write(buffer, 0, read);
+            read = in.read(buffer);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+
+    private static void assertArrayEqualsAsString(byte[] expected, byte[] actual) throws IOException {
+        assertEquals(new String(expected, Const.SystemParams.ENCODING), new String(actual, Const.SystemParams.ENCODING));
+    }
+
+    private static class TestFilterConfig implements FilterConfig {
+
+        private final Map<String, String> params = new HashMap<String, String>();
+
+        TestFilterConfig() {
+            params.put("minCompressSize", "1024");
+        }
+
+        @Override
+        public String getFilterName() {
+            return "CompressionFilter";
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return null;
+        }
+
+        @Override
+        public String getInitParameter(String name) {
+            return params.get(name);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Enumeration getInitParameterNames() {
+            return Collections.enumeration(params.keySet());
+        }
+
+    }
+
+    private static class TestRequest extends HttpServletRequestWrapper {
+
+        private final String acceptEncoding;
+
+        TestRequest(HttpServletRequest request, String acceptEncoding) {
+            super(request);
+            this.acceptEncoding = acceptEncoding;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return "Accept-Encoding".equalsIgnoreCase(name) ? acceptEncoding : super.getHeader(name);
+        }
+
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+    }
+
+    /**
+     * Records what is sent on the wire, i.e. the headers and the bytes of the body.
+     */
+    private static class TestResponse extends HttpServletResponseWrapper {
+
+        Map<String, String> headers = new HashMap<String, String>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int bytesSentBeforeEnd = -1;
+        private String contentType;
+
+        TestResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setContentType(String type) {
+            contentType = type;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return Const.SystemParams.ENCODING;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            headers.put(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            headers.put(name, value);
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            headers.put("Content-Length", Integer.toString(length));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+            };
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return new PrintWriter(getOutputStream());
+        }
+
+        @Override
+        public void flushBuffer() {
+            // nothing buffered
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package teammates.test.driver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.ApiConfig;
+import com.google.apphosting.api.ApiProxy.ApiProxyException;
+import com.google.apphosting.api.ApiProxy.Delegate;
+import com.google.apphosting.api.ApiProxy.Environment;
+import com.google.apphosting.api.ApiProxy.LogRecord;
+
+/**
+ * Counts the calls made to the datastore of the GAE simulation, by the name of the datastore method
+ * (e.g. {@code RunQuery}, {@code Get}, {@code Put}), from {@link #start()} until {@link #stop()}.
+ */
+public final class DatastoreCallCounter implements Delegate<Environment> {
+
+    private static final String DATASTORE_PACKAGE = "datastore_v3";
+
+    private final Delegate<Environment> delegate;
+    private final Map<String, Integer> callsByMethod = new HashMap<String, Integer>();
+
+    private DatastoreCallCounter(Delegate<Environment> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Starts counting the datastore calls made from now on.
+     */
+    public static DatastoreCallCounter start() {
+        @SuppressWarnings("unchecked")
+        Delegate<Environment> delegate = ApiProxy.getDelegate();
+        DatastoreCallCounter counter = new DatastoreCallCounter(delegate);
+        ApiProxy.setDelegate(counter);
+        return counter;
+    }
+
+    /**
+     * Stops counting; the counts so far remain available.
+     */
+    public void stop() {
+        ApiProxy.setDelegate(delegate);
+    }
+
+    /**
+     * @return the number of calls made to the given datastore method
+     */
+    public synchronized int getCount(String methodName) {
+        Integer count = callsByMethod.get(methodName);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return the number of queries run and entities read by key, i.e. the round trips that read data.
+     *         Fetching further results of a query that has already run is not counted.
+     */
+    public int getReadCount() {
+        return getCount("RunQuery") + getCount("Get");
+    }
+
+    private synchronized void count(String packageName, String methodName) {
+        if (DATASTORE_PACKAGE.equals(packageName)) {
+            callsByMethod.put(methodName, getCount(methodName) + 1);
+        }
+    }
+
+    @Override
+    public byte[] makeSyncCall(Environment environment, String packageName, String methodName, byte[] request)
+            throws ApiProxyException {
+        count(packageName, methodName);
+        return delegate.makeSyncCall(environment, packageName, methodName, request);
+    }
+
+    @Override
+    public Future<byte[]> makeAsyncCall(Environment environment, String packageName, String methodName,
+                                        byte[] request, ApiConfig apiConfig) {
+        count(packageName, methodName);
+        return delegate.makeAsyncCall(environment, packageName, methodName, request, apiConfig);
+    }
+
+    @Override
+    public void log(Environment environment, LogRecord record) {
+        delegate.log(environment, record);
+    }
+
+    @Override
+    public void flushLogs(Environment environment) {
+        delegate.flushLogs(environment);
+    }
+
+    @Override
+    public List<Thread> getRequestThreads(Environment environment) {
+        return delegate.getRequestThreads(environment);
+    }
+
+}
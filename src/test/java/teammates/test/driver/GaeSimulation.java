@@ -17,6 +17,7 @@ import teammates.ui.controller.Action;
 import teammates.ui.controller.ActionFactory;
 
 import com.google.appengine.api.taskqueue.dev.LocalTaskQueueCallback;
+import com.google.appengine.tools.development.testing.LocalBlobstoreServiceTestConfig;
 import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
 import com.google.appengine.tools.development.testing.LocalMailServiceTestConfig;
 import com.google.appengine.tools.development.testing.LocalSearchServiceTestConfig;
@@ -59,7 +60,11 @@ public class GaeSimulation {
         LocalMailServiceTestConfig localMail = new LocalMailServiceTestConfig();
         LocalSearchServiceTestConfig localSearch = new LocalSearchServiceTestConfig();
         localSearch.setPersistent(false);
-        helper = new LocalServiceTestHelper(localDatastore, localMail, localUserServices, localTasks, localSearch);
+        // also backs the Google Cloud Storage client, which stores its files as blobs when run locally
+        LocalBlobstoreServiceTestConfig localBlobstore = new LocalBlobstoreServiceTestConfig();
+        localBlobstore.setNoStorage(true);
+        helper = new LocalServiceTestHelper(localDatastore, localMail, localUserServices, localTasks, localSearch,
+                                            localBlobstore);
         helper.setUp();
         
         Datastore.initialize();
@@ -81,7 +86,11 @@ public class GaeSimulation {
         LocalMailServiceTestConfig localMail = new LocalMailServiceTestConfig();
         LocalSearchServiceTestConfig localSearch = new LocalSearchServiceTestConfig();
         localSearch.setPersistent(false);
-        helper = new LocalServiceTestHelper(localDatastore, localMail, localUserServices, localTasks, localSearch);
+        // also backs the Google Cloud Storage client, which stores its files as blobs when run locally
+        LocalBlobstoreServiceTestConfig localBlobstore = new LocalBlobstoreServiceTestConfig();
+        localBlobstore.setNoStorage(true);
+        helper = new LocalServiceTestHelper(localDatastore, localMail, localUserServices, localTasks, localSearch,
+                                            localBlobstore);
         helper.setUp();
         
         Datastore.initialize();
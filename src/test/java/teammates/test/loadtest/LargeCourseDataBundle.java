@@ -0,0 +1,193 @@
+package teammates.test.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackNumericalScaleQuestionDetails;
+import teammates.common.datatransfer.FeedbackNumericalScaleResponseDetails;
+import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackQuestionDetails;
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseDetails;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.FeedbackSessionType;
+import teammates.common.datatransfer.FeedbackTextQuestionDetails;
+import teammates.common.datatransfer.FeedbackTextResponseDetails;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Generates one course with one open session at a {@link LargeCourseScale}, to be persisted
+ * with the back door.<br>
+ * The questions alternate between text and numerical scale questions, all answered by each student
+ * about the other members of their team. Which students have responded is drawn with a fixed seed,
+ * so the data depends only on the scale and runs of the scenarios on different commits are comparable.
+ */
+public final class LargeCourseDataBundle {
+
+    public static final String COURSE_ID = "loadtest.course";
+    public static final String SESSION_NAME = "Load Test Session";
+    public static final String INSTRUCTOR_GOOGLE_ID = "loadtest.instr";
+    public static final String INSTRUCTOR_EMAIL = "instructor@loadtest.tmt";
+
+    private static final long SEED = 20170101L;
+    private static final long START_TIME_MILLIS = 1483228800000L; // 1 Jan 2017
+    private static final long END_TIME_MILLIS = 4102358400000L; // 31 Dec 2099
+
+    public final LargeCourseScale scale;
+    public final DataBundle dataBundle = new DataBundle();
+    /** The students in the order generated. */
+    public final List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+    /** The students who have not responded yet, in the order generated. */
+    public final List<StudentAttributes> studentsWithoutResponses = new ArrayList<StudentAttributes>();
+
+    private LargeCourseDataBundle(LargeCourseScale scale) {
+        this.scale = scale;
+    }
+
+    public static LargeCourseDataBundle generate(LargeCourseScale scale) {
+        LargeCourseDataBundle course = new LargeCourseDataBundle(scale);
+        DataBundle dataBundle = course.dataBundle;
+        Date startTime = new Date(START_TIME_MILLIS);
+        Date endTime = new Date(END_TIME_MILLIS);
+
+        dataBundle.courses.put(COURSE_ID, new CourseAttributes(COURSE_ID, "Load Test Course", "UTC"));
+        dataBundle.instructors.put("instructor", new InstructorAttributes(INSTRUCTOR_GOOGLE_ID, COURSE_ID,
+                                                                          "Load Test Instructor", INSTRUCTOR_EMAIL));
+        dataBundle.feedbackSessions.put("session", new FeedbackSessionAttributes(
+                SESSION_NAME, COURSE_ID, INSTRUCTOR_EMAIL, new Text("Give feedback on your team members."),
+                startTime, startTime, endTime, startTime, endTime, 0, 15, FeedbackSessionType.STANDARD,
+                true, false, false, false, true, true, true));
+
+        for (int i = 0; i < scale.students; i++) {
+            StudentAttributes student = new StudentAttributes(
+                    "Section " + i / scale.sectionSize, "Team " + i / scale.teamSize, "Student " + i + " Name",
+                    "student" + i + "@loadtest.tmt", "", COURSE_ID);
+            course.students.add(student);
+            dataBundle.students.put("student" + i, student);
+        }
+
+        for (int number = 1; number <= scale.questions; number++) {
+            dataBundle.feedbackQuestions.put("question" + number, createQuestion(number));
+        }
+
+        // the same number of students respond for a given density, whatever the number of questions
+        List<StudentAttributes> shuffledStudents = new ArrayList<StudentAttributes>(course.students);
+        Collections.shuffle(shuffledStudents, new Random(SEED));
+        Set<StudentAttributes> respondents = new HashSet<StudentAttributes>(
+                shuffledStudents.subList(0, (int) Math.round(scale.responseDensity * scale.students)));
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < scale.students; i++) {
+            StudentAttributes giver = course.students.get(i);
+            if (!respondents.contains(giver)) {
+                course.studentsWithoutResponses.add(giver);
+                continue;
+            }
+            for (FeedbackQuestionAttributes question : dataBundle.feedbackQuestions.values()) {
+                for (StudentAttributes recipient : course.getTeamMembers(i)) {
+                    FeedbackResponseAttributes response =
+                            createResponse(question, giver, recipient.email, 1 + random.nextInt(5));
+                    dataBundle.feedbackResponses.put(question.questionNumber + "%" + giver.email + "%"
+                                                     + recipient.email, response);
+                }
+            }
+        }
+
+        return course;
+    }
+
+    /**
+     * @return the students of the team of {@code student}, other than {@code student}
+     */
+    public List<StudentAttributes> getTeamMembers(StudentAttributes student) {
+        return getTeamMembers(students.indexOf(student));
+    }
+
+    private List<StudentAttributes> getTeamMembers(int index) {
+        int teamStart = index / scale.teamSize * scale.teamSize;
+        List<StudentAttributes> teamMembers = new ArrayList<StudentAttributes>();
+        for (int i = teamStart; i < Math.min(teamStart + scale.teamSize, students.size()); i++) {
+            if (i != index) {
+                teamMembers.add(students.get(i));
+            }
+        }
+        return teamMembers;
+    }
+
+    /**
+     * Creates a response of {@code giver} to {@code question}, which is of the session of the course
+     * and has been persisted if its id is set.
+     * @param rating the rating for a numerical scale question, from 1 to 5
+     */
+    public static FeedbackResponseAttributes createResponse(FeedbackQuestionAttributes question,
+                                                            StudentAttributes giver, String recipientEmail,
+                                                            int rating) {
+        // responses in a data bundle refer to their question by its number
+        String questionId = question.getId() == null ? Integer.toString(question.questionNumber) : question.getId();
+        // team members are in the same section
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes(
+                SESSION_NAME, COURSE_ID, questionId, question.questionType,
+                giver.email, giver.section, recipientEmail, giver.section, new Text(""));
+
+        FeedbackResponseDetails details;
+        if (question.questionType == FeedbackQuestionType.NUMSCALE) {
+            details = new FeedbackNumericalScaleResponseDetails();
+            details.extractResponseDetails(FeedbackQuestionType.NUMSCALE, question.getQuestionDetails(),
+                                           new String[] {Integer.toString(rating)});
+        } else {
+            details = new FeedbackTextResponseDetails(giver.name + " says that " + recipientEmail
+                                                      + " contributed well to the team project.");
+        }
+        response.setResponseDetails(details);
+        return response;
+    }
+
+    private static FeedbackQuestionAttributes createQuestion(int questionNumber) {
+        FeedbackQuestionType questionType;
+        FeedbackQuestionDetails details;
+        if (questionNumber % 2 == 0) {
+            questionType = FeedbackQuestionType.NUMSCALE;
+            FeedbackNumericalScaleQuestionDetails numscaleDetails = new FeedbackNumericalScaleQuestionDetails();
+            numscaleDetails.setQuestionText("Question " + questionNumber
+                                            + ": rate the contribution of your team member");
+            details = numscaleDetails;
+        } else {
+            questionType = FeedbackQuestionType.TEXT;
+            details = new FeedbackTextQuestionDetails("Question " + questionNumber
+                                                      + ": comment on the work of your team member");
+        }
+
+        List<FeedbackParticipantType> visibleTo = new ArrayList<FeedbackParticipantType>();
+        visibleTo.add(FeedbackParticipantType.INSTRUCTORS);
+        visibleTo.add(FeedbackParticipantType.RECEIVER);
+
+        FeedbackQuestionAttributes question = new FeedbackQuestionAttributes();
+        question.feedbackSessionName = SESSION_NAME;
+        question.courseId = COURSE_ID;
+        question.creatorEmail = INSTRUCTOR_EMAIL;
+        question.questionNumber = questionNumber;
+        question.questionType = questionType;
+        question.setQuestionDetails(details);
+        question.giverType = FeedbackParticipantType.STUDENTS;
+        question.recipientType = FeedbackParticipantType.OWN_TEAM_MEMBERS;
+        question.numberOfEntitiesToGiveFeedbackTo = Const.MAX_POSSIBLE_RECIPIENTS;
+        question.showResponsesTo = visibleTo;
+        question.showGiverNameTo = new ArrayList<FeedbackParticipantType>(visibleTo);
+        question.showRecipientNameTo = new ArrayList<FeedbackParticipantType>(visibleTo);
+        return question;
+    }
+
+}
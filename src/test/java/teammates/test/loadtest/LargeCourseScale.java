@@ -0,0 +1,82 @@
+package teammates.test.loadtest;
+
+/**
+ * The size of the course generated by {@link LargeCourseDataBundle}, written as
+ * {@code students=1000,teamSize=5,sectionSize=100,questions=4,responseDensity=0.8}.
+ * Omitted values take their defaults, which are those of the example.
+ */
+public final class LargeCourseScale {
+
+    public final int students;
+    public final int teamSize;
+    /** Number of students per section; at most 100, as in enrollment. */
+    public final int sectionSize;
+    public final int questions;
+    /** Fraction of the students who have submitted their responses. */
+    public final double responseDensity;
+
+    public LargeCourseScale(int students, int teamSize, int sectionSize, int questions, double responseDensity) {
+        if (students < 1 || teamSize < 2 || sectionSize < teamSize || sectionSize > 100 || questions < 1
+                || responseDensity < 0 || responseDensity > 1) {
+            throw new IllegalArgumentException("Invalid course scale: " + format(students, teamSize, sectionSize,
+                                                                                 questions, responseDensity));
+        }
+        this.students = students;
+        this.teamSize = teamSize;
+        // a team has to be in a single section
+        this.sectionSize = sectionSize / teamSize * teamSize;
+        this.questions = questions;
+        this.responseDensity = responseDensity;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the scale is not in the format given in the class description
+     */
+    public static LargeCourseScale fromString(String scale) {
+        int students = 1000;
+        int teamSize = 5;
+        int sectionSize = 100;
+        int questions = 4;
+        double responseDensity = 0.8;
+
+        for (String value : scale.trim().isEmpty() ? new String[0] : scale.split(",")) {
+            String[] pair = value.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid course scale: " + scale);
+            }
+            String number = pair[1].trim();
+            switch (pair[0].trim()) {
+            case "students":
+                students = Integer.parseInt(number);
+                break;
+            case "teamSize":
+                teamSize = Integer.parseInt(number);
+                break;
+            case "sectionSize":
+                sectionSize = Integer.parseInt(number);
+                break;
+            case "questions":
+                questions = Integer.parseInt(number);
+                break;
+            case "responseDensity":
+                responseDensity = Double.parseDouble(number);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown course scale value: " + pair[0]);
+            }
+        }
+        return new LargeCourseScale(students, teamSize, sectionSize, questions, responseDensity);
+    }
+
+    @Override
+    public String toString() {
+        return format(students, teamSize, sectionSize, questions, responseDensity);
+    }
+
+    private static String format(int students, int teamSize, int sectionSize, int questions,
+                                 double responseDensity) {
+        return "students=" + students + ",teamSize=" + teamSize + ",sectionSize=" + sectionSize
+               + ",questions=" + questions + ",responseDensity=" + responseDensity;
+    }
+
+}
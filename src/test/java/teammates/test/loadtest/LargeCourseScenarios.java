@@ -0,0 +1,144 @@
+package teammates.test.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.exception.ExceedingRangeException;
+import teammates.common.util.Const;
+import teammates.logic.api.Logic;
+import teammates.logic.core.FeedbackSessionsLogic;
+
+/**
+ * The scenarios run on a {@link LargeCourseDataBundle}, each doing what the matching action does
+ * through the logic layer:
+ * <ul>
+ * <li>enroll: an instructor enrolls a new team in a new section</li>
+ * <li>submit: a student opens the session and submits responses to all questions</li>
+ * <li>viewResults: an instructor loads the results of the session</li>
+ * <li>exportCsv: an instructor downloads the results as CSV, by section if there are too many
+ *     responses for a single file</li>
+ * <li>remind: an instructor reminds the students who have not submitted, including the work of
+ *     the task queue worker that generates the emails</li>
+ * </ul>
+ * Enroll and submit change the course, so the later runs of a scenario (and later scenarios) see
+ * a slightly larger course than the first.
+ */
+public final class LargeCourseScenarios {
+
+    private static final Logic logic = new Logic();
+
+    private LargeCourseScenarios() {
+        // utility class
+    }
+
+    public static List<LoadScenario> create(final LargeCourseDataBundle course) {
+        List<LoadScenario> scenarios = new ArrayList<LoadScenario>();
+
+        scenarios.add(new LoadScenario() {
+            @Override
+            public String getName() {
+                return "enroll";
+            }
+
+            @Override
+            public void run(int run) throws Exception {
+                StringBuilder enrollLines = new StringBuilder("Section | Team | Name | Email | Comment");
+                for (int i = 0; i < course.scale.teamSize; i++) {
+                    enrollLines.append(Const.EOL + "Enrolled Section " + run + " | Enrolled Team " + run
+                                       + " | Enrolled Student " + run + "." + i
+                                       + " | enrolled" + run + "." + i + "@loadtest.tmt | ");
+                }
+                logic.enrollStudents(enrollLines.toString(), LargeCourseDataBundle.COURSE_ID);
+            }
+        });
+
+        scenarios.add(new LoadScenario() {
+            @Override
+            public String getName() {
+                return "submit";
+            }
+
+            @Override
+            public void run(int run) throws Exception {
+                // students who have not responded yet, if any; otherwise their responses are updated
+                List<StudentAttributes> givers = course.studentsWithoutResponses.isEmpty()
+                                               ? course.students
+                                               : course.studentsWithoutResponses;
+                StudentAttributes giver = givers.get(run % givers.size());
+
+                FeedbackSessionQuestionsBundle bundle = logic.getFeedbackSessionQuestionsBundleForStudent(
+                        LargeCourseDataBundle.SESSION_NAME, LargeCourseDataBundle.COURSE_ID, giver.email);
+                for (FeedbackQuestionAttributes question : bundle.questionResponseBundle.keySet()) {
+                    Map<String, String> recipients = bundle.recipientList.get(question.getId());
+                    int rating = 1;
+                    for (String recipientEmail : recipients.keySet()) {
+                        logic.createFeedbackResponse(
+                                LargeCourseDataBundle.createResponse(question, giver, recipientEmail, rating));
+                        rating = rating % 5 + 1;
+                    }
+                }
+                logic.addStudentRespondent(giver.email, LargeCourseDataBundle.SESSION_NAME,
+                                           LargeCourseDataBundle.COURSE_ID);
+            }
+        });
+
+        scenarios.add(new LoadScenario() {
+            @Override
+            public String getName() {
+                return "viewResults";
+            }
+
+            @Override
+            public void run(int run) throws Exception {
+                logic.getFeedbackSessionResultsForInstructor(LargeCourseDataBundle.SESSION_NAME,
+                                                             LargeCourseDataBundle.COURSE_ID,
+                                                             LargeCourseDataBundle.INSTRUCTOR_EMAIL);
+            }
+        });
+
+        scenarios.add(new LoadScenario() {
+            @Override
+            public String getName() {
+                return "exportCsv";
+            }
+
+            @Override
+            public void run(int run) throws Exception {
+                try {
+                    logic.getFeedbackSessionResultSummaryAsCsv(
+                            LargeCourseDataBundle.COURSE_ID, LargeCourseDataBundle.SESSION_NAME,
+                            LargeCourseDataBundle.INSTRUCTOR_EMAIL, null, true, true);
+                } catch (ExceedingRangeException e) {
+                    for (String section : logic.getSectionNamesForCourse(LargeCourseDataBundle.COURSE_ID)) {
+                        logic.getFeedbackSessionResultSummaryInSectionAsCsv(
+                                LargeCourseDataBundle.COURSE_ID, LargeCourseDataBundle.SESSION_NAME,
+                                LargeCourseDataBundle.INSTRUCTOR_EMAIL, section, null, true, true);
+                    }
+                }
+            }
+        });
+
+        scenarios.add(new LoadScenario() {
+            @Override
+            public String getName() {
+                return "remind";
+            }
+
+            @Override
+            public void run(int run) throws Exception {
+                logic.sendReminderForFeedbackSession(LargeCourseDataBundle.COURSE_ID,
+                                                     LargeCourseDataBundle.SESSION_NAME);
+                // what the worker of the task queue does
+                FeedbackSessionsLogic.inst().sendReminderForFeedbackSession(LargeCourseDataBundle.COURSE_ID,
+                                                                            LargeCourseDataBundle.SESSION_NAME);
+            }
+        });
+
+        return scenarios;
+    }
+
+}
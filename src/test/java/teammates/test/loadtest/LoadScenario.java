@@ -0,0 +1,17 @@
+package teammates.test.loadtest;
+
+/**
+ * A scripted use of the logic layer whose latency and datastore costs are measured by
+ * {@link LoadScenarioRunner}, e.g. an instructor viewing the results of a session.
+ */
+public interface LoadScenario {
+
+    String getName();
+
+    /**
+     * Runs the scenario once, as one request would.
+     * @param run the number of the run, from 0; runs may use it to work on different data each time
+     */
+    void run(int run) throws Exception;
+
+}
@@ -0,0 +1,173 @@
+package teammates.test.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import teammates.common.util.JsonUtils;
+import teammates.common.util.RequestCosts;
+import teammates.logic.backdoor.BackDoorLogic;
+import teammates.storage.datastore.RecentWrites;
+import teammates.test.driver.GaeSimulation;
+import teammates.test.util.FileHelper;
+
+/**
+ * Runs the {@link LargeCourseScenarios} on a course generated at a given scale, in the simulated
+ * GAE environment, and reports the latency and the service calls of each scenario.<br>
+ * Each run is wrapped as the controller wraps a request, so the costs are those recorded in the
+ * activity log. The latency is measured against the local service stubs: it can be compared between
+ * runs of different commits on the same machine, not with the latency in production.
+ * <p>
+ * Usage: {@code LoadScenarioRunner <scale> <iterations> <warmups> <result file> <revision>},
+ * where the scale is as in {@link LargeCourseScale} and the results are written as JSON.
+ * Use the Gradle task {@code loadScenarios} rather than running this directly.
+ */
+public final class LoadScenarioRunner {
+
+    private LoadScenarioRunner() {
+        // utility class
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 5) {
+            throw new IllegalArgumentException(
+                    "Usage: LoadScenarioRunner <scale> <iterations> <warmups> <result file> <revision>");
+        }
+        LargeCourseScale scale = LargeCourseScale.fromString(args[0]);
+        int iterations = Integer.parseInt(args[1]);
+        int warmups = Integer.parseInt(args[2]);
+        if (iterations < 1 || warmups < 0) {
+            throw new IllegalArgumentException("At least one iteration is needed, and no negative number of warmups");
+        }
+
+        // the logic logs every email and task, which would dominate the time taken
+        Logger.getLogger("").setLevel(Level.WARNING);
+
+        GaeSimulation gaeSimulation = GaeSimulation.inst();
+        gaeSimulation.setup();
+        try {
+            System.out.println("Generating course: " + scale);
+            LargeCourseDataBundle course = LargeCourseDataBundle.generate(scale);
+            new BackDoorLogic().persistDataBundle(course.dataBundle);
+
+            LoadResults results = new LoadResults(args[4], scale.toString(), iterations);
+            int run = 0;
+            for (LoadScenario scenario : LargeCourseScenarios.create(course)) {
+                for (int i = 0; i < warmups; i++) {
+                    runOnce(scenario, run++);
+                }
+                ScenarioResult result = new ScenarioResult(scenario.getName());
+                for (int i = 0; i < iterations; i++) {
+                    long startTime = System.nanoTime();
+                    RequestCosts costs = runOnce(scenario, run++);
+                    result.add((System.nanoTime() - startTime) / 1000000.0, costs);
+                }
+                result.summarise(iterations);
+                results.scenarios.add(result);
+            }
+
+            printResults(results);
+            FileHelper.saveFile(args[3], JsonUtils.toJson(results));
+            System.out.println("Results saved to " + args[3]);
+        } finally {
+            gaeSimulation.tearDown();
+        }
+    }
+
+    private static RequestCosts runOnce(LoadScenario scenario, int run) throws Exception {
+        RecentWrites.beginScope(null);
+        RequestCosts.beginScope();
+        try {
+            scenario.run(run);
+        } finally {
+            RecentWrites.endScope();
+        }
+        return RequestCosts.endScope();
+    }
+
+    private static void printResults(LoadResults results) {
+        System.out.println(String.format("%-12s %12s %12s %10s %8s %10s %8s %9s %10s %10s",
+                                         "scenario", "median(ms)", "max(ms)", "datastore", "search",
+                                         "taskqueue", "mail", "urlfetch", "reads", "writes"));
+        for (ScenarioResult result : results.scenarios) {
+            System.out.println(String.format("%-12s %12.1f %12.1f %10.1f %8.1f %10.1f %8.1f %9.1f %10.1f %10.1f",
+                                             result.name, result.medianMillis, result.maxMillis,
+                                             result.datastoreCalls, result.searchCalls, result.taskQueueCalls,
+                                             result.mailCalls, result.urlFetchCalls, result.entitiesRead,
+                                             result.entitiesWritten));
+        }
+    }
+
+    /**
+     * The results of one invocation, as saved in the result file.
+     */
+    private static class LoadResults {
+
+        String revision;
+        String scale;
+        int iterations;
+        List<ScenarioResult> scenarios = new ArrayList<ScenarioResult>();
+
+        LoadResults(String revision, String scale, int iterations) {
+            this.revision = revision;
+            this.scale = scale;
+            this.iterations = iterations;
+        }
+
+    }
+
+    /**
+     * The latency of the runs of a scenario, and the mean of their costs.
+     */
+    private static class ScenarioResult {
+
+        String name;
+        double medianMillis;
+        double maxMillis;
+        double datastoreCalls;
+        double searchCalls;
+        double taskQueueCalls;
+        double mailCalls;
+        double urlFetchCalls;
+        double entitiesRead;
+        double entitiesWritten;
+        // not saved; the summary above is
+        transient List<Double> millis = new ArrayList<Double>();
+
+        ScenarioResult(String name) {
+            this.name = name;
+        }
+
+        void add(double timeTakenInMillis, RequestCosts costs) {
+            millis.add(timeTakenInMillis);
+            datastoreCalls += costs.getCalls(RequestCosts.DATASTORE);
+            searchCalls += costs.getCalls(RequestCosts.SEARCH);
+            taskQueueCalls += costs.getCalls(RequestCosts.TASK_QUEUE);
+            mailCalls += costs.getCalls(RequestCosts.MAIL);
+            urlFetchCalls += costs.getCalls(RequestCosts.URL_FETCH);
+            entitiesRead += costs.getEntitiesRead();
+            entitiesWritten += costs.getEntitiesWritten();
+        }
+
+        void summarise(int iterations) {
+            Double[] sorted = millis.toArray(new Double[millis.size()]);
+            Arrays.sort(sorted);
+            medianMillis = sorted.length % 2 == 1
+                         ? sorted[sorted.length / 2]
+                         : (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+            maxMillis = Collections.max(millis);
+            datastoreCalls /= iterations;
+            searchCalls /= iterations;
+            taskQueueCalls /= iterations;
+            mailCalls /= iterations;
+            urlFetchCalls /= iterations;
+            entitiesRead /= iterations;
+            entitiesWritten /= iterations;
+        }
+
+    }
+
+}